@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.analytics;
+
+import java.util.function.Supplier;
+
+/**
+ * Priority class of analytics queries, used to admit queries of users waiting for a response
+ * before those of integrations and background jobs when the database is busy.
+ */
+public enum AnalyticsQueryPriority {
+  /** Queries of users waiting for the response, e.g. when viewing a dashboard. */
+  INTERACTIVE,
+
+  /** Queries of API clients, data exchanges, push analyses and other background jobs. */
+  BACKGROUND;
+
+  private static final ThreadLocal<AnalyticsQueryPriority> CURRENT = new ThreadLocal<>();
+
+  /**
+   * Runs the given work with this priority for the analytics queries it issues on the current
+   * thread.
+   *
+   * @param work the work to run.
+   * @return the result of the work.
+   */
+  public <T> T call(Supplier<T> work) {
+    AnalyticsQueryPriority previous = CURRENT.get();
+    CURRENT.set(this);
+
+    try {
+      return work.get();
+    } finally {
+      if (previous == null) {
+        CURRENT.remove();
+      } else {
+        CURRENT.set(previous);
+      }
+    }
+  }
+
+  /**
+   * Runs the given work with this priority for the analytics queries it issues on the current
+   * thread.
+   *
+   * @param work the work to run.
+   */
+  public void run(Runnable work) {
+    call(
+        () -> {
+          work.run();
+          return null;
+        });
+  }
+
+  /**
+   * @return the priority set for the current thread, or null if none was set.
+   */
+  public static AnalyticsQueryPriority current() {
+    return CURRENT.get();
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.appmanager;
+
+import java.util.regex.Pattern;
+import javax.annotation.CheckForNull;
+
+/**
+ * A file of an installed app held in memory for serving, together with its compressed variants and
+ * a strong entity tag derived from a hash of its content.
+ *
+ * @param filename the name of the file, used to determine its content type.
+ * @param content the uncompressed content.
+ * @param gzipContent the gzip encoded content, or null if compression does not reduce its size.
+ * @param brotliContent the brotli encoded content shipped with the app as a {@code .br} file, or
+ *     null if the app does not include one.
+ * @param hash the hex encoded SHA-256 hash of the uncompressed content.
+ * @param lastModified the last modified time in milliseconds, or 0 if unknown.
+ */
+public record AppAsset(
+    String filename,
+    byte[] content,
+    @CheckForNull byte[] gzipContent,
+    @CheckForNull byte[] brotliContent,
+    String hash,
+    long lastModified) {
+
+  /**
+   * Matches file names carrying a content hash of at least 8 hex characters, as produced by the
+   * common app bundlers, e.g. {@code main.3f2a1b4c.js} or {@code vendor-8e1f0c2d9a.css}. The hash
+   * must contain both a digit and a hex letter, so that date stamped names such as {@code
+   * report-20240101.json}, whose content may change, are not taken for hashed ones.
+   */
+  private static final Pattern HASHED_FILENAME =
+      Pattern.compile(".*[.-](?=[0-9a-f]*[0-9])(?=[0-9a-f]*[a-f])[0-9a-f]{8,}\\.[A-Za-z0-9]+$");
+
+  /**
+   * Indicates whether the file name carries a content hash, meaning that the content of the file
+   * never changes for this name and can be cached by clients indefinitely.
+   *
+   * @return true if the file name is hashed.
+   */
+  public boolean isImmutable() {
+    return HASHED_FILENAME.matcher(filename).matches();
+  }
+
+  /**
+   * Returns the strong entity tag of the given representation of this asset. Each content encoding
+   * has its own tag as the encoded bytes differ.
+   *
+   * @param encoding the content encoding, or null for the uncompressed content.
+   * @return the quoted entity tag.
+   */
+  public String getETag(@CheckForNull String encoding) {
+    return encoding == null ? "\"" + hash + "\"" : "\"" + hash + "-" + encoding + "\"";
+  }
+
+  /**
+   * Returns the number of bytes this asset occupies in memory.
+   *
+   * @return the size in bytes.
+   */
+  public int getWeight() {
+    return content.length
+        + (gzipContent == null ? 0 : gzipContent.length)
+        + (brotliContent == null ? 0 : brotliContent.length);
+  }
+}
@@ -207,6 +207,17 @@ public interface AppManager {
    */
   Resource getAppResource(App app, String pageName) throws IOException;
 
+  /**
+   * Returns the file associated with the app and pageName from the in-memory asset cache, loading
+   * it into the cache if not present.
+   *
+   * @param app the app to look up files for
+   * @param pageName the page requested
+   * @return the cached asset, or null if the file was not found or cannot be cached, in which case
+   *     the file should be served from {@link #getAppResource(App, String)}
+   */
+  AppAsset getAppAsset(App app, String pageName) throws IOException;
+
   /**
    * Sets the app status to DELETION_IN_PROGRESS.
    *
@@ -29,6 +29,7 @@ package org.hisp.dhis.appmanager;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 import org.hisp.dhis.cache.Cache;
 import org.springframework.core.io.Resource;
@@ -79,4 +80,15 @@ public interface AppStorageService {
    * @return The resource representing the page, or null if not found
    */
   Resource getAppResource(App app, String pageName) throws IOException;
+
+  /**
+   * Lists the paths of all files of the given app, relative to the app folder. Used to fill the app
+   * asset cache in advance; storage services which cannot list files return an empty list.
+   *
+   * @param app the app to list files for
+   * @return the paths of the files of the app
+   */
+  default List<String> getAppResourcePaths(App app) {
+    return List.of();
+  }
 }
@@ -126,6 +126,15 @@ public interface Cache<V> {
    */
   void invalidate(String key);
 
+  /**
+   * Discards the cached value for the {@code key} if and only if it is equal to the given value.
+   *
+   * @param key the key whose mapping is to be removed from the cache
+   * @param value the value expected to be mapped to the key
+   * @return true, if the value was removed, false otherwise
+   */
+  boolean invalidateIfEquals(String key, V value);
+
   /** Discards all entries in this cache instance. */
   void invalidateAll();
 
@@ -45,14 +45,20 @@ public interface CacheProvider {
 
   <V> Cache<V> createAnalyticsCache();
 
+  <V> Cache<V> createAnalyticsTileCache();
+
   <V> Cache<V> createOutliersCache();
 
+  <V> Cache<V> createAnalyticsLeaseCache(Duration leaseTime);
+
   <V> Cache<V> createDefaultObjectCache();
 
   <V> Cache<V> createIsDataApprovedCache();
 
   <V> Cache<V> createAllConstantsCache();
 
+  <V> Cache<V> createCompiledExpressionCache();
+
   <V> Cache<V> createInUserOrgUnitHierarchyCache();
 
   <V> Cache<V> createInUserViewOrgUnitHierarchyCache();
@@ -130,7 +136,5 @@ public interface CacheProvider {
 
   <V> Cache<V> createSecurityCache();
 
-  <V> Cache<V> createDataIntegritySummaryCache();
-
-  <V> Cache<V> createDataIntegrityDetailsCache();
+  <V> Cache<V> createHttpBasicCredentialCache(Duration expirationTime);
 }
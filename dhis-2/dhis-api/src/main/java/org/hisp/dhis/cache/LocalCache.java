@@ -143,6 +143,11 @@ public class LocalCache<V> implements Cache<V> {
     cache2kInstance.remove(key);
   }
 
+  @Override
+  public boolean invalidateIfEquals(String key, V value) {
+    return cache2kInstance.removeIfEquals(key, value);
+  }
+
   @Override
   public void invalidateAll() {
     cache2kInstance.removeAll();
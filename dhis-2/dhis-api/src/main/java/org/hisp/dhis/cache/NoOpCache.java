@@ -113,6 +113,12 @@ public class NoOpCache<V> implements Cache<V> {
     // No operation
   }
 
+  @Override
+  public boolean invalidateIfEquals(String key, V value) {
+    // No operation
+    return false;
+  }
+
   @Override
   public void invalidateAll() {
     // No operation
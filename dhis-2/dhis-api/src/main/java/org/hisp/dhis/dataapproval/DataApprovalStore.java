@@ -76,6 +76,27 @@ public interface DataApprovalStore {
    */
   void deleteDataApprovals(OrganisationUnit organisationUnit);
 
+  /**
+   * Recomputes the approval state of the given organisation units from their DataApprovals. To be
+   * called after DataApprovals were changed without going through this store.
+   *
+   * @param organisationUnits the organisation units.
+   */
+  void refreshDataApprovalStates(Collection<OrganisationUnit> organisationUnits);
+
+  /**
+   * Recomputes the approval state of the given workflow from its DataApprovals, e.g. after approval
+   * levels were added to or removed from the workflow.
+   *
+   * @param workflow the workflow.
+   */
+  void refreshDataApprovalStates(DataApprovalWorkflow workflow);
+
+  /**
+   * Recomputes the approval state of all DataApprovals, e.g. after approval levels were reordered.
+   */
+  void refreshDataApprovalStates();
+
   /**
    * Returns the DataApproval object (if any) matching the properties of a (non-Hibernate)
    * DataApproval object.
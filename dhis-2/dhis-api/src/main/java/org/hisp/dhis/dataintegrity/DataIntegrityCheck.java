@@ -76,7 +76,7 @@ public final class DataIntegrityCheck implements Serializable {
   private long executionTime;
   private int executionCount;
 
-  public @JsonProperty Long getAverageExecutionTime() {
+  public synchronized @JsonProperty Long getAverageExecutionTime() {
     return executionTime <= 0L ? null : executionTime / executionCount;
   }
 
@@ -96,7 +96,7 @@ public final class DataIntegrityCheck implements Serializable {
 
   private final transient Function<DataIntegrityCheck, DataIntegrityDetails> runDetailsCheck;
 
-  public DataIntegrityCheck addExecution(long time) {
+  public synchronized DataIntegrityCheck addExecution(long time) {
     executionCount++;
     executionTime += time;
     return this;
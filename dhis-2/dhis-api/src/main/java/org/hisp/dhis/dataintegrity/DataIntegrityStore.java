@@ -27,6 +27,11 @@
  */
 package org.hisp.dhis.dataintegrity;
 
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import org.hisp.dhis.scheduling.parameters.DataIntegrityJobParameters.DataIntegrityReportType;
+
 /**
  * Database support for running data integrity checks.
  *
@@ -52,4 +57,59 @@ public interface DataIntegrityStore {
    * @return the mapped details
    */
   DataIntegrityDetails queryDetails(DataIntegrityCheck check, String sql);
+
+  /**
+   * Persists the given summary as the latest summary result of its check and clears the running
+   * state of the check.
+   *
+   * @param summary the summary to persist
+   */
+  void saveSummary(DataIntegritySummary summary);
+
+  /**
+   * Persists the given details as the latest details result of its check and clears the running
+   * state of the check.
+   *
+   * @param details the details to persist
+   */
+  void saveDetails(DataIntegrityDetails details);
+
+  /**
+   * Returns the latest persisted summary results of the given checks. Results finished more than
+   * an hour ago have expired and are treated as missing.
+   *
+   * @param checks the checks to fetch results for
+   * @return the summaries by check name, checks that did not complete yet are absent
+   */
+  Map<String, DataIntegritySummary> getSummaries(Collection<DataIntegrityCheck> checks);
+
+  /**
+   * Returns the latest persisted details results of the given checks. Results finished more than
+   * an hour ago have expired and are treated as missing.
+   *
+   * @param checks the checks to fetch results for
+   * @return the details by check name, checks that did not complete yet are absent
+   */
+  Map<String, DataIntegrityDetails> getDetails(Collection<DataIntegrityCheck> checks);
+
+  /**
+   * Marks the given checks as running or no longer running.
+   *
+   * @param type {@link DataIntegrityReportType#SUMMARY} or {@link DataIntegrityReportType#DETAILS}
+   * @param checks names of the checks
+   * @param running true to mark the checks as running, false to clear the running state
+   */
+  void setRunning(DataIntegrityReportType type, Collection<String> checks, boolean running);
+
+  /**
+   * @param type {@link DataIntegrityReportType#SUMMARY} or {@link DataIntegrityReportType#DETAILS}
+   * @return names of the checks currently running on any server
+   */
+  Set<String> getRunningChecks(DataIntegrityReportType type);
+
+  /**
+   * @param type {@link DataIntegrityReportType#SUMMARY} or {@link DataIntegrityReportType#DETAILS}
+   * @return names of the checks which have a persisted result that has not expired yet
+   */
+  Set<String> getCompletedChecks(DataIntegrityReportType type);
 }
@@ -38,6 +38,14 @@ import org.hisp.dhis.common.GenericStore;
  * @author Julie Hill Roa
  */
 public interface DataStatisticsEventStore extends GenericStore<DataStatisticsEvent> {
+  /**
+   * Saves the given events using multi-row inserts. Does not require a transaction and does not
+   * set the identifiers of the given events.
+   *
+   * @param events the events to save.
+   */
+  void saveEvents(List<DataStatisticsEvent> events);
+
   /**
    * Method for retrieving aggregated event count data.
    *
@@ -46,6 +46,14 @@ public interface DataStatisticsService {
    */
   int addEvent(DataStatisticsEvent event);
 
+  /**
+   * Records a DataStatistics event without writing it to the database immediately. Buffered events
+   * are written in batches and are included in the next data statistics snapshot.
+   *
+   * @param event object to be recorded
+   */
+  void recordEvent(DataStatisticsEvent event);
+
   /**
    * Gets number of saved events from a start date to an end date.
    *
@@ -438,6 +438,9 @@ public enum ErrorCode {
   E7144(
       "Query failed because a referenced table does not exist. Please ensure analytics job was run"),
   E7145("Query failed because of a syntax error"),
+  E7146(
+      "Too many concurrent analytics queries, query could not be started within `{0}` seconds. Please try again later"),
+  E7147("Analytics query was cancelled while waiting to be started"),
 
   /* Analytics outliers */
 
@@ -488,6 +491,7 @@ public enum ErrorCode {
   E7236("Program stage '{0}' is not associated to program '{0}'"),
   E7237("Sorting must have a valid dimension and a direction"),
   E7238("Sorting dimension ‘{0}’ is not a column"),
+  E7239("Vector tile is invalid, zoom must be between 0 and `{1}`: `{0}`"),
 
   /* TE analytics */
   E7250("Dimension is not a fully qualified: `{0}`"),
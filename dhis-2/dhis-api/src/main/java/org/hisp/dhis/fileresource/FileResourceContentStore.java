@@ -69,6 +69,18 @@ public interface FileResourceContentStore {
   @CheckForNull
   String saveFileResourceContent(@Nonnull FileResource fileResource, @Nonnull byte[] bytes);
 
+  /**
+   * Save the contents of the input stream to the file store without buffering it in memory. The
+   * stream is not closed.
+   *
+   * @param fileResource the FileResource object. Must be complete and include the storageKey,
+   *     contentLength and name.
+   * @param content the content stream, providing exactly contentLength bytes.
+   * @return the key on success or null if saving failed.
+   */
+  @CheckForNull
+  String saveFileResourceContent(@Nonnull FileResource fileResource, @Nonnull InputStream content);
+
   /**
    * Save the contents of the File to the file store.
    *
@@ -121,6 +133,17 @@ public interface FileResourceContentStore {
    */
   void copyContent(String key, OutputStream output) throws IOException, NoSuchElementException;
 
+  /**
+   * Copies a byte range of the resource stored under key to the output stream.
+   *
+   * @param key the key used to store a resource
+   * @param output the output stream to copy the range into
+   * @param offset the position of the first byte to copy
+   * @param length the number of bytes to copy
+   */
+  void copyContent(String key, OutputStream output, long offset, long length)
+      throws IOException, NoSuchElementException;
+
   /**
    * Copies the content of the resource stored under key to the byte array.
    *
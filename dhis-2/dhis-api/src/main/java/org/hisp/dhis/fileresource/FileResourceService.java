@@ -126,6 +126,11 @@ public interface FileResourceService {
   void copyFileResourceContent(FileResource fileResource, OutputStream outputStream)
       throws IOException, NoSuchElementException;
 
+  /** Copy a byte range of the fileResource content to outputStream */
+  void copyFileResourceContent(
+      FileResource fileResource, OutputStream outputStream, long offset, long length)
+      throws IOException, NoSuchElementException;
+
   /** Copy fileResource content to a byte array */
   byte[] copyFileResourceContent(FileResource fileResource)
       throws IOException, NoSuchElementException;
@@ -48,6 +48,9 @@ public class MetadataVersion extends BaseIdentifiableObject implements Serializa
 
   private String hashCode;
 
+  /** Indicates whether the snapshot of this version holds all metadata rather than a delta. */
+  private boolean checkpoint;
+
   public MetadataVersion() {}
 
   public MetadataVersion(String name, VersionType type) {
@@ -90,6 +93,16 @@ public class MetadataVersion extends BaseIdentifiableObject implements Serializa
     this.hashCode = hashCode;
   }
 
+  @JsonProperty
+  @JacksonXmlProperty(namespace = DxfNamespaces.DXF_2_0)
+  public boolean isCheckpoint() {
+    return checkpoint;
+  }
+
+  public void setCheckpoint(boolean checkpoint) {
+    this.checkpoint = checkpoint;
+  }
+
   @JsonProperty
   @JacksonXmlProperty(namespace = DxfNamespaces.DXF_2_0)
   public String getName() {
@@ -109,6 +122,8 @@ public class MetadataVersion extends BaseIdentifiableObject implements Serializa
         + ", hashCode='"
         + hashCode
         + '\''
+        + ", checkpoint="
+        + checkpoint
         + '}';
   }
 }
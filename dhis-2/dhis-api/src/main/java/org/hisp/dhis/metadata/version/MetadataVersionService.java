@@ -92,6 +92,11 @@ public interface MetadataVersionService {
    */
   MetadataVersion getInitialVersion();
 
+  /**
+   * @return latest MetadataVersion whose snapshot holds all metadata, or null if there is none
+   */
+  MetadataVersion getLatestCheckpoint();
+
   /**
    * Gets all versions between two data ranges on the created date.
    *
@@ -133,6 +138,14 @@ public interface MetadataVersionService {
    */
   String getVersionData(String versionName);
 
+  /**
+   * Gets the Version data as GZIP compressed JSON snapshot given the version name.
+   *
+   * @param versionName the version name.
+   * @return GZIP compressed JSON data for the version snapshot, or null if there is none.
+   */
+  byte[] getCompressedVersionData(String versionName);
+
   /**
    * Creates an entry in the DataStore given the MetadataVersion details.
    *
@@ -73,4 +73,11 @@ public interface MetadataVersionStore extends GenericStore<MetadataVersion> {
    * @return Initial/First MetadataVersion of the system
    */
   MetadataVersion getInitialVersion();
+
+  /**
+   * Gets the latest version whose snapshot holds all metadata.
+   *
+   * @return the latest checkpoint version, or null if there is none.
+   */
+  MetadataVersion getLatestCheckpoint();
 }
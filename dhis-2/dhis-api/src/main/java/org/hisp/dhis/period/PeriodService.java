@@ -64,13 +64,35 @@ public interface PeriodService {
   Period getPeriod(long id);
 
   /**
-   * Gets the Period with the given ISO period identifier.
+   * Gets the Period with the given ISO period identifier. The returned Period is bound to the
+   * current session, so it can be persisted or referenced by other entities. Callers which only
+   * read the period should use {@link #getRegisteredPeriod(String)}.
    *
    * @param isoPeriod the ISO period identifier.
    * @return the Period with the given ISO period identifier.
    */
   Period getPeriod(String isoPeriod);
 
+  /**
+   * Gets the stored Period with the given id from the in-memory period registry, falling back to
+   * the database for periods not yet registered. The returned Period is detached and holds only
+   * the id, period type and dates of the stored Period.
+   *
+   * @param id the id of the Period to return.
+   * @return the Period with the given id, or null if no match.
+   */
+  Period getRegisteredPeriod(long id);
+
+  /**
+   * Gets the stored Period with the given ISO period identifier from the in-memory period
+   * registry, falling back to the database for periods not yet registered. The returned Period is
+   * detached and holds only the id, period type and dates of the stored Period.
+   *
+   * @param isoPeriod the ISO period identifier.
+   * @return the Period with the given ISO period identifier, or null if no match.
+   */
+  Period getRegisteredPeriod(String isoPeriod);
+
   /**
    * Returns a Period.
    *
@@ -207,6 +229,15 @@ public interface PeriodService {
    */
   Period reloadPeriod(Period period);
 
+  /**
+   * Gets the stored Period with the given ISO period identifier from the in-memory period
+   * registry. Periods which are not stored are added in a separate stateless session, so that they
+   * can be referenced by data values written outside of the current session. The returned Period
+   * is detached.
+   *
+   * @param isoPeriod the ISO period identifier.
+   * @return the Period with the given ISO period identifier, or null if the identifier is invalid.
+   */
   Period reloadIsoPeriodInStatelessSession(String isoPeriod);
 
   /**
@@ -35,5 +35,28 @@ import java.util.List;
 public interface SequentialNumberCounterStore {
   List<Integer> getNextValues(String uid, String key, int length);
 
+  /**
+   * Leases a block of sequential values for the given owner and key by incrementing the counter
+   * in a single statement, committed in a separate transaction.
+   *
+   * @param uid the owner uid.
+   * @param key the key.
+   * @param size the number of values in the block.
+   * @return the first value of the leased block.
+   */
+  int leaseBlock(String uid, String key, int size);
+
+  /**
+   * Returns the unused tail of a leased block by resetting the counter to the start of the tail,
+   * provided that no other block has been leased for the owner and key since.
+   *
+   * @param uid the owner uid.
+   * @param key the key.
+   * @param from the first unused value of the block.
+   * @param to the value following the last value of the block.
+   * @return true if the tail was returned, false otherwise.
+   */
+  boolean returnBlock(String uid, String key, int from, int to);
+
   void deleteCounter(String uid);
 }
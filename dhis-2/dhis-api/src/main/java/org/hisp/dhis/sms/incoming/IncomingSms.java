@@ -64,6 +64,9 @@ public class IncomingSms extends BaseIdentifiableObject implements Serializable
 
   private boolean parsed = false;
 
+  /** When the message was claimed for processing by a node. */
+  private Date claimed;
+
   public IncomingSms() {
     setAutoFields();
   }
@@ -176,4 +179,12 @@ public class IncomingSms extends BaseIdentifiableObject implements Serializable
   public void setParsed(boolean parsed) {
     this.parsed = parsed;
   }
+
+  public Date getClaimed() {
+    return claimed;
+  }
+
+  public void setClaimed(Date claimed) {
+    this.claimed = claimed;
+  }
 }
@@ -59,4 +59,16 @@ public interface IncomingSmsService {
       SmsMessageStatus status, String keyword, Integer min, Integer max, boolean hasPagination);
 
   List<IncomingSms> getAllUnparsedMessages();
+
+  /**
+   * Claims up to the given number of unparsed messages for processing by this node.
+   *
+   * @param limit the maximum number of messages to claim.
+   * @param claimTimeoutMinutes minutes after which a claim is considered abandoned.
+   * @return the claimed messages, ordered by received date.
+   */
+  List<IncomingSms> claimUnparsedMessages(int limit, int claimTimeoutMinutes);
+
+  /** Returns the number of messages which are waiting to be or are being processed. */
+  long countUnprocessedMessages();
 }
@@ -44,4 +44,23 @@ public interface IncomingSmsStore extends IdentifiableObjectStore<IncomingSms> {
   List<IncomingSms> getSmsByOriginator(String originator);
 
   List<IncomingSms> getAllUnparsedMessages();
+
+  /**
+   * Claims up to the given number of unparsed messages for processing by marking them as {@link
+   * SmsMessageStatus#PROCESSING}. Rows locked by concurrent claims of other nodes are skipped, and
+   * messages of originators which have messages being processed elsewhere are left for later, so
+   * that messages from one originator are processed in the order they were received.
+   *
+   * <p>Claims of messages from one originator are serialized with a transaction level advisory lock
+   * on the originator, as claims which are not committed yet are not visible to other claims. Must
+   * be invoked within a transaction.
+   *
+   * @param limit the maximum number of messages to claim.
+   * @param claimTimeoutMinutes minutes after which a claim is considered abandoned.
+   * @return the claimed messages, ordered by received date.
+   */
+  List<IncomingSms> claimUnparsedMessages(int limit, int claimTimeoutMinutes);
+
+  /** Returns the number of messages which are waiting to be or are being processed. */
+  long countUnprocessedMessages();
 }
@@ -29,12 +29,14 @@ package org.hisp.dhis.system;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.util.Date;
+import java.util.List;
 import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import org.hisp.dhis.system.database.DatabaseInfo;
+import org.hisp.dhis.system.startup.StartupRoutineTiming;
 
 /**
  * @author Lars Helge Overland
@@ -104,6 +106,7 @@ public final class SystemInfo {
   @JsonProperty private final Boolean isMetadataVersionEnabled;
   @JsonProperty private final Date lastMetadataVersionSyncAttempt;
   @JsonProperty private final Boolean isMetadataSyncEnabled;
+  @JsonProperty private final List<StartupRoutineTiming> startupTimings;
 
   /**
    * Clears sensitive system info properties.
@@ -133,6 +136,7 @@ public final class SystemInfo {
         .redisEnabled(false)
         .redisHostname(null)
         .clusterHostname(null)
+        .startupTimings(null)
         .databaseInfo(databaseInfo.withoutSensitiveInfo())
         .build();
   }
@@ -27,6 +27,8 @@
  */
 package org.hisp.dhis.system.startup;
 
+import java.util.List;
+
 /**
  * Executes a collection of StartupRoutines when the system is started.
  *
@@ -46,4 +48,12 @@ public interface StartupRoutineExecutor {
    * @throws Exception on execution failure.
    */
   void executeForTesting() throws Exception;
+
+  /**
+   * Returns the timings of the StartupRoutines executed since the system was started, in the
+   * order they completed.
+   *
+   * @return a list of {@link StartupRoutineTiming}, empty if no routines have executed.
+   */
+  List<StartupRoutineTiming> getStartupTimings();
 }
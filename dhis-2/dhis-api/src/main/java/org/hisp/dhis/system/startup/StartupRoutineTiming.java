@@ -25,52 +25,49 @@
  * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
  * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
  */
-package org.hisp.dhis.sms;
+package org.hisp.dhis.system.startup;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.Date;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
-import org.hisp.dhis.sms.incoming.IncomingSms;
-import org.hisp.dhis.sms.incoming.IncomingSmsService;
-import org.springframework.stereotype.Component;
+import lombok.ToString;
 
-@RequiredArgsConstructor
-@Component("org.hisp.dhis.sms.MessageQueue")
-public class DatabaseSupportedInternalMemoryMessageQueue implements MessageQueue {
-  private List<IncomingSms> queue = new ArrayList<>();
-
-  private final IncomingSmsService incomingSmsService;
-
-  // -------------------------------------------------------------------------
-  // Implementation
-  // -------------------------------------------------------------------------
-
-  @Override
-  public void put(IncomingSms message) {
-    queue.add(message);
-  }
+/**
+ * Timing and outcome of a single startup routine, as recorded by the {@link
+ * StartupRoutineExecutor}.
+ */
+@Getter
+@Builder
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+@ToString
+public final class StartupRoutineTiming {
+  public enum Outcome {
+    /** The routine was executed on this node. */
+    EXECUTED,
 
-  @Override
-  public IncomingSms get() {
-    if (queue != null && queue.size() > 0) {
-      return queue.get(0);
-    }
+    /**
+     * The routine was executed on this node after waiting for another node in the cluster to
+     * finish executing it.
+     */
+    WAITED_CLUSTER,
 
-    return null;
-  }
+    /**
+     * The routine was skipped on this node after waiting for another node in the cluster which
+     * completed it for the same build.
+     */
+    SKIPPED_CLUSTER,
 
-  @Override
-  public void remove(IncomingSms message) {
-    queue.remove(message);
+    /** The routine failed with an exception. */
+    FAILED
   }
 
-  @Override
-  public void initialize() {
-    Collection<IncomingSms> messages = incomingSmsService.getAllUnparsedMessages();
-
-    if (messages != null) {
-      queue.addAll(messages);
-    }
-  }
+  @JsonProperty private final String name;
+  @JsonProperty private final int runlevel;
+  @JsonProperty private final boolean concurrent;
+  @JsonProperty private final Outcome outcome;
+  @JsonProperty private final Date started;
+  @JsonProperty private final long durationMillis;
 }
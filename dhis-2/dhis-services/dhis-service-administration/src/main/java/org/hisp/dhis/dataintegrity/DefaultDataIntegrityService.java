@@ -32,8 +32,8 @@ import static java.lang.System.currentTimeMillis;
 import static java.util.Collections.unmodifiableCollection;
 import static java.util.function.Predicate.not;
 import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.partitioningBy;
 import static java.util.stream.Collectors.toUnmodifiableSet;
-import static java.util.stream.StreamSupport.stream;
 import static org.hisp.dhis.commons.collection.ListUtils.getDuplicates;
 import static org.hisp.dhis.dataintegrity.DataIntegrityDetails.DataIntegrityIssue.toIssue;
 import static org.hisp.dhis.dataintegrity.DataIntegrityDetails.DataIntegrityIssue.toRefsList;
@@ -42,12 +42,14 @@ import static org.hisp.dhis.dataintegrity.DataIntegrityYamlReader.ResourceLocati
 import static org.hisp.dhis.dataintegrity.DataIntegrityYamlReader.readDataIntegrityYaml;
 import static org.hisp.dhis.expression.ParseType.INDICATOR_EXPRESSION;
 import static org.hisp.dhis.expression.ParseType.VALIDATION_RULE_EXPRESSION;
+import static org.hisp.dhis.external.conf.ConfigurationKey.DATA_INTEGRITY_THREADS;
 import static org.hisp.dhis.scheduling.JobProgress.FailurePolicy.SKIP_ITEM;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -58,6 +60,7 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BinaryOperator;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -66,13 +69,10 @@ import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
-import javax.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
 import org.hisp.dhis.antlr.ParserException;
-import org.hisp.dhis.cache.Cache;
-import org.hisp.dhis.cache.CacheProvider;
 import org.hisp.dhis.common.IdentifiableObject;
 import org.hisp.dhis.dataelement.DataElement;
 import org.hisp.dhis.dataelement.DataElementService;
@@ -83,6 +83,7 @@ import org.hisp.dhis.dataset.DataSetService;
 import org.hisp.dhis.expression.Expression;
 import org.hisp.dhis.expression.ExpressionService;
 import org.hisp.dhis.expression.ExpressionValidationOutcome;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.external.location.LocationManager;
 import org.hisp.dhis.external.location.LocationManagerException;
 import org.hisp.dhis.i18n.I18n;
@@ -102,12 +103,15 @@ import org.hisp.dhis.programrule.ProgramRuleService;
 import org.hisp.dhis.programrule.ProgramRuleVariable;
 import org.hisp.dhis.programrule.ProgramRuleVariableService;
 import org.hisp.dhis.scheduling.JobProgress;
+import org.hisp.dhis.scheduling.parameters.DataIntegrityJobParameters.DataIntegrityReportType;
 import org.hisp.dhis.schema.Schema;
 import org.hisp.dhis.schema.SchemaService;
 import org.hisp.dhis.validation.ValidationRule;
 import org.hisp.dhis.validation.ValidationRuleService;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * @author Lars Helge Overland
@@ -119,6 +123,9 @@ import org.springframework.transaction.annotation.Transactional;
 public class DefaultDataIntegrityService implements DataIntegrityService {
   private static final String FORMULA_SEPARATOR = "#";
 
+  /** Maximum time waited before looking for results of checks run by other servers. */
+  private static final long RESULT_RECHECK_MILLIS = 1000;
+
   private final I18nManager i18nManager;
 
   private final LocationManager locationManager;
@@ -145,25 +152,18 @@ public class DefaultDataIntegrityService implements DataIntegrityService {
 
   private final ProgramIndicatorService programIndicatorService;
 
-  private final CacheProvider cacheProvider;
-
   private final DataIntegrityStore dataIntegrityStore;
 
   private final SchemaService schemaService;
 
-  private Cache<DataIntegritySummary> summaryCache;
-
-  private Cache<DataIntegrityDetails> detailsCache;
+  private final DhisConfigurationProvider config;
 
-  private final Set<String> runningSummaryChecks = ConcurrentHashMap.newKeySet();
+  private final TransactionTemplate transactionTemplate;
 
-  private final Set<String> runningDetailsChecks = ConcurrentHashMap.newKeySet();
-
-  @PostConstruct
-  public void init() {
-    summaryCache = cacheProvider.createDataIntegritySummaryCache();
-    detailsCache = cacheProvider.createDataIntegrityDetailsCache();
-  }
+  /**
+   * Number of check results completed by this server, signalled to callers waiting for results.
+   */
+  private final AtomicLong completedResults = new AtomicLong();
 
   private static int alphabeticalOrder(DataIntegrityIssue a, DataIntegrityIssue b) {
     return a.getName().compareTo(b.getName());
@@ -180,25 +180,25 @@ public class DefaultDataIntegrityService implements DataIntegrityService {
   @Nonnull
   @Override
   public Set<String> getRunningSummaryChecks() {
-    return Set.copyOf(runningSummaryChecks);
+    return Set.copyOf(dataIntegrityStore.getRunningChecks(DataIntegrityReportType.SUMMARY));
   }
 
   @Nonnull
   @Override
   public Set<String> getRunningDetailsChecks() {
-    return Set.copyOf(runningDetailsChecks);
+    return Set.copyOf(dataIntegrityStore.getRunningChecks(DataIntegrityReportType.DETAILS));
   }
 
   @Nonnull
   @Override
   public Set<String> getCompletedSummaryChecks() {
-    return stream(summaryCache.keys().spliterator(), false).collect(toUnmodifiableSet());
+    return Set.copyOf(dataIntegrityStore.getCompletedChecks(DataIntegrityReportType.SUMMARY));
   }
 
   @Nonnull
   @Override
   public Set<String> getCompletedDetailsChecks() {
-    return stream(detailsCache.keys().spliterator(), false).collect(toUnmodifiableSet());
+    return Set.copyOf(dataIntegrityStore.getCompletedChecks(DataIntegrityReportType.DETAILS));
   }
 
   // -------------------------------------------------------------------------
@@ -655,45 +655,47 @@ public class DefaultDataIntegrityService implements DataIntegrityService {
   @Nonnull
   @Override
   public Map<String, DataIntegritySummary> getSummaries(@Nonnull Set<String> checks, long timeout) {
-    return getCached(checks, timeout, summaryCache);
+    return getResults(checks, timeout, dataIntegrityStore::getSummaries);
   }
 
   // OBS! We intentionally do not open the transaction here to have each check
   // be independent
   @Override
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
   public void runSummaryChecks(@Nonnull Set<String> checks, JobProgress progress) {
     runDataIntegrityChecks(
         "Data Integrity summary checks",
+        DataIntegrityReportType.SUMMARY,
         expandChecks(checks, true),
         progress,
-        summaryCache,
-        runningSummaryChecks,
         check -> check.getRunSummaryCheck().apply(check),
         (check, startTime, ex) ->
             new DataIntegritySummary(
-                check, startTime, new Date(), errorMessage(check, ex), -1, null));
+                check, startTime, new Date(), errorMessage(check, ex), -1, null),
+        dataIntegrityStore::saveSummary);
   }
 
   @Nonnull
   @Override
   public Map<String, DataIntegrityDetails> getDetails(@Nonnull Set<String> checks, long timeout) {
-    return getCached(checks, timeout, detailsCache);
+    return getResults(checks, timeout, dataIntegrityStore::getDetails);
   }
 
   // OBS! We intentionally do not open the transaction here to have each check
   // be independent
   @Override
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
   public void runDetailsChecks(@Nonnull Set<String> checks, JobProgress progress) {
     runDataIntegrityChecks(
         "Data Integrity details checks",
+        DataIntegrityReportType.DETAILS,
         expandChecks(checks, true),
         progress,
-        detailsCache,
-        runningDetailsChecks,
         check -> check.getRunDetailsCheck().apply(check),
         (check, startTime, ex) ->
             new DataIntegrityDetails(
-                check, startTime, new Date(), errorMessage(check, ex), List.of()));
+                check, startTime, new Date(), errorMessage(check, ex), List.of()),
+        dataIntegrityStore::saveDetails);
   }
 
   private static String errorMessage(DataIntegrityCheck check, RuntimeException ex) {
@@ -702,28 +704,74 @@ public class DefaultDataIntegrityService implements DataIntegrityService {
     return message;
   }
 
-  private <T> Map<String, T> getCached(Set<String> checks, long timeout, Cache<T> cache) {
-    Set<String> names = expandChecks(checks, false);
+  /**
+   * Fetches the persisted results of the given checks, waiting up to the timeout (negative to wait
+   * indefinitely) for checks which have no result yet. Waiting callers are woken up when a check
+   * run by this server completes, results of checks run by other servers are picked up at least
+   * every {@link #RESULT_RECHECK_MILLIS}.
+   */
+  private <T> Map<String, T> getResults(
+      Set<String> checks,
+      long timeout,
+      Function<Collection<DataIntegrityCheck>, Map<String, T>> fetch) {
+    List<DataIntegrityCheck> expected =
+        expandChecks(checks, false).stream()
+            .map(checksByName::get)
+            .filter(Objects::nonNull)
+            .toList();
     long giveUpTime = currentTimeMillis() + timeout;
+    Map<String, T> found = new HashMap<>();
+    while (true) {
+      long completed = completedResults.get();
+      List<DataIntegrityCheck> missing =
+          expected.stream().filter(check -> !found.containsKey(check.getName())).toList();
+      if (!missing.isEmpty()) {
+        found.putAll(fetch.apply(missing));
+      }
+      long remaining = giveUpTime - currentTimeMillis();
+      if (found.size() >= expected.size() || (timeout >= 0 && remaining <= 0)) {
+        break;
+      }
+      long wait = timeout < 0 ? RESULT_RECHECK_MILLIS : Math.min(remaining, RESULT_RECHECK_MILLIS);
+      if (!awaitCompletedResult(completed, wait)) {
+        break;
+      }
+    }
     Map<String, T> resByName = new LinkedHashMap<>();
-    boolean retry = false;
-    do {
-      if (retry) {
-        try {
-          Thread.sleep(Math.max(10, Math.min(50, (giveUpTime - currentTimeMillis()) / 2)));
-        } catch (InterruptedException ex) {
-          Thread.currentThread().interrupt();
-          return resByName;
-        }
+    for (DataIntegrityCheck check : expected) {
+      T res = found.get(check.getName());
+      if (res != null) {
+        resByName.put(check.getName(), res);
       }
-      for (String name : names) {
-        if (!resByName.containsKey(name)) {
-          cache.get(name).ifPresent(res -> resByName.put(name, res));
+    }
+    return resByName;
+  }
+
+  /**
+   * Waits until a check completes on this server after the given number of completed results was
+   * observed, or until the given time has passed.
+   *
+   * @return false if the waiting thread was interrupted
+   */
+  private boolean awaitCompletedResult(long completed, long millis) {
+    synchronized (completedResults) {
+      try {
+        if (completedResults.get() == completed) {
+          completedResults.wait(millis);
         }
+        return true;
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        return false;
       }
-      retry = resByName.size() < names.size() && (timeout < 0 || currentTimeMillis() < giveUpTime);
-    } while (retry);
-    return resByName;
+    }
+  }
+
+  private void signalCompletedResult() {
+    synchronized (completedResults) {
+      completedResults.incrementAndGet();
+      completedResults.notifyAll();
+    }
   }
 
   @FunctionalInterface
@@ -731,46 +779,69 @@ public class DefaultDataIntegrityService implements DataIntegrityService {
     T createErrorReport(DataIntegrityCheck check, Date startTime, RuntimeException ex);
   }
 
+  /**
+   * Runs the SQL based checks in parallel, each in its own transaction, followed by the
+   * programmatic checks which run sequentially as they navigate the object model. Each result is
+   * persisted as soon as the check completed.
+   */
   private <T> void runDataIntegrityChecks(
       String stageDesc,
+      DataIntegrityReportType type,
       Set<String> checks,
       JobProgress progress,
-      Cache<T> cache,
-      Set<String> running,
       Function<DataIntegrityCheck, T> runCheck,
-      DataIntegrityCheckErrorHandler<T> createErrorReport) {
+      DataIntegrityCheckErrorHandler<T> createErrorReport,
+      Consumer<T> saveResult) {
+    Consumer<DataIntegrityCheck> work =
+        check -> {
+          Date startTime = new Date();
+          T res;
+          try {
+            res =
+                check.isProgrammatic()
+                    ? transactionTemplate.execute(status -> runCheck.apply(check))
+                    : runCheck.apply(check);
+          } catch (RuntimeException ex) {
+            saveResult.accept(createErrorReport.createErrorReport(check, startTime, ex));
+            signalCompletedResult();
+            throw ex;
+          }
+          if (res != null) {
+            check.addExecution(currentTimeMillis() - startTime.getTime());
+            saveResult.accept(res);
+            signalCompletedResult();
+          }
+        };
+    Map<Boolean, List<DataIntegrityCheck>> byProgrammatic =
+        checks.stream()
+            .map(checksByName::get)
+            .filter(Objects::nonNull)
+            .sorted(DataIntegrityCheck.FAST_TO_SLOW)
+            .collect(partitioningBy(DataIntegrityCheck::isProgrammatic));
+    List<DataIntegrityCheck> queryChecks = byProgrammatic.get(false);
+    List<DataIntegrityCheck> programmaticChecks = byProgrammatic.get(true);
     try {
-      running.addAll(checks);
+      dataIntegrityStore.setRunning(type, checks, true);
       progress.startingProcess("Data Integrity check");
-      progress.startingStage(stageDesc, checks.size(), SKIP_ITEM);
-      progress.runStage(
-          checks.stream()
-              .map(checksByName::get)
-              .filter(Objects::nonNull)
-              .sorted(DataIntegrityCheck.FAST_TO_SLOW),
-          DataIntegrityCheck::getDescription,
-          check -> {
-            Date startTime = new Date();
-            T res;
-            try {
-              res = runCheck.apply(check);
-            } catch (RuntimeException ex) {
-              cache.put(check.getName(), createErrorReport.createErrorReport(check, startTime, ex));
-              throw ex;
-            } finally {
-              running.remove(check.getName());
-            }
-            if (res != null) {
-              check.addExecution(currentTimeMillis() - startTime.getTime());
-              cache.put(check.getName(), res);
-            }
-          });
+      if (!queryChecks.isEmpty()) {
+        progress.startingStage(stageDesc, queryChecks.size(), SKIP_ITEM);
+        progress.runStageInParallel(
+            getParallelism(), queryChecks, DataIntegrityCheck::getDescription, work);
+      }
+      if (!programmaticChecks.isEmpty()) {
+        progress.startingStage(stageDesc + " (programmatic)", programmaticChecks.size(), SKIP_ITEM);
+        progress.runStage(programmaticChecks.stream(), DataIntegrityCheck::getDescription, work);
+      }
       progress.completedProcess(null);
     } finally {
-      running.removeAll(checks);
+      dataIntegrityStore.setRunning(type, checks, false);
     }
   }
 
+  private int getParallelism() {
+    return Math.max(1, Integer.parseInt(config.getProperty(DATA_INTEGRITY_THREADS)));
+  }
+
   private Set<String> expandChecks(Set<String> names, boolean restricted) {
     ensureConfigurationsAreLoaded();
 
@@ -27,18 +27,39 @@
  */
 package org.hisp.dhis.dataintegrity.hibernate;
 
+import static java.lang.System.currentTimeMillis;
+import static java.util.concurrent.TimeUnit.HOURS;
 import static java.util.stream.Collectors.toUnmodifiableList;
+import static org.hisp.dhis.external.conf.ConfigurationKey.DATA_INTEGRITY_STATEMENT_TIMEOUT;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
 import lombok.RequiredArgsConstructor;
 import org.hisp.dhis.dataintegrity.DataIntegrityCheck;
 import org.hisp.dhis.dataintegrity.DataIntegrityDetails;
 import org.hisp.dhis.dataintegrity.DataIntegrityDetails.DataIntegrityIssue;
 import org.hisp.dhis.dataintegrity.DataIntegrityStore;
 import org.hisp.dhis.dataintegrity.DataIntegritySummary;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.hisp.dhis.scheduling.parameters.DataIntegrityJobParameters.DataIntegrityReportType;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -46,18 +67,34 @@ import org.springframework.transaction.annotation.Transactional;
  * As we want each check to be its own transaction the @{@link Transactional} annotation is used on
  * the store and not the service level in this case.
  *
+ * <p>Results are persisted in the {@code dataintegrityresult} table so that they are visible to all
+ * servers of a cluster.
+ *
  * @author Jan Bernitt
  */
 @Repository
 @RequiredArgsConstructor
 public class HibernateDataIntegrityStore implements DataIntegrityStore {
+  /** Running markers older than this are considered left behind by a server that went down. */
+  private static final int STALE_RUNNING_HOURS = 24;
+
+  /** Results finished longer ago than this are treated as missing, like the former cache did. */
+  private static final int RESULT_TTL_HOURS = 1;
+
   @PersistenceContext private final EntityManager entityManager;
 
+  private final JdbcTemplate jdbcTemplate;
+
+  @Qualifier("jsonMapper")
+  private final ObjectMapper jsonMapper;
+
+  private final DhisConfigurationProvider config;
+
   @Override
   @Transactional(readOnly = true)
   public DataIntegritySummary querySummary(DataIntegrityCheck check, String sql) {
     Date startTime = new Date();
-    Object summary = entityManager.createNativeQuery(sql).getSingleResult();
+    Object summary = createCheckQuery(sql).getSingleResult();
     return new DataIntegritySummary(
         check, startTime, new Date(), null, parseCount(summary), parsePercentage(summary));
   }
@@ -67,7 +104,7 @@ public class HibernateDataIntegrityStore implements DataIntegrityStore {
   public DataIntegrityDetails queryDetails(DataIntegrityCheck check, String sql) {
     Date startTime = new Date();
     @SuppressWarnings("unchecked")
-    List<Object[]> rows = entityManager.createNativeQuery(sql).getResultList();
+    List<Object[]> rows = createCheckQuery(sql).getResultList();
     return new DataIntegrityDetails(
         check,
         startTime,
@@ -81,6 +118,228 @@ public class HibernateDataIntegrityStore implements DataIntegrityStore {
             .collect(toUnmodifiableList()));
   }
 
+  @Override
+  public void saveSummary(DataIntegritySummary summary) {
+    saveResult(
+        DataIntegrityReportType.SUMMARY,
+        summary.getCheck(),
+        summary.getStartTime(),
+        summary.getFinishedTime(),
+        summary.getError(),
+        summary.getCount(),
+        summary.getPercentage(),
+        null);
+  }
+
+  @Override
+  public void saveDetails(DataIntegrityDetails details) {
+    saveResult(
+        DataIntegrityReportType.DETAILS,
+        details.getCheck(),
+        details.getStartTime(),
+        details.getFinishedTime(),
+        details.getError(),
+        null,
+        null,
+        toJson(details.getIssues()));
+  }
+
+  @Override
+  public Map<String, DataIntegritySummary> getSummaries(Collection<DataIntegrityCheck> checks) {
+    return getResults(
+        DataIntegrityReportType.SUMMARY,
+        checks,
+        (check, rs) ->
+            new DataIntegritySummary(
+                check,
+                rs.getTimestamp("starttime"),
+                rs.getTimestamp("finishedtime"),
+                rs.getString("error"),
+                rs.getInt("count"),
+                rs.getObject("percentage", Double.class)));
+  }
+
+  @Override
+  public Map<String, DataIntegrityDetails> getDetails(Collection<DataIntegrityCheck> checks) {
+    return getResults(
+        DataIntegrityReportType.DETAILS,
+        checks,
+        (check, rs) ->
+            new DataIntegrityDetails(
+                check,
+                rs.getTimestamp("starttime"),
+                rs.getTimestamp("finishedtime"),
+                rs.getString("error"),
+                fromJson(rs.getString("issues"))));
+  }
+
+  @Override
+  public void setRunning(DataIntegrityReportType type, Collection<String> checks, boolean running) {
+    if (checks.isEmpty()) {
+      return;
+    }
+    List<Object[]> args = checks.stream().map(name -> new Object[] {name, type.name()}).toList();
+    if (running) {
+      jdbcTemplate.batchUpdate(
+          """
+          insert into dataintegrityresult (checkname, type, runningsince) values (?, ?, now())
+          on conflict (checkname, type) do update set runningsince = excluded.runningsince""",
+          args);
+    } else {
+      jdbcTemplate.batchUpdate(
+          "update dataintegrityresult set runningsince = null where checkname = ? and type = ?",
+          args);
+    }
+  }
+
+  @Override
+  public Set<String> getRunningChecks(DataIntegrityReportType type) {
+    return new HashSet<>(
+        jdbcTemplate.queryForList(
+            "select checkname from dataintegrityresult where type = ? and runningsince > now() - "
+                + "interval '"
+                + STALE_RUNNING_HOURS
+                + " hours'",
+            String.class,
+            type.name()));
+  }
+
+  @Override
+  public Set<String> getCompletedChecks(DataIntegrityReportType type) {
+    return new HashSet<>(
+        jdbcTemplate.queryForList(
+            "select checkname from dataintegrityresult where type = ? and finishedtime > ?",
+            String.class,
+            type.name(),
+            getExpiryCutoff()));
+  }
+
+  @FunctionalInterface
+  private interface ResultMapper<T> {
+    T map(DataIntegrityCheck check, ResultSet rs) throws SQLException;
+  }
+
+  private <T> Map<String, T> getResults(
+      DataIntegrityReportType type,
+      Collection<DataIntegrityCheck> checks,
+      ResultMapper<T> mapper) {
+    Map<String, T> results = new HashMap<>();
+    if (checks.isEmpty()) {
+      return results;
+    }
+    Map<String, DataIntegrityCheck> checksByName = new HashMap<>();
+    checks.forEach(check -> checksByName.put(check.getName(), check));
+    List<Object> args = new ArrayList<>(checksByName.keySet());
+    args.add(0, type.name());
+    args.add(1, getExpiryCutoff());
+    jdbcTemplate.query(
+        "select * from dataintegrityresult where type = ? and finishedtime > ? "
+            + "and checkname in ("
+            + String.join(",", Collections.nCopies(checksByName.size(), "?"))
+            + ")",
+        rs -> {
+          String name = rs.getString("checkname");
+          results.put(name, mapper.map(checksByName.get(name), rs));
+        },
+        args.toArray());
+    return results;
+  }
+
+  /**
+   * The finished time is set by the server running the check, so the cutoff is computed from the
+   * server clock as well rather than the database clock.
+   */
+  private static Date getExpiryCutoff() {
+    return new Date(currentTimeMillis() - HOURS.toMillis(RESULT_TTL_HOURS));
+  }
+
+  private void saveResult(
+      DataIntegrityReportType type,
+      DataIntegrityCheck check,
+      Date startTime,
+      Date finishedTime,
+      String error,
+      Integer count,
+      Double percentage,
+      String issues) {
+    jdbcTemplate.update(
+        """
+        insert into dataintegrityresult (checkname, type, starttime, finishedtime, runningsince,
+            error, count, percentage, issues)
+        values (?, ?, ?, ?, null, ?, ?, ?, cast(? as jsonb))
+        on conflict (checkname, type) do update set
+            starttime = excluded.starttime,
+            finishedtime = excluded.finishedtime,
+            runningsince = null,
+            error = excluded.error,
+            count = excluded.count,
+            percentage = excluded.percentage,
+            issues = excluded.issues""",
+        check.getName(),
+        type.name(),
+        startTime,
+        finishedTime,
+        error,
+        count,
+        percentage,
+        issues);
+  }
+
+  /**
+   * Creates the query of a check, limited to the configured statement timeout so that a single
+   * slow check cannot occupy a connection for an unbounded time.
+   */
+  private Query createCheckQuery(String sql) {
+    Query query = entityManager.createNativeQuery(sql);
+    int timeout = Integer.parseInt(config.getProperty(DATA_INTEGRITY_STATEMENT_TIMEOUT));
+    if (timeout > 0) {
+      query.setHint("javax.persistence.query.timeout", timeout * 1000);
+    }
+    return query;
+  }
+
+  private String toJson(List<DataIntegrityIssue> issues) {
+    try {
+      return jsonMapper.writeValueAsString(issues == null ? List.of() : issues);
+    } catch (JsonProcessingException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  private List<DataIntegrityIssue> fromJson(String json) {
+    if (json == null) {
+      return List.of();
+    }
+    try {
+      List<DataIntegrityIssue> issues = new ArrayList<>();
+      for (JsonNode issue : jsonMapper.readTree(json)) {
+        issues.add(
+            new DataIntegrityIssue(
+                getText(issue, "id"),
+                getText(issue, "name"),
+                getText(issue, "comment"),
+                getList(issue.get("refs"), JsonNode::asText)));
+      }
+      return List.copyOf(issues);
+    } catch (JsonProcessingException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  private static String getText(JsonNode node, String field) {
+    JsonNode value = node.get(field);
+    return value == null || value.isNull() ? null : value.asText();
+  }
+
+  private static <T> List<T> getList(JsonNode node, Function<JsonNode, T> mapper) {
+    if (node == null || node.isNull()) {
+      return null;
+    }
+    List<T> list = new ArrayList<>();
+    node.forEach(element -> list.add(mapper.apply(element)));
+    return list;
+  }
+
   private static String getIndex(Object[] row, int index) {
     return row.length <= index ? null : (String) row[index];
   }
@@ -41,6 +41,7 @@ import org.hisp.dhis.dataset.CompleteDataSetRegistrationService;
 import org.hisp.dhis.datavalue.DataValueAuditService;
 import org.hisp.dhis.datavalue.DataValueService;
 import org.hisp.dhis.organisationunit.OrganisationUnit;
+import org.hisp.dhis.period.PeriodDeletedEvent;
 import org.hisp.dhis.trackedentitydatavalue.TrackedEntityDataValueChangeLogService;
 import org.hisp.dhis.user.CurrentUserUtil;
 import org.hisp.dhis.user.User;
@@ -142,6 +143,8 @@ public class DefaultMaintenanceService implements MaintenanceService {
   @Transactional
   public void prunePeriods() {
     maintenanceStore.prunePeriods();
+
+    eventPublisher.publishEvent(new PeriodDeletedEvent(null, false));
   }
 
   @Override
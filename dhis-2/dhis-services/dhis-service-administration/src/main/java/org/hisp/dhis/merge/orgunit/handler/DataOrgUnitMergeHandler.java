@@ -29,15 +29,19 @@ package org.hisp.dhis.merge.orgunit.handler;
 
 import static org.hisp.dhis.common.IdentifiableObjectUtils.getIdentifiers;
 
+import java.util.ArrayList;
+import java.util.List;
 import javax.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import org.hisp.dhis.common.IdentifiableObjectUtils;
 import org.hisp.dhis.dataapproval.DataApprovalAuditService;
+import org.hisp.dhis.dataapproval.DataApprovalStore;
 import org.hisp.dhis.dataset.DataSetService;
 import org.hisp.dhis.datavalue.DataValueAuditService;
 import org.hisp.dhis.merge.DataMergeStrategy;
 import org.hisp.dhis.merge.orgunit.OrgUnitMergeRequest;
 import org.hisp.dhis.minmax.MinMaxDataElementService;
+import org.hisp.dhis.organisationunit.OrganisationUnit;
 import org.hisp.dhis.validation.ValidationResultService;
 import org.hisp.dhis.validation.ValidationResultsDeletionRequest;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
@@ -65,6 +69,8 @@ public class DataOrgUnitMergeHandler {
 
   private final DataApprovalAuditService dataApprovalAuditService;
 
+  private final DataApprovalStore dataApprovalStore;
+
   private final ValidationResultService validationResultService;
 
   private final MinMaxDataElementService minMaxDataElementService;
@@ -140,6 +146,11 @@ public class DataOrgUnitMergeHandler {
             .addValue("target_id", request.getTarget().getId());
 
     jdbcTemplate.update(sql, params);
+
+    List<OrganisationUnit> orgUnits = new ArrayList<>(request.getSources());
+    orgUnits.add(request.getTarget());
+
+    dataApprovalStore.refreshDataApprovalStates(orgUnits);
   }
 
   private String getMergeDataApprovalsDiscardSql() {
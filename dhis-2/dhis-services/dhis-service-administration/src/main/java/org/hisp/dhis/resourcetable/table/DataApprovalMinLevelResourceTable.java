@@ -74,12 +74,12 @@ public class DataApprovalMinLevelResourceTable extends ResourceTable<Organisatio
             + " (workflowid,periodid,organisationunitid,attributeoptioncomboid,minlevel) "
             + "select da.workflowid, da.periodid, da.organisationunitid, "
             + "da.attributeoptioncomboid, dal.level as minlevel "
-            + "from dataapproval da "
+            + "from dataapprovalstate da "
             + "inner join _dataapprovalremaplevel dal on "
             + "dal.workflowid=da.workflowid and dal.dataapprovallevelid=da.dataapprovallevelid "
             + "inner join _orgunitstructure ous on da.organisationunitid=ous.organisationunitid "
             + "where not exists ( "
-            + "select 1 from dataapproval da2 "
+            + "select 1 from dataapprovalstate da2 "
             + "inner join _dataapprovalremaplevel dal2 on "
             + "da2.workflowid = dal2.workflowid and da2.dataapprovallevelid=dal2.dataapprovallevelid "
             + "where da.workflowid=da2.workflowid "
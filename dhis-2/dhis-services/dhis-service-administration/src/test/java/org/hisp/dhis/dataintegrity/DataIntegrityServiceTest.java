@@ -27,6 +27,7 @@
  */
 package org.hisp.dhis.dataintegrity;
 
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.hisp.dhis.DhisConvenienceTest.createDataElement;
 import static org.hisp.dhis.DhisConvenienceTest.createDataElementGroup;
 import static org.hisp.dhis.DhisConvenienceTest.createDataSet;
@@ -45,6 +46,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.contains;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.any;
@@ -56,14 +58,16 @@ import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CyclicBarrier;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import org.hisp.dhis.analytics.AggregationType;
 import org.hisp.dhis.antlr.ParserException;
-import org.hisp.dhis.cache.CacheProvider;
 import org.hisp.dhis.category.CategoryService;
 import org.hisp.dhis.dataelement.DataElement;
 import org.hisp.dhis.dataelement.DataElementGroup;
@@ -73,6 +77,8 @@ import org.hisp.dhis.dataintegrity.DataIntegrityDetails.DataIntegrityIssue;
 import org.hisp.dhis.dataset.DataSet;
 import org.hisp.dhis.dataset.DataSetService;
 import org.hisp.dhis.expression.ExpressionService;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.external.location.DefaultLocationManager;
 import org.hisp.dhis.i18n.I18n;
 import org.hisp.dhis.i18n.I18nManager;
@@ -97,6 +103,7 @@ import org.hisp.dhis.programrule.ProgramRuleService;
 import org.hisp.dhis.programrule.ProgramRuleVariable;
 import org.hisp.dhis.programrule.ProgramRuleVariableService;
 import org.hisp.dhis.random.BeanRandomizer;
+import org.hisp.dhis.scheduling.NoopJobProgress;
 import org.hisp.dhis.schema.SchemaService;
 import org.hisp.dhis.validation.ValidationRuleService;
 import org.junit.jupiter.api.BeforeEach;
@@ -121,7 +128,7 @@ class DataIntegrityServiceTest {
 
   @Mock private SchemaService schemaService;
 
-  @Mock private CacheProvider cacheProvider;
+  @Mock private DhisConfigurationProvider config;
 
   @Mock private DataIntegrityStore dataIntegrityStore;
 
@@ -526,6 +533,30 @@ class DataIntegrityServiceTest {
     assertFalse(dataIntegrityChecks.isEmpty());
   }
 
+  @Test
+  void testRunSummaryChecks_RunsQueryChecksInParallel() {
+    when(i18nManager.getI18n(DataIntegrityService.class)).thenReturn(i18n);
+    when(i18n.getString(anyString(), anyString())).thenReturn("default");
+    when(i18n.getString(contains("severity"), eq("WARNING"))).thenReturn("WARNING");
+    when(config.getProperty(ConfigurationKey.DATA_INTEGRITY_THREADS)).thenReturn("2");
+    // each check only completes when the other check runs at the same time
+    CyclicBarrier bothRunning = new CyclicBarrier(2);
+    when(dataIntegrityStore.querySummary(any(), anyString()))
+        .thenAnswer(
+            call -> {
+              bothRunning.await(10, SECONDS);
+              return new DataIntegritySummary(
+                  call.getArgument(0), new Date(), new Date(), null, 0, null);
+            });
+
+    subject.runSummaryChecks(
+        Set.of("categories_no_options", "categories_one_default_category"),
+        NoopJobProgress.INSTANCE);
+
+    verify(dataIntegrityStore, times(2))
+        .saveSummary(argThat(summary -> summary.getError() == null));
+  }
+
   private Map<String, DataElement> createRandomDataElements(int quantity, String uidSeed) {
 
     return IntStream.range(1, quantity + 1)
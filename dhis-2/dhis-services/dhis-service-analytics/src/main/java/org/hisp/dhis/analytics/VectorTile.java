@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.analytics;
+
+import java.util.Locale;
+
+/**
+ * Address of a Mapbox vector tile in the Web Mercator (EPSG:3857) tiling scheme. Zoom level z is
+ * divided into 2^z by 2^z tiles, tile 0/0 being in the north-west corner.
+ *
+ * @param z the zoom level.
+ * @param x the column of the tile.
+ * @param y the row of the tile.
+ */
+public record VectorTile(int z, int x, int y) {
+  /** Maximum zoom level for which tiles are served. */
+  public static final int MAX_ZOOM = 22;
+
+  /** Size of a tile in tile coordinate space. */
+  public static final int EXTENT = 4096;
+
+  /** Size of the margin around a tile in tile coordinate space, so that symbols are not clipped. */
+  public static final int BUFFER = 64;
+
+  /** Number of cluster cells along each side of a tile. */
+  private static final int CLUSTER_CELLS = 64;
+
+  /** Circumference of the earth in Web Mercator meters. */
+  private static final double CIRCUMFERENCE = 2 * Math.PI * 6378137;
+
+  /** Indicates whether the zoom level is supported and the tile exists at this zoom level. */
+  public boolean isValid() {
+    return z >= 0 && z <= MAX_ZOOM && x >= 0 && y >= 0 && x < (1 << z) && y < (1 << z);
+  }
+
+  /**
+   * Returns the bounding box of this tile on the format 'min-lng,min-lat,max-lng,max-lat'.
+   *
+   * @return the bounding box.
+   */
+  public String getBbox() {
+    return String.format(Locale.ROOT, "%f,%f,%f,%f", lng(x), lat(y + 1), lng(x + 1), lat(y));
+  }
+
+  /**
+   * Returns the size in Web Mercator meters of the grid cells in which points are clustered in this
+   * tile. The cells divide the tiles of the zoom level evenly, so clusters never span tile borders.
+   *
+   * @return the cluster size.
+   */
+  public double getClusterSize() {
+    return CIRCUMFERENCE / (1 << z) / CLUSTER_CELLS;
+  }
+
+  /**
+   * Returns a key identifying this tile on the format 'z/x/y'.
+   *
+   * @return the key.
+   */
+  public String getKey() {
+    return z + "/" + x + "/" + y;
+  }
+
+  private double lng(int column) {
+    return column * 360d / (1 << z) - 180d;
+  }
+
+  private double lat(int row) {
+    return Math.toDegrees(Math.atan(Math.sinh(Math.PI * (1 - 2d * row / (1 << z)))));
+  }
+}
@@ -28,15 +28,34 @@
 package org.hisp.dhis.analytics.cache;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.concurrent.TimeUnit.SECONDS;
 
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.SerializationUtils;
 import org.hisp.dhis.analytics.DataQueryParams;
 import org.hisp.dhis.cache.Cache;
 import org.hisp.dhis.cache.CacheProvider;
+import org.hisp.dhis.cache.CacheType;
+import org.hisp.dhis.cache.SingleFlight;
 import org.hisp.dhis.common.Grid;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.hisp.dhis.user.CurrentUserUtil;
+import org.hisp.dhis.user.SystemUser;
+import org.hisp.dhis.user.UserDetails;
 import org.springframework.stereotype.Component;
 
 /**
@@ -46,21 +65,92 @@ import org.springframework.stereotype.Component;
 @Slf4j
 @Component
 public class AnalyticsCache {
+  /** Number of recorded queries kept per query which may be pre-warmed. */
+  private static final int RECORDED_QUERIES_FACTOR = 10;
+
+  /** Prefix of the keys of cached vector tiles. */
+  private static final String TILE_KEY_PREFIX = "tile_";
+
+  private static final ThreadLocal<Boolean> WARMING = ThreadLocal.withInitial(() -> false);
+
   private final AnalyticsCacheSettings analyticsCacheSettings;
 
   private Cache<Grid> queryCache;
 
+  /** Vector tiles, which are kept apart from grids as they are cached as they are. */
+  private final Cache<byte[]> tileCache;
+
+  /**
+   * Leases electing the server which runs a query missing from the cache, used when the cache is
+   * shared between servers.
+   */
+  private final Cache<String> leases;
+
+  /** Collapses concurrent requests for the same missing query into a single query. */
+  private final SingleFlight<Grid> singleFlight;
+
+  /** Collapses concurrent requests for the same missing tile into a single query. */
+  private final SingleFlight<byte[]> tileSingleFlight;
+
+  /**
+   * Queries requested by users, whether they hit or missed the cache, by cache key, with the user
+   * who ran them and how often they were requested, so that the most requested ones can be run
+   * again to pre-warm the cache. Null if pre-warming is disabled.
+   */
+  private final ConcurrentMap<String, RecordedQuery> recordedQueries;
+
+  /** Keys of the entries put by pre-warming since the cache was last cleared. */
+  private final Set<String> warmedKeys = ConcurrentHashMap.newKeySet();
+
+  /** Keys of the pre-warmed entries which were requested since the cache was last cleared. */
+  private final Set<String> warmedKeysHit = ConcurrentHashMap.newKeySet();
+
+  /** Requests served by pre-warmed entries since the cache was last cleared. */
+  private final AtomicLong warmedHits = new AtomicLong();
+
+  /** Requests served by pre-warmed entries since startup. */
+  private final AtomicLong totalWarmedHits = new AtomicLong();
+
   /**
    * Default constructor. Note that a default expiration time is set, as as the TTL will always be
    * overwritten during cache put operations.
    */
   public AnalyticsCache(
-      CacheProvider cacheProvider, AnalyticsCacheSettings analyticsCacheSettings) {
+      CacheProvider cacheProvider,
+      AnalyticsCacheSettings analyticsCacheSettings,
+      DhisConfigurationProvider config,
+      MeterRegistry meterRegistry) {
     checkNotNull(cacheProvider);
     checkNotNull(analyticsCacheSettings);
+    checkNotNull(config);
+    checkNotNull(meterRegistry);
 
     this.analyticsCacheSettings = analyticsCacheSettings;
     this.queryCache = cacheProvider.createAnalyticsCache();
+    this.tileCache = cacheProvider.createAnalyticsTileCache();
+
+    long singleFlightTimeout =
+        Long.parseLong(config.getProperty(ConfigurationKey.ANALYTICS_CACHE_SINGLE_FLIGHT_TIMEOUT));
+
+    this.leases = cacheProvider.createAnalyticsLeaseCache(Duration.ofSeconds(singleFlightTimeout));
+    Counter collapsed =
+        Counter.builder("dhis2.analytics.cache.collapsed.requests")
+            .description("Analytics requests served by the query of another request")
+            .register(meterRegistry);
+
+    this.singleFlight = new SingleFlight<>(SECONDS.toMillis(singleFlightTimeout), collapsed);
+    this.tileSingleFlight = new SingleFlight<>(SECONDS.toMillis(singleFlightTimeout), collapsed);
+
+    int warmQueries =
+        Integer.parseInt(config.getProperty(ConfigurationKey.ANALYTICS_CACHE_WARM_QUERIES));
+
+    this.recordedQueries =
+        warmQueries > 0
+            ? CacheBuilder.newBuilder()
+                .maximumSize((long) warmQueries * RECORDED_QUERIES_FACTOR)
+                .<String, RecordedQuery>build()
+                .asMap()
+            : null;
   }
 
   public Optional<Grid> get(String key) {
@@ -72,6 +162,10 @@ public class AnalyticsCache {
    * If the Grid is not found in the cache, the Grid will be fetched by the function provided. In
    * this case, the fetched Grid will be cached, so the next consumers can hit the cache only.
    *
+   * <p>Concurrent requests for the same missing Grid run the function only once, within this
+   * server and, if the cache is shared, across servers. Requests which wait longer than {@code
+   * analytics.cache.single_flight.timeout} for the Grid run the function themselves.
+   *
    * <p>f The TTL of the cached object will be set accordingly to the cache settings available at
    * {@link org.hisp.dhis.analytics.cache.AnalyticsCacheSettings}.
    *
@@ -80,17 +174,78 @@ public class AnalyticsCache {
    * @return the cached or fetched Grid.
    */
   public Grid getOrFetch(DataQueryParams params, Function<DataQueryParams, Grid> function) {
-    Optional<Grid> cachedGrid = get(params.getKey());
+    String key = params.getKey();
+
+    Optional<Grid> cachedGrid = get(key);
+
+    if (!WARMING.get()) {
+      record(key, params, cachedGrid.isPresent());
+    }
 
     if (cachedGrid.isPresent()) {
       return getGridClone(cachedGrid.get());
     } else {
-      Grid grid = function.apply(params);
+      return getGridClone(
+          fetchOnce(
+              queryCache, singleFlight, key, params, () -> getGridClone(function.apply(params))));
+    }
+  }
 
-      put(params, grid);
+  /**
+   * Retrieves the vector tile for the given query and tile from the cache, or fetches and caches
+   * it. Tiles are cached like grids, but in a cache of their own, and are neither recorded nor
+   * cloned, as they are not modified by consumers.
+   *
+   * @param params the query of the tile, including the type of the queried items.
+   * @param tile the key of the tile.
+   * @param function that fetches the tile.
+   * @return the cached or fetched tile.
+   */
+  public byte[] getOrFetchTile(DataQueryParams params, String tile, Supplier<byte[]> function) {
+    String key = TILE_KEY_PREFIX + tile + "_" + params.getKey();
+
+    Optional<byte[]> cachedTile = tileCache.get(key);
+
+    return cachedTile.isPresent()
+        ? cachedTile.get()
+        : fetchOnce(tileCache, tileSingleFlight, key, params, function);
+  }
+
+  /**
+   * Fetches the value missing from the given cache, collapsing concurrent requests for the same
+   * key. The fetched value is put into the cache as it is.
+   */
+  private <V> V fetchOnce(
+      Cache<V> cache,
+      SingleFlight<V> flight,
+      String key,
+      DataQueryParams params,
+      Supplier<V> function) {
+    return leases.getCacheType() == CacheType.REDIS
+        ? flight.execute(
+            key,
+            new CacheLease(),
+            cache::getIfPresent,
+            () -> fetch(cache, key, params, function))
+        : flight.execute(key, () -> fetch(cache, key, params, function));
+  }
+
+  private <V> V fetch(Cache<V> cache, String key, DataQueryParams params, Supplier<V> function) {
+    Optional<V> cachedValue = cache.getIfPresent(key);
+
+    if (cachedValue.isPresent()) {
+      return cachedValue.get();
+    }
 
-      return getGridClone(grid);
+    V value = function.get();
+
+    cache.put(key, value, getTimeToLive(params));
+
+    if (WARMING.get()) {
+      warmedKeys.add(key);
     }
+
+    return value;
   }
 
   /**
@@ -103,15 +258,16 @@ public class AnalyticsCache {
    * @param grid the associated Grid.
    */
   public void put(DataQueryParams params, Grid grid) {
+    put(params.getKey(), grid, getTimeToLive(params));
+  }
+
+  private long getTimeToLive(DataQueryParams params) {
     if (analyticsCacheSettings.isProgressiveCachingEnabled()) {
       // Uses the progressive TTL
-      put(
-          params.getKey(),
-          grid,
-          analyticsCacheSettings.progressiveExpirationTimeOrDefault(params.getLatestEndDate()));
+      return analyticsCacheSettings.progressiveExpirationTimeOrDefault(params.getLatestEndDate());
     } else {
       // Respects the fixed (predefined) caching TTL
-      put(params.getKey(), grid, analyticsCacheSettings.fixedExpirationTimeOrDefault());
+      return analyticsCacheSettings.fixedExpirationTimeOrDefault();
     }
   }
 
@@ -125,15 +281,95 @@ public class AnalyticsCache {
    */
   public void put(String key, Grid grid, long ttlInSeconds) {
     queryCache.put(key, getGridClone(grid), ttlInSeconds);
+
+    if (WARMING.get()) {
+      warmedKeys.add(key);
+    }
   }
 
   /** Clears the current cache by removing all existing entries. */
   public void invalidateAll() {
     queryCache.invalidateAll();
+    tileCache.invalidateAll();
+
+    if (!warmedKeys.isEmpty()) {
+      WarmingStatistics stats = getWarmingStatistics();
+
+      log.info(
+          "Pre-warmed analytics cache entries used: {} of {}, hits: {}",
+          stats.entriesHit(),
+          stats.entries(),
+          stats.hits());
+    }
+
+    warmedKeys.clear();
+    warmedKeysHit.clear();
+    warmedHits.set(0);
 
     log.info("Analytics cache cleared");
   }
 
+  /**
+   * Runs the given queries as pre-warming queries. Entries they put into the cache are tracked, so
+   * that hits on pre-warmed entries can be reported, and they are not recorded as user queries.
+   *
+   * @param queries the queries to run.
+   */
+  public void warm(Runnable queries) {
+    WARMING.set(true);
+
+    try {
+      queries.run();
+    } finally {
+      WARMING.remove();
+    }
+  }
+
+  /**
+   * Returns the recorded queries, the most requested first.
+   *
+   * @return the recorded queries, empty if pre-warming is disabled.
+   */
+  public List<RecordedQuery> getRecordedQueries() {
+    if (recordedQueries == null) {
+      return List.of();
+    }
+
+    return recordedQueries.values().stream()
+        .sorted(Comparator.comparingLong(RecordedQuery::getRequests).reversed())
+        .toList();
+  }
+
+  /** Returns statistics about the use of entries pre-warmed since the cache was last cleared. */
+  public WarmingStatistics getWarmingStatistics() {
+    return new WarmingStatistics(warmedKeys.size(), warmedKeysHit.size(), warmedHits.get());
+  }
+
+  /** Returns the number of requests served by pre-warmed entries since startup. */
+  public long getTotalWarmedHits() {
+    return totalWarmedHits.get();
+  }
+
+  private void record(String key, DataQueryParams params, boolean hit) {
+    if (hit && warmedKeys.contains(key)) {
+      warmedHits.incrementAndGet();
+      totalWarmedHits.incrementAndGet();
+      warmedKeysHit.add(key);
+    }
+
+    if (recordedQueries == null || params.analyzeOnly() || !CurrentUserUtil.hasCurrentUser()) {
+      return;
+    }
+
+    UserDetails user = CurrentUserUtil.getCurrentUserDetails();
+
+    if (user != null && !(user instanceof SystemUser)) {
+      recordedQueries
+          .computeIfAbsent(key, k -> new RecordedQuery(params, user.getUid()))
+          .increment();
+    }
+  }
+
   public boolean isEnabled() {
     return analyticsCacheSettings.isCachingEnabled();
   }
@@ -149,4 +385,66 @@ public class AnalyticsCache {
   private Optional<Grid> getGridClone(Optional<Grid> grid) {
     return grid.map(SerializationUtils::clone);
   }
+
+  /**
+   * Lease stored in the shared lease cache, expiring after the single flight timeout. The lease
+   * holds a token unique to this acquisition, so that it is only released by its owner.
+   */
+  private class CacheLease implements SingleFlight.Lease {
+    private final String token = SingleFlight.newLeaseToken();
+
+    @Override
+    public boolean tryAcquire(String key) {
+      return leases.putIfAbsent(key, token);
+    }
+
+    @Override
+    public boolean isHeld(String key) {
+      return leases.getIfPresent(key).isPresent();
+    }
+
+    @Override
+    public void release(String key) {
+      leases.invalidateIfEquals(key, token);
+    }
+  }
+
+  /** A query which was run by a user and may be run again on their behalf to pre-warm the cache. */
+  public static final class RecordedQuery {
+    private final DataQueryParams params;
+
+    private final String userUid;
+
+    private final AtomicLong requests = new AtomicLong();
+
+    RecordedQuery(DataQueryParams params, String userUid) {
+      this.params = params;
+      this.userUid = userUid;
+    }
+
+    public DataQueryParams getParams() {
+      return params;
+    }
+
+    public String getUserUid() {
+      return userUid;
+    }
+
+    public long getRequests() {
+      return requests.get();
+    }
+
+    void increment() {
+      requests.incrementAndGet();
+    }
+  }
+
+  /**
+   * Use of the pre-warmed entries since the cache was last cleared.
+   *
+   * @param entries the number of entries put by pre-warming.
+   * @param entriesHit the number of those entries which were requested at least once.
+   * @param hits the number of requests served by pre-warmed entries.
+   */
+  public record WarmingStatistics(int entries, int entriesHit, long hits) {}
 }
@@ -0,0 +1,289 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.analytics.cache;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.hisp.dhis.analytics.AnalyticsQueryPriority;
+import org.hisp.dhis.analytics.AnalyticsService;
+import org.hisp.dhis.analytics.DataQueryParams;
+import org.hisp.dhis.analytics.SortOrder;
+import org.hisp.dhis.analytics.cache.AnalyticsCache.RecordedQuery;
+import org.hisp.dhis.analytics.event.EventAnalyticsService;
+import org.hisp.dhis.analytics.event.EventQueryParams;
+import org.hisp.dhis.common.DataDimensionItem;
+import org.hisp.dhis.common.DimensionalItemObject;
+import org.hisp.dhis.common.IdentifiableObjectManager;
+import org.hisp.dhis.dashboard.Dashboard;
+import org.hisp.dhis.dashboard.DashboardItem;
+import org.hisp.dhis.datastatistics.DataStatisticsEventType;
+import org.hisp.dhis.datastatistics.DataStatisticsService;
+import org.hisp.dhis.datastatistics.FavoriteStatistics;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.hisp.dhis.system.util.Clock;
+import org.hisp.dhis.user.AuthenticationService;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Pre-warms the {@link AnalyticsCache} after the analytics tables were updated, so that the first
+ * users opening the most viewed dashboards do not all run the same queries against cold tables.
+ *
+ * <p>The most viewed dashboards are taken from the data statistics. The queries run again are the
+ * most requested ones recorded by the cache which belong to the visualizations and event
+ * visualizations of these dashboards. Each query is run on behalf of the user who requested it, so
+ * that user org units and data constraints resolve exactly as they did for the users, and the
+ * resulting entries have the keys the dashboards will ask for.
+ */
+@Slf4j
+@Component
+public class DashboardCacheWarmer {
+  private final AnalyticsCache analyticsCache;
+
+  private final AnalyticsService analyticsService;
+
+  private final EventAnalyticsService eventAnalyticsService;
+
+  private final DataStatisticsService dataStatisticsService;
+
+  private final IdentifiableObjectManager idObjectManager;
+
+  private final AuthenticationService authenticationService;
+
+  private final TransactionTemplate transactionTemplate;
+
+  private final int maxQueries;
+
+  private final int dashboards;
+
+  private final int threads;
+
+  private final long timeout;
+
+  public DashboardCacheWarmer(
+      AnalyticsCache analyticsCache,
+      AnalyticsService analyticsService,
+      EventAnalyticsService eventAnalyticsService,
+      DataStatisticsService dataStatisticsService,
+      IdentifiableObjectManager idObjectManager,
+      AuthenticationService authenticationService,
+      TransactionTemplate transactionTemplate,
+      DhisConfigurationProvider config,
+      MeterRegistry meterRegistry) {
+    this.analyticsCache = analyticsCache;
+    this.analyticsService = analyticsService;
+    this.eventAnalyticsService = eventAnalyticsService;
+    this.dataStatisticsService = dataStatisticsService;
+    this.idObjectManager = idObjectManager;
+    this.authenticationService = authenticationService;
+    this.transactionTemplate = transactionTemplate;
+    this.maxQueries =
+        Integer.parseInt(config.getProperty(ConfigurationKey.ANALYTICS_CACHE_WARM_QUERIES));
+    this.dashboards =
+        Integer.parseInt(config.getProperty(ConfigurationKey.ANALYTICS_CACHE_WARM_DASHBOARDS));
+    this.threads =
+        Math.max(
+            1, Integer.parseInt(config.getProperty(ConfigurationKey.ANALYTICS_CACHE_WARM_THREADS)));
+    this.timeout =
+        Long.parseLong(config.getProperty(ConfigurationKey.ANALYTICS_CACHE_WARM_TIMEOUT));
+
+    Gauge.builder(
+            "dhis2.analytics.cache.warm.entries",
+            analyticsCache,
+            cache -> cache.getWarmingStatistics().entries())
+        .description("Analytics cache entries put by pre-warming since the cache was cleared")
+        .register(meterRegistry);
+    Gauge.builder(
+            "dhis2.analytics.cache.warm.entries.hit",
+            analyticsCache,
+            cache -> cache.getWarmingStatistics().entriesHit())
+        .description("Pre-warmed analytics cache entries which were requested")
+        .register(meterRegistry);
+    FunctionCounter.builder(
+            "dhis2.analytics.cache.warm.hits", analyticsCache, AnalyticsCache::getTotalWarmedHits)
+        .description("Requests served by pre-warmed analytics cache entries")
+        .register(meterRegistry);
+  }
+
+  /** Indicates whether pre-warming is configured and the analytics cache is enabled. */
+  public boolean isEnabled() {
+    return maxQueries > 0 && dashboards > 0 && analyticsCache.isEnabled();
+  }
+
+  /**
+   * Runs the recorded queries of the most viewed dashboards, the most requested first, within the
+   * configured number of queries, threads and time limit.
+   *
+   * @return a summary of the pre-warming.
+   */
+  public String warm() {
+    Clock clock = new Clock().startClock();
+
+    List<RecordedQuery> queries = transactionTemplate.execute(status -> getDashboardQueries());
+
+    if (queries == null || queries.isEmpty()) {
+      return "No recorded analytics queries of the most viewed dashboards to pre-warm";
+    }
+
+    AtomicInteger warmed = new AtomicInteger();
+    AtomicInteger failed = new AtomicInteger();
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeout);
+
+    ExecutorService executor =
+        Executors.newFixedThreadPool(
+            threads,
+            new ThreadFactoryBuilder()
+                .setNameFormat("analytics-cache-warm-%d")
+                .setDaemon(true)
+                .build());
+
+    for (RecordedQuery query : queries) {
+      executor.execute(
+          () -> {
+            if (System.nanoTime() < deadline) {
+              (warm(query) ? warmed : failed).incrementAndGet();
+            }
+          });
+    }
+
+    executor.shutdown();
+
+    try {
+      if (!executor.awaitTermination(timeout, TimeUnit.SECONDS)) {
+        executor.shutdownNow();
+      }
+    } catch (InterruptedException ex) {
+      executor.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
+
+    return String.format(
+        "Pre-warmed %d of %d analytics queries of the most viewed dashboards, %d failed, "
+            + "%d skipped at time limit: %s",
+        warmed.get(),
+        queries.size(),
+        failed.get(),
+        queries.size() - warmed.get() - failed.get(),
+        clock.time());
+  }
+
+  /**
+   * Returns the recorded queries which belong to the most viewed dashboards, the most requested
+   * first. A query belongs to a dashboard if it asks for a data item of one of its visualizations,
+   * or for the program of one of its event visualizations.
+   */
+  private List<RecordedQuery> getDashboardQueries() {
+    List<RecordedQuery> recorded = analyticsCache.getRecordedQueries();
+
+    if (recorded.isEmpty()) {
+      return List.of();
+    }
+
+    Set<String> dataItems = new HashSet<>();
+    Set<String> programs = new HashSet<>();
+
+    List<FavoriteStatistics> favorites =
+        dataStatisticsService.getTopFavorites(
+            DataStatisticsEventType.DASHBOARD_VIEW, dashboards, SortOrder.DESC, null);
+
+    for (FavoriteStatistics favorite : favorites) {
+      Dashboard dashboard = idObjectManager.get(Dashboard.class, favorite.getId());
+
+      if (dashboard == null) {
+        continue;
+      }
+
+      for (DashboardItem item : dashboard.getItems()) {
+        if (item.getVisualization() != null) {
+          item.getVisualization().getDataDimensionItems().stream()
+              .map(DataDimensionItem::getDimensionalItemObject)
+              .filter(Objects::nonNull)
+              .map(DimensionalItemObject::getDimensionItem)
+              .forEach(dataItems::add);
+        }
+
+        if (item.getEventVisualization() != null
+            && item.getEventVisualization().getProgram() != null) {
+          programs.add(item.getEventVisualization().getProgram().getUid());
+        }
+      }
+    }
+
+    return recorded.stream()
+        .filter(query -> isDashboardQuery(query.getParams(), dataItems, programs))
+        .limit(maxQueries)
+        .toList();
+  }
+
+  private boolean isDashboardQuery(
+      DataQueryParams params, Set<String> dataItems, Set<String> programs) {
+    if (params instanceof EventQueryParams) {
+      return params.getProgram() != null && programs.contains(params.getProgram().getUid());
+    }
+
+    return params.getAllDataDimensionItems().stream()
+        .anyMatch(item -> dataItems.contains(item.getDimensionItem()));
+  }
+
+  private boolean warm(RecordedQuery query) {
+    try {
+      authenticationService.obtainAuthentication(query.getUserUid());
+
+      analyticsCache.warm(
+          () -> AnalyticsQueryPriority.BACKGROUND.run(() -> run(query.getParams())));
+
+      return true;
+    } catch (Exception ex) {
+      log.debug("Failed to pre-warm analytics query of user: " + query.getUserUid(), ex);
+
+      return false;
+    } finally {
+      authenticationService.clearAuthentication();
+    }
+  }
+
+  private void run(DataQueryParams params) {
+    if (params instanceof EventQueryParams eventParams) {
+      eventAnalyticsService.getAggregatedEventData(eventParams);
+    } else {
+      analyticsService.getAggregatedDataValues(params);
+    }
+  }
+}
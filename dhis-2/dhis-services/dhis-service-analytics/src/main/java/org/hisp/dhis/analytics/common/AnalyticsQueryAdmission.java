@@ -0,0 +1,285 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.analytics.common;
+
+import static org.hisp.dhis.monitoring.prometheus.config.PrometheusMonitoringConfig.PRIORITY_TAG;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.hisp.dhis.analytics.AnalyticsQueryPriority;
+import org.hisp.dhis.common.QueryRuntimeException;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.hisp.dhis.feedback.ErrorCode;
+import org.hisp.dhis.security.apikey.ApiTokenAuthenticationToken;
+import org.hisp.dhis.user.CurrentUserUtil;
+import org.springframework.stereotype.Component;
+
+/**
+ * Limits the number of analytics queries running at the same time, overall and per user, so that
+ * many dashboards opened at once do not overload the database. Queries beyond the limits wait for
+ * a running query to complete and are rejected if they cannot be started within the queue timeout.
+ *
+ * <p>Queries have a {@link AnalyticsQueryPriority}. Background queries may only use part of the
+ * capacity, the remaining capacity is reserved for interactive queries. When capacity frees up,
+ * waiting interactive queries are admitted before waiting background queries. Queries run with the
+ * priority set for the current thread, API clients authenticated by an API token run with
+ * background priority, and all other queries run with interactive priority.
+ *
+ * <p>Admission is re-entrant, a query which runs further analytics queries on the same thread is
+ * admitted once.
+ */
+@Slf4j
+@Component
+public class AnalyticsQueryAdmission {
+  private static final ThreadLocal<Boolean> ADMITTED = ThreadLocal.withInitial(() -> false);
+
+  private final int maxConcurrent;
+
+  private final int maxConcurrentPerUser;
+
+  private final int maxConcurrentBackground;
+
+  private final long queueTimeout;
+
+  private final ReentrantLock lock = new ReentrantLock();
+
+  private final Condition released = lock.newCondition();
+
+  private final Map<AnalyticsQueryPriority, Integer> running =
+      new EnumMap<>(AnalyticsQueryPriority.class);
+
+  private final Map<AnalyticsQueryPriority, Integer> queued =
+      new EnumMap<>(AnalyticsQueryPriority.class);
+
+  private final Map<String, Integer> runningByUser = new HashMap<>();
+
+  /** Users of the waiting interactive queries, null for queries without a user. */
+  private final Map<String, Integer> queuedInteractiveByUser = new HashMap<>();
+
+  private final Counter rejected;
+
+  public AnalyticsQueryAdmission(DhisConfigurationProvider config, MeterRegistry meterRegistry) {
+    this.maxConcurrent =
+        Integer.parseInt(config.getProperty(ConfigurationKey.ANALYTICS_QUERY_MAX_CONCURRENT));
+    this.maxConcurrentPerUser =
+        Integer.parseInt(
+            config.getProperty(ConfigurationKey.ANALYTICS_QUERY_MAX_CONCURRENT_PER_USER));
+    this.maxConcurrentBackground =
+        Integer.parseInt(
+            config.getProperty(ConfigurationKey.ANALYTICS_QUERY_MAX_CONCURRENT_BACKGROUND));
+    this.queueTimeout =
+        Long.parseLong(config.getProperty(ConfigurationKey.ANALYTICS_QUERY_QUEUE_TIMEOUT));
+
+    for (AnalyticsQueryPriority priority : AnalyticsQueryPriority.values()) {
+      running.put(priority, 0);
+      queued.put(priority, 0);
+
+      Gauge.builder("dhis2.analytics.queries.running", () -> count(running, priority))
+          .description("Analytics queries running")
+          .tag(PRIORITY_TAG, priority.name().toLowerCase())
+          .register(meterRegistry);
+      Gauge.builder("dhis2.analytics.queries.queued", () -> count(queued, priority))
+          .description("Analytics queries waiting to be started")
+          .tag(PRIORITY_TAG, priority.name().toLowerCase())
+          .register(meterRegistry);
+    }
+
+    this.rejected =
+        Counter.builder("dhis2.analytics.queries.rejected")
+            .description("Analytics queries rejected as they could not be started in time")
+            .register(meterRegistry);
+  }
+
+  /**
+   * Runs the given query once it is admitted within the limits.
+   *
+   * @param query the query.
+   * @return the result of the query.
+   * @throws QueryRuntimeException if the query could not be started within the queue timeout, or
+   *     the thread was interrupted while waiting.
+   */
+  public <T> T admit(Supplier<T> query) {
+    if (maxConcurrent <= 0 || ADMITTED.get()) {
+      return query.get();
+    }
+
+    String user = CurrentUserUtil.getCurrentUsername();
+    AnalyticsQueryPriority priority = getPriority();
+
+    acquire(user, priority);
+    ADMITTED.set(true);
+
+    try {
+      return query.get();
+    } finally {
+      ADMITTED.remove();
+      release(user, priority);
+    }
+  }
+
+  private void acquire(String user, AnalyticsQueryPriority priority) {
+    lock.lock();
+
+    try {
+      if (!canStart(user, priority)) {
+        await(user, priority);
+      }
+
+      running.merge(priority, 1, Integer::sum);
+
+      if (user != null) {
+        runningByUser.merge(user, 1, Integer::sum);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void await(String user, AnalyticsQueryPriority priority) {
+    long remaining = TimeUnit.SECONDS.toNanos(queueTimeout);
+
+    queued.merge(priority, 1, Integer::sum);
+
+    if (priority == AnalyticsQueryPriority.INTERACTIVE) {
+      queuedInteractiveByUser.merge(user, 1, Integer::sum);
+    }
+
+    log.debug(
+        "Analytics query of user '{}' with priority {} queued, running: {}, queued: {}",
+        user,
+        priority,
+        running,
+        queued);
+
+    try {
+      while (!canStart(user, priority)) {
+        if (remaining <= 0) {
+          rejected.increment();
+          log.warn(
+              "Analytics query of user '{}' rejected after waiting {} seconds, running: {}",
+              user,
+              queueTimeout,
+              running);
+          throw new QueryRuntimeException(ErrorCode.E7146, queueTimeout);
+        }
+
+        remaining = released.awaitNanos(remaining);
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new QueryRuntimeException(ErrorCode.E7147);
+    } finally {
+      queued.merge(priority, -1, Integer::sum);
+
+      if (priority == AnalyticsQueryPriority.INTERACTIVE) {
+        queuedInteractiveByUser.computeIfPresent(
+            user, (key, count) -> count > 1 ? count - 1 : null);
+      }
+
+      // a waiting query of lower priority may start now
+      released.signalAll();
+    }
+  }
+
+  /**
+   * A background query only starts when no waiting interactive query could start instead, so that
+   * capacity which frees up goes to interactive queries first.
+   */
+  private boolean canStart(String user, AnalyticsQueryPriority priority) {
+    if (!isWithinLimits(user, priority)) {
+      return false;
+    }
+
+    return priority == AnalyticsQueryPriority.INTERACTIVE
+        || queuedInteractiveByUser.keySet().stream()
+            .noneMatch(waiting -> isWithinLimits(waiting, AnalyticsQueryPriority.INTERACTIVE));
+  }
+
+  private boolean isWithinLimits(String user, AnalyticsQueryPriority priority) {
+    int total = running.values().stream().mapToInt(Integer::intValue).sum();
+
+    if (total >= maxConcurrent) {
+      return false;
+    }
+
+    if (priority == AnalyticsQueryPriority.BACKGROUND
+        && running.get(priority) >= maxConcurrentBackground) {
+      return false;
+    }
+
+    return user == null || runningByUser.getOrDefault(user, 0) < maxConcurrentPerUser;
+  }
+
+  private void release(String user, AnalyticsQueryPriority priority) {
+    lock.lock();
+
+    try {
+      running.merge(priority, -1, Integer::sum);
+
+      if (user != null) {
+        runningByUser.computeIfPresent(user, (key, count) -> count > 1 ? count - 1 : null);
+      }
+
+      released.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private AnalyticsQueryPriority getPriority() {
+    AnalyticsQueryPriority priority = AnalyticsQueryPriority.current();
+
+    if (priority != null) {
+      return priority;
+    }
+
+    return ApiTokenAuthenticationToken.isCurrentAuthentication()
+        ? AnalyticsQueryPriority.BACKGROUND
+        : AnalyticsQueryPriority.INTERACTIVE;
+  }
+
+  private int count(Map<AnalyticsQueryPriority, Integer> counts, AnalyticsQueryPriority priority) {
+    lock.lock();
+
+    try {
+      return counts.get(priority);
+    } finally {
+      lock.unlock();
+    }
+  }
+}
@@ -45,6 +45,7 @@ import org.hisp.dhis.analytics.DataQueryParams;
 import org.hisp.dhis.analytics.DataQueryService;
 import org.hisp.dhis.analytics.QueryValidator;
 import org.hisp.dhis.analytics.cache.AnalyticsCache;
+import org.hisp.dhis.analytics.common.AnalyticsQueryAdmission;
 import org.hisp.dhis.analytics.data.handler.DataAggregator;
 import org.hisp.dhis.analytics.util.AnalyticsUtils;
 import org.hisp.dhis.common.AnalyticalObject;
@@ -74,6 +75,8 @@ public class DefaultAnalyticsService implements AnalyticsService {
 
   private final DataAggregator dataAggregator;
 
+  private final AnalyticsQueryAdmission queryAdmission;
+
   // -------------------------------------------------------------------------
   // AnalyticsService implementation
   // -------------------------------------------------------------------------
@@ -89,10 +92,15 @@ public class DefaultAnalyticsService implements AnalyticsService {
       DataQueryParams immutableParams = newBuilder(params).build();
 
       return analyticsCache.getOrFetch(
-          params, p -> dataAggregator.getAggregatedDataValueGrid(immutableParams));
+          params,
+          p ->
+              queryAdmission.admit(
+                  () -> dataAggregator.getAggregatedDataValueGrid(immutableParams)));
     }
 
-    return dataAggregator.getAggregatedDataValueGrid(params);
+    DataQueryParams query = params;
+
+    return queryAdmission.admit(() -> dataAggregator.getAggregatedDataValueGrid(query));
   }
 
   @Override
@@ -119,7 +127,9 @@ public class DefaultAnalyticsService implements AnalyticsService {
 
     queryValidator.validate(params);
 
-    return dataAggregator.getRawDataGrid(params);
+    DataQueryParams query = params;
+
+    return queryAdmission.admit(() -> dataAggregator.getRawDataGrid(query));
   }
 
   @Override
@@ -177,7 +187,7 @@ public class DefaultAnalyticsService implements AnalyticsService {
             .withOutputFormat(DATA_VALUE_SET)
             .build();
 
-    return dataAggregator.getAggregatedDataValueGrid(query);
+    return queryAdmission.admit(() -> dataAggregator.getAggregatedDataValueGrid(query));
   }
 
   /**
@@ -59,6 +59,7 @@ import static org.hisp.dhis.util.SqlExceptionUtils.relationDoesNotExist;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
@@ -93,6 +94,7 @@ import org.hisp.dhis.commons.util.DebugUtils;
 import org.hisp.dhis.commons.util.SqlHelper;
 import org.hisp.dhis.commons.util.TextUtils;
 import org.hisp.dhis.feedback.ErrorCode;
+import org.hisp.dhis.monitoring.metrics.PhaseTimer;
 import org.hisp.dhis.organisationunit.OrganisationUnit;
 import org.hisp.dhis.period.Period;
 import org.hisp.dhis.period.PeriodType;
@@ -144,6 +146,9 @@ public class JdbcAnalyticsManager implements AnalyticsManager {
 
   private static final int LAST_VALUE_YEARS_OFFSET = -10;
 
+  /** Timer of the phases of aggregated data value queries, tagged by phase. */
+  static final String QUERY_TIMER = "dhis2.analytics.query";
+
   private static final Set<AggregationType> SIMPLE_AGGREGATION_TYPES =
       Set.of(COUNT, STDDEV, VARIANCE, MIN, MAX);
 
@@ -162,6 +167,8 @@ public class JdbcAnalyticsManager implements AnalyticsManager {
 
   private final ExecutionPlanStore executionPlanStore;
 
+  private final MeterRegistry meterRegistry;
+
   // -------------------------------------------------------------------------
   // AnalyticsManager implementation
   // -------------------------------------------------------------------------
@@ -189,11 +196,13 @@ public class JdbcAnalyticsManager implements AnalyticsManager {
         params = getParamsWithOffsetPartitions(params, tableType);
       }
 
-      String sql = getSql(params, tableType);
+      final DataQueryParams immutableParams = DataQueryParams.newBuilder(params).build();
 
-      log.debug(sql);
+      PhaseTimer phases = new PhaseTimer(meterRegistry, QUERY_TIMER);
 
-      final DataQueryParams immutableParams = DataQueryParams.newBuilder(params).build();
+      String sql = phases.record("sql", () -> getSql(immutableParams, tableType));
+
+      log.debug(sql);
 
       if (params.analyzeOnly()) {
         withExceptionHandling(
@@ -205,7 +214,7 @@ public class JdbcAnalyticsManager implements AnalyticsManager {
 
       try {
         map =
-            withExceptionHandling(() -> getKeyValueMap(immutableParams, sql, maxLimit))
+            withExceptionHandling(() -> getKeyValueMap(immutableParams, sql, maxLimit, phases))
                 .orElse(Map.of());
       } catch (BadSqlGrammarException ex) {
         if (relationDoesNotExist(ex.getSQLException())) {
@@ -919,12 +928,26 @@ public class JdbcAnalyticsManager implements AnalyticsManager {
    * @param sql the SQL query.
    * @param maxLimit the max limit of records to return, 0 indicates unlimited.
    */
-  private Map<String, Object> getKeyValueMap(DataQueryParams params, String sql, int maxLimit) {
-    Map<String, Object> map = new HashMap<>();
-
+  private Map<String, Object> getKeyValueMap(
+      DataQueryParams params, String sql, int maxLimit, PhaseTimer phases) {
     log.debug(String.format("Analytics SQL: %s", sql));
 
-    SqlRowSet rowSet = jdbcTemplate.queryForRowSet(sql);
+    SqlRowSet rowSet = phases.record("query", () -> jdbcTemplate.queryForRowSet(sql));
+
+    return phases.record("read", () -> getKeyValueMap(params, rowSet, maxLimit));
+  }
+
+  /**
+   * Reads the rows of the given row set into a mapping between dimension key and value.
+   *
+   * @param params the {@link DataQueryParams}.
+   * @param rowSet the {@link SqlRowSet} of the analytics query.
+   * @param maxLimit the max number of records to retrieve.
+   * @return a mapping between a dimension key and the aggregated value.
+   */
+  private Map<String, Object> getKeyValueMap(
+      DataQueryParams params, SqlRowSet rowSet, int maxLimit) {
+    Map<String, Object> map = new HashMap<>();
 
     int counter = 0;
 
@@ -107,6 +107,7 @@ import static org.hisp.dhis.system.util.MathUtils.getWithin;
 import static org.hisp.dhis.system.util.MathUtils.isZero;
 import static org.hisp.dhis.util.ObjectUtils.firstNonNull;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -149,6 +150,7 @@ import org.hisp.dhis.expression.ExpressionService;
 import org.hisp.dhis.expressiondimensionitem.ExpressionDimensionItem;
 import org.hisp.dhis.indicator.Indicator;
 import org.hisp.dhis.indicator.IndicatorValue;
+import org.hisp.dhis.monitoring.metrics.PhaseTimer;
 import org.hisp.dhis.organisationunit.OrganisationUnit;
 import org.hisp.dhis.organisationunit.OrganisationUnitGroup;
 import org.hisp.dhis.organisationunit.OrganisationUnitService;
@@ -171,6 +173,9 @@ public class DataHandler {
 
   private static final int PERCENT = 100;
 
+  /** Timer of the phases of data value and indicator queries, tagged by phase. */
+  static final String DATA_TIMER = "dhis2.analytics.data";
+
   private final EventAnalyticsService eventAnalyticsService;
 
   private final RawAnalyticsManager rawAnalyticsManager;
@@ -191,6 +196,8 @@ public class DataHandler {
 
   private final ExecutionPlanStore executionPlanStore;
 
+  private final MeterRegistry meterRegistry;
+
   /**
    * Adds performance metrics.
    *
@@ -322,21 +329,26 @@ public class DataHandler {
 
     handleEmptyDimensionItemPermutations(dimensionItemPermutations);
 
-    for (Indicator indicator : indicators) {
-      for (List<DimensionItem> dimensionItems : dimensionItemPermutations) {
-        IndicatorValue value =
-            getIndicatorValue(
-                filterPeriods,
-                itemMap,
-                permutationOrgUnitTargetMap,
-                permutationDimensionItemValueMap,
-                indicator,
-                dimensionItems);
-
-        addIndicatorValuesToGrid(
-            dataQueryParams, grid, dataSourceParams, indicator, dimensionItems, value);
-      }
-    }
+    new PhaseTimer(meterRegistry, DATA_TIMER)
+        .record(
+            "evaluate",
+            () -> {
+              for (Indicator indicator : indicators) {
+                for (List<DimensionItem> dimensionItems : dimensionItemPermutations) {
+                  IndicatorValue value =
+                      getIndicatorValue(
+                          filterPeriods,
+                          itemMap,
+                          permutationOrgUnitTargetMap,
+                          permutationDimensionItemValueMap,
+                          indicator,
+                          dimensionItems);
+
+                  addIndicatorValuesToGrid(
+                      dataQueryParams, grid, dataSourceParams, indicator, dimensionItems, value);
+                }
+              }
+            });
   }
 
   /**
@@ -1217,7 +1229,10 @@ public class DataHandler {
             .withQueryGroupers(queryGroupers)
             .build();
 
-    DataQueryGroups queryGroups = queryPlanner.planQuery(params, plannerParams);
+    PhaseTimer phases = new PhaseTimer(meterRegistry, DATA_TIMER);
+
+    DataQueryGroups queryGroups =
+        phases.record("plan", () -> queryPlanner.planQuery(params, plannerParams));
 
     timer.getSplitTime(
         "Planned analytics query, got: "
@@ -1227,9 +1242,13 @@ public class DataHandler {
 
     Map<String, Object> map = new HashMap<>();
 
-    for (List<DataQueryParams> queries : queryGroups.getSequentialQueries()) {
-      executeQueries(tableType, maxLimit, map, queries);
-    }
+    phases.record(
+        "fetch",
+        () -> {
+          for (List<DataQueryParams> queries : queryGroups.getSequentialQueries()) {
+            executeQueries(tableType, maxLimit, map, queries);
+          }
+        });
 
     timer.getTime("Got analytics values");
 
@@ -27,6 +27,7 @@
  */
 package org.hisp.dhis.analytics.event;
 
+import org.hisp.dhis.analytics.VectorTile;
 import org.hisp.dhis.common.Grid;
 
 /**
@@ -60,4 +61,13 @@ public interface EnrollmentAnalyticsManager {
    * @return number of enrollments macting the parameter criteria.
    */
   long getEnrollmentCount(EventQueryParams params);
+
+  /**
+   * Retrieves a Mapbox vector tile with the clustered enrollments within the given tile.
+   *
+   * @param params the query to retrieve enrollments for.
+   * @param tile the tile to retrieve.
+   * @return the tile encoded as protocol buffer.
+   */
+  byte[] getVectorTile(EventQueryParams params, VectorTile tile);
 }
@@ -28,6 +28,7 @@
 package org.hisp.dhis.analytics.event;
 
 import org.hisp.dhis.analytics.Rectangle;
+import org.hisp.dhis.analytics.VectorTile;
 import org.hisp.dhis.common.Grid;
 
 /**
@@ -43,4 +44,6 @@ public interface EventAnalyticsManager {
   long getEventCount(EventQueryParams params);
 
   Rectangle getRectangle(EventQueryParams params);
+
+  byte[] getVectorTile(EventQueryParams params, VectorTile tile);
 }
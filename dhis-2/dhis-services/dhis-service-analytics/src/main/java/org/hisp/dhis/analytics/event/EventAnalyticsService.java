@@ -30,6 +30,7 @@ package org.hisp.dhis.analytics.event;
 import java.util.List;
 import org.hisp.dhis.analytics.AnalyticsMetaDataKey;
 import org.hisp.dhis.analytics.Rectangle;
+import org.hisp.dhis.analytics.VectorTile;
 import org.hisp.dhis.common.AnalyticalObject;
 import org.hisp.dhis.common.Grid;
 
@@ -97,4 +98,15 @@ public interface EventAnalyticsService {
    * @return event clusters as a Grid object.
    */
   Rectangle getRectangle(EventQueryParams params);
+
+  /**
+   * Returns a Mapbox vector tile with the events matching the given query within the given tile,
+   * clustered according to the zoom level of the tile. For enrollment queries, the tile contains
+   * the matching enrollments.
+   *
+   * @param params the event query parameters.
+   * @param tile the tile to return.
+   * @return the tile encoded as protocol buffer.
+   */
+  byte[] getVectorTile(EventQueryParams params, VectorTile tile);
 }
@@ -51,6 +51,7 @@ import static org.hisp.dhis.analytics.table.JdbcEventAnalyticsTableManager.OU_NA
 import static org.hisp.dhis.analytics.util.AnalyticsSqlUtils.ANALYTICS_TBL_ALIAS;
 import static org.hisp.dhis.analytics.util.AnalyticsSqlUtils.DATE_PERIOD_STRUCT_ALIAS;
 import static org.hisp.dhis.analytics.util.AnalyticsSqlUtils.encode;
+import static org.hisp.dhis.analytics.util.AnalyticsSqlUtils.getCoalesce;
 import static org.hisp.dhis.analytics.util.AnalyticsSqlUtils.quote;
 import static org.hisp.dhis.analytics.util.AnalyticsSqlUtils.quoteAlias;
 import static org.hisp.dhis.analytics.util.AnalyticsUtils.throwIllegalQueryEx;
@@ -92,6 +93,7 @@ import org.apache.commons.lang3.time.DateUtils;
 import org.hisp.dhis.analytics.AggregationType;
 import org.hisp.dhis.analytics.EventOutputType;
 import org.hisp.dhis.analytics.SortOrder;
+import org.hisp.dhis.analytics.VectorTile;
 import org.hisp.dhis.analytics.analyze.ExecutionPlanStore;
 import org.hisp.dhis.analytics.common.ProgramIndicatorSubqueryBuilder;
 import org.hisp.dhis.analytics.event.EventQueryParams;
@@ -1356,6 +1358,81 @@ public abstract class AbstractJdbcEventAnalyticsManager {
     return unlimitedPaging && (Objects.isNull(params.getPageSize()) || params.getPageSize() == 0);
   }
 
+  /**
+   * Returns a Mapbox vector tile with the points of the given query within the given tile. Points
+   * are clustered in the grid cells of {@link VectorTile#getClusterSize()}. Each feature has the
+   * number of points in its cluster as count attribute and, for single points, the identifier of
+   * the point as id attribute.
+   *
+   * @param params the {@link EventQueryParams}, with the bbox of the tile.
+   * @param tile the {@link VectorTile}.
+   * @param layer the name of the layer in the tile.
+   * @param idColumn the column identifying the points.
+   * @param fallbackGeometryColumn the geometry column to use if no coordinate field is given.
+   * @return the tile encoded as protocol buffer, empty if there are no points.
+   */
+  protected byte[] getVectorTile(
+      EventQueryParams params,
+      VectorTile tile,
+      String layer,
+      String idColumn,
+      String fallbackGeometryColumn) {
+    String point =
+        "ST_Transform(ST_SetSRID(ST_Centroid("
+            + getCoalesce(params.getCoordinateFields(), fallbackGeometryColumn)
+            + "), 4326), 3857)";
+    double clusterSize = tile.getClusterSize();
+
+    String sql =
+        "select ST_AsMVT(t, '"
+            + layer
+            + "', "
+            + VectorTile.EXTENT
+            + ", 'geom') from (select count("
+            + idColumn
+            + ") as count, case when count("
+            + idColumn
+            + ") = 1 then min("
+            + idColumn
+            + ") end as id, ST_AsMVTGeom(ST_Centroid(ST_Collect("
+            + point
+            + ")), ST_TileEnvelope("
+            + tile.z()
+            + ", "
+            + tile.x()
+            + ", "
+            + tile.y()
+            + "), "
+            + VectorTile.EXTENT
+            + ", "
+            + VectorTile.BUFFER
+            + ", true) as geom ";
+
+    sql += getFromClause(params);
+
+    sql += getWhereClause(params);
+
+    sql +=
+        "group by ST_SnapToGrid("
+            + point
+            + ", "
+            + (clusterSize / 2)
+            + ", "
+            + (clusterSize / 2)
+            + ", "
+            + clusterSize
+            + ", "
+            + clusterSize
+            + ")) as t where geom is not null";
+
+    log.debug("Analytics vector tile SQL: '{}'", sql);
+
+    final String finalSqlValue = sql;
+
+    return withExceptionHandling(() -> jdbcTemplate.queryForObject(finalSqlValue, byte[].class))
+        .orElse(new byte[0]);
+  }
+
   /**
    * Returns a select SQL clause for the given query.
    *
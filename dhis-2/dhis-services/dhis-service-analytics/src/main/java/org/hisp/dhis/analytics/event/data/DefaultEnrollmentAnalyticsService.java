@@ -51,6 +51,7 @@ import static org.hisp.dhis.common.ValueType.TEXT;
 
 import java.util.List;
 import org.hisp.dhis.analytics.AnalyticsSecurityManager;
+import org.hisp.dhis.analytics.common.AnalyticsQueryAdmission;
 import org.hisp.dhis.analytics.data.handler.SchemeIdResponseMapper;
 import org.hisp.dhis.analytics.event.EnrollmentAnalyticsManager;
 import org.hisp.dhis.analytics.event.EnrollmentAnalyticsService;
@@ -79,21 +80,26 @@ public class DefaultEnrollmentAnalyticsService extends AbstractAnalyticsService
 
   private final EventQueryPlanner queryPlanner;
 
+  private final AnalyticsQueryAdmission queryAdmission;
+
   public DefaultEnrollmentAnalyticsService(
       EnrollmentAnalyticsManager enrollmentAnalyticsManager,
       AnalyticsSecurityManager securityManager,
       EventQueryPlanner queryPlanner,
       EventQueryValidator queryValidator,
       SchemeIdResponseMapper schemeIdResponseMapper,
-      UserService userService) {
+      UserService userService,
+      AnalyticsQueryAdmission queryAdmission) {
     super(securityManager, queryValidator, schemeIdResponseMapper, userService);
 
     checkNotNull(enrollmentAnalyticsManager);
     checkNotNull(queryPlanner);
     checkNotNull(schemeIdResponseMapper);
+    checkNotNull(queryAdmission);
 
     this.enrollmentAnalyticsManager = enrollmentAnalyticsManager;
     this.queryPlanner = queryPlanner;
+    this.queryAdmission = queryAdmission;
   }
 
   // -------------------------------------------------------------------------
@@ -102,7 +108,7 @@ public class DefaultEnrollmentAnalyticsService extends AbstractAnalyticsService
 
   @Override
   public Grid getEnrollments(EventQueryParams params) {
-    return getGrid(params);
+    return queryAdmission.admit(() -> getGrid(params));
   }
 
   @Override
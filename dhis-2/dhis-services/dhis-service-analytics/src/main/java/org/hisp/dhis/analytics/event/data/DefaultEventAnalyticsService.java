@@ -70,6 +70,7 @@ import static org.hisp.dhis.common.DimensionalObject.CATEGORYOPTIONCOMBO_DIM_ID;
 import static org.hisp.dhis.common.DimensionalObject.DATA_X_DIM_ID;
 import static org.hisp.dhis.common.DimensionalObject.ORGUNIT_DIM_ID;
 import static org.hisp.dhis.common.DimensionalObject.PERIOD_DIM_ID;
+import static org.hisp.dhis.common.RequestTypeAware.EndpointItem.ENROLLMENT;
 import static org.hisp.dhis.common.ValueType.BOOLEAN;
 import static org.hisp.dhis.common.ValueType.DATE;
 import static org.hisp.dhis.common.ValueType.NUMBER;
@@ -81,12 +82,15 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 import org.apache.commons.lang3.StringUtils;
 import org.hisp.dhis.analytics.AnalyticsSecurityManager;
 import org.hisp.dhis.analytics.DataQueryParams;
 import org.hisp.dhis.analytics.EventAnalyticsDimensionalItem;
 import org.hisp.dhis.analytics.Rectangle;
+import org.hisp.dhis.analytics.VectorTile;
 import org.hisp.dhis.analytics.cache.AnalyticsCache;
+import org.hisp.dhis.analytics.common.AnalyticsQueryAdmission;
 import org.hisp.dhis.analytics.common.ColumnHeader;
 import org.hisp.dhis.analytics.data.handler.SchemeIdResponseMapper;
 import org.hisp.dhis.analytics.event.EnrollmentAnalyticsManager;
@@ -159,6 +163,8 @@ public class DefaultEventAnalyticsService extends AbstractAnalyticsService
 
   private final AnalyticsCache analyticsCache;
 
+  private final AnalyticsQueryAdmission queryAdmission;
+
   public DefaultEventAnalyticsService(
       DataElementService dataElementService,
       TrackedEntityAttributeService trackedEntityAttributeService,
@@ -171,7 +177,8 @@ public class DefaultEventAnalyticsService extends AbstractAnalyticsService
       AnalyticsCache analyticsCache,
       EnrollmentAnalyticsManager enrollmentAnalyticsManager,
       SchemeIdResponseMapper schemeIdResponseMapper,
-      UserService userService) {
+      UserService userService,
+      AnalyticsQueryAdmission queryAdmission) {
     super(securityManager, queryValidator, schemeIdResponseMapper, userService);
 
     checkNotNull(dataElementService);
@@ -182,6 +189,7 @@ public class DefaultEventAnalyticsService extends AbstractAnalyticsService
     checkNotNull(databaseInfoProvider);
     checkNotNull(analyticsCache);
     checkNotNull(schemeIdResponseMapper);
+    checkNotNull(queryAdmission);
 
     this.dataElementService = dataElementService;
     this.trackedEntityAttributeService = trackedEntityAttributeService;
@@ -191,6 +199,7 @@ public class DefaultEventAnalyticsService extends AbstractAnalyticsService
     this.spatialSupport = databaseInfoProvider.getDatabaseInfo().isSpatialSupport();
     this.analyticsCache = analyticsCache;
     this.enrollmentAnalyticsManager = enrollmentAnalyticsManager;
+    this.queryAdmission = queryAdmission;
   }
 
   // -------------------------------------------------------------------------
@@ -226,10 +235,13 @@ public class DefaultEventAnalyticsService extends AbstractAnalyticsService
 
     if (analyticsCache.isEnabled() && !params.analyzeOnly()) {
       EventQueryParams immutableParams = new EventQueryParams.Builder(params).build();
-      return analyticsCache.getOrFetch(params, p -> getAggregatedEventDataGrid(immutableParams));
+      return analyticsCache.getOrFetch(
+          params, p -> queryAdmission.admit(() -> getAggregatedEventDataGrid(immutableParams)));
     }
 
-    return getAggregatedEventDataGrid(params);
+    EventQueryParams query = params;
+
+    return queryAdmission.admit(() -> getAggregatedEventDataGrid(query));
   }
 
   /**
@@ -608,7 +620,7 @@ public class DefaultEventAnalyticsService extends AbstractAnalyticsService
 
   @Override
   public Grid getEvents(EventQueryParams params) {
-    return getGrid(params);
+    return queryAdmission.admit(() -> getGrid(params));
   }
 
   @Override
@@ -678,6 +690,51 @@ public class DefaultEventAnalyticsService extends AbstractAnalyticsService
     return eventAnalyticsManager.getRectangle(params);
   }
 
+  @Override
+  public byte[] getVectorTile(EventQueryParams params, VectorTile tile) {
+    if (!spatialSupport) {
+      throwIllegalQueryEx(ErrorCode.E7218);
+    }
+
+    if (!tile.isValid()) {
+      throwIllegalQueryEx(ErrorCode.E7239, tile.getKey(), VectorTile.MAX_ZOOM);
+    }
+
+    boolean enrollments = params.getEndpointItem() == ENROLLMENT;
+
+    params =
+        new EventQueryParams.Builder(params)
+            .withGeometryOnly(true)
+            .withBbox(tile.getBbox())
+            .withStartEndDatesForPeriods()
+            .build();
+
+    securityManager.decideAccessEventQuery(params);
+
+    queryValidator.validate(params);
+
+    EventQueryParams query =
+        enrollments
+            ? queryPlanner.planEnrollmentQuery(params)
+            : queryPlanner.planEventQuery(params);
+
+    Supplier<byte[]> tileQuery =
+        () ->
+            queryAdmission.admit(
+                () ->
+                    enrollments
+                        ? enrollmentAnalyticsManager.getVectorTile(query, tile)
+                        : eventAnalyticsManager.getVectorTile(query, tile));
+
+    if (analyticsCache.isEnabled()) {
+      String key = (enrollments ? "enrollment_" : "event_") + tile.getKey();
+
+      return analyticsCache.getOrFetchTile(query, key, tileQuery);
+    }
+
+    return tileQuery.get();
+  }
+
   /**
    * Creates a grid with headers.
    *
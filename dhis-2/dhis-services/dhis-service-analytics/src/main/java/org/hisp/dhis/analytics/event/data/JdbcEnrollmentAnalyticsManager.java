@@ -52,6 +52,7 @@ import java.util.Map;
 import java.util.Optional;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import org.hisp.dhis.analytics.VectorTile;
 import org.hisp.dhis.analytics.analyze.ExecutionPlanStore;
 import org.hisp.dhis.analytics.common.ProgramIndicatorSubqueryBuilder;
 import org.hisp.dhis.analytics.event.EnrollmentAnalyticsManager;
@@ -241,6 +242,12 @@ public class JdbcEnrollmentAnalyticsManager extends AbstractJdbcEventAnalyticsMa
     return false;
   }
 
+  @Override
+  public byte[] getVectorTile(EventQueryParams params, VectorTile tile) {
+    return getVectorTile(
+        params, tile, "enrollments", "pi", FallbackCoordinateFieldType.PI_GEOMETRY.getValue());
+  }
+
   @Override
   public long getEnrollmentCount(EventQueryParams params) {
     String sql = "select count(pi) ";
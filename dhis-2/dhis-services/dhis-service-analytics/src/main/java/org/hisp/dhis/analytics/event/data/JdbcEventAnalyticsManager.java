@@ -68,6 +68,7 @@ import org.hisp.dhis.analytics.AggregationType;
 import org.hisp.dhis.analytics.OrgUnitField;
 import org.hisp.dhis.analytics.Rectangle;
 import org.hisp.dhis.analytics.TimeField;
+import org.hisp.dhis.analytics.VectorTile;
 import org.hisp.dhis.analytics.analyze.ExecutionPlanStore;
 import org.hisp.dhis.analytics.common.ProgramIndicatorSubqueryBuilder;
 import org.hisp.dhis.analytics.event.EventAnalyticsManager;
@@ -232,6 +233,12 @@ public class JdbcEventAnalyticsManager extends AbstractJdbcEventAnalyticsManager
     return grid;
   }
 
+  @Override
+  public byte[] getVectorTile(EventQueryParams params, VectorTile tile) {
+    return getVectorTile(
+        params, tile, "events", "psi", FallbackCoordinateFieldType.PSI_GEOMETRY.getValue());
+  }
+
   @Override
   public long getEventCount(EventQueryParams params) {
     String sql = "select count(1) ";
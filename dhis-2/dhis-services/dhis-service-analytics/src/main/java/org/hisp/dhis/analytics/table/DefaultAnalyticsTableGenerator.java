@@ -44,6 +44,7 @@ import org.hisp.dhis.analytics.AnalyticsTableService;
 import org.hisp.dhis.analytics.AnalyticsTableType;
 import org.hisp.dhis.analytics.AnalyticsTableUpdateParams;
 import org.hisp.dhis.analytics.cache.AnalyticsCache;
+import org.hisp.dhis.analytics.cache.DashboardCacheWarmer;
 import org.hisp.dhis.analytics.cache.OutliersCache;
 import org.hisp.dhis.resourcetable.ResourceTableService;
 import org.hisp.dhis.scheduling.JobProgress;
@@ -69,6 +70,8 @@ public class DefaultAnalyticsTableGenerator implements AnalyticsTableGenerator {
 
   private final OutliersCache outliersCache;
 
+  private final DashboardCacheWarmer dashboardCacheWarmer;
+
   // TODO introduce last successful timestamps per table type
 
   @Override
@@ -115,6 +118,12 @@ public class DefaultAnalyticsTableGenerator implements AnalyticsTableGenerator {
     progress.startingStage("Invalidate analytics caches", SKIP_STAGE);
     progress.runStage(analyticsCache::invalidateAll);
     progress.runStage(outliersCache::invalidateAll);
+
+    if (dashboardCacheWarmer.isEnabled()) {
+      progress.startingStage("Pre-warming analytics cache for most viewed dashboards", SKIP_STAGE);
+      progress.runStage("", summary -> summary, dashboardCacheWarmer::warm);
+    }
+
     progress.completedProcess("Analytics tables updated: " + clock.time());
   }
 
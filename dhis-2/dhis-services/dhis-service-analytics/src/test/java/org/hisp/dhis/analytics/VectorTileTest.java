@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.analytics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class VectorTileTest {
+  @Test
+  void testIsValid() {
+    assertTrue(new VectorTile(0, 0, 0).isValid());
+    assertTrue(new VectorTile(2, 3, 3).isValid());
+    assertTrue(new VectorTile(VectorTile.MAX_ZOOM, 0, 0).isValid());
+    assertFalse(new VectorTile(1, 2, 0).isValid());
+    assertFalse(new VectorTile(1, 0, -1).isValid());
+    assertFalse(new VectorTile(-1, 0, 0).isValid());
+    assertFalse(new VectorTile(VectorTile.MAX_ZOOM + 1, 0, 0).isValid());
+  }
+
+  @Test
+  void testGetBbox() {
+    assertEquals("-180.000000,-85.051129,180.000000,85.051129", new VectorTile(0, 0, 0).getBbox());
+    assertEquals("0.000000,0.000000,180.000000,85.051129", new VectorTile(1, 1, 0).getBbox());
+    assertEquals("-180.000000,-85.051129,-90.000000,-66.513260", new VectorTile(2, 0, 3).getBbox());
+  }
+
+  @Test
+  void testGetClusterSize() {
+    assertEquals(626172.135, new VectorTile(0, 0, 0).getClusterSize(), 0.001);
+    assertEquals(626172.135 / 1024, new VectorTile(10, 511, 340).getClusterSize(), 0.001);
+  }
+
+  @Test
+  void testGetKey() {
+    assertEquals("12/2048/1361", new VectorTile(12, 2048, 1361).getKey());
+  }
+}
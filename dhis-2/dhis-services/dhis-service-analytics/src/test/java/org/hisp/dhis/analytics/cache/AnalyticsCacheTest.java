@@ -27,13 +27,26 @@
  */
 package org.hisp.dhis.analytics.cache;
 
+import static org.hisp.dhis.DhisConvenienceTest.clearSecurityContext;
+import static org.hisp.dhis.DhisConvenienceTest.injectSecurityContext;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.hisp.dhis.analytics.DataQueryParams;
+import org.hisp.dhis.analytics.cache.AnalyticsCache.RecordedQuery;
+import org.hisp.dhis.analytics.cache.AnalyticsCache.WarmingStatistics;
 import org.hisp.dhis.cache.Cache;
 import org.hisp.dhis.cache.CacheBuilder;
 import org.hisp.dhis.cache.DefaultCacheProvider;
@@ -42,8 +55,12 @@ import org.hisp.dhis.cache.SimpleCacheBuilder;
 import org.hisp.dhis.common.Grid;
 import org.hisp.dhis.common.GridHeader;
 import org.hisp.dhis.dataelement.DataElement;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.setting.SystemSettingManager;
 import org.hisp.dhis.system.grid.ListGrid;
+import org.hisp.dhis.user.UserDetails;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
@@ -59,20 +76,17 @@ class AnalyticsCacheTest {
 
   @Mock private DefaultCacheProvider cacheProvider;
 
+  @Mock private DhisConfigurationProvider config;
+
+  @AfterEach
+  void tearDown() {
+    clearSecurityContext();
+  }
+
   @Test
   void returnSameObjectAfterModifyCachedObject() {
     // arrange
-    AnalyticsCacheSettings settings = new AnalyticsCacheSettings(systemSettingManager);
-
-    CacheBuilder<Grid> cacheBuilder = new SimpleCacheBuilder<>();
-
-    cacheBuilder.expireAfterWrite(1L, TimeUnit.MINUTES);
-
-    Cache<Grid> cache = new LocalCache<>(cacheBuilder);
-
-    Mockito.<Cache<Grid>>when(cacheProvider.createAnalyticsCache()).thenReturn(cache);
-
-    AnalyticsCache analyticsCache = new AnalyticsCache(cacheProvider, settings);
+    AnalyticsCache analyticsCache = createAnalyticsCache("0");
 
     Grid grid = new ListGrid();
     grid.addHeader(new GridHeader("Header1"))
@@ -113,4 +127,159 @@ class AnalyticsCacheTest {
 
     assertEquals(2, optCachedGrid.get().getRows().size());
   }
+
+  @Test
+  void testRecordsQueriesOfCurrentUser() {
+    AnalyticsCache analyticsCache = createAnalyticsCache("10");
+    DataQueryParams paramsA = createParams("dataElementA");
+    DataQueryParams paramsB = createParams("dataElementB");
+
+    injectUser("userUidA");
+
+    analyticsCache.getOrFetch(paramsA, p -> new ListGrid());
+    analyticsCache.getOrFetch(paramsB, p -> new ListGrid());
+    analyticsCache.getOrFetch(paramsB, p -> new ListGrid());
+
+    List<RecordedQuery> recorded = analyticsCache.getRecordedQueries();
+
+    assertEquals(2, recorded.size());
+    assertEquals(paramsB.getKey(), recorded.get(0).getParams().getKey());
+    assertEquals(2, recorded.get(0).getRequests());
+    assertEquals("userUidA", recorded.get(0).getUserUid());
+    assertEquals(1, recorded.get(1).getRequests());
+  }
+
+  @Test
+  void testWarmedEntriesAreReported() {
+    AnalyticsCache analyticsCache = createAnalyticsCache("10");
+    DataQueryParams paramsA = createParams("dataElementA");
+    DataQueryParams paramsB = createParams("dataElementB");
+
+    analyticsCache.warm(
+        () -> {
+          analyticsCache.getOrFetch(paramsA, p -> new ListGrid());
+          analyticsCache.getOrFetch(paramsB, p -> new ListGrid());
+        });
+
+    assertEquals(new WarmingStatistics(2, 0, 0), analyticsCache.getWarmingStatistics());
+
+    injectUser("userUidA");
+
+    analyticsCache.getOrFetch(paramsA, p -> new ListGrid());
+    analyticsCache.getOrFetch(paramsA, p -> new ListGrid());
+
+    assertEquals(new WarmingStatistics(2, 1, 2), analyticsCache.getWarmingStatistics());
+    assertEquals(1, analyticsCache.getRecordedQueries().size());
+
+    analyticsCache.invalidateAll();
+
+    assertEquals(new WarmingStatistics(0, 0, 0), analyticsCache.getWarmingStatistics());
+    assertEquals(2, analyticsCache.getTotalWarmedHits());
+    assertEquals(1, analyticsCache.getRecordedQueries().size());
+  }
+
+  @Test
+  void testConcurrentMissesRunQueryOnce() throws Exception {
+    AnalyticsCache analyticsCache = createAnalyticsCache("0");
+    DataQueryParams params = createParams("dataElementA");
+    AtomicInteger queries = new AtomicInteger();
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+
+    CompletableFuture<Grid> first =
+        CompletableFuture.supplyAsync(
+            () ->
+                analyticsCache.getOrFetch(
+                    params,
+                    p -> {
+                      queries.incrementAndGet();
+                      started.countDown();
+                      await(release);
+                      return new ListGrid().addHeader(new GridHeader("Header1"));
+                    }));
+    started.await();
+
+    CompletableFuture<Grid> second =
+        CompletableFuture.supplyAsync(
+            () ->
+                analyticsCache.getOrFetch(
+                    params,
+                    p -> {
+                      queries.incrementAndGet();
+                      return new ListGrid();
+                    }));
+    Thread.sleep(200);
+    release.countDown();
+
+    assertEquals(1, first.get(5, TimeUnit.SECONDS).getHeaderWidth());
+    assertEquals(1, second.get(5, TimeUnit.SECONDS).getHeaderWidth());
+    assertEquals(1, queries.get());
+  }
+
+  @Test
+  void testTilesAreCachedPerTileAndNotRecorded() {
+    AnalyticsCache analyticsCache = createAnalyticsCache("10");
+    DataQueryParams params = createParams("dataElementA");
+    AtomicInteger queries = new AtomicInteger();
+
+    injectUser("userUidA");
+
+    byte[] tile =
+        analyticsCache.getOrFetchTile(
+            params, "event_1/0/0", () -> new byte[] {(byte) queries.incrementAndGet()});
+    byte[] cachedTile =
+        analyticsCache.getOrFetchTile(
+            params, "event_1/0/0", () -> new byte[] {(byte) queries.incrementAndGet()});
+    byte[] otherTile =
+        analyticsCache.getOrFetchTile(
+            params, "event_1/1/0", () -> new byte[] {(byte) queries.incrementAndGet()});
+
+    assertArrayEquals(new byte[] {1}, tile);
+    assertArrayEquals(new byte[] {1}, cachedTile);
+    assertArrayEquals(new byte[] {2}, otherTile);
+    assertEquals(2, queries.get());
+    assertTrue(analyticsCache.getRecordedQueries().isEmpty());
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private AnalyticsCache createAnalyticsCache(String warmQueries) {
+    AnalyticsCacheSettings settings = new AnalyticsCacheSettings(systemSettingManager);
+
+    CacheBuilder<Grid> cacheBuilder = new SimpleCacheBuilder<>();
+
+    cacheBuilder.expireAfterWrite(1L, TimeUnit.MINUTES);
+
+    Cache<Grid> cache = new LocalCache<>(cacheBuilder);
+
+    Mockito.<Cache<Grid>>when(cacheProvider.createAnalyticsCache()).thenReturn(cache);
+    Mockito.<Cache<byte[]>>when(cacheProvider.createAnalyticsTileCache())
+        .thenReturn(new LocalCache<>(new SimpleCacheBuilder<>()));
+    Mockito.<Cache<String>>when(cacheProvider.createAnalyticsLeaseCache(any(Duration.class)))
+        .thenReturn(new LocalCache<>(new SimpleCacheBuilder<>()));
+    when(config.getProperty(ConfigurationKey.ANALYTICS_CACHE_WARM_QUERIES)).thenReturn(warmQueries);
+    when(config.getProperty(ConfigurationKey.ANALYTICS_CACHE_SINGLE_FLIGHT_TIMEOUT))
+        .thenReturn("120");
+
+    return new AnalyticsCache(cacheProvider, settings, config, new SimpleMeterRegistry());
+  }
+
+  private static DataQueryParams createParams(String dataElement) {
+    return DataQueryParams.newBuilder()
+        .withDataElements(List.of(new DataElement(dataElement)))
+        .build();
+  }
+
+  private static void injectUser(String uid) {
+    UserDetails user = mock(UserDetails.class);
+    when(user.getUid()).thenReturn(uid);
+
+    injectSecurityContext(user);
+  }
 }
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.analytics.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.hisp.dhis.analytics.AnalyticsQueryPriority;
+import org.hisp.dhis.common.QueryRuntimeException;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.hisp.dhis.feedback.ErrorCode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class AnalyticsQueryAdmissionTest {
+  @Mock private DhisConfigurationProvider config;
+
+  private final CountDownLatch release = new CountDownLatch(1);
+
+  @AfterEach
+  void tearDown() {
+    release.countDown();
+  }
+
+  @Test
+  void testBackgroundQueriesLeaveCapacityForInteractiveQueries() throws Exception {
+    AnalyticsQueryAdmission admission = createAdmission("2", "0");
+    CountDownLatch started = new CountDownLatch(1);
+
+    CompletableFuture<String> running =
+        CompletableFuture.supplyAsync(
+            () ->
+                AnalyticsQueryPriority.BACKGROUND.call(
+                    () -> admission.admit(() -> block(started))));
+    started.await();
+
+    QueryRuntimeException ex =
+        assertThrows(
+            QueryRuntimeException.class,
+            () -> AnalyticsQueryPriority.BACKGROUND.call(() -> admission.admit(() -> "value")));
+    assertEquals(ErrorCode.E7146, ex.getErrorCode());
+    assertEquals("value", admission.admit(() -> "value"));
+
+    release.countDown();
+    assertEquals("value", running.get(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void testQueuedQueryStartsWhenRunningQueryCompletes() throws Exception {
+    AnalyticsQueryAdmission admission = createAdmission("1", "10");
+    CountDownLatch started = new CountDownLatch(1);
+
+    CompletableFuture<String> running =
+        CompletableFuture.supplyAsync(() -> admission.admit(() -> block(started)));
+    started.await();
+
+    CompletableFuture<String> queued =
+        CompletableFuture.supplyAsync(() -> admission.admit(() -> "queued"));
+    Thread.sleep(100);
+    release.countDown();
+
+    assertEquals("value", running.get(5, TimeUnit.SECONDS));
+    assertEquals("queued", queued.get(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void testWaitingInteractiveQueryStartsBeforeWaitingBackgroundQuery() throws Exception {
+    AnalyticsQueryAdmission admission = createAdmission("1", "10");
+    CountDownLatch started = new CountDownLatch(1);
+    Queue<AnalyticsQueryPriority> startOrder = new ConcurrentLinkedQueue<>();
+
+    CompletableFuture<String> running =
+        CompletableFuture.supplyAsync(() -> admission.admit(() -> block(started)));
+    started.await();
+
+    CompletableFuture<Boolean> background =
+        CompletableFuture.supplyAsync(
+            () ->
+                AnalyticsQueryPriority.BACKGROUND.call(
+                    () ->
+                        admission.admit(() -> startOrder.add(AnalyticsQueryPriority.BACKGROUND))));
+    Thread.sleep(100);
+    CompletableFuture<Boolean> interactive =
+        CompletableFuture.supplyAsync(
+            () -> admission.admit(() -> startOrder.add(AnalyticsQueryPriority.INTERACTIVE)));
+    Thread.sleep(100);
+    release.countDown();
+
+    assertEquals("value", running.get(5, TimeUnit.SECONDS));
+    background.get(5, TimeUnit.SECONDS);
+    interactive.get(5, TimeUnit.SECONDS);
+    assertEquals(
+        List.of(AnalyticsQueryPriority.INTERACTIVE, AnalyticsQueryPriority.BACKGROUND),
+        List.copyOf(startOrder));
+  }
+
+  @Test
+  void testNestedQueryIsAdmittedOnce() {
+    AnalyticsQueryAdmission admission = createAdmission("1", "0");
+
+    assertEquals("value", admission.admit(() -> admission.admit(() -> "value")));
+  }
+
+  private String block(CountDownLatch started) {
+    started.countDown();
+    try {
+      release.await();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+    return "value";
+  }
+
+  private AnalyticsQueryAdmission createAdmission(String maxConcurrent, String queueTimeout) {
+    when(config.getProperty(ConfigurationKey.ANALYTICS_QUERY_MAX_CONCURRENT))
+        .thenReturn(maxConcurrent);
+    when(config.getProperty(ConfigurationKey.ANALYTICS_QUERY_MAX_CONCURRENT_PER_USER))
+        .thenReturn("1");
+    when(config.getProperty(ConfigurationKey.ANALYTICS_QUERY_MAX_CONCURRENT_BACKGROUND))
+        .thenReturn("1");
+    when(config.getProperty(ConfigurationKey.ANALYTICS_QUERY_QUEUE_TIMEOUT))
+        .thenReturn(queueTimeout);
+
+    return new AnalyticsQueryAdmission(config, new SimpleMeterRegistry());
+  }
+}
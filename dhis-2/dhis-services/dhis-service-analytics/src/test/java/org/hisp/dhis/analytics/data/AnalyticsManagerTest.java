@@ -42,6 +42,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.params.provider.Arguments.arguments;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -90,7 +91,9 @@ class AnalyticsManagerTest extends DhisConvenienceTest {
 
   @BeforeEach
   void before() {
-    analyticsManager = new JdbcAnalyticsManager(queryPlanner, jdbcTemplate, executionPlanStore);
+    analyticsManager =
+        new JdbcAnalyticsManager(
+            queryPlanner, jdbcTemplate, executionPlanStore, new SimpleMeterRegistry());
   }
 
   @ParameterizedTest
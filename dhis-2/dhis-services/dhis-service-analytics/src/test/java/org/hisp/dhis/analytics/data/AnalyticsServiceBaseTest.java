@@ -31,6 +31,7 @@ import static com.google.common.collect.Lists.newArrayList;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.hisp.dhis.analytics.AnalyticsManager;
 import org.hisp.dhis.analytics.AnalyticsSecurityManager;
 import org.hisp.dhis.analytics.DataQueryGroups;
@@ -119,7 +120,8 @@ abstract class AnalyticsServiceBaseTest {
             systemSettingManager,
             analyticsManager,
             organisationUnitService,
-            executionPlanStore);
+            executionPlanStore,
+            new SimpleMeterRegistry());
 
     target = new DataAggregator(headerHandler, metadataHandler, dataHandler);
     target.feedHandlers();
@@ -37,6 +37,7 @@ import static org.hisp.dhis.common.DimensionalObject.PERIOD_DIM_ID;
 import static org.hisp.dhis.common.DimensionalObjectUtils.getList;
 import static org.mockito.Mockito.when;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.hisp.dhis.analytics.AggregationType;
 import org.hisp.dhis.analytics.AnalyticsAggregationType;
 import org.hisp.dhis.analytics.AnalyticsTableType;
@@ -92,7 +93,11 @@ class JdbcAnalyticsManagerTest {
 
     when(jdbcTemplate.queryForRowSet(sql.capture())).thenReturn(rowSet);
 
-    subject = new JdbcAnalyticsManager(queryPlanner, jdbcTemplate, executionPlanStore);
+    subject =
+
+        new JdbcAnalyticsManager(
+
+            queryPlanner, jdbcTemplate, executionPlanStore, new SimpleMeterRegistry());
   }
 
   @Test
@@ -40,6 +40,7 @@ import static org.hisp.dhis.common.DimensionalObjectUtils.getList;
 import static org.hisp.dhis.subexpression.SubexpressionDimensionItem.getItemColumnName;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.List;
 import java.util.regex.Pattern;
 import org.hisp.dhis.analytics.AnalyticsAggregationType;
@@ -87,7 +88,9 @@ class JdbcSubexpressionQueryGeneratorTest {
   public void setUp() {
     QueryPlanner queryPlanner = new DefaultQueryPlanner(partitionManager);
 
-    jam = new JdbcAnalyticsManager(queryPlanner, jdbcTemplate, executionPlanStore);
+    jam =
+        new JdbcAnalyticsManager(
+            queryPlanner, jdbcTemplate, executionPlanStore, new SimpleMeterRegistry());
   }
 
   @Test
@@ -34,14 +34,17 @@ import static org.hisp.dhis.common.DimensionalObjectUtils.getList;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.atMost;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.google.common.collect.Sets;
+import java.util.function.Supplier;
 import org.hisp.dhis.analytics.AnalyticsSecurityManager;
 import org.hisp.dhis.analytics.Partitions;
 import org.hisp.dhis.analytics.cache.AnalyticsCache;
+import org.hisp.dhis.analytics.common.AnalyticsQueryAdmission;
 import org.hisp.dhis.analytics.data.handler.SchemeIdResponseMapper;
 import org.hisp.dhis.analytics.event.EnrollmentAnalyticsManager;
 import org.hisp.dhis.analytics.event.EventAnalyticsManager;
@@ -96,8 +99,13 @@ class DefaultEventAnalyticsServiceTest {
 
   @Mock private UserService userService;
 
+  @Mock private AnalyticsQueryAdmission queryAdmission;
+
   @BeforeEach
   public void setUp() {
+    lenient()
+        .when(queryAdmission.admit(any()))
+        .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
     when(databaseInfoProvider.getDatabaseInfo()).thenReturn(DatabaseInfo.builder().build());
     defaultEventAnalyticsService =
         new DefaultEventAnalyticsService(
@@ -112,7 +120,8 @@ class DefaultEventAnalyticsServiceTest {
             analyticsCache,
             enrollmentAnalyticsManager,
             schemeIdResponseMapper,
-            userService);
+            userService,
+            queryAdmission);
   }
 
   @Test
@@ -30,16 +30,91 @@ package org.hisp.dhis.analytics.event.data;
 import static org.hisp.dhis.analytics.event.data.JdbcEventAnalyticsManager.ExceptionHandler.handle;
 import static org.hisp.dhis.feedback.ErrorCode.E7132;
 import static org.hisp.dhis.feedback.ErrorCode.E7133;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 import static org.postgresql.util.PSQLState.BAD_DATETIME_FORMAT;
 import static org.postgresql.util.PSQLState.DIVISION_BY_ZERO;
 
+import org.hisp.dhis.analytics.VectorTile;
+import org.hisp.dhis.analytics.analyze.ExecutionPlanStore;
+import org.hisp.dhis.analytics.event.EventQueryParams;
+import org.hisp.dhis.analytics.event.data.programindicator.DefaultProgramIndicatorSubqueryBuilder;
 import org.hisp.dhis.common.QueryRuntimeException;
+import org.hisp.dhis.jdbc.statementbuilder.PostgreSQLStatementBuilder;
+import org.hisp.dhis.program.ProgramIndicatorService;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
 import org.postgresql.util.PSQLException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class JdbcEventAnalyticsManagerTest extends EventAnalyticsTest {
+  @Mock private JdbcTemplate jdbcTemplate;
+
+  @Mock private ExecutionPlanStore executionPlanStore;
+
+  @Captor private ArgumentCaptor<String> sql;
+
+  @Test
+  void testGetVectorTileSql() {
+    ProgramIndicatorService programIndicatorService = mock(ProgramIndicatorService.class);
+    JdbcEventAnalyticsManager subject =
+        new JdbcEventAnalyticsManager(
+            jdbcTemplate,
+            programIndicatorService,
+            new DefaultProgramIndicatorSubqueryBuilder(programIndicatorService),
+            new EventTimeFieldSqlRenderer(new PostgreSQLStatementBuilder()),
+            executionPlanStore);
+    EventQueryParams params = createRequestParams();
+    VectorTile tile = new VectorTile(1, 0, 0);
+    double clusterSize = tile.getClusterSize();
+
+    when(jdbcTemplate.queryForObject(sql.capture(), eq(byte[].class)))
+        .thenReturn(new byte[] {1});
+
+    assertArrayEquals(new byte[] {1}, subject.getVectorTile(params, tile));
+
+    String point =
+        "ST_Transform(ST_SetSRID(ST_Centroid(coalesce(ax.\"psigeometry\",ax.\"pigeometry\","
+            + "ax.\"teigeometry\",ax.\"ougeometry\")), 4326), 3857)";
+
+    assertTrue(
+        sql.getValue()
+            .startsWith(
+                "select ST_AsMVT(t, 'events', 4096, 'geom') from (select count(psi) as count, "
+                    + "case when count(psi) = 1 then min(psi) end as id, "
+                    + "ST_AsMVTGeom(ST_Centroid(ST_Collect("
+                    + point
+                    + ")), ST_TileEnvelope(1, 0, 0), 4096, 64, true) as geom  from "
+                    + params.getTableName()
+                    + " as ax where "),
+        sql.getValue());
+    assertTrue(
+        sql.getValue()
+            .endsWith(
+                "group by ST_SnapToGrid("
+                    + point
+                    + ", "
+                    + (clusterSize / 2)
+                    + ", "
+                    + (clusterSize / 2)
+                    + ", "
+                    + clusterSize
+                    + ", "
+                    + clusterSize
+                    + ")) as t where geom is not null"),
+        sql.getValue());
+  }
 
-class JdbcEventAnalyticsManagerTest {
   @Test
   void testHandlingDataIntegrityExceptionWhenDivisionByZero() {
     DataIntegrityViolationException aDivisionByZeroException =
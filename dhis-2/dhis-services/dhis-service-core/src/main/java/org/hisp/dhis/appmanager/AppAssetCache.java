@@ -0,0 +1,252 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.appmanager;
+
+import static org.hisp.dhis.external.conf.ConfigurationKey.APP_ASSET_CACHE_SIZE;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+import javax.annotation.CheckForNull;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FilenameUtils;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory cache of the files of installed apps, holding the content of each file together with
+ * its gzip variant and content hash so that requests for app files are served without reading from
+ * the file store. Brotli variants are served when the app ships precompressed {@code .br} files
+ * next to the originals.
+ *
+ * <p>The cache is bounded by the total size of the held content. Entries are keyed by app key,
+ * version and path, and are filled when an app is installed or discovered on startup, and
+ * otherwise on first request.
+ */
+@Slf4j
+@Component
+public class AppAssetCache {
+  /** Files larger than this are not held in memory but streamed from the file store. */
+  private static final int MAX_ASSET_SIZE = 4 * 1024 * 1024;
+
+  private static final String BROTLI_EXTENSION = ".br";
+
+  private static final Set<String> COMPRESSIBLE_EXTENSIONS =
+      Set.of(
+          "html", "htm", "js", "mjs", "css", "json", "map", "svg", "txt", "xml", "webapp", "ico",
+          "csv", "wasm");
+
+  @CheckForNull private final Cache<String, AppAsset> assets;
+
+  public AppAssetCache(DhisConfigurationProvider dhisConfigurationProvider) {
+    long maxSize =
+        Long.parseLong(dhisConfigurationProvider.getProperty(APP_ASSET_CACHE_SIZE)) * 1024 * 1024;
+
+    this.assets =
+        maxSize <= 0
+            ? null
+            : CacheBuilder.newBuilder()
+                .maximumWeight(maxSize)
+                .weigher((String key, AppAsset asset) -> asset.getWeight())
+                .build();
+  }
+
+  /**
+   * Returns the cached asset for the given app file, loading it from the given storage if not
+   * present.
+   *
+   * @param app the app.
+   * @param pageName the path of the file within the app.
+   * @param storage the storage service holding the app.
+   * @return the asset, or null if the file does not exist, is too large or the cache is disabled.
+   */
+  @CheckForNull
+  public AppAsset get(App app, String pageName, AppStorageService storage) throws IOException {
+    if (assets == null) {
+      return null;
+    }
+
+    String key = getKey(app, pageName);
+    AppAsset asset = assets.getIfPresent(key);
+
+    if (asset == null) {
+      asset = load(app, pageName, storage);
+
+      if (asset != null) {
+        assets.put(key, asset);
+      }
+    }
+
+    return asset;
+  }
+
+  /**
+   * Loads all files of the given app into the cache in the background.
+   *
+   * @param app the app.
+   * @param storage the storage service holding the app.
+   */
+  @Async
+  public void warm(App app, AppStorageService storage) {
+    List<String> paths = assets == null ? List.of() : storage.getAppResourcePaths(app);
+
+    if (paths.isEmpty()) {
+      return;
+    }
+
+    for (String path : paths) {
+      if (path.endsWith(BROTLI_EXTENSION)) {
+        continue;
+      }
+
+      try {
+        get(app, path, storage);
+      } catch (IOException | RuntimeException ex) {
+        log.debug(String.format("Failed to cache file '%s' of app '%s'", path, app.getKey()), ex);
+      }
+    }
+
+    log.info(String.format("Cached %d files of app '%s'", paths.size(), app.getKey()));
+  }
+
+  /**
+   * Removes all files of all versions of the given app from the cache.
+   *
+   * @param app the app.
+   */
+  public void invalidate(App app) {
+    if (assets != null) {
+      String prefix = app.getKey() + "/";
+      assets.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+    }
+  }
+
+  /** Removes all files from the cache. */
+  public void invalidateAll() {
+    if (assets != null) {
+      assets.invalidateAll();
+    }
+  }
+
+  // -------------------------------------------------------------------------
+  // Supportive methods
+  // -------------------------------------------------------------------------
+
+  private static String getKey(App app, String pageName) {
+    return app.getKey() + "/" + app.getVersion() + "/" + pageName.replaceAll("^/+", "");
+  }
+
+  @CheckForNull
+  private static AppAsset load(App app, String pageName, AppStorageService storage)
+      throws IOException {
+    Resource resource = storage.getAppResource(app, pageName);
+    String filename = resource == null ? null : resource.getFilename();
+
+    if (filename == null) {
+      return null;
+    }
+
+    byte[] content = read(resource);
+
+    if (content == null) {
+      return null;
+    }
+
+    byte[] gzipContent = isCompressible(filename) ? gzip(content) : null;
+
+    // The original path is only a sibling of the brotli file if it did not resolve to an index
+    byte[] brotliContent =
+        pageName.endsWith(filename)
+            ? read(storage.getAppResource(app, pageName + BROTLI_EXTENSION))
+            : null;
+
+    return new AppAsset(
+        filename,
+        content,
+        gzipContent,
+        brotliContent,
+        Hashing.sha256().hashBytes(content).toString(),
+        getLastModified(resource));
+  }
+
+  /**
+   * Reads the content of the given resource.
+   *
+   * @return the content, or null if the resource does not exist or is too large to be cached.
+   */
+  @CheckForNull
+  private static byte[] read(@CheckForNull Resource resource) throws IOException {
+    if (resource == null) {
+      return null;
+    }
+
+    try (InputStream in = resource.getInputStream()) {
+      byte[] content = in.readNBytes(MAX_ASSET_SIZE + 1);
+      return content.length > MAX_ASSET_SIZE ? null : content;
+    } catch (FileNotFoundException ex) {
+      return null;
+    }
+  }
+
+  private static boolean isCompressible(String filename) {
+    return COMPRESSIBLE_EXTENSIONS.contains(FilenameUtils.getExtension(filename).toLowerCase());
+  }
+
+  /**
+   * Compresses the given content with gzip.
+   *
+   * @return the compressed content, or null if compression does not reduce the size.
+   */
+  @CheckForNull
+  private static byte[] gzip(byte[] content) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(content.length / 2 + 32);
+
+    try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+      gzip.write(content);
+    }
+
+    return out.size() < content.length ? out.toByteArray() : null;
+  }
+
+  private static long getLastModified(Resource resource) {
+    try {
+      return resource.lastModified();
+    } catch (IOException ex) {
+      return 0;
+    }
+  }
+}
@@ -84,6 +84,7 @@ public class DefaultAppManager implements AppManager {
   private final AppStorageService localAppStorageService;
   private final AppStorageService jCloudsAppStorageService;
   private final DatastoreService datastoreService;
+  private final AppAssetCache appAssetCache;
 
   /**
    * In-memory storage of installed apps. Initially loaded on startup. Should not be cleared during
@@ -99,18 +100,21 @@ public class DefaultAppManager implements AppManager {
       @Qualifier("org.hisp.dhis.appmanager.JCloudsAppStorageService")
           AppStorageService jCloudsAppStorageService,
       DatastoreService datastoreService,
-      CacheBuilderProvider cacheBuilderProvider) {
+      CacheBuilderProvider cacheBuilderProvider,
+      AppAssetCache appAssetCache) {
     checkNotNull(dhisConfigurationProvider);
     checkNotNull(localAppStorageService);
     checkNotNull(jCloudsAppStorageService);
     checkNotNull(datastoreService);
     checkNotNull(cacheBuilderProvider);
+    checkNotNull(appAssetCache);
 
     this.dhisConfigurationProvider = dhisConfigurationProvider;
     this.appHubService = appHubService;
     this.localAppStorageService = localAppStorageService;
     this.jCloudsAppStorageService = jCloudsAppStorageService;
     this.datastoreService = datastoreService;
+    this.appAssetCache = appAssetCache;
     this.appCache = cacheBuilderProvider.<App>newCacheBuilder().forRegion("appCache").build();
   }
 
@@ -276,6 +280,8 @@ public class DefaultAppManager implements AppManager {
     if (app.getAppState().ok()) {
       appCache.put(app.getKey(), app);
       registerDatastoreProtection(app);
+      appAssetCache.invalidate(app);
+      appAssetCache.warm(app, jCloudsAppStorageService);
     }
 
     return app.getAppState();
@@ -333,6 +339,7 @@ public class DefaultAppManager implements AppManager {
         deleteAppData(app);
       }
       appCache.invalidate(app.getKey());
+      appAssetCache.invalidate(app);
     }
   }
 
@@ -365,6 +372,8 @@ public class DefaultAppManager implements AppManager {
   @Override
   @PostConstruct
   public void reloadApps() {
+    appAssetCache.invalidateAll();
+
     localAppStorageService.discoverInstalledApps().values().stream()
         .filter(app -> !exists(app.getKey()))
         .forEach(this::installApp);
@@ -375,6 +384,7 @@ public class DefaultAppManager implements AppManager {
   private void installApp(App app) {
     appCache.put(app.getKey(), app);
     registerDatastoreProtection(app);
+    appAssetCache.warm(app, getAppStorageServiceByApp(app));
   }
 
   @Override
@@ -388,6 +398,11 @@ public class DefaultAppManager implements AppManager {
     return getAppStorageServiceByApp(app).getAppResource(app, pageName);
   }
 
+  @Override
+  public AppAsset getAppAsset(App app, String pageName) throws IOException {
+    return appAssetCache.get(app, pageName, getAppStorageServiceByApp(app));
+  }
+
   // -------------------------------------------------------------------------
   // Supportive methods
   // -------------------------------------------------------------------------
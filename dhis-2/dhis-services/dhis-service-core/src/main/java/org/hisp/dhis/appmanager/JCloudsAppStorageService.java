@@ -51,6 +51,7 @@ import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.hisp.dhis.cache.Cache;
 import org.hisp.dhis.commons.util.DebugUtils;
@@ -66,6 +67,7 @@ import org.jclouds.blobstore.BlobStoreContext;
 import org.jclouds.blobstore.LocalBlobRequestSigner;
 import org.jclouds.blobstore.domain.Blob;
 import org.jclouds.blobstore.domain.StorageMetadata;
+import org.jclouds.blobstore.domain.StorageType;
 import org.jclouds.blobstore.internal.RequestSigningUnsupported;
 import org.jclouds.domain.Credentials;
 import org.jclouds.domain.Location;
@@ -480,6 +482,21 @@ public class JCloudsAppStorageService implements AppStorageService {
     return new UrlResource(uri);
   }
 
+  @Override
+  public List<String> getAppResourcePaths(App app) {
+    String folder = StringUtils.appendIfMissing(app.getFolderName(), "/");
+    List<String> paths = new ArrayList<>();
+
+    for (StorageMetadata resource :
+        blobStore.list(config.container, prefix(folder).recursive())) {
+      if (resource.getType() == StorageType.BLOB && resource.getName().startsWith(folder)) {
+        paths.add(resource.getName().substring(folder.length()));
+      }
+    }
+
+    return paths;
+  }
+
   private static Location createRegionLocation(BlobStoreProperties config, Location provider) {
     return config.location != null
         ? new LocationBuilder()
@@ -35,6 +35,8 @@ import org.hisp.dhis.dataelement.DataElementService;
 import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.i18n.I18nLocaleService;
 import org.hisp.dhis.organisationunit.OrganisationUnitService;
+import org.hisp.dhis.period.PeriodRegistry;
+import org.hisp.dhis.period.PeriodRegistryLoader;
 import org.hisp.dhis.period.PeriodStore;
 import org.hisp.dhis.period.PeriodTypePopulator;
 import org.hisp.dhis.scheduling.JobScheduler;
@@ -63,6 +65,16 @@ public class StartupConfig {
     return populator;
   }
 
+  @Bean("org.hisp.dhis.period.PeriodRegistryLoader")
+  public PeriodRegistryLoader periodRegistryLoader(PeriodRegistry periodRegistry) {
+    PeriodRegistryLoader loader = new PeriodRegistryLoader(periodRegistry);
+    loader.setName("PeriodRegistryLoader");
+    loader.setRunlevel(14);
+    loader.setSkipInTests(true);
+    loader.setRunConcurrently(true);
+    return loader;
+  }
+
   @Bean("org.hisp.dhis.dataelement.DataElementDefaultDimensionPopulator")
   public DataElementDefaultDimensionPopulator dataElementDefaultDimensionPopulator(
       DataElementService dataElementService, CategoryService categoryService) {
@@ -89,8 +101,10 @@ public class StartupConfig {
   public I18nLocalePopulator i18nLocalePopulator(I18nLocaleService i18nLocaleService) {
     I18nLocalePopulator populator = new I18nLocalePopulator(i18nLocaleService);
     populator.setName("I18nLocalePopulator");
-    populator.setRunlevel(13);
+    populator.setRunlevel(14);
     populator.setSkipInTests(true);
+    populator.setRunConcurrently(true);
+    populator.setRunOncePerCluster(true);
     return populator;
   }
 
@@ -101,6 +115,7 @@ public class StartupConfig {
     upgrader.setName("ModelUpgrader");
     upgrader.setRunlevel(7);
     upgrader.setSkipInTests(true);
+    upgrader.setRunOncePerCluster(true);
     return upgrader;
   }
 
@@ -110,6 +125,8 @@ public class StartupConfig {
     upgrader.setRunlevel(14);
     upgrader.setName("SettingUpgrader");
     upgrader.setSkipInTests(true);
+    upgrader.setRunConcurrently(true);
+    upgrader.setRunOncePerCluster(true);
     return upgrader;
   }
 
@@ -62,6 +62,8 @@ import org.springframework.transaction.annotation.Transactional;
 public class DefaultDataApprovalLevelService implements DataApprovalLevelService {
   private final DataApprovalLevelStore dataApprovalLevelStore;
 
+  private final DataApprovalStore dataApprovalStore;
+
   private final OrganisationUnitService organisationUnitService;
 
   private final CategoryService categoryService;
@@ -501,6 +503,10 @@ public class DefaultDataApprovalLevelService implements DataApprovalLevelService
 
     update(d1, index);
     update(d2, index + 1);
+
+    // The highest approval level of an org unit may have changed
+
+    dataApprovalStore.refreshDataApprovalStates();
   }
 
   /**
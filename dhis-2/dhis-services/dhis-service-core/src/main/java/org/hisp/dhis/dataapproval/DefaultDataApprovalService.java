@@ -102,6 +102,10 @@ public class DefaultDataApprovalService implements DataApprovalService {
   @Transactional
   public void updateWorkflow(DataApprovalWorkflow dataApprovalWorkflow) {
     workflowStore.update(dataApprovalWorkflow);
+
+    // The approval levels of the workflow may have changed
+
+    dataApprovalStore.refreshDataApprovalStates(dataApprovalWorkflow);
   }
 
   @Override
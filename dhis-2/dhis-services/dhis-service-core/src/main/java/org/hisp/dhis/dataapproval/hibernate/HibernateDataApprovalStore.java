@@ -38,6 +38,8 @@ import static org.hisp.dhis.dataapproval.DataApprovalState.UNAPPROVED_WAITING;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -78,6 +80,8 @@ import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
  * @author Jim Grace
@@ -93,6 +97,67 @@ public class HibernateDataApprovalStore extends HibernateGenericStore<DataApprov
   private static final String SQL_CAT =
       StatementBuilder.QUOTE + SQL_CONCAT + StatementBuilder.QUOTE;
 
+  private static final String STATE_INSERT =
+      "insert into dataapprovalstate (workflowid, periodid, organisationunitid, "
+          + "attributeoptioncomboid, dataapprovallevelid, accepted) "
+          + "select distinct on (da.workflowid, da.periodid, da.organisationunitid, "
+          + "da.attributeoptioncomboid) da.workflowid, da.periodid, da.organisationunitid, "
+          + "da.attributeoptioncomboid, da.dataapprovallevelid, coalesce(da.accepted, false) "
+          + "from dataapproval da "
+          + "join dataapprovallevel dal on dal.dataapprovallevelid = da.dataapprovallevelid "
+          + "join dataapprovalworkflowlevels dwl on dwl.workflowid = da.workflowid "
+          + "and dwl.dataapprovallevelid = da.dataapprovallevelid "
+          + "where da.workflowid is not null and da.attributeoptioncomboid is not null ";
+
+  private static final String STATE_ORDER =
+      "order by da.workflowid, da.periodid, da.organisationunitid, da.attributeoptioncomboid, "
+          + "dal.level ";
+
+  private static final String STATE_UPSERT =
+      STATE_INSERT
+          + "and da.workflowid = ? and da.periodid = ? and da.organisationunitid = ? "
+          + "and da.attributeoptioncomboid = ? "
+          + STATE_ORDER
+          + "on conflict (workflowid, periodid, attributeoptioncomboid, organisationunitid) "
+          + "do update set dataapprovallevelid = excluded.dataapprovallevelid, "
+          + "accepted = excluded.accepted";
+
+  private static final String STATE_DELETE_IF_UNAPPROVED =
+      "delete from dataapprovalstate s where s.workflowid = ? and s.periodid = ? "
+          + "and s.organisationunitid = ? and s.attributeoptioncomboid = ? "
+          + "and not exists (select 1 from dataapproval da "
+          + "join dataapprovalworkflowlevels dwl on dwl.workflowid = da.workflowid "
+          + "and dwl.dataapprovallevelid = da.dataapprovallevelid "
+          + "where da.workflowid = s.workflowid "
+          + "and da.periodid = s.periodid and da.organisationunitid = s.organisationunitid "
+          + "and da.attributeoptioncomboid = s.attributeoptioncomboid)";
+
+  /** Advisory lock class identifier, combined with the state key hash to form the lock key. */
+  private static final int STATE_LOCK_CLASS_ID = 730124;
+
+  /**
+   * Identifies an approval state: the highest approval level of a workflow, period, org unit and
+   * attribute option combo, among the approval levels currently assigned to the workflow.
+   */
+  private record StateKey(long workflowId, long periodId, long orgUnitId, long aocId) {
+    private static final Comparator<StateKey> ORDER =
+        Comparator.comparingLong(StateKey::workflowId)
+            .thenComparingLong(StateKey::periodId)
+            .thenComparingLong(StateKey::orgUnitId)
+            .thenComparingLong(StateKey::aocId);
+
+    Object[] toArgs() {
+      return new Object[] {workflowId, periodId, orgUnitId, aocId};
+    }
+
+    String toLockName() {
+      return workflowId + SQL_CONCAT + periodId + SQL_CONCAT + orgUnitId + SQL_CONCAT + aocId;
+    }
+  }
+
+  /** Binds the approval states changed in the current transaction. */
+  private final Object pendingStatesResource = new Object();
+
   private final Cache<Boolean> isApprovedCache;
 
   // -------------------------------------------------------------------------
@@ -152,6 +217,8 @@ public class HibernateDataApprovalStore extends HibernateGenericStore<DataApprov
     dataApproval.setPeriod(periodService.reloadPeriod(dataApproval.getPeriod()));
 
     save(dataApproval);
+
+    markDataApprovalStateChanged(dataApproval);
   }
 
   @Override
@@ -161,6 +228,8 @@ public class HibernateDataApprovalStore extends HibernateGenericStore<DataApprov
     dataApproval.setPeriod(periodService.reloadPeriod(dataApproval.getPeriod()));
 
     update(dataApproval);
+
+    markDataApprovalStateChanged(dataApproval);
   }
 
   @Override
@@ -170,6 +239,8 @@ public class HibernateDataApprovalStore extends HibernateGenericStore<DataApprov
     dataApproval.setPeriod(periodService.reloadPeriod(dataApproval.getPeriod()));
 
     delete(dataApproval);
+
+    markDataApprovalStateChanged(dataApproval);
   }
 
   @Override
@@ -179,6 +250,139 @@ public class HibernateDataApprovalStore extends HibernateGenericStore<DataApprov
     String hql = "delete from DataApproval d where d.organisationUnit = :unit";
 
     getSession().createQuery(hql).setParameter("unit", organisationUnit).executeUpdate();
+
+    jdbcTemplate.update(
+        "delete from dataapprovalstate where organisationunitid = ?", organisationUnit.getId());
+  }
+
+  @Override
+  public void refreshDataApprovalStates(Collection<OrganisationUnit> organisationUnits) {
+    if (organisationUnits.isEmpty()) {
+      return;
+    }
+
+    isApprovedCache.invalidateAll();
+
+    updatePendingDataApprovalStates();
+
+    String orgUnitIds =
+        StringUtils.join(IdentifiableObjectUtils.getIdentifiers(organisationUnits), ",");
+
+    jdbcTemplate.update(
+        "delete from dataapprovalstate where organisationunitid in (" + orgUnitIds + ")");
+    jdbcTemplate.update(
+        STATE_INSERT + "and da.organisationunitid in (" + orgUnitIds + ") " + STATE_ORDER);
+  }
+
+  @Override
+  public void refreshDataApprovalStates(DataApprovalWorkflow workflow) {
+    isApprovedCache.invalidateAll();
+
+    updatePendingDataApprovalStates();
+
+    getSession().flush();
+
+    jdbcTemplate.update("delete from dataapprovalstate where workflowid = ?", workflow.getId());
+    jdbcTemplate.update(STATE_INSERT + "and da.workflowid = ? " + STATE_ORDER, workflow.getId());
+  }
+
+  @Override
+  public void refreshDataApprovalStates() {
+    isApprovedCache.invalidateAll();
+
+    updatePendingDataApprovalStates();
+
+    getSession().flush();
+
+    jdbcTemplate.update("delete from dataapprovalstate");
+    jdbcTemplate.update(STATE_INSERT + STATE_ORDER);
+  }
+
+  /**
+   * Remembers that the approval state of the given data approval changed. The state table is
+   * updated once for all changes of a transaction, before it commits or before approval statuses
+   * are read within it.
+   *
+   * @param dataApproval the changed data approval.
+   */
+  @SuppressWarnings("unchecked")
+  private void markDataApprovalStateChanged(DataApproval dataApproval) {
+    if (dataApproval.getWorkflow() == null || dataApproval.getAttributeOptionCombo() == null) {
+      return;
+    }
+
+    StateKey key =
+        new StateKey(
+            dataApproval.getWorkflow().getId(),
+            dataApproval.getPeriod().getId(),
+            dataApproval.getOrganisationUnit().getId(),
+            dataApproval.getAttributeOptionCombo().getId());
+
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      updateDataApprovalStates(Set.of(key));
+      return;
+    }
+
+    Set<StateKey> pending =
+        (Set<StateKey>) TransactionSynchronizationManager.getResource(pendingStatesResource);
+
+    if (pending == null) {
+      pending = new LinkedHashSet<>();
+      TransactionSynchronizationManager.bindResource(pendingStatesResource, pending);
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+              updatePendingDataApprovalStates();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+              TransactionSynchronizationManager.unbindResourceIfPossible(pendingStatesResource);
+            }
+          });
+    }
+
+    pending.add(key);
+  }
+
+  /** Updates the approval states changed so far in the current transaction. */
+  @SuppressWarnings("unchecked")
+  private void updatePendingDataApprovalStates() {
+    Set<StateKey> pending =
+        (Set<StateKey>) TransactionSynchronizationManager.getResource(pendingStatesResource);
+
+    if (pending != null && !pending.isEmpty()) {
+      updateDataApprovalStates(pending);
+      pending.clear();
+    }
+  }
+
+  /**
+   * Recomputes the highest approval of the given states from the data approvals. The session is
+   * flushed first so that the recomputation sees the changes made to data approvals.
+   *
+   * <p>Each state is locked until the transaction ends, so that transactions which change the
+   * approvals of the same state recompute it one after the other, each from the approvals committed
+   * by the previous one. States are locked in key order to avoid deadlocks between transactions.
+   */
+  private void updateDataApprovalStates(Set<StateKey> keys) {
+    getSession().flush();
+
+    List<StateKey> sortedKeys = keys.stream().sorted(StateKey.ORDER).toList();
+
+    for (StateKey key : sortedKeys) {
+      jdbcTemplate.query(
+          "select pg_advisory_xact_lock(?, hashtext(?))",
+          rs -> {},
+          STATE_LOCK_CLASS_ID,
+          key.toLockName());
+    }
+
+    List<Object[]> args = sortedKeys.stream().map(StateKey::toArgs).toList();
+
+    jdbcTemplate.batchUpdate(STATE_UPSERT, args);
+    jdbcTemplate.batchUpdate(STATE_DELETE_IF_UNAPPROVED, args);
   }
 
   @Override
@@ -282,6 +486,9 @@ public class HibernateDataApprovalStore extends HibernateGenericStore<DataApprov
       Set<CategoryOptionCombo> attributeOptionCombos,
       List<DataApprovalLevel> userApprovalLevels,
       Map<Integer, DataApprovalLevel> levelMap) {
+    // Statuses are read from the approval state, which must include the changes made so far
+    updatePendingDataApprovalStates();
+
     // ---------------------------------------------------------------------
     // Get validation criteria
     // ---------------------------------------------------------------------
@@ -491,6 +698,13 @@ public class HibernateDataApprovalStore extends HibernateGenericStore<DataApprov
       userApprovalLevelRestrictions += ") ";
     }
 
+    // The approval state holds the highest approval of each org unit, which is read unless the
+    // user may only see some of the approval levels. Approved above and ready below ask for an
+    // approval at one exact level, which only the data approvals record.
+
+    String highestApprovedTable =
+        userApprovalLevelRestrictions.isEmpty() ? "dataapprovalstate" : "dataapproval";
+
     String coEndDateExtension = workflow.getSqlCoEndDateExtension();
 
     String approvedAboveSubquery = "false"; // Not approved above if this is
@@ -617,7 +831,9 @@ public class HibernateDataApprovalStore extends HibernateGenericStore<DataApprov
                 SQL_CAT,
                 "da.organisationunitid")
             + ") "
-            + "from dataapproval da "
+            + "from "
+            + highestApprovedTable
+            + " da "
             + "join dataapprovallevel dal on dal.dataapprovallevelid = da.dataapprovallevelid "
             + highestApprovedOrgUnitJoin
             + "where da.workflowid = "
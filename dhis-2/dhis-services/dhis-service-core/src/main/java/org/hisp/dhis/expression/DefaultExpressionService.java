@@ -87,6 +87,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -106,6 +107,7 @@ import org.hisp.dhis.common.IdScheme;
 import org.hisp.dhis.common.IdentifiableObject;
 import org.hisp.dhis.common.IdentifiableObjectManager;
 import org.hisp.dhis.common.IdentifiableObjectUtils;
+import org.hisp.dhis.common.ValueType;
 import org.hisp.dhis.commons.collection.CachingMap;
 import org.hisp.dhis.commons.util.TextUtils;
 import org.hisp.dhis.constant.Constant;
@@ -117,6 +119,7 @@ import org.hisp.dhis.expression.dataitem.DimItemProgramAttribute;
 import org.hisp.dhis.expression.dataitem.DimItemProgramDataElement;
 import org.hisp.dhis.expression.dataitem.DimItemProgramIndicator;
 import org.hisp.dhis.expression.dataitem.DimItemReportingRate;
+import org.hisp.dhis.expression.dataitem.DimensionalItem;
 import org.hisp.dhis.expression.dataitem.ItemDays;
 import org.hisp.dhis.expression.dataitem.ItemOrgUnitGroupCount;
 import org.hisp.dhis.expression.dataitem.ItemPeriodInYear;
@@ -133,6 +136,9 @@ import org.hisp.dhis.indicator.IndicatorValue;
 import org.hisp.dhis.jdbc.StatementBuilder;
 import org.hisp.dhis.organisationunit.OrganisationUnitGroup;
 import org.hisp.dhis.parser.expression.CommonExpressionVisitor;
+import org.hisp.dhis.parser.expression.CompiledExpression;
+import org.hisp.dhis.parser.expression.CompiledExpression.FallbackException;
+import org.hisp.dhis.parser.expression.ExpressionCompiler;
 import org.hisp.dhis.parser.expression.ExpressionItem;
 import org.hisp.dhis.parser.expression.ExpressionItemMethod;
 import org.hisp.dhis.parser.expression.ExpressionState;
@@ -271,6 +277,9 @@ public class DefaultExpressionService implements ExpressionService {
   /** Cache for the constant map. */
   private final Cache<Map<String, Constant>> constantMapCache;
 
+  /** Cache for compiled expressions, by parse type and expression. */
+  private final Cache<Optional<CompiledExpression>> compiledExpressionCache;
+
   // -------------------------------------------------------------------------
   // Constructor
   // -------------------------------------------------------------------------
@@ -299,6 +308,7 @@ public class DefaultExpressionService implements ExpressionService {
     this.statementBuilder = statementBuilder;
     this.i18nManager = i18nManager;
     this.constantMapCache = cacheProvider.createAllConstantsCache();
+    this.compiledExpressionCache = cacheProvider.createCompiledExpressionCache();
   }
 
   // -------------------------------------------------------------------------
@@ -609,7 +619,7 @@ public class DefaultExpressionService implements ExpressionService {
 
     CommonExpressionVisitor visitor = newVisitor(ITEM_EVALUATE, params);
 
-    Object value = visit(params.getExpression(), params.getDataType(), visitor, true);
+    Object value = evaluate(params, visitor);
 
     ExpressionState state = visitor.getState();
 
@@ -732,22 +742,72 @@ public class DefaultExpressionService implements ExpressionService {
         .build();
   }
 
-  /** Visits an expression and returns the expected expression type. */
-  private Object visit(
-      String expression, DataType dataType, CommonExpressionVisitor visitor, boolean logWarnings) {
-    try {
-      Object result = Parser.visit(expression, visitor);
+  /**
+   * Evaluates an expression with its compiled form if it has one, and if that can handle the
+   * values. Otherwise, which the compiled form signals with {@link FallbackException}, evaluates it
+   * by visiting the parse tree. Either way, the visitor is left with the state of the evaluation.
+   * Any other exception is propagated.
+   */
+  private Object evaluate(ExpressionParams params, CommonExpressionVisitor visitor) {
+    CompiledExpression compiled = getCompiledExpression(params, visitor);
 
-      switch (dataType) {
-        case NUMERIC:
-          return castDouble(result);
+    if (compiled != null
+        && (compiled.getItemKeys().isEmpty()
+            || params.getItemMap() != null && params.getValueMap() != null)) {
+      ExpressionState state = new ExpressionState();
 
-        case BOOLEAN:
-          return castBoolean(result);
+      try {
+        Object value = evaluateCompiled(compiled, params, visitor.getConstantMap(), state);
 
-        case TEXT:
-          return castString(result);
+        visitor.setState(state);
+
+        return value;
+      } catch (FallbackException ex) {
+        // The visitor evaluates the values the compiled form doesn't handle
       }
+    }
+
+    return visit(params.getExpression(), params.getDataType(), visitor, true);
+  }
+
+  /** Gets the compiled form of an expression, or null if it can't be compiled. */
+  private CompiledExpression getCompiledExpression(
+      ExpressionParams params, CommonExpressionVisitor visitor) {
+    String key = params.getParseType() + ":" + params.getExpression();
+
+    return compiledExpressionCache
+        .get(
+            key,
+            k -> Optional.ofNullable(ExpressionCompiler.compile(params.getExpression(), visitor)))
+        .orElse(null);
+  }
+
+  /** Resolves the item values of a compiled expression, and evaluates it. */
+  private Object evaluateCompiled(
+      CompiledExpression compiled,
+      ExpressionParams params,
+      Map<String, Constant> constantMap,
+      ExpressionState state) {
+    List<Object> itemKeys = compiled.getItemKeys();
+
+    Object[] values = new Object[itemKeys.size()];
+    ValueType[] valueTypes = new ValueType[itemKeys.size()];
+
+    for (int i = 0; i < values.length; i++) {
+      DimensionalItemObject item = params.getItemMap().get(itemKeys.get(i));
+
+      values[i] = (item != null) ? params.getValueMap().get(item) : null;
+      valueTypes[i] = DimensionalItem.getItemValueType(item, params.getParseType(), false);
+    }
+
+    return cast(compiled.evaluate(values, valueTypes, constantMap, state), params.getDataType());
+  }
+
+  /** Visits an expression and returns the expected expression type. */
+  private Object visit(
+      String expression, DataType dataType, CommonExpressionVisitor visitor, boolean logWarnings) {
+    try {
+      return cast(Parser.visit(expression, visitor), dataType);
     } catch (ParserException ex) {
       String message = ex.getMessage() + " parsing expression '" + expression + "'";
 
@@ -761,6 +821,22 @@ public class DefaultExpressionService implements ExpressionService {
     return DOUBLE_VALUE_IF_NULL;
   }
 
+  /** Casts an expression value to the expected expression type. */
+  private Object cast(Object value, DataType dataType) {
+    switch (dataType) {
+      case NUMERIC:
+        return castDouble(value);
+
+      case BOOLEAN:
+        return castBoolean(value);
+
+      case TEXT:
+        return castString(value);
+    }
+
+    return DOUBLE_VALUE_IF_NULL;
+  }
+
   /**
    * Regenerates an expression from the parse tree, with values substituted for constants and
    * orgUnitCounts.
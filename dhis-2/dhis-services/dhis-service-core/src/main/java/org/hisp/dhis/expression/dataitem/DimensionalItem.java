@@ -37,8 +37,9 @@ import org.hisp.dhis.common.DimensionalItemId;
 import org.hisp.dhis.common.DimensionalItemObject;
 import org.hisp.dhis.common.ValueType;
 import org.hisp.dhis.common.ValueTypedDimensionalItemObject;
+import org.hisp.dhis.expression.ParseType;
 import org.hisp.dhis.parser.expression.CommonExpressionVisitor;
-import org.hisp.dhis.parser.expression.ExpressionItem;
+import org.hisp.dhis.parser.expression.CompilableExpressionItem;
 import org.hisp.dhis.system.util.ValidationUtils;
 
 /**
@@ -46,7 +47,7 @@ import org.hisp.dhis.system.util.ValidationUtils;
  *
  * @author Jim Grace
  */
-public abstract class DimensionalItem implements ExpressionItem {
+public abstract class DimensionalItem implements CompilableExpressionItem {
   @Override
   public Object getDescription(ExprContext ctx, CommonExpressionVisitor visitor) {
     DimensionalItemId itemId = getDimensionalItemId(ctx, visitor);
@@ -81,6 +82,11 @@ public abstract class DimensionalItem implements ExpressionItem {
     return visitor.getState().handleNulls(value, getItemValueType(item, visitor));
   }
 
+  @Override
+  public Object getCompiledItemKey(ExprContext ctx, CommonExpressionVisitor visitor) {
+    return getDimensionalItemId(ctx, visitor);
+  }
+
   /**
    * Constructs the DimensionalItemId object for this item.
    *
@@ -102,13 +108,18 @@ public abstract class DimensionalItem implements ExpressionItem {
    * subexpression or anywhere else (such as validation rule or predictor), returns the item's data
    * type if it has one (defaulting to number).
    */
-  private ValueType getItemValueType(DimensionalItemObject item, CommonExpressionVisitor visitor) {
+  public static ValueType getItemValueType(
+      DimensionalItemObject item, ParseType parseType, boolean inSubexpression) {
     if (item instanceof ValueTypedDimensionalItemObject
-        && (visitor.getParams().getParseType() != INDICATOR_EXPRESSION
-            || visitor.getState().isInSubexpression())) {
+        && (parseType != INDICATOR_EXPRESSION || inSubexpression)) {
       return ((ValueTypedDimensionalItemObject) item).getValueType();
     }
 
     return NUMBER;
   }
+
+  private ValueType getItemValueType(DimensionalItemObject item, CommonExpressionVisitor visitor) {
+    return getItemValueType(
+        item, visitor.getParams().getParseType(), visitor.getState().isInSubexpression());
+  }
 }
@@ -52,6 +52,12 @@ public class FunctionSubexpression extends DimensionalItem {
     return visitor.visit(ctx.expr(0));
   }
 
+  /** Expressions containing subexpressions are left to the visitor. */
+  @Override
+  public Object getCompiledItemKey(ExprContext ctx, CommonExpressionVisitor visitor) {
+    return null;
+  }
+
   @Override
   public DimensionalItemId getDimensionalItemId(ExprContext ctx, CommonExpressionVisitor visitor) {
     CommonExpressionVisitor infoVisitor =
@@ -158,7 +158,10 @@ public class DefaultFileResourceService implements FileResourceService {
           .map(
               dv ->
                   new FileResourceOwner(
-                      dv.de(), dv.ou(), periodService.getPeriod(dv.pe()).getIsoDate(), dv.co()))
+                      dv.de(),
+                      dv.ou(),
+                      periodService.getRegisteredPeriod(dv.pe()).getIsoDate(),
+                      dv.co()))
           .toList();
       case CUSTOM_ICON -> fileResourceStore.findCustomIconByFileResource(uid).stream()
           .map(key -> new FileResourceOwner(FileResourceDomain.CUSTOM_ICON, key))
@@ -274,6 +277,14 @@ public class DefaultFileResourceService implements FileResourceService {
     fileResourceContentStore.copyContent(fileResource.getStorageKey(), outputStream);
   }
 
+  @Override
+  public void copyFileResourceContent(
+      FileResource fileResource, OutputStream outputStream, long offset, long length)
+      throws IOException, NoSuchElementException {
+    fileResourceContentStore.copyContent(
+        fileResource.getStorageKey(), outputStream, offset, length);
+  }
+
   @Override
   public byte[] copyFileResourceContent(FileResource fileResource)
       throws IOException, NoSuchElementException {
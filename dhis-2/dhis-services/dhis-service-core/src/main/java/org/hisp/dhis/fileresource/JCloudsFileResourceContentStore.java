@@ -36,7 +36,11 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -61,7 +65,9 @@ import org.jclouds.blobstore.BlobStoreContext;
 import org.jclouds.blobstore.ContainerNotFoundException;
 import org.jclouds.blobstore.LocalBlobRequestSigner;
 import org.jclouds.blobstore.domain.Blob;
+import org.jclouds.blobstore.domain.BlobBuilder;
 import org.jclouds.blobstore.internal.RequestSigningUnsupported;
+import org.jclouds.blobstore.options.GetOptions;
 import org.jclouds.domain.Credentials;
 import org.jclouds.domain.Location;
 import org.jclouds.domain.LocationBuilder;
@@ -234,6 +240,11 @@ public class JCloudsFileResourceContentStore implements FileResourceContentStore
     return saveFileResourceContent(fr, createBlob(fr, bytes), null);
   }
 
+  @Override
+  public String saveFileResourceContent(@Nonnull FileResource fr, @Nonnull InputStream content) {
+    return saveFileResourceContent(fr, createBlob(fr, content), null);
+  }
+
   @Override
   public String saveFileResourceContent(@Nonnull FileResource fr, @Nonnull File file) {
     return saveFileResourceContent(
@@ -351,18 +362,56 @@ public class JCloudsFileResourceContentStore implements FileResourceContentStore
       throw new NoSuchElementException("key '" + key + "' not found.");
     }
 
-    try (InputStream in = getBlob(key).getPayload().openStream()) {
+    Path path = getFilesystemPath(key);
+
+    if (path != null) {
+      copyRange(path, output, 0, Files.size(path));
+      return;
+    }
+
+    try (InputStream in = getExistingBlob(key).getPayload().openStream()) {
       IOUtils.copy(in, output);
     }
   }
 
+  @Override
+  public void copyContent(String key, OutputStream output, long offset, long length)
+      throws IOException, NoSuchElementException {
+    if (!blobExists(key)) {
+      throw new NoSuchElementException("key '" + key + "' not found.");
+    }
+
+    if (length <= 0) {
+      return;
+    }
+
+    Path path = getFilesystemPath(key);
+
+    if (path != null) {
+      copyRange(path, output, offset, length);
+      return;
+    }
+
+    Blob blob =
+        blobStore.getBlob(
+            config.container, key, GetOptions.Builder.range(offset, offset + length - 1));
+
+    if (blob == null) {
+      throw new NoSuchElementException("key '" + key + "' not found.");
+    }
+
+    try (InputStream in = blob.getPayload().openStream()) {
+      IOUtils.copyLarge(in, output, 0, length);
+    }
+  }
+
   @Override
   public byte[] copyContent(String key) throws IOException, NoSuchElementException {
     if (!blobExists(key)) {
       throw new NoSuchElementException("key '" + key + "' not found.");
     }
 
-    try (InputStream in = getBlob(key).getPayload().openStream()) {
+    try (InputStream in = getExistingBlob(key).getPayload().openStream()) {
       return IOUtils.toByteArray(in);
     }
   }
@@ -375,6 +424,17 @@ public class JCloudsFileResourceContentStore implements FileResourceContentStore
     return blobStore.getBlob(config.container, key);
   }
 
+  /** Returns the blob with the given key, which may have been deleted since it was checked. */
+  private Blob getExistingBlob(String key) {
+    Blob blob = getBlob(key);
+
+    if (blob == null) {
+      throw new NoSuchElementException("key '" + key + "' not found.");
+    }
+
+    return blob;
+  }
+
   private boolean blobExists(String key) {
     return key != null && blobStore.blobExists(config.container, key);
   }
@@ -383,6 +443,51 @@ public class JCloudsFileResourceContentStore implements FileResourceContentStore
     blobStore.removeBlob(config.container, key);
   }
 
+  /**
+   * Returns the path of the blob with the given key when the file system provider is used, so that
+   * a byte range can be read from its position in the file instead of through the blob payload
+   * stream. Returns null for other providers or if the file cannot be resolved.
+   */
+  @CheckForNull
+  private Path getFilesystemPath(String key) {
+    if (!JCLOUDS_PROVIDER_KEY_FILESYSTEM.equals(config.provider)) {
+      return null;
+    }
+
+    Path container = Path.of(locationManager.getExternalDirectoryPath(), config.container);
+    Path path = container.resolve(key).normalize();
+
+    return path.startsWith(container) && Files.isRegularFile(path) ? path : null;
+  }
+
+  /**
+   * Copies a byte range of the given file to the output stream. The file channel is positioned at
+   * the start of the range, so the bytes before it are neither read nor skipped.
+   */
+  private static void copyRange(Path path, OutputStream output, long offset, long length)
+      throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      channel.position(offset);
+      IOUtils.copyLarge(Channels.newInputStream(channel), output, 0, length);
+    }
+  }
+
+  private Blob createBlob(@Nonnull FileResource fileResource, @Nonnull InputStream content) {
+    BlobBuilder.PayloadBlobBuilder builder =
+        blobStore
+            .blobBuilder(fileResource.getStorageKey())
+            .payload(content)
+            .contentLength(fileResource.getContentLength())
+            .contentType(fileResource.getContentType())
+            .contentDisposition("filename=" + fileResource.getName());
+
+    if (fileResource.getContentMd5() != null) {
+      builder.contentMD5(HashCode.fromString(fileResource.getContentMd5()));
+    }
+
+    return builder.build();
+  }
+
   private Blob createBlob(@Nonnull FileResource fileResource, @Nonnull byte[] bytes) {
     return blobStore
         .blobBuilder(fileResource.getStorageKey())
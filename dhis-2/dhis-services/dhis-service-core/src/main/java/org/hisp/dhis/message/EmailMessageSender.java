@@ -31,16 +31,18 @@ import static java.util.Collections.singleton;
 
 import com.google.common.base.Strings;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Future;
 import java.util.stream.Collectors;
+import javax.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.mail.DefaultAuthenticator;
 import org.apache.commons.mail.EmailException;
 import org.apache.commons.mail.HtmlEmail;
 import org.hisp.dhis.common.DeliveryChannel;
@@ -49,6 +51,7 @@ import org.hisp.dhis.commons.util.TextUtils;
 import org.hisp.dhis.email.EmailConfiguration;
 import org.hisp.dhis.email.EmailResponse;
 import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.hisp.dhis.outboundmessage.OutboundMessage;
 import org.hisp.dhis.outboundmessage.OutboundMessageBatch;
 import org.hisp.dhis.outboundmessage.OutboundMessageBatchStatus;
 import org.hisp.dhis.outboundmessage.OutboundMessageResponse;
@@ -94,6 +97,8 @@ public class EmailMessageSender implements MessageSender {
 
   private final DhisConfigurationProvider configurationProvider;
 
+  private final SmtpTransportPool transportPool;
+
   // -------------------------------------------------------------------------
   // MessageSender implementation
   // -------------------------------------------------------------------------
@@ -107,10 +112,7 @@ public class EmailMessageSender implements MessageSender {
     String errorMessage = "No recipient found";
 
     if (emailConfig.getHostName() == null) {
-      status.setOk(false);
-      status.setDescription(EmailResponse.HOST_CONFIG_NOT_FOUND.getResponseMessage());
-      status.setResponseObject(EmailResponse.HOST_CONFIG_NOT_FOUND);
-      return status;
+      return getHostConfigNotFoundResponse();
     }
 
     String serverBaseUrl = configurationProvider.getServerBaseUrl();
@@ -119,14 +121,7 @@ public class EmailMessageSender implements MessageSender {
         renderHtmlContent(text, footer, serverBaseUrl != null ? HOST + serverBaseUrl : "", sender);
 
     try {
-      HtmlEmail email =
-          getHtmlEmail(
-              emailConfig.getHostName(),
-              emailConfig.getPort(),
-              emailConfig.getUsername(),
-              emailConfig.getPassword(),
-              emailConfig.isTls(),
-              emailConfig.getFrom());
+      HtmlEmail email = getHtmlEmail(emailConfig);
       email.setSubject(getPrefixedSubject(subject));
       email.setTextMsg(plainContent);
       email.setHtmlMsg(htmlContent);
@@ -158,25 +153,14 @@ public class EmailMessageSender implements MessageSender {
       }
 
       if (hasRecipients) {
-        email.send();
-
-        log.info(
-            "Email sent using host: "
-                + emailConfig.getHostName()
-                + ":"
-                + emailConfig.getPort()
-                + " with TLS: "
-                + emailConfig.isTls());
-        status = new OutboundMessageResponse("Email sent", EmailResponse.SENT, true);
+        email.buildMimeMessage();
+
+        status = send(emailConfig, email.getMimeMessage());
       } else {
         status = new OutboundMessageResponse(errorMessage, EmailResponse.ABORTED, false);
       }
     } catch (Exception ex) {
-      log.error(
-          "Error while sending email: " + ex.getMessage() + ", " + DebugUtils.getStackTrace(ex));
-      status =
-          new OutboundMessageResponse(
-              "Email not sent: " + ex.getMessage(), EmailResponse.FAILED, false);
+      status = getFailedResponse(ex);
     }
 
     return status;
@@ -193,68 +177,22 @@ public class EmailMessageSender implements MessageSender {
   @Override
   public OutboundMessageResponse sendMessage(String subject, String text, Set<String> recipients) {
     EmailConfiguration emailConfig = getEmailConfiguration();
-    OutboundMessageResponse status = new OutboundMessageResponse();
-
-    String errorMessage = "No recipient found";
-    String serverBaseUrl = configurationProvider.getServerBaseUrl();
 
     if (emailConfig.getHostName() == null) {
-      status.setOk(false);
-      status.setDescription(EmailResponse.HOST_CONFIG_NOT_FOUND.getResponseMessage());
-      status.setResponseObject(EmailResponse.HOST_CONFIG_NOT_FOUND);
-      return status;
+      return getHostConfigNotFoundResponse();
     }
 
     try {
-      HtmlEmail email =
-          getHtmlEmail(
-              emailConfig.getHostName(),
-              emailConfig.getPort(),
-              emailConfig.getUsername(),
-              emailConfig.getPassword(),
-              emailConfig.isTls(),
-              emailConfig.getFrom());
-      email.setSubject(getPrefixedSubject(subject));
-      email.setTextMsg(text);
-      email.setHtmlMsg(renderHtmlContent(text, null, serverBaseUrl, null));
-
-      boolean hasRecipients = false;
-
-      for (String recipient : recipients) {
-        if (isEmailValid(recipient)) {
-          email.addBcc(recipient);
-          hasRecipients = true;
-
-          log.info("Sending email to : " + recipient);
-        } else {
-          log.warn(recipient + " is not a valid email");
-          errorMessage = "No valid email address found";
-        }
-      }
+      MimeMessage email = createMimeMessage(emailConfig, subject, text, recipients);
 
-      if (hasRecipients) {
-        email.send();
-
-        log.info(
-            "Email sent using host: "
-                + emailConfig.getHostName()
-                + ":"
-                + emailConfig.getPort()
-                + " with TLS: "
-                + emailConfig.isTls());
-        return new OutboundMessageResponse("Email sent", EmailResponse.SENT, true);
+      if (email != null) {
+        return send(emailConfig, email);
       } else {
-        status = new OutboundMessageResponse(errorMessage, EmailResponse.ABORTED, false);
+        return getNoRecipientResponse(recipients);
       }
     } catch (Exception ex) {
-      log.error(
-          "Error while sending email: " + ex.getMessage() + ", " + DebugUtils.getStackTrace(ex));
-      status =
-          new OutboundMessageResponse(
-              "Email not sent: " + ex.getMessage(), EmailResponse.FAILED, false);
+      return getFailedResponse(ex);
     }
-
-    return status;
   }
 
   @Override
@@ -264,12 +202,52 @@ public class EmailMessageSender implements MessageSender {
 
   @Override
   public OutboundMessageResponseSummary sendMessageBatch(OutboundMessageBatch batch) {
-    List<OutboundMessageResponse> statuses =
-        batch.getMessages().stream()
-            .map(m -> sendMessage(m.getSubject(), m.getText(), m.getRecipients()))
-            .collect(Collectors.toList());
+    EmailConfiguration emailConfig = getEmailConfiguration();
+    List<OutboundMessage> messages = batch.getMessages();
+
+    if (emailConfig.getHostName() == null) {
+      return generateSummary(
+          messages.stream().map(m -> getHostConfigNotFoundResponse()).collect(Collectors.toList()));
+    }
+
+    OutboundMessageResponse[] statuses = new OutboundMessageResponse[messages.size()];
+    List<MimeMessage> emails = new ArrayList<>();
+    List<Integer> positions = new ArrayList<>();
+
+    for (int i = 0; i < messages.size(); i++) {
+      OutboundMessage message = messages.get(i);
+
+      try {
+        MimeMessage email =
+            createMimeMessage(
+                emailConfig, message.getSubject(), message.getText(), message.getRecipients());
+
+        if (email != null) {
+          emails.add(email);
+          positions.add(i);
+        } else {
+          statuses[i] = getNoRecipientResponse(message.getRecipients());
+        }
+      } catch (Exception ex) {
+        statuses[i] = getFailedResponse(ex);
+      }
+    }
+
+    List<OutboundMessageResponse> responses = transportPool.send(emailConfig, emails);
 
-    return generateSummary(statuses);
+    for (int i = 0; i < responses.size(); i++) {
+      statuses[positions.get(i)] = responses.get(i);
+    }
+
+    log.info(
+        "Email batch of "
+            + messages.size()
+            + " messages sent using host: "
+            + emailConfig.getHostName()
+            + ":"
+            + emailConfig.getPort());
+
+    return generateSummary(Arrays.asList(statuses));
   }
 
   @Override
@@ -288,21 +266,87 @@ public class EmailMessageSender implements MessageSender {
   // Supportive methods
   // -------------------------------------------------------------------------
 
-  private HtmlEmail getHtmlEmail(
-      String hostName, int port, String username, String password, boolean tls, String sender)
-      throws EmailException {
+  private HtmlEmail getHtmlEmail(EmailConfiguration emailConfig) throws EmailException {
     HtmlEmail email = new HtmlEmail();
+    email.setMailSession(transportPool.getSession(emailConfig));
     email.setCharset(StandardCharsets.UTF_8.toString());
-    email.setHostName(hostName);
-    email.setFrom(sender, getEmailName());
-    email.setSmtpPort(port);
-    email.setStartTLSEnabled(tls);
+    email.setFrom(emailConfig.getFrom(), getEmailName());
+
+    return email;
+  }
+
+  /**
+   * Creates a message for the given recipients, or returns null if none of the recipients has a
+   * valid email address.
+   */
+  private MimeMessage createMimeMessage(
+      EmailConfiguration emailConfig, String subject, String text, Set<String> recipients)
+      throws EmailException {
+    String serverBaseUrl = configurationProvider.getServerBaseUrl();
+
+    HtmlEmail email = getHtmlEmail(emailConfig);
+    email.setSubject(getPrefixedSubject(subject));
+    email.setTextMsg(text);
+    email.setHtmlMsg(renderHtmlContent(text, null, serverBaseUrl, null));
+
+    boolean hasRecipients = false;
 
-    if (username != null && password != null) {
-      email.setAuthenticator(new DefaultAuthenticator(username, password));
+    for (String recipient : recipients) {
+      if (isEmailValid(recipient)) {
+        email.addBcc(recipient);
+        hasRecipients = true;
+
+        log.info("Sending email to : " + recipient);
+      } else {
+        log.warn(recipient + " is not a valid email");
+      }
     }
 
-    return email;
+    if (!hasRecipients) {
+      return null;
+    }
+
+    email.buildMimeMessage();
+
+    return email.getMimeMessage();
+  }
+
+  /** Sends the given message over a pooled SMTP transport. */
+  private OutboundMessageResponse send(EmailConfiguration emailConfig, MimeMessage email) {
+    OutboundMessageResponse response = transportPool.send(emailConfig, List.of(email)).get(0);
+
+    if (response.isOk()) {
+      log.info(
+          "Email sent using host: "
+              + emailConfig.getHostName()
+              + ":"
+              + emailConfig.getPort()
+              + " with TLS: "
+              + emailConfig.isTls());
+    }
+
+    return response;
+  }
+
+  private OutboundMessageResponse getHostConfigNotFoundResponse() {
+    OutboundMessageResponse status = new OutboundMessageResponse();
+    status.setOk(false);
+    status.setDescription(EmailResponse.HOST_CONFIG_NOT_FOUND.getResponseMessage());
+    status.setResponseObject(EmailResponse.HOST_CONFIG_NOT_FOUND);
+    return status;
+  }
+
+  private OutboundMessageResponse getNoRecipientResponse(Set<String> recipients) {
+    String errorMessage =
+        recipients.isEmpty() ? "No recipient found" : "No valid email address found";
+    return new OutboundMessageResponse(errorMessage, EmailResponse.ABORTED, false);
+  }
+
+  private OutboundMessageResponse getFailedResponse(Exception ex) {
+    log.error(
+        "Error while sending email: " + ex.getMessage() + ", " + DebugUtils.getStackTrace(ex));
+    return new OutboundMessageResponse(
+        "Email not sent: " + ex.getMessage(), EmailResponse.FAILED, false);
   }
 
   private String renderPlainContent(String text, User sender) {
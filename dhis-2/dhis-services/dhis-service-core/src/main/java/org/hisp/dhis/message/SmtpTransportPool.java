@@ -0,0 +1,331 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.message;
+
+import com.google.common.util.concurrent.RateLimiter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import javax.annotation.PreDestroy;
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import javax.mail.Transport;
+import javax.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.hisp.dhis.email.EmailConfiguration;
+import org.hisp.dhis.email.EmailResponse;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.hisp.dhis.outboundmessage.OutboundMessageResponse;
+import org.springframework.stereotype.Component;
+
+/**
+ * Pool of connected SMTP transports which are reused across messages, so that a batch of messages
+ * is sent over a few connections rather than one connection per message. The number of
+ * connections, the number of messages per connection and the send rate are configurable through
+ * {@link ConfigurationKey#EMAIL_SMTP_CONNECTIONS}, {@link
+ * ConfigurationKey#EMAIL_SMTP_MESSAGES_PER_CONNECTION} and {@link
+ * ConfigurationKey#EMAIL_SMTP_RATE_LIMIT}.
+ *
+ * <p>Idle transports are discarded when the email configuration changes.
+ */
+@Slf4j
+@Component
+public class SmtpTransportPool {
+  private static final String TIMEOUT = "60000";
+
+  private final int connections;
+
+  private final int messagesPerConnection;
+
+  private final RateLimiter rateLimiter;
+
+  private final Semaphore permits;
+
+  private final BlockingQueue<PooledTransport> idle = new LinkedBlockingQueue<>();
+
+  private final ExecutorService executor;
+
+  private String configurationKey;
+
+  private Session session;
+
+  public SmtpTransportPool(DhisConfigurationProvider config) {
+    this.connections =
+        Math.max(1, Integer.parseInt(config.getProperty(ConfigurationKey.EMAIL_SMTP_CONNECTIONS)));
+    this.messagesPerConnection =
+        Math.max(
+            1,
+            Integer.parseInt(
+                config.getProperty(ConfigurationKey.EMAIL_SMTP_MESSAGES_PER_CONNECTION)));
+
+    double rate = Double.parseDouble(config.getProperty(ConfigurationKey.EMAIL_SMTP_RATE_LIMIT));
+
+    this.rateLimiter = rate > 0 ? RateLimiter.create(rate) : null;
+    this.permits = new Semaphore(connections);
+    this.executor = Executors.newFixedThreadPool(connections);
+  }
+
+  /**
+   * Returns the mail session for the given configuration. A new session is created and idle
+   * transports are closed if the configuration has changed since the last invocation.
+   *
+   * @param config the {@link EmailConfiguration}.
+   * @return a {@link Session}.
+   */
+  public synchronized Session getSession(EmailConfiguration config) {
+    String key =
+        String.join(
+            ":",
+            config.getHostName(),
+            String.valueOf(config.getPort()),
+            String.valueOf(config.getUsername()),
+            String.valueOf(config.getPassword()),
+            String.valueOf(config.isTls()));
+
+    if (!key.equals(configurationKey)) {
+      closeIdle();
+      configurationKey = key;
+      session = createSession(config);
+    }
+
+    return session;
+  }
+
+  /**
+   * Sends the given messages using pooled transports. Messages are distributed over up to the
+   * configured number of connections and sent concurrently.
+   *
+   * @param config the {@link EmailConfiguration}.
+   * @param messages the messages to send.
+   * @return a response for each message, in the order of the given messages.
+   */
+  public List<OutboundMessageResponse> send(EmailConfiguration config, List<MimeMessage> messages) {
+    Session currentSession = getSession(config);
+    OutboundMessageResponse[] responses = new OutboundMessageResponse[messages.size()];
+    int chunks = Math.min(connections, messages.size());
+
+    if (chunks <= 1) {
+      sendChunk(config, currentSession, messages, responses, 0, 1);
+    } else {
+      List<Future<?>> futures = new ArrayList<>();
+
+      for (int i = 0; i < chunks; i++) {
+        int offset = i;
+        futures.add(
+            executor.submit(
+                () -> sendChunk(config, currentSession, messages, responses, offset, chunks)));
+      }
+
+      awaitAll(futures);
+    }
+
+    for (int i = 0; i < responses.length; i++) {
+      if (responses[i] == null) {
+        responses[i] = new OutboundMessageResponse("Email not sent", EmailResponse.FAILED, false);
+      }
+    }
+
+    return Arrays.asList(responses);
+  }
+
+  @PreDestroy
+  public void close() {
+    executor.shutdownNow();
+    closeIdle();
+  }
+
+  // -------------------------------------------------------------------------
+  // Supportive methods
+  // -------------------------------------------------------------------------
+
+  private void awaitAll(List<Future<?>> futures) {
+    for (Future<?> future : futures) {
+      try {
+        future.get();
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (ExecutionException ex) {
+        log.error("Error while sending email batch", ex.getCause());
+      }
+    }
+  }
+
+  /** Sends every message from offset with the given step over a single borrowed transport. */
+  private void sendChunk(
+      EmailConfiguration config,
+      Session session,
+      List<MimeMessage> messages,
+      OutboundMessageResponse[] responses,
+      int offset,
+      int step) {
+    PooledTransport transport = null;
+
+    try {
+      permits.acquire();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      return;
+    }
+
+    try {
+      for (int i = offset; i < messages.size(); i += step) {
+        if (rateLimiter != null) {
+          rateLimiter.acquire();
+        }
+
+        MimeMessage message = messages.get(i);
+
+        try {
+          transport = ensureConnected(transport, config, session);
+          transport.transport.sendMessage(message, message.getAllRecipients());
+          transport.sent++;
+
+          responses[i] = new OutboundMessageResponse("Email sent", EmailResponse.SENT, true);
+        } catch (MessagingException ex) {
+          log.error("Error while sending email: " + ex.getMessage());
+
+          responses[i] =
+              new OutboundMessageResponse(
+                  "Email not sent: " + ex.getMessage(), EmailResponse.FAILED, false);
+        }
+      }
+    } finally {
+      release(transport, session);
+      permits.release();
+    }
+  }
+
+  /**
+   * Returns a connected transport, reusing the given or an idle one if possible. Transports which
+   * have reached the maximum number of messages or have been disconnected are closed.
+   */
+  private PooledTransport ensureConnected(
+      PooledTransport transport, EmailConfiguration config, Session session)
+      throws MessagingException {
+    if (transport != null
+        && transport.sent < messagesPerConnection
+        && transport.transport.isConnected()) {
+      return transport;
+    }
+
+    close(transport);
+
+    PooledTransport candidate;
+
+    while ((candidate = idle.poll()) != null) {
+      if (candidate.session == session && candidate.transport.isConnected()) {
+        return candidate;
+      }
+
+      close(candidate);
+    }
+
+    Transport connected = session.getTransport("smtp");
+    connected.connect(
+        config.getHostName(), config.getPort(), config.getUsername(), config.getPassword());
+
+    log.debug("Opened SMTP connection to " + config.getHostName() + ":" + config.getPort());
+
+    return new PooledTransport(session, connected);
+  }
+
+  private void release(PooledTransport transport, Session session) {
+    if (transport == null) {
+      return;
+    }
+
+    synchronized (this) {
+      if (transport.session == this.session
+          && transport.session == session
+          && transport.sent < messagesPerConnection) {
+        idle.offer(transport);
+        return;
+      }
+    }
+
+    close(transport);
+  }
+
+  private void closeIdle() {
+    PooledTransport transport;
+
+    while ((transport = idle.poll()) != null) {
+      close(transport);
+    }
+  }
+
+  private void close(PooledTransport transport) {
+    if (transport == null) {
+      return;
+    }
+
+    try {
+      transport.transport.close();
+    } catch (MessagingException ex) {
+      log.debug("Error while closing SMTP connection: " + ex.getMessage());
+    }
+  }
+
+  private Session createSession(EmailConfiguration config) {
+    Properties properties = new Properties();
+    properties.setProperty("mail.transport.protocol", "smtp");
+    properties.setProperty("mail.smtp.host", config.getHostName());
+    properties.setProperty("mail.smtp.port", String.valueOf(config.getPort()));
+    properties.setProperty("mail.smtp.starttls.enable", String.valueOf(config.isTls()));
+    properties.setProperty(
+        "mail.smtp.auth",
+        String.valueOf(config.getUsername() != null && config.getPassword() != null));
+    properties.setProperty("mail.smtp.connectiontimeout", TIMEOUT);
+    properties.setProperty("mail.smtp.timeout", TIMEOUT);
+
+    return Session.getInstance(properties);
+  }
+
+  private static final class PooledTransport {
+    private final Session session;
+
+    private final Transport transport;
+
+    private int sent;
+
+    private PooledTransport(Session session, Transport transport) {
+      this.session = session;
+      this.transport = transport;
+    }
+  }
+}
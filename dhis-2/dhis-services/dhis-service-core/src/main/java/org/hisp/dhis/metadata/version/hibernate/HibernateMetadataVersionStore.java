@@ -105,4 +105,17 @@ public class HibernateMetadataVersionStore extends HibernateIdentifiableObjectSt
             .setMaxResults(1)
             .setCacheable(false));
   }
+
+  @Override
+  public MetadataVersion getLatestCheckpoint() {
+    CriteriaBuilder builder = getCriteriaBuilder();
+
+    return getSingleResult(
+        builder,
+        newJpaParameters()
+            .addPredicate(root -> builder.isTrue(root.get("checkpoint")))
+            .addOrder(root -> builder.desc(root.get("created")))
+            .setMaxResults(1)
+            .setCacheable(false));
+  }
 }
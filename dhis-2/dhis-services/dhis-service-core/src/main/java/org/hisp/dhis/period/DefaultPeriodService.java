@@ -41,6 +41,7 @@ import java.util.concurrent.TimeUnit;
 import lombok.RequiredArgsConstructor;
 import org.hisp.dhis.i18n.I18nFormat;
 import org.hisp.dhis.util.DateUtils;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -52,6 +53,10 @@ import org.springframework.transaction.annotation.Transactional;
 public class DefaultPeriodService implements PeriodService {
   private final PeriodStore periodStore;
 
+  private final PeriodRegistry periodRegistry;
+
+  private final ApplicationEventPublisher eventPublisher;
+
   // -------------------------------------------------------------------------
   // Period
   // -------------------------------------------------------------------------
@@ -67,6 +72,8 @@ public class DefaultPeriodService implements PeriodService {
   @Transactional
   public void deletePeriod(Period period) {
     periodStore.delete(period);
+
+    eventPublisher.publishEvent(new PeriodDeletedEvent(period.getId(), false));
   }
 
   @Override
@@ -78,11 +85,40 @@ public class DefaultPeriodService implements PeriodService {
   @Override
   @Transactional(readOnly = true)
   public Period getPeriod(String isoPeriod) {
+    Period registered = periodRegistry.get(isoPeriod);
+    Period period = registered != null ? periodStore.get(registered.getId()) : null;
+
+    return period != null ? period : findPeriod(isoPeriod);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public Period getRegisteredPeriod(long id) {
+    Period period = periodRegistry.get(id);
+
+    return period != null ? period : periodRegistry.register(periodStore.get(id));
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public Period getRegisteredPeriod(String isoPeriod) {
+    Period period = periodRegistry.get(isoPeriod);
+
+    return period != null ? period : periodRegistry.register(findPeriod(isoPeriod));
+  }
+
+  /**
+   * Looks up the stored period with the given ISO period identifier in the database, and registers
+   * it in the period registry.
+   */
+  private Period findPeriod(String isoPeriod) {
     Period period = PeriodType.getPeriodFromIsoString(isoPeriod);
 
     if (period != null) {
       period =
           periodStore.getPeriod(period.getStartDate(), period.getEndDate(), period.getPeriodType());
+
+      periodRegistry.register(period);
     }
 
     return period;
@@ -227,6 +263,10 @@ public class DefaultPeriodService implements PeriodService {
   @Override
   @Transactional(readOnly = true)
   public Period reloadIsoPeriodInStatelessSession(String isoPeriod) {
+    return periodRegistry.computeIfAbsent(isoPeriod, () -> findOrInsertPeriod(isoPeriod));
+  }
+
+  private Period findOrInsertPeriod(String isoPeriod) {
     Period period = PeriodType.getPeriodFromIsoString(isoPeriod);
 
     if (period == null) {
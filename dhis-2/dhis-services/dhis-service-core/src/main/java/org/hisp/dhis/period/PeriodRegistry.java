@@ -0,0 +1,269 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.period;
+
+import static org.hisp.dhis.commons.util.SystemUtils.isEnableCacheInTest;
+import static org.hisp.dhis.commons.util.SystemUtils.isTestRun;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import javax.annotation.CheckForNull;
+import lombok.extern.slf4j.Slf4j;
+import org.hisp.dhis.common.event.ApplicationCacheClearedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * In-memory registry of the stored periods, keyed by ISO identifier and by id. The registry is
+ * loaded in bulk at startup and extended whenever a period is found in or added to the database.
+ * Lookups are lock-free and return detached copies holding the id, period type and dates of the
+ * stored period, so callers never share mutable state.
+ *
+ * <p>Periods found within a transaction are only registered after the transaction commits, so that
+ * the registry never holds periods which were rolled back. Deleted periods are dropped once the
+ * deleting transaction commits on {@link PeriodDeletedEvent}, which other servers receive through
+ * cache invalidation. Periods added by other servers are found in the database on the first miss.
+ *
+ * <p>The registry is disabled in test runs, like the caches of the {@code CacheProvider}, as tests
+ * empty the period table between runs.
+ */
+@Slf4j
+@Component
+public class PeriodRegistry {
+  private static final String PERIOD_SQL =
+      "select p.periodid, pt.name, p.startdate, p.enddate "
+          + "from period p join periodtype pt on p.periodtypeid = pt.periodtypeid";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  private final boolean enabled;
+
+  private final Map<String, Entry> byIsoPeriod = new ConcurrentHashMap<>();
+
+  private final Map<Long, Entry> byId = new ConcurrentHashMap<>();
+
+  /** Serializes the insert-on-miss path, which is only taken for periods not yet stored. */
+  private final Object insertLock = new Object();
+
+  private volatile boolean loaded;
+
+  public PeriodRegistry(JdbcTemplate jdbcTemplate, Environment environment) {
+    this(
+        jdbcTemplate,
+        !isTestRun(environment.getActiveProfiles())
+            || isEnableCacheInTest(environment.getActiveProfiles()));
+  }
+
+  PeriodRegistry(JdbcTemplate jdbcTemplate, boolean enabled) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.enabled = enabled;
+  }
+
+  /** Loads all stored periods into the registry, unless already loaded. */
+  public void load() {
+    if (!enabled || loaded) {
+      return;
+    }
+
+    synchronized (this) {
+      if (loaded) {
+        return;
+      }
+
+      jdbcTemplate.query(
+          PERIOD_SQL,
+          rs -> {
+            PeriodType periodType = PeriodType.getPeriodTypeByName(rs.getString(2));
+
+            if (periodType != null) {
+              put(Entry.of(rs.getLong(1), periodType, rs.getDate(3), rs.getDate(4)));
+            }
+          });
+
+      loaded = true;
+
+      log.info("Loaded {} periods into the period registry", byId.size());
+    }
+  }
+
+  /**
+   * Returns the registered period with the given ISO identifier.
+   *
+   * @param isoPeriod the ISO identifier of the period.
+   * @return a detached copy of the period, or null if the period is not registered.
+   */
+  @CheckForNull
+  public Period get(String isoPeriod) {
+    if (!enabled || isoPeriod == null) {
+      return null;
+    }
+
+    load();
+
+    Entry entry = byIsoPeriod.get(isoPeriod);
+
+    return entry != null ? entry.toPeriod() : null;
+  }
+
+  /**
+   * Returns the registered period with the given id.
+   *
+   * @param id the id of the period.
+   * @return a detached copy of the period, or null if the period is not registered.
+   */
+  @CheckForNull
+  public Period get(long id) {
+    if (!enabled) {
+      return null;
+    }
+
+    load();
+
+    Entry entry = byId.get(id);
+
+    return entry != null ? entry.toPeriod() : null;
+  }
+
+  /**
+   * Returns the registered period with the given ISO identifier. If the period is not registered,
+   * it is obtained from the given supplier, which looks it up in the database and adds it if it
+   * does not exist. Only one supplier is invoked at a time.
+   *
+   * @param isoPeriod the ISO identifier of the period.
+   * @param supplier the supplier of the stored period.
+   * @return a detached copy of the period, or null if the supplier returned null.
+   */
+  @CheckForNull
+  public Period computeIfAbsent(String isoPeriod, Supplier<Period> supplier) {
+    Period period = get(isoPeriod);
+
+    if (period != null) {
+      return period;
+    }
+
+    synchronized (insertLock) {
+      period = get(isoPeriod);
+
+      return period != null ? period : register(supplier.get());
+    }
+  }
+
+  /**
+   * Registers the given stored period. Within a transaction the period is registered once the
+   * transaction commits.
+   *
+   * @param period the stored period, may be null.
+   * @return a detached copy of the period, or the given period if it is null or not stored.
+   */
+  @CheckForNull
+  public Period register(@CheckForNull Period period) {
+    if (period == null || period.getId() == 0) {
+      return period;
+    }
+
+    Entry entry =
+        Entry.of(
+            period.getId(),
+            PeriodType.getPeriodTypeByName(period.getPeriodType().getName()),
+            period.getStartDate(),
+            period.getEndDate());
+
+    if (enabled) {
+      if (TransactionSynchronizationManager.isSynchronizationActive()) {
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+              @Override
+              public void afterCommit() {
+                put(entry);
+              }
+            });
+      } else {
+        put(entry);
+      }
+    }
+
+    return entry.toPeriod();
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void handlePeriodDeleted(PeriodDeletedEvent event) {
+    Long periodId = event.getPeriodId();
+
+    if (periodId == null) {
+      clear();
+    } else {
+      Entry entry = byId.remove(periodId);
+
+      if (entry != null) {
+        byIsoPeriod.remove(entry.isoPeriod(), entry);
+      }
+    }
+  }
+
+  @EventListener
+  public void handleApplicationCachesCleared(ApplicationCacheClearedEvent event) {
+    clear();
+  }
+
+  /** Drops all registered periods, which are loaded again on the next lookup. */
+  private void clear() {
+    synchronized (this) {
+      loaded = false;
+      byIsoPeriod.clear();
+      byId.clear();
+    }
+  }
+
+  private void put(Entry entry) {
+    byId.put(entry.id(), entry);
+    byIsoPeriod.put(entry.isoPeriod(), entry);
+  }
+
+  /** Immutable registry entry of a stored period. */
+  private record Entry(
+      long id, String isoPeriod, PeriodType periodType, long startDate, long endDate) {
+    static Entry of(long id, PeriodType periodType, Date startDate, Date endDate) {
+      String isoPeriod = periodType.getIsoDate(new Period(periodType, startDate, endDate));
+
+      return new Entry(id, isoPeriod, periodType, startDate.getTime(), endDate.getTime());
+    }
+
+    Period toPeriod() {
+      Period period = new Period(periodType, new Date(startDate), new Date(endDate), isoPeriod);
+      period.setId(id);
+      return period;
+    }
+  }
+}
@@ -25,16 +25,18 @@
  * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
  * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
  */
-package org.hisp.dhis.sms;
+package org.hisp.dhis.period;
 
-import org.hisp.dhis.sms.incoming.IncomingSms;
+import lombok.RequiredArgsConstructor;
+import org.hisp.dhis.system.startup.AbstractStartupRoutine;
 
-public interface MessageQueue {
-  void put(IncomingSms message);
+/** Loads the stored periods into the {@link PeriodRegistry} at startup. */
+@RequiredArgsConstructor
+public class PeriodRegistryLoader extends AbstractStartupRoutine {
+  private final PeriodRegistry periodRegistry;
 
-  IncomingSms get();
-
-  void remove(IncomingSms message);
-
-  void initialize();
+  @Override
+  public void execute() {
+    periodRegistry.load();
+  }
 }
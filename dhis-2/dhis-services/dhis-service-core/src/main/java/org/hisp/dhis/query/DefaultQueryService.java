@@ -28,6 +28,7 @@
 package org.hisp.dhis.query;
 
 import java.util.List;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.hisp.dhis.common.IdentifiableObject;
@@ -73,6 +74,35 @@ public class DefaultQueryService implements QueryService {
     return objects;
   }
 
+  @Override
+  public Stream<? extends IdentifiableObject> stream(Query query) {
+    if (query.getObjects() != null) {
+      return queryObjects(query).stream();
+    }
+
+    QueryPlan queryPlan = queryPlanner.planQuery(query);
+
+    if (!queryPlan.getNonPersistedQuery().isEmpty()) {
+      return queryObjects(queryPlan, query).stream();
+    }
+
+    Stream<? extends IdentifiableObject> objects =
+        criteriaQueryEngine.stream(queryPlan.getPersistedQuery());
+
+    if (Defaults.INCLUDE == query.getDefaults()
+        || !Preheat.isDefaultClass(query.getSchema().getKlass())) {
+      return objects;
+    }
+
+    return objects.filter(object -> !"default".equals(object.getName()));
+  }
+
+  @Override
+  public boolean isCursorStream(Query query) {
+    return query.getObjects() == null
+        && queryPlanner.planQuery(query).getNonPersistedQuery().isEmpty();
+  }
+
   @Override
   public long count(Query query) {
     Query cloned = Query.from(query);
@@ -143,12 +173,14 @@ public class DefaultQueryService implements QueryService {
       return objects;
     }
 
-    QueryPlan queryPlan = queryPlanner.planQuery(query);
+    return queryObjects(queryPlanner.planQuery(query), query);
+  }
 
+  private List<? extends IdentifiableObject> queryObjects(QueryPlan queryPlan, Query query) {
     Query pQuery = queryPlan.getPersistedQuery();
     Query npQuery = queryPlan.getNonPersistedQuery();
 
-    objects = criteriaQueryEngine.query(pQuery);
+    List<? extends IdentifiableObject> objects = criteriaQueryEngine.query(pQuery);
 
     if (!npQuery.isEmpty()) {
       if (log.isDebugEnabled()) {
@@ -33,6 +33,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
 import javax.persistence.criteria.CriteriaBuilder;
@@ -56,6 +57,8 @@ import org.springframework.stereotype.Component;
  */
 @Component
 public class JpaCriteriaQueryEngine<T extends IdentifiableObject> implements QueryEngine<T> {
+  private static final int STREAM_FETCH_SIZE = 500;
+
   private final QueryPlanner queryPlanner;
 
   private final List<IdentifiableObjectStore<T>> hibernateGenericStores;
@@ -84,6 +87,30 @@ public class JpaCriteriaQueryEngine<T extends IdentifiableObject> implements Que
 
   @Override
   public List<T> query(Query query) {
+    TypedQuery<T> typedQuery = createQuery(query, true);
+
+    return typedQuery != null ? typedQuery.getResultList() : new ArrayList<>();
+  }
+
+  /**
+   * Returns a stream of the objects matching the given query. Objects are read from a database
+   * cursor as the stream is consumed, so the stream must be closed after use and be consumed
+   * within the transaction which created it.
+   *
+   * @param query the query.
+   * @return a stream of matching objects.
+   */
+  public Stream<T> stream(Query query) {
+    TypedQuery<T> typedQuery = createQuery(query, false);
+
+    if (typedQuery == null) {
+      return Stream.empty();
+    }
+
+    return typedQuery.setHint(QueryHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE).getResultStream();
+  }
+
+  private TypedQuery<T> createQuery(Query query, boolean cacheable) {
     Schema schema = query.getSchema();
 
     Class<T> klass = (Class<T>) schema.getKlass();
@@ -91,7 +118,7 @@ public class JpaCriteriaQueryEngine<T extends IdentifiableObject> implements Que
     InternalHibernateGenericStore<T> store = (InternalHibernateGenericStore<T>) getStore(klass);
 
     if (store == null) {
-      return new ArrayList<>();
+      return null;
     }
 
     if (query.getCurrentUserDetails() == null) {
@@ -132,7 +159,7 @@ public class JpaCriteriaQueryEngine<T extends IdentifiableObject> implements Que
       typedQuery.setFirstResult(query.getFirstResult());
       typedQuery.setMaxResults(query.getMaxResults());
 
-      return typedQuery.getResultList();
+      return typedQuery;
     }
 
     Predicate predicate = buildPredicates(builder, root, query);
@@ -176,14 +203,14 @@ public class JpaCriteriaQueryEngine<T extends IdentifiableObject> implements Que
     typedQuery.setFirstResult(query.getFirstResult());
     typedQuery.setMaxResults(query.getMaxResults());
 
-    if (query.isCacheable()) {
+    if (cacheable && query.isCacheable()) {
       typedQuery.setHint(QueryHints.HINT_CACHEABLE, true);
       typedQuery.setHint(
           QueryHints.HINT_CACHE_REGION,
           queryCacheManager.getQueryCacheRegionName(klass, typedQuery));
     }
 
-    return typedQuery.getResultList();
+    return typedQuery;
   }
 
   @Override
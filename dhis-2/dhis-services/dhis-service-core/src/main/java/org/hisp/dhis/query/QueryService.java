@@ -28,6 +28,7 @@
 package org.hisp.dhis.query;
 
 import java.util.List;
+import java.util.stream.Stream;
 import org.hisp.dhis.common.IdentifiableObject;
 
 /**
@@ -52,6 +53,25 @@ public interface QueryService {
   @SuppressWarnings("rawtypes")
   List<? extends IdentifiableObject> query(Query query, ResultTransformer transformer);
 
+  /**
+   * Returns a stream of the objects matching the given query. When the query can be executed in the
+   * database, objects are read from a database cursor as the stream is consumed, otherwise the
+   * query is executed up front. The stream must be closed after use.
+   *
+   * @param query Query instance to use
+   * @return Stream of matching objects
+   */
+  Stream<? extends IdentifiableObject> stream(Query query);
+
+  /**
+   * Indicates whether {@link #stream(Query)} reads the objects of the given query from a database
+   * cursor, as opposed to executing the query up front and streaming the resulting list.
+   *
+   * @param query Query instance to use
+   * @return true if the query is streamed from the database
+   */
+  boolean isCursorStream(Query query);
+
   /**
    * Returns how many objects matches the given query.
    *
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.reservedvalue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hands out sequential values from blocks leased from the {@link SequentialNumberCounterStore},
+ * so that the database counter of a text pattern and key is incremented once per block rather
+ * than once per reservation. Blocks are held in memory per node, hence values are unique but not
+ * necessarily handed out in order across nodes.
+ *
+ * <p>The unused tail of each block is returned on shutdown if no other node has leased a block
+ * for the same text pattern and key in the meantime, otherwise the tail is skipped.
+ *
+ * <p>Leased values are never handed out twice, so sequences can have gaps. Blocks are leased in a
+ * transaction of their own, hence values taken by a transaction which is rolled back are skipped.
+ * The blocks of a node which stops without shutting down, for example when it crashes, are lost,
+ * and their unused values are skipped after the restart.
+ *
+ * <p>Blocks are only leased when {@link ConfigurationKey#RESERVED_VALUE_SEQUENTIAL_BLOCK_SIZE} is
+ * greater than 1, otherwise values are taken directly from the counter store.
+ */
+@Slf4j
+@Component
+public class SequentialNumberBlockAllocator {
+  private final SequentialNumberCounterStore sequentialNumberCounterStore;
+
+  private final int blockSize;
+
+  private final ConcurrentMap<BlockKey, Block> blocks = new ConcurrentHashMap<>();
+
+  public SequentialNumberBlockAllocator(
+      SequentialNumberCounterStore sequentialNumberCounterStore, DhisConfigurationProvider config) {
+    this.sequentialNumberCounterStore = sequentialNumberCounterStore;
+    this.blockSize =
+        Integer.parseInt(config.getProperty(ConfigurationKey.RESERVED_VALUE_SEQUENTIAL_BLOCK_SIZE));
+  }
+
+  /**
+   * Returns the given number of sequential values for the given owner and key.
+   *
+   * @param uid the owner uid.
+   * @param key the key.
+   * @param length the number of values.
+   * @return a list of unique values.
+   */
+  public List<Integer> getNextValues(String uid, String key, int length) {
+    if (blockSize <= 1) {
+      return sequentialNumberCounterStore.getNextValues(uid, key, length);
+    }
+
+    Block block = blocks.computeIfAbsent(new BlockKey(uid, key), k -> new Block());
+
+    synchronized (block) {
+      List<Integer> values = new ArrayList<>(length);
+
+      while (values.size() < length) {
+        if (block.next >= block.end) {
+          int size = Math.max(blockSize, length - values.size());
+          block.next = sequentialNumberCounterStore.leaseBlock(uid, key, size);
+          block.end = block.next + size;
+        }
+
+        values.add(block.next++);
+      }
+
+      return values;
+    }
+  }
+
+  /**
+   * Discards the blocks held for the given owner, to be invoked when its counters are deleted.
+   *
+   * @param uid the owner uid.
+   */
+  public void discardBlocks(String uid) {
+    blocks.keySet().removeIf(key -> key.uid().equals(uid));
+  }
+
+  @PreDestroy
+  public void returnBlocks() {
+    blocks.forEach(
+        (key, block) -> {
+          synchronized (block) {
+            if (block.next < block.end) {
+              try {
+                boolean returned =
+                    sequentialNumberCounterStore.returnBlock(
+                        key.uid(), key.key(), block.next, block.end);
+
+                log.debug(
+                    "Returned {} unused values for owner {} and key {}: {}",
+                    block.end - block.next,
+                    key.uid(),
+                    key.key(),
+                    returned);
+              } catch (RuntimeException ex) {
+                log.warn("Failed to return unused values for owner " + key.uid(), ex);
+              }
+
+              block.next = block.end;
+            }
+          }
+        });
+  }
+
+  private record BlockKey(String uid, String key) {}
+
+  private static final class Block {
+    /** The next value to hand out. */
+    private int next;
+
+    /** The value following the last value of the block. */
+    private int end;
+  }
+}
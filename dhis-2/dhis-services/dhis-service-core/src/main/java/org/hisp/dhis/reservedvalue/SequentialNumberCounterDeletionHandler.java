@@ -37,6 +37,8 @@ import org.springframework.stereotype.Component;
 public class SequentialNumberCounterDeletionHandler extends DeletionHandler {
   private final SequentialNumberCounterStore sequentialNumberCounterStore;
 
+  private final SequentialNumberBlockAllocator sequentialNumberBlockAllocator;
+
   @Override
   protected void register() {
     whenDeleting(TrackedEntityAttribute.class, this::deleteTrackedEntityAttribute);
@@ -44,5 +46,6 @@ public class SequentialNumberCounterDeletionHandler extends DeletionHandler {
 
   private void deleteTrackedEntityAttribute(TrackedEntityAttribute attribute) {
     sequentialNumberCounterStore.deleteCounter(attribute.getUid());
+    sequentialNumberBlockAllocator.discardBlocks(attribute.getUid());
   }
 }
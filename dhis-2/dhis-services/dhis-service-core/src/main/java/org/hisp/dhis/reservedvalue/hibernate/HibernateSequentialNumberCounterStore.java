@@ -27,6 +27,8 @@
  */
 package org.hisp.dhis.reservedvalue.hibernate;
 
+import static org.springframework.transaction.annotation.Propagation.REQUIRES_NEW;
+
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -34,6 +36,7 @@ import javax.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import org.hisp.dhis.reservedvalue.SequentialNumberCounterStore;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * @author Stian Sandvold
@@ -45,20 +48,34 @@ public class HibernateSequentialNumberCounterStore implements SequentialNumberCo
 
   @Override
   public List<Integer> getNextValues(String uid, String key, int length) {
-    int count =
-        (int)
-            entityManager
-                .createNativeQuery("SELECT * FROM incrementSequentialCounter(:uid, :key, :length)")
-                .setParameter("uid", uid)
-                .setParameter("key", key)
-                .setParameter("length", length)
-                .getSingleResult();
+    int count = incrementCounter(uid, key, length);
 
     return IntStream.range(count - length, length + (count - length))
         .boxed()
         .collect(Collectors.toList());
   }
 
+  @Override
+  @Transactional(propagation = REQUIRES_NEW)
+  public int leaseBlock(String uid, String key, int size) {
+    return incrementCounter(uid, key, size) - size;
+  }
+
+  @Override
+  @Transactional(propagation = REQUIRES_NEW)
+  public boolean returnBlock(String uid, String key, int from, int to) {
+    return entityManager
+            .createNativeQuery(
+                "UPDATE sequentialnumbercounter SET counter = :from "
+                    + "WHERE owneruid = :uid AND key = :key AND counter = :to")
+            .setParameter("from", from)
+            .setParameter("to", to)
+            .setParameter("uid", uid)
+            .setParameter("key", key)
+            .executeUpdate()
+        > 0;
+  }
+
   @Override
   public void deleteCounter(String uid) {
     entityManager
@@ -66,4 +83,19 @@ public class HibernateSequentialNumberCounterStore implements SequentialNumberCo
         .setParameter("uid", uid)
         .executeUpdate();
   }
+
+  /**
+   * Increments the counter by the given size.
+   *
+   * @return the counter value after the increment, which is the next value to be handed out.
+   */
+  private int incrementCounter(String uid, String key, int size) {
+    return (int)
+        entityManager
+            .createNativeQuery("SELECT * FROM incrementSequentialCounter(:uid, :key, :length)")
+            .setParameter("uid", uid)
+            .setParameter("key", key)
+            .setParameter("length", size)
+            .getSingleResult();
+  }
 }
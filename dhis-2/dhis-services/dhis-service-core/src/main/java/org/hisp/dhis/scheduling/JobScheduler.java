@@ -47,6 +47,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hisp.dhis.analytics.AnalyticsQueryPriority;
 import org.hisp.dhis.setting.SettingKey;
 import org.hisp.dhis.setting.SystemSettingManager;
 import org.hisp.dhis.user.SystemUser;
@@ -228,7 +229,9 @@ public class JobScheduler implements Runnable, JobRunner {
       AtomicLong lastAlive = new AtomicLong(currentTimeMillis());
       progress = service.startRun(jobId, config.getExecutedBy(), () -> alive(jobId, lastAlive));
 
-      jobService.getJob(config.getJobType()).execute(config, progress);
+      JobProgress jobProgress = progress;
+      AnalyticsQueryPriority.BACKGROUND.run(
+          () -> jobService.getJob(config.getJobType()).execute(config, jobProgress));
 
       if (progress.isCancelled() && !progress.isAborted()) {
         service.finishRunCancel(jobId);
@@ -31,6 +31,7 @@ import java.util.Collections;
 import java.util.Objects;
 import org.hisp.dhis.user.UserDetails;
 import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
 
 /**
  * @author Morten Svanæs <msvanaes@dhis2.org>
@@ -75,6 +76,14 @@ public final class ApiTokenAuthenticationToken extends AbstractAuthenticationTok
     return this.tokenRef;
   }
 
+  /**
+   * @return true if the current user is authenticated by an API token.
+   */
+  public static boolean isCurrentAuthentication() {
+    return SecurityContextHolder.getContext().getAuthentication()
+        instanceof ApiTokenAuthenticationToken;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) return true;
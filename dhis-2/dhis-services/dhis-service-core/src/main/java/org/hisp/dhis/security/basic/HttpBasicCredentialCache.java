@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.security.basic;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.CheckForNull;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.hisp.dhis.cache.Cache;
+import org.hisp.dhis.cache.CacheProvider;
+import org.hisp.dhis.cache.NoOpCache;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.hisp.dhis.user.UserCredentialsChangedEvent;
+import org.hisp.dhis.user.UserDetails;
+import org.hisp.dhis.user.UserDetailsImpl;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Remembers the user details of recently verified HTTP Basic credentials, so that clients sending
+ * the same credentials with every request are not authenticated by hashing the password and
+ * loading the user each time.
+ *
+ * <p>Entries are keyed by an HMAC of the credentials using a random key created on startup, so
+ * neither passwords nor unsalted password hashes are held in memory. Entries expire after a short
+ * time and are dropped when a {@link UserCredentialsChangedEvent} is received.
+ */
+@Component
+public class HttpBasicCredentialCache {
+  private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+  private static final int HMAC_KEY_LENGTH = 32;
+
+  private final Cache<UserDetailsImpl> credentialCache;
+
+  private final SecretKeySpec hmacKey;
+
+  public HttpBasicCredentialCache(
+      CacheProvider cacheProvider, DhisConfigurationProvider dhisConfigurationProvider) {
+    long ttl =
+        Long.parseLong(
+            dhisConfigurationProvider.getProperty(
+                ConfigurationKey.SYSTEM_HTTP_BASIC_CREDENTIAL_CACHE_TTL));
+
+    this.credentialCache =
+        ttl > 0
+            ? cacheProvider.createHttpBasicCredentialCache(Duration.ofSeconds(ttl))
+            : new NoOpCache<>();
+
+    byte[] key = new byte[HMAC_KEY_LENGTH];
+    new SecureRandom().nextBytes(key);
+    this.hmacKey = new SecretKeySpec(key, HMAC_ALGORITHM);
+  }
+
+  /**
+   * Returns the user details previously verified for the given credentials.
+   *
+   * @param username the username.
+   * @param password the password.
+   * @return a copy of the user details, or null if the credentials are not known to be valid.
+   */
+  @CheckForNull
+  public UserDetails get(@CheckForNull String username, @CheckForNull String password) {
+    if (username == null || password == null) {
+      return null;
+    }
+
+    return credentialCache
+        .getIfPresent(getKey(username, password))
+        .map(HttpBasicCredentialCache::copyOf)
+        .orElse(null);
+  }
+
+  /**
+   * Remembers the given user details for the given verified credentials.
+   *
+   * @param username the username.
+   * @param password the password.
+   * @param userDetails the user details the credentials were verified against.
+   */
+  public void put(
+      @CheckForNull String username, @CheckForNull String password, UserDetails userDetails) {
+    if (username != null && password != null && userDetails instanceof UserDetailsImpl details) {
+      credentialCache.put(getKey(username, password), copyOf(details));
+    }
+  }
+
+  /**
+   * Drops the entries of the given user.
+   *
+   * @param userId the user id.
+   */
+  public void invalidate(long userId) {
+    List<String> keys = new ArrayList<>();
+    credentialCache.keys().forEach(keys::add);
+
+    for (String key : keys) {
+      credentialCache
+          .getIfPresent(key)
+          .filter(userDetails -> Long.valueOf(userId).equals(userDetails.getId()))
+          .ifPresent(userDetails -> credentialCache.invalidate(key));
+    }
+  }
+
+  public void invalidateAll() {
+    credentialCache.invalidateAll();
+  }
+
+  @EventListener
+  public void handleUserCredentialsChanged(UserCredentialsChangedEvent event) {
+    if (event.getUserId() == null) {
+      invalidateAll();
+    } else {
+      invalidate(event.getUserId());
+    }
+  }
+
+  // -------------------------------------------------------------------------
+  // Supportive methods
+  // -------------------------------------------------------------------------
+
+  private String getKey(String username, String password) {
+    try {
+      Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+      mac.init(hmacKey);
+      return HexFormat.of().formatHex(mac.doFinal((username + ":" + password).getBytes(UTF_8)));
+    } catch (GeneralSecurityException ex) {
+      throw new IllegalStateException("HMAC not available: " + HMAC_ALGORITHM, ex);
+    }
+  }
+
+  /**
+   * Copies the given user details. Cached entries are never handed out directly, as callers may
+   * modify the user settings of the current user.
+   */
+  private static UserDetailsImpl copyOf(UserDetailsImpl details) {
+    UserDetailsImpl copy = new UserDetailsImpl();
+    copy.setUid(details.getUid());
+    copy.setId(details.getId());
+    copy.setCode(details.getCode());
+    copy.setUsername(details.getUsername());
+    copy.setFirstName(details.getFirstName());
+    copy.setSurname(details.getSurname());
+    copy.setPassword(details.getPassword());
+    copy.setExternalAuth(details.isExternalAuth());
+    copy.setTwoFactorEnabled(details.isTwoFactorEnabled());
+    copy.setEnabled(details.isEnabled());
+    copy.setAccountNonExpired(details.isAccountNonExpired());
+    copy.setAccountNonLocked(details.isAccountNonLocked());
+    copy.setCredentialsNonExpired(details.isCredentialsNonExpired());
+    copy.setSuper(details.isSuper());
+    copy.setAuthorities(
+        details.getAuthorities() == null
+            ? null
+            : Collections.unmodifiableCollection(new ArrayList<>(details.getAuthorities())));
+    copy.setAllAuthorities(immutableCopy(details.getAllAuthorities()));
+    copy.setAllRestrictions(immutableCopy(details.getAllRestrictions()));
+    copy.setUserGroupIds(immutableCopy(details.getUserGroupIds()));
+    copy.setUserOrgUnitIds(immutableCopy(details.getUserOrgUnitIds()));
+    copy.setUserRoleIds(immutableCopy(details.getUserRoleIds()));
+    copy.setUserSettings(
+        details.getUserSettings() == null ? null : new HashMap<>(details.getUserSettings()));
+    return copy;
+  }
+
+  @CheckForNull
+  private static Set<String> immutableCopy(@CheckForNull Collection<String> values) {
+    return values == null ? null : Collections.unmodifiableSet(new HashSet<>(values));
+  }
+}
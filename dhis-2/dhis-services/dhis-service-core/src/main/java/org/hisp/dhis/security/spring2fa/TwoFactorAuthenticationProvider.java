@@ -31,6 +31,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.hisp.dhis.security.ForwardedIpAwareWebAuthenticationDetails;
 import org.hisp.dhis.security.TwoFactoryAuthenticationUtils;
+import org.hisp.dhis.security.basic.HttpBasicCredentialCache;
+import org.hisp.dhis.security.basic.HttpBasicWebAuthenticationDetails;
 import org.hisp.dhis.user.User;
 import org.hisp.dhis.user.UserDetails;
 import org.hisp.dhis.user.UserService;
@@ -56,13 +58,17 @@ import org.springframework.stereotype.Component;
 public class TwoFactorAuthenticationProvider extends DaoAuthenticationProvider {
   private UserService userService;
 
+  private HttpBasicCredentialCache credentialCache;
+
   @Autowired
   public TwoFactorAuthenticationProvider(
       @Qualifier("userDetailsService") UserDetailsService detailsService,
       PasswordEncoder passwordEncoder,
-      @Lazy UserService userService) {
+      @Lazy UserService userService,
+      HttpBasicCredentialCache credentialCache) {
 
     this.userService = userService;
+    this.credentialCache = credentialCache;
     setUserDetailsService(detailsService);
     setPasswordEncoder(passwordEncoder);
   }
@@ -84,6 +90,20 @@ public class TwoFactorAuthenticationProvider extends DaoAuthenticationProvider {
       throw new LockedException(String.format("IP is temporarily locked: %s", ip));
     }
 
+    // HTTP Basic clients send their credentials with every request, skip
+    // hashing the password if the same credentials were verified recently
+    boolean httpBasic = auth.getDetails() instanceof HttpBasicWebAuthenticationDetails;
+    String password = auth.getCredentials() == null ? null : auth.getCredentials().toString();
+
+    if (httpBasic) {
+      UserDetails cached = credentialCache.get(username, password);
+
+      if (cached != null) {
+        return new UsernamePasswordAuthenticationToken(
+            cached, auth.getCredentials(), cached.getAuthorities());
+      }
+    }
+
     Authentication result = super.authenticate(auth);
     UserDetails principal = (UserDetails) result.getPrincipal();
 
@@ -98,6 +118,10 @@ public class TwoFactorAuthenticationProvider extends DaoAuthenticationProvider {
 
     validateTwoFactor(principal, auth.getDetails());
 
+    if (httpBasic) {
+      credentialCache.put(username, password, principal);
+    }
+
     return new UsernamePasswordAuthenticationToken(
         principal, result.getCredentials(), result.getAuthorities());
   }
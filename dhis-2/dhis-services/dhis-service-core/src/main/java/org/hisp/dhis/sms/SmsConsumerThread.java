@@ -27,9 +27,27 @@
  */
 package org.hisp.dhis.sms;
 
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toList;
+import static org.hisp.dhis.monitoring.prometheus.config.PrometheusMonitoringConfig.STATUS_TAG;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
-import lombok.RequiredArgsConstructor;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.message.MessageSender;
 import org.hisp.dhis.sms.incoming.IncomingSms;
 import org.hisp.dhis.sms.incoming.IncomingSmsListener;
@@ -39,52 +57,160 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 
+/**
+ * Processes incoming SMS stored in the database. Each run claims unparsed messages in batches, so
+ * that several nodes of a cluster can process messages concurrently without handling a message
+ * twice, and hands them to the {@link IncomingSmsListener}s on a pool of worker threads. Messages
+ * from the same originator are processed one after the other, in the order they were received.
+ */
 @Slf4j
-@RequiredArgsConstructor
 @Component("org.hisp.dhis.sms.SmsConsumerThread")
 public class SmsConsumerThread {
-  private List<IncomingSmsListener> listeners;
+  /** Gauge of the incoming SMS waiting to be or being processed. */
+  static final String BACKLOG_GAUGE = "dhis2.sms.incoming.backlog";
+
+  /** Timer of the processing of incoming SMS, tagged by the resulting message status. */
+  static final String PROCESSED_TIMER = "dhis2.sms.incoming.processed";
 
-  private final MessageQueue messageQueue;
+  private List<IncomingSmsListener> listeners;
 
-  @Qualifier("smsMessageSender")
   private final MessageSender smsSender;
 
   private final IncomingSmsService incomingSmsService;
 
+  private final MeterRegistry meterRegistry;
+
+  private final ExecutorService workers;
+
+  private final int batchSize;
+
+  private final int claimTimeout;
+
+  private final AtomicLong backlog = new AtomicLong();
+
+  public SmsConsumerThread(
+      @Qualifier("smsMessageSender") MessageSender smsSender,
+      IncomingSmsService incomingSmsService,
+      DhisConfigurationProvider config,
+      MeterRegistry meterRegistry) {
+    this.smsSender = smsSender;
+    this.incomingSmsService = incomingSmsService;
+    this.meterRegistry = meterRegistry;
+    this.batchSize = getPositiveInt(config, ConfigurationKey.SMS_INCOMING_BATCH_SIZE);
+    this.claimTimeout = getPositiveInt(config, ConfigurationKey.SMS_INCOMING_CLAIM_TIMEOUT);
+    this.workers =
+        Executors.newFixedThreadPool(
+            getPositiveInt(config, ConfigurationKey.SMS_INCOMING_WORKERS),
+            new ThreadFactoryBuilder().setNameFormat("sms-incoming-%d").setDaemon(true).build());
+
+    Gauge.builder(BACKLOG_GAUGE, backlog, AtomicLong::get)
+        .description("Incoming SMS waiting to be or being processed")
+        .register(meterRegistry);
+  }
+
   public void spawnSmsConsumer() {
-    IncomingSms message = messageQueue.get();
+    try {
+      List<IncomingSms> messages = claim();
+
+      while (!messages.isEmpty()) {
+        process(messages);
+
+        messages = claim();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (Exception e) {
+      log.error("Failed to claim incoming SMS for processing", e);
+    }
+  }
 
-    while (message != null) {
-      log.info("Received SMS: " + message.getText());
+  private List<IncomingSms> claim() {
+    backlog.set(incomingSmsService.countUnprocessedMessages());
 
+    return incomingSmsService.claimUnparsedMessages(batchSize, claimTimeout);
+  }
+
+  /**
+   * Processes the given messages, one task per originator, and waits for all of them to finish
+   * before returning.
+   */
+  void process(List<IncomingSms> messages) throws InterruptedException {
+    Collection<List<IncomingSms>> byOriginator =
+        messages.stream()
+            .collect(groupingBy(IncomingSms::getOriginator, LinkedHashMap::new, toList()))
+            .values();
+
+    List<Future<?>> tasks = new ArrayList<>(byOriginator.size());
+
+    for (List<IncomingSms> sequence : byOriginator) {
+      tasks.add(workers.submit(() -> sequence.forEach(this::handle)));
+    }
+
+    for (Future<?> task : tasks) {
       try {
-        for (IncomingSmsListener listener : listeners) {
-          if (listener.accept(message)) {
-            listener.receive(message);
-            messageQueue.remove(message);
-            return;
-          }
-        }
+        task.get();
+      } catch (ExecutionException e) {
+        log.error("Failed to process incoming SMS", e.getCause());
+      }
+    }
+  }
+
+  private void handle(IncomingSms message) {
+    Timer.Sample sample = Timer.start(meterRegistry);
 
+    log.info("Received SMS: " + message.getText());
+
+    try {
+      IncomingSmsListener listener = getListener(message);
+
+      if (listener != null) {
+        listener.receive(message);
+
+        if (message.getStatus() == SmsMessageStatus.PROCESSING) {
+          log.warn("SMS was not marked as processed by listener: " + listener);
+
+          message.setStatus(SmsMessageStatus.UNHANDLED);
+        }
+      } else {
         log.warn("No SMS command found in received data");
 
         message.setStatus(SmsMessageStatus.UNHANDLED);
 
         smsSender.sendMessage(null, "No command found", message.getOriginator());
-      } catch (Exception e) {
-        e.printStackTrace();
-
-        message.setStatus(SmsMessageStatus.FAILED);
-        message.setParsed(false);
-      } finally {
-        messageQueue.remove(message);
-
-        incomingSmsService.update(message);
+      }
+    } catch (Exception e) {
+      log.error("Failed to process SMS: " + message.getUid(), e);
+
+      message.setStatus(SmsMessageStatus.FAILED);
+      message.setParsed(false);
+    } finally {
+      incomingSmsService.update(message);
+
+      sample.stop(
+          Timer.builder(PROCESSED_TIMER)
+              .description("Processing time of incoming SMS")
+              .tag(STATUS_TAG, message.getStatus().name())
+              .register(meterRegistry));
+    }
+  }
 
-        message = messageQueue.get();
+  private IncomingSmsListener getListener(IncomingSms message) {
+    for (IncomingSmsListener listener : listeners) {
+      if (listener.accept(message)) {
+        return listener;
       }
     }
+
+    return null;
+  }
+
+  private static int getPositiveInt(DhisConfigurationProvider config, ConfigurationKey key) {
+    return Math.max(1, Integer.parseInt(config.getProperty(key)));
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    workers.shutdownNow();
   }
 
   @Autowired
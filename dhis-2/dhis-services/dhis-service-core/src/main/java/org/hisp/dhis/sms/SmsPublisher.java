@@ -35,8 +35,6 @@ import org.springframework.stereotype.Component;
 @RequiredArgsConstructor
 @Component("org.hisp.dhis.sms.SmsPublisher")
 public class SmsPublisher {
-  private final MessageQueue messageQueue;
-
   private final SmsConsumerThread smsConsumer;
 
   private final TaskScheduler taskScheduler;
@@ -44,8 +42,6 @@ public class SmsPublisher {
   private ScheduledFuture<?> future;
 
   public void start() {
-    messageQueue.initialize();
-
     future = taskScheduler.scheduleWithFixedDelay(smsConsumer::spawnSmsConsumer, 5000);
   }
 
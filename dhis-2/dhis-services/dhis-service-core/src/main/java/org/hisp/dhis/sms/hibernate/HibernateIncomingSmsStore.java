@@ -27,6 +27,9 @@
  */
 package org.hisp.dhis.sms.hibernate;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import javax.persistence.EntityManager;
 import javax.persistence.criteria.CriteriaBuilder;
@@ -44,6 +47,9 @@ import org.springframework.stereotype.Repository;
 @Repository("org.hisp.dhis.sms.hibernate.IncomingSmsStore")
 public class HibernateIncomingSmsStore extends HibernateIdentifiableObjectStore<IncomingSms>
     implements IncomingSmsStore {
+  /** Advisory lock class identifier, combined with the originator hash to form the lock key. */
+  private static final int ORIGINATOR_LOCK_CLASS_ID = 730122;
+
   public HibernateIncomingSmsStore(
       EntityManager entityManager,
       JdbcTemplate jdbcTemplate,
@@ -110,6 +116,108 @@ public class HibernateIncomingSmsStore extends HibernateIdentifiableObjectStore<
         builder, newJpaParameters().addPredicate(root -> builder.equal(root.get("parsed"), false)));
   }
 
+  @Override
+  public List<IncomingSms> claimUnparsedMessages(int limit, int claimTimeoutMinutes) {
+    // The claim runs after the originators are locked, so it sees the claims committed by any
+    // transaction which held the lock of an originator before
+
+    List<String> originators = lockClaimableOriginators(limit, claimTimeoutMinutes);
+
+    if (originators.isEmpty()) {
+      return List.of();
+    }
+
+    // language=SQL
+    String sql =
+        """
+      update incomingsms set status = ?, claimed = now()
+      where id in (
+        select id from incomingsms
+        where parsed = false
+        and (status = ? or (status = ? and (claimed is null
+          or claimed < now() - ? * interval '1 minute')))
+        and originator in (%s)
+        and originator not in (
+          select originator from incomingsms
+          where parsed = false and status = ? and claimed >= now() - ? * interval '1 minute')
+        order by receiveddate, id
+        limit ?
+        for update skip locked)
+      returning id"""
+            .formatted(String.join(",", Collections.nCopies(originators.size(), "?")));
+
+    int processing = SmsMessageStatus.PROCESSING.ordinal();
+
+    List<Object> args = new ArrayList<>();
+    args.add(processing);
+    args.add(SmsMessageStatus.INCOMING.ordinal());
+    args.add(processing);
+    args.add(claimTimeoutMinutes);
+    args.addAll(originators);
+    args.add(processing);
+    args.add(claimTimeoutMinutes);
+    args.add(limit);
+
+    List<Long> ids = jdbcTemplate.queryForList(sql, Long.class, args.toArray());
+
+    if (ids.isEmpty()) {
+      return List.of();
+    }
+
+    return getById(ids).stream()
+        .sorted(
+            Comparator.comparing(IncomingSms::getReceivedDate).thenComparing(IncomingSms::getId))
+        .toList();
+  }
+
+  /**
+   * Locks the originators of up to the given number of the oldest claimable messages until the
+   * transaction ends. Originators locked by other transactions are skipped.
+   *
+   * @return the locked originators.
+   */
+  private List<String> lockClaimableOriginators(int limit, int claimTimeoutMinutes) {
+    // language=SQL
+    String sql =
+        """
+      select originator from (
+        select distinct originator from (
+          select originator from incomingsms
+          where parsed = false
+          and (status = ? or (status = ? and (claimed is null
+            or claimed < now() - ? * interval '1 minute')))
+          order by receiveddate, id
+          limit ?) as m) as o
+      where pg_try_advisory_xact_lock(?, hashtext(originator))""";
+
+    return jdbcTemplate.queryForList(
+        sql,
+        String.class,
+        SmsMessageStatus.INCOMING.ordinal(),
+        SmsMessageStatus.PROCESSING.ordinal(),
+        claimTimeoutMinutes,
+        limit,
+        ORIGINATOR_LOCK_CLASS_ID);
+  }
+
+  @Override
+  public long countUnprocessedMessages() {
+    // language=SQL
+    String sql =
+        """
+      select count(*) from incomingsms
+      where parsed = false and status in (?, ?)""";
+
+    Long count =
+        jdbcTemplate.queryForObject(
+            sql,
+            Long.class,
+            SmsMessageStatus.INCOMING.ordinal(),
+            SmsMessageStatus.PROCESSING.ordinal());
+
+    return count != null ? count : 0;
+  }
+
   @Override
   public List<IncomingSms> getSmsByStatus(
       SmsMessageStatus status, String keyword, Integer min, Integer max, boolean hasPagination) {
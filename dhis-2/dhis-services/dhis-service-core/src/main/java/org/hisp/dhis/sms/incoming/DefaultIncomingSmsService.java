@@ -27,17 +27,15 @@
  */
 package org.hisp.dhis.sms.incoming;
 
-import static com.google.common.base.Preconditions.checkNotNull;
-
 import java.util.Date;
 import java.util.List;
+import lombok.RequiredArgsConstructor;
 import org.apache.commons.lang3.StringUtils;
-import org.hisp.dhis.sms.MessageQueue;
 import org.hisp.dhis.user.User;
-import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+@RequiredArgsConstructor
 @Service("org.hisp.dhis.sms.incoming.IncomingSmsService")
 public class DefaultIncomingSmsService implements IncomingSmsService {
   private static final String DEFAULT_GATEWAY = "default";
@@ -48,17 +46,6 @@ public class DefaultIncomingSmsService implements IncomingSmsService {
 
   private final IncomingSmsStore incomingSmsStore;
 
-  private final MessageQueue incomingSmsQueue;
-
-  public DefaultIncomingSmsService(
-      IncomingSmsStore incomingSmsStore, @Lazy MessageQueue incomingSmsQueue) {
-    checkNotNull(incomingSmsQueue);
-    checkNotNull(incomingSmsStore);
-
-    this.incomingSmsStore = incomingSmsStore;
-    this.incomingSmsQueue = incomingSmsQueue;
-  }
-
   // -------------------------------------------------------------------------
   // Implementation
   // -------------------------------------------------------------------------
@@ -88,7 +75,6 @@ public class DefaultIncomingSmsService implements IncomingSmsService {
     sms.setGatewayId(StringUtils.defaultIfBlank(sms.getGatewayId(), DEFAULT_GATEWAY));
 
     incomingSmsStore.save(sms);
-    incomingSmsQueue.put(sms);
     return sms.getId();
   }
 
@@ -169,4 +155,16 @@ public class DefaultIncomingSmsService implements IncomingSmsService {
   public List<IncomingSms> getAllUnparsedMessages() {
     return incomingSmsStore.getAllUnparsedMessages();
   }
+
+  @Override
+  @Transactional
+  public List<IncomingSms> claimUnparsedMessages(int limit, int claimTimeoutMinutes) {
+    return incomingSmsStore.claimUnparsedMessages(limit, claimTimeoutMinutes);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public long countUnprocessedMessages() {
+    return incomingSmsStore.countUnprocessedMessages();
+  }
 }
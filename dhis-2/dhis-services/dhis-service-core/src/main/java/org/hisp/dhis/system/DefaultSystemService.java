@@ -51,6 +51,7 @@ import org.hisp.dhis.external.location.LocationManagerException;
 import org.hisp.dhis.setting.SettingKey;
 import org.hisp.dhis.setting.SystemSettingManager;
 import org.hisp.dhis.system.database.DatabaseInfoProvider;
+import org.hisp.dhis.system.startup.StartupRoutineExecutor;
 import org.joda.time.DateTime;
 import org.joda.time.format.DateTimeFormat;
 import org.joda.time.format.DateTimeFormatter;
@@ -73,6 +74,7 @@ public class DefaultSystemService implements SystemService, InitializingBean {
   private final DhisConfigurationProvider dhisConfig;
   private final CalendarService calendarService;
   private final SystemSettingManager settings;
+  private final StartupRoutineExecutor startupRoutineExecutor;
 
   /** Variable holding fixed system info state. */
   private SystemInfo systemInfo = null;
@@ -137,6 +139,7 @@ public class DefaultSystemService implements SystemService, InitializingBean {
             getLastMetadataVersionSyncAttempt(
                 settings.getDateSetting(SettingKey.LAST_SUCCESSFUL_METADATA_SYNC),
                 settings.getDateSetting(SettingKey.METADATA_LAST_FAILED_TIME)))
+        .startupTimings(startupRoutineExecutor.getStartupTimings())
         .build();
   }
 
@@ -63,6 +63,7 @@ class DefaultAppManagerTest {
   @Mock private Cache<App> appCache;
   @Mock private DefaultCacheBuilderProvider cacheBuilderProvider;
   @Mock private CacheBuilder cacheBuilder;
+  @Mock private AppAssetCache appAssetCache;
 
   private AppManager appManager;
 
@@ -120,7 +121,8 @@ class DefaultAppManagerTest {
             localAppStorageService,
             jCloudsAppStorageService,
             datastoreService,
-            cacheBuilderProvider);
+            cacheBuilderProvider,
+            appAssetCache);
   }
 
   /**
@@ -245,6 +245,7 @@ class ExpressionService2Test extends DhisConvenienceTest {
   @BeforeEach
   public void setUp() {
     when(cacheProvider.createAllConstantsCache()).thenReturn(new NoOpCache<>());
+    when(cacheProvider.createCompiledExpressionCache()).thenReturn(new NoOpCache<>());
     target =
         new DefaultExpressionService(
             hibernateGenericStore,
@@ -0,0 +1,257 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.message;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.mail.Message.RecipientType;
+import javax.mail.MessagingException;
+import javax.mail.internet.InternetAddress;
+import javax.mail.internet.MimeMessage;
+import org.hisp.dhis.email.EmailConfiguration;
+import org.hisp.dhis.email.EmailResponse;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.hisp.dhis.outboundmessage.OutboundMessageResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/** Tests {@link SmtpTransportPool} against a minimal local SMTP server. */
+@ExtendWith(MockitoExtension.class)
+class SmtpTransportPoolTest {
+
+  @Mock private DhisConfigurationProvider config;
+
+  private FakeSmtpServer server;
+
+  private SmtpTransportPool pool;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    server = new FakeSmtpServer();
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    if (pool != null) {
+      pool.close();
+    }
+
+    server.close();
+  }
+
+  @Test
+  void testSendBatchOverSingleConnection() throws MessagingException {
+    pool = createPool("1", "100");
+
+    List<OutboundMessageResponse> responses = pool.send(emailConfig(), messages(5));
+
+    assertEquals(5, responses.size());
+    assertTrue(responses.stream().allMatch(OutboundMessageResponse::isOk));
+    assertEquals(1, server.connections.get());
+    assertEquals(5, server.messages.get());
+  }
+
+  @Test
+  void testReuseConnectionAcrossSends() throws MessagingException {
+    pool = createPool("1", "100");
+
+    pool.send(emailConfig(), messages(2));
+    pool.send(emailConfig(), messages(3));
+
+    assertEquals(1, server.connections.get());
+    assertEquals(5, server.messages.get());
+  }
+
+  @Test
+  void testReconnectAfterMessagesPerConnection() throws MessagingException {
+    pool = createPool("1", "2");
+
+    List<OutboundMessageResponse> responses = pool.send(emailConfig(), messages(5));
+
+    assertTrue(responses.stream().allMatch(OutboundMessageResponse::isOk));
+    assertEquals(3, server.connections.get());
+    assertEquals(5, server.messages.get());
+  }
+
+  @Test
+  void testSendBatchConcurrently() throws MessagingException {
+    pool = createPool("3", "100");
+
+    List<OutboundMessageResponse> responses = pool.send(emailConfig(), messages(9));
+
+    assertEquals(9, responses.size());
+    assertTrue(responses.stream().allMatch(OutboundMessageResponse::isOk));
+    assertTrue(server.connections.get() <= 3);
+    assertEquals(9, server.messages.get());
+  }
+
+  @Test
+  void testRejectedRecipient() throws MessagingException {
+    pool = createPool("1", "100");
+
+    List<MimeMessage> messages = messages(2);
+    messages.get(1).setRecipient(RecipientType.BCC, new InternetAddress("reject@dhis2.org"));
+
+    List<OutboundMessageResponse> responses = pool.send(emailConfig(), messages);
+
+    assertTrue(responses.get(0).isOk());
+    assertFalse(responses.get(1).isOk());
+    assertEquals(EmailResponse.FAILED, responses.get(1).getResponseObject());
+  }
+
+  private SmtpTransportPool createPool(String connections, String messagesPerConnection) {
+    when(config.getProperty(ConfigurationKey.EMAIL_SMTP_CONNECTIONS)).thenReturn(connections);
+    when(config.getProperty(ConfigurationKey.EMAIL_SMTP_MESSAGES_PER_CONNECTION))
+        .thenReturn(messagesPerConnection);
+    when(config.getProperty(ConfigurationKey.EMAIL_SMTP_RATE_LIMIT)).thenReturn("0");
+    return new SmtpTransportPool(config);
+  }
+
+  private EmailConfiguration emailConfig() {
+    return new EmailConfiguration(
+        "localhost", null, null, "noreply@dhis2.org", server.getPort(), false);
+  }
+
+  private List<MimeMessage> messages(int count) throws MessagingException {
+    List<MimeMessage> messages = new ArrayList<>();
+
+    for (int i = 0; i < count; i++) {
+      MimeMessage message = new MimeMessage(pool.getSession(emailConfig()));
+      message.setFrom(new InternetAddress("noreply@dhis2.org"));
+      message.setRecipient(RecipientType.BCC, new InternetAddress("user" + i + "@dhis2.org"));
+      message.setSubject("Subject " + i);
+      message.setText("Text " + i);
+      messages.add(message);
+    }
+
+    return messages;
+  }
+
+  /**
+   * SMTP stand-in which accepts any message, rejects recipients starting with "reject" and counts
+   * connections and messages.
+   */
+  private static final class FakeSmtpServer implements AutoCloseable {
+    private final ServerSocket serverSocket = new ServerSocket(0);
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    private final AtomicInteger connections = new AtomicInteger();
+
+    private final AtomicInteger messages = new AtomicInteger();
+
+    private FakeSmtpServer() throws IOException {
+      executor.submit(this::accept);
+    }
+
+    private int getPort() {
+      return serverSocket.getLocalPort();
+    }
+
+    private void accept() {
+      while (!serverSocket.isClosed()) {
+        try {
+          Socket socket = serverSocket.accept();
+          connections.incrementAndGet();
+          executor.submit(() -> handle(socket));
+        } catch (IOException ex) {
+          return;
+        }
+      }
+    }
+
+    private void handle(Socket socket) {
+      try (socket;
+          BufferedReader in =
+              new BufferedReader(
+                  new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+          PrintWriter out = new PrintWriter(socket.getOutputStream(), true)) {
+        reply(out, "220 localhost SMTP");
+
+        String line;
+
+        while ((line = in.readLine()) != null) {
+          String command = line.toUpperCase();
+
+          if (command.startsWith("EHLO") || command.startsWith("HELO")) {
+            reply(out, "250 localhost");
+          } else if (command.startsWith("RCPT TO:<REJECT")) {
+            reply(out, "550 Rejected");
+          } else if (command.startsWith("DATA")) {
+            reply(out, "354 End data with <CR><LF>.<CR><LF>");
+
+            while ((line = in.readLine()) != null && !line.equals(".")) {
+              // Discard message content
+            }
+
+            messages.incrementAndGet();
+            reply(out, "250 OK");
+          } else if (command.startsWith("QUIT")) {
+            reply(out, "221 Bye");
+            return;
+          } else {
+            reply(out, "250 OK");
+          }
+        }
+      } catch (IOException ex) {
+        // Connection closed by client
+      }
+    }
+
+    private void reply(PrintWriter out, String reply) {
+      out.print(reply + "\r\n");
+      out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+      serverSocket.close();
+      executor.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.period;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/** Unit tests for {@link DefaultPeriodService}. */
+@ExtendWith(MockitoExtension.class)
+class DefaultPeriodServiceTest {
+  @Mock private PeriodStore periodStore;
+
+  @Mock private JdbcTemplate jdbcTemplate;
+
+  @Mock private ApplicationEventPublisher eventPublisher;
+
+  @Test
+  void testGetPeriodLoadsRegisteredPeriodById() {
+    PeriodRegistry registry = new PeriodRegistry(jdbcTemplate, true);
+    registry.register(storedPeriod("202401", 1L));
+    Period stored = storedPeriod("202401", 1L);
+    when(periodStore.get(1L)).thenReturn(stored);
+
+    DefaultPeriodService service = new DefaultPeriodService(periodStore, registry, eventPublisher);
+
+    assertSame(stored, service.getPeriod("202401"));
+    verify(periodStore, never()).getPeriod(any(), any(), any());
+  }
+
+  @Test
+  void testGetRegisteredPeriodFromRegistry() {
+    PeriodRegistry registry = new PeriodRegistry(jdbcTemplate, true);
+    registry.register(storedPeriod("202401", 1L));
+
+    DefaultPeriodService service = new DefaultPeriodService(periodStore, registry, eventPublisher);
+    Period period = service.getRegisteredPeriod("202401");
+
+    assertEquals(1L, period.getId());
+    assertEquals("202401", period.getIsoDate());
+    verifyNoInteractions(periodStore);
+  }
+
+  private static Period storedPeriod(String isoPeriod, long id) {
+    Period period = PeriodType.getPeriodFromIsoString(isoPeriod);
+    period.setId(id);
+    return period;
+  }
+}
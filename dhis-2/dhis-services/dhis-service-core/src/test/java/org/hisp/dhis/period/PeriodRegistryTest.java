@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.period;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hisp.dhis.common.event.ApplicationCacheClearedEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+/** Unit tests for {@link PeriodRegistry}. */
+@ExtendWith(MockitoExtension.class)
+class PeriodRegistryTest {
+  @Mock private JdbcTemplate jdbcTemplate;
+
+  @Test
+  void testLoad() throws Exception {
+    ResultSet rs = mock(ResultSet.class);
+    when(rs.getLong(1)).thenReturn(7L);
+    when(rs.getString(2)).thenReturn("Monthly");
+    when(rs.getDate(3)).thenReturn(Date.valueOf("2024-03-01"));
+    when(rs.getDate(4)).thenReturn(Date.valueOf("2024-03-31"));
+    doAnswer(
+            invocation -> {
+              invocation.<RowCallbackHandler>getArgument(1).processRow(rs);
+              return null;
+            })
+        .when(jdbcTemplate)
+        .query(anyString(), any(RowCallbackHandler.class));
+
+    PeriodRegistry registry = new PeriodRegistry(jdbcTemplate, true);
+
+    assertEquals(7L, registry.get("202403").getId());
+    assertEquals("202403", registry.get(7L).getIsoDate());
+    assertNull(registry.get("202404"));
+  }
+
+  @Test
+  void testRegisterReturnsDetachedCopies() {
+    PeriodRegistry registry = new PeriodRegistry(jdbcTemplate, true);
+    Period period = storedPeriod("202401", 1L);
+
+    Period registered = registry.register(period);
+
+    assertNotSame(period, registered);
+    assertEquals(1L, registered.getId());
+    assertNotSame(registry.get("202401"), registry.get("202401"));
+    assertEquals(period, registry.get(1L));
+  }
+
+  @Test
+  void testComputeIfAbsentInvokesSupplierOnMissOnly() {
+    PeriodRegistry registry = new PeriodRegistry(jdbcTemplate, true);
+    AtomicInteger calls = new AtomicInteger();
+
+    for (int i = 0; i < 3; i++) {
+      Period period =
+          registry.computeIfAbsent(
+              "2024Q1",
+              () -> {
+                calls.incrementAndGet();
+                return storedPeriod("2024Q1", 2L);
+              });
+
+      assertEquals(2L, period.getId());
+    }
+
+    assertEquals(1, calls.get());
+  }
+
+  @Test
+  void testPeriodDeleted() {
+    PeriodRegistry registry = new PeriodRegistry(jdbcTemplate, true);
+    registry.register(storedPeriod("202401", 1L));
+    registry.register(storedPeriod("202402", 2L));
+
+    registry.handlePeriodDeleted(new PeriodDeletedEvent(1L, true));
+
+    assertNull(registry.get("202401"));
+    assertNull(registry.get(1L));
+    assertEquals(2L, registry.get("202402").getId());
+
+    registry.handlePeriodDeleted(new PeriodDeletedEvent(null, false));
+
+    assertNull(registry.get("202402"));
+  }
+
+  @Test
+  void testApplicationCachesCleared() {
+    PeriodRegistry registry = new PeriodRegistry(jdbcTemplate, true);
+    registry.register(storedPeriod("202401", 1L));
+
+    registry.handleApplicationCachesCleared(new ApplicationCacheClearedEvent());
+
+    assertNull(registry.get(1L));
+  }
+
+  @Test
+  void testDisabled() {
+    PeriodRegistry registry = new PeriodRegistry(jdbcTemplate, false);
+
+    assertEquals(1L, registry.register(storedPeriod("202401", 1L)).getId());
+    assertNull(registry.get("202401"));
+    assertNull(registry.get(1L));
+  }
+
+  private static Period storedPeriod(String isoPeriod, long id) {
+    Period period = PeriodType.getPeriodFromIsoString(isoPeriod);
+    period.setId(id);
+    return period;
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.reservedvalue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class SequentialNumberBlockAllocatorTest {
+
+  @Mock private SequentialNumberCounterStore store;
+
+  @Mock private DhisConfigurationProvider config;
+
+  @Test
+  void shouldUseCounterStoreWhenBlocksAreDisabled() {
+    when(store.getNextValues("uid", "key", 2)).thenReturn(List.of(1, 2));
+
+    SequentialNumberBlockAllocator allocator = allocator("1");
+
+    assertEquals(List.of(1, 2), allocator.getNextValues("uid", "key", 2));
+    verify(store, never()).leaseBlock(anyString(), anyString(), anyInt());
+  }
+
+  @Test
+  void shouldHandOutValuesFromLeasedBlock() {
+    when(store.leaseBlock("uid", "key", 10)).thenReturn(1);
+
+    SequentialNumberBlockAllocator allocator = allocator("10");
+
+    assertEquals(List.of(1, 2, 3), allocator.getNextValues("uid", "key", 3));
+    assertEquals(List.of(4, 5, 6, 7), allocator.getNextValues("uid", "key", 4));
+    verify(store, times(1)).leaseBlock("uid", "key", 10);
+  }
+
+  @Test
+  void shouldLeaseNewBlockWhenBlockIsExhausted() {
+    when(store.leaseBlock("uid", "key", 10)).thenReturn(1, 21);
+
+    SequentialNumberBlockAllocator allocator = allocator("10");
+
+    allocator.getNextValues("uid", "key", 8);
+
+    assertEquals(List.of(9, 10, 21, 22), allocator.getNextValues("uid", "key", 4));
+    verify(store, times(2)).leaseBlock("uid", "key", 10);
+  }
+
+  @Test
+  void shouldLeaseBlockLargerThanBlockSizeWhenRequired() {
+    when(store.leaseBlock("uid", "key", 15)).thenReturn(1);
+
+    SequentialNumberBlockAllocator allocator = allocator("10");
+
+    assertEquals(15, allocator.getNextValues("uid", "key", 15).size());
+  }
+
+  @Test
+  void shouldReturnUnusedBlockTails() {
+    when(store.leaseBlock("uid", "key", 10)).thenReturn(1);
+
+    SequentialNumberBlockAllocator allocator = allocator("10");
+
+    allocator.getNextValues("uid", "key", 4);
+    allocator.returnBlocks();
+
+    verify(store).returnBlock("uid", "key", 5, 11);
+  }
+
+  @Test
+  void shouldLeaseNewBlockAfterDiscard() {
+    when(store.leaseBlock("uid", "key", 10)).thenReturn(1, 1);
+
+    SequentialNumberBlockAllocator allocator = allocator("10");
+
+    allocator.getNextValues("uid", "key", 4);
+    allocator.discardBlocks("uid");
+
+    assertEquals(List.of(1), allocator.getNextValues("uid", "key", 1));
+    verify(store, times(2)).leaseBlock("uid", "key", 10);
+  }
+
+  private SequentialNumberBlockAllocator allocator(String blockSize) {
+    when(config.getProperty(ConfigurationKey.RESERVED_VALUE_SEQUENTIAL_BLOCK_SIZE))
+        .thenReturn(blockSize);
+    return new SequentialNumberBlockAllocator(store, config);
+  }
+}
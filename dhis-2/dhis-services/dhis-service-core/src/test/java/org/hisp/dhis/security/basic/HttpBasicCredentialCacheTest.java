@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.security.basic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.hisp.dhis.cache.Cache;
+import org.hisp.dhis.cache.CacheBuilder;
+import org.hisp.dhis.cache.CacheProvider;
+import org.hisp.dhis.cache.LocalCache;
+import org.hisp.dhis.cache.SimpleCacheBuilder;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.hisp.dhis.user.UserCredentialsChangedEvent;
+import org.hisp.dhis.user.UserDetails;
+import org.hisp.dhis.user.UserDetailsImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/** Unit tests for {@link HttpBasicCredentialCache}. */
+@ExtendWith(MockitoExtension.class)
+class HttpBasicCredentialCacheTest {
+  @Mock private CacheProvider cacheProvider;
+
+  @Mock private DhisConfigurationProvider dhisConfigurationProvider;
+
+  private HttpBasicCredentialCache credentialCache;
+
+  @BeforeEach
+  void setUp() {
+    CacheBuilder<UserDetailsImpl> cacheBuilder = new SimpleCacheBuilder<>();
+    cacheBuilder.expireAfterWrite(1L, TimeUnit.MINUTES);
+
+    when(dhisConfigurationProvider.getProperty(
+            ConfigurationKey.SYSTEM_HTTP_BASIC_CREDENTIAL_CACHE_TTL))
+        .thenReturn("60");
+    Cache<UserDetailsImpl> cache = new LocalCache<>(cacheBuilder);
+    Mockito.<Cache<UserDetailsImpl>>when(cacheProvider.createHttpBasicCredentialCache(any()))
+        .thenReturn(cache);
+
+    credentialCache = new HttpBasicCredentialCache(cacheProvider, dhisConfigurationProvider);
+  }
+
+  @Test
+  void testGetReturnsCopyForMatchingCredentials() {
+    UserDetailsImpl admin = userDetails(1L, "admin");
+    credentialCache.put("admin", "district", admin);
+
+    UserDetails cached = credentialCache.get("admin", "district");
+
+    assertNotNull(cached);
+    assertNotSame(admin, cached);
+    assertEquals("admin", cached.getUsername());
+    assertEquals(Set.of("ALL"), cached.getAllAuthorities());
+    assertNotSame(cached, credentialCache.get("admin", "district"));
+  }
+
+  @Test
+  void testGetWithOtherPassword() {
+    credentialCache.put("admin", "district", userDetails(1L, "admin"));
+
+    assertNull(credentialCache.get("admin", "District"));
+    assertNull(credentialCache.get("admin", null));
+  }
+
+  @Test
+  void testUserCredentialsChangedForUser() {
+    credentialCache.put("admin", "district", userDetails(1L, "admin"));
+    credentialCache.put("other", "district", userDetails(2L, "other"));
+
+    credentialCache.handleUserCredentialsChanged(new UserCredentialsChangedEvent(1L, true));
+
+    assertNull(credentialCache.get("admin", "district"));
+    assertNotNull(credentialCache.get("other", "district"));
+  }
+
+  @Test
+  void testUserCredentialsChangedForAllUsers() {
+    credentialCache.put("admin", "district", userDetails(1L, "admin"));
+    credentialCache.put("other", "district", userDetails(2L, "other"));
+
+    credentialCache.handleUserCredentialsChanged(new UserCredentialsChangedEvent(null, false));
+
+    assertNull(credentialCache.get("admin", "district"));
+    assertNull(credentialCache.get("other", "district"));
+  }
+
+  private static UserDetailsImpl userDetails(long id, String username) {
+    UserDetailsImpl userDetails = new UserDetailsImpl();
+    userDetails.setId(id);
+    userDetails.setUsername(username);
+    userDetails.setEnabled(true);
+    userDetails.setAllAuthorities(Set.of("ALL"));
+    userDetails.setUserSettings(new HashMap<>());
+    return userDetails;
+  }
+}
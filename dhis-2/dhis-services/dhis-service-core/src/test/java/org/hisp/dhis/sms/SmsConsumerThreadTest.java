@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.sms;
+
+import static org.hisp.dhis.monitoring.prometheus.config.PrometheusMonitoringConfig.STATUS_TAG;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.hisp.dhis.message.MessageSender;
+import org.hisp.dhis.sms.incoming.IncomingSms;
+import org.hisp.dhis.sms.incoming.IncomingSmsListener;
+import org.hisp.dhis.sms.incoming.IncomingSmsService;
+import org.hisp.dhis.sms.incoming.SmsMessageStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class SmsConsumerThreadTest {
+  @Mock private MessageSender smsSender;
+
+  @Mock private IncomingSmsService incomingSmsService;
+
+  @Mock private DhisConfigurationProvider config;
+
+  private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private final Map<String, List<String>> received = new ConcurrentHashMap<>();
+
+  private SmsConsumerThread consumer;
+
+  @BeforeEach
+  void setUp() {
+    when(config.getProperty(ConfigurationKey.SMS_INCOMING_WORKERS)).thenReturn("4");
+    when(config.getProperty(ConfigurationKey.SMS_INCOMING_BATCH_SIZE)).thenReturn("10");
+    when(config.getProperty(ConfigurationKey.SMS_INCOMING_CLAIM_TIMEOUT)).thenReturn("10");
+
+    consumer = new SmsConsumerThread(smsSender, incomingSmsService, config, meterRegistry);
+    consumer.setListeners(List.of(new RecordingListener()));
+  }
+
+  @AfterEach
+  void tearDown() {
+    consumer.shutdown();
+  }
+
+  @Test
+  void testProcessesMessagesInOrderPerOriginator() {
+    List<IncomingSms> batch =
+        List.of(
+            sms("a", "cmd 1"),
+            sms("b", "cmd 1"),
+            sms("a", "cmd 2"),
+            sms("b", "cmd 2"),
+            sms("a", "cmd 3"));
+
+    when(incomingSmsService.countUnprocessedMessages()).thenReturn(5L, 0L);
+    when(incomingSmsService.claimUnparsedMessages(10, 10)).thenReturn(batch, List.of());
+
+    consumer.spawnSmsConsumer();
+
+    assertEquals(List.of("cmd 1", "cmd 2", "cmd 3"), received.get("a"));
+    assertEquals(List.of("cmd 1", "cmd 2"), received.get("b"));
+    batch.forEach(sms -> verify(incomingSmsService).update(sms));
+    assertEquals(
+        5,
+        meterRegistry
+            .get(SmsConsumerThread.PROCESSED_TIMER)
+            .tag(STATUS_TAG, SmsMessageStatus.PROCESSED.name())
+            .timer()
+            .count());
+    assertEquals(0, meterRegistry.get(SmsConsumerThread.BACKLOG_GAUGE).gauge().value());
+  }
+
+  @Test
+  void testUnhandledMessage() {
+    IncomingSms sms = sms("a", "unknown");
+
+    when(incomingSmsService.claimUnparsedMessages(10, 10)).thenReturn(List.of(sms), List.of());
+
+    consumer.spawnSmsConsumer();
+
+    assertEquals(SmsMessageStatus.UNHANDLED, sms.getStatus());
+    verify(smsSender).sendMessage(null, "No command found", "a");
+    verify(incomingSmsService).update(sms);
+  }
+
+  @Test
+  void testFailedMessageDoesNotStopOriginator() {
+    IncomingSms failing = sms("a", "cmd fail");
+    IncomingSms next = sms("a", "cmd 2");
+
+    when(incomingSmsService.claimUnparsedMessages(10, 10))
+        .thenReturn(List.of(failing, next), List.of());
+
+    consumer.spawnSmsConsumer();
+
+    assertEquals(SmsMessageStatus.FAILED, failing.getStatus());
+    assertEquals(SmsMessageStatus.PROCESSED, next.getStatus());
+    assertEquals(List.of("cmd 2"), received.get("a"));
+    verify(incomingSmsService).update(failing);
+    verify(smsSender, never()).sendMessage(any(), any(), any(String.class));
+  }
+
+  @Test
+  void testClaimFailureIsContained() {
+    when(incomingSmsService.claimUnparsedMessages(anyInt(), anyInt()))
+        .thenThrow(new IllegalStateException("database down"));
+
+    consumer.spawnSmsConsumer();
+
+    verify(incomingSmsService, never()).update(any());
+  }
+
+  private static IncomingSms sms(String originator, String text) {
+    IncomingSms sms = new IncomingSms();
+    sms.setOriginator(originator);
+    sms.setText(text);
+    sms.setReceivedDate(new Date());
+    sms.setStatus(SmsMessageStatus.PROCESSING);
+    return sms;
+  }
+
+  private class RecordingListener implements IncomingSmsListener {
+    @Override
+    public boolean accept(IncomingSms sms) {
+      return sms.getText().startsWith("cmd");
+    }
+
+    @Override
+    public void receive(IncomingSms sms) {
+      if (sms.getText().endsWith("fail")) {
+        throw new IllegalArgumentException("Invalid command");
+      }
+
+      received
+          .computeIfAbsent(sms.getOriginator(), k -> new CopyOnWriteArrayList<>())
+          .add(sms.getText());
+      sms.setStatus(SmsMessageStatus.PROCESSED);
+      sms.setParsed(true);
+    }
+  }
+}
@@ -45,6 +45,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.ObjectUtils;
 import org.hisp.dhis.analytics.AggregationType;
 import org.hisp.dhis.analytics.AnalyticsAggregationType;
+import org.hisp.dhis.analytics.AnalyticsQueryPriority;
 import org.hisp.dhis.analytics.AnalyticsService;
 import org.hisp.dhis.analytics.DataQueryParams;
 import org.hisp.dhis.analytics.DataQueryService;
@@ -132,7 +133,9 @@ public class AggregateDataExchangeService {
         AggregateDataExchangeService::toItemDescription,
         AggregateDataExchangeService::toItemSummary,
         request -> {
-          ImportSummary summary = exchangeData(exchange, request);
+          // Exchanges yield to users waiting for analytics responses
+          ImportSummary summary =
+              AnalyticsQueryPriority.BACKGROUND.call(() -> exchangeData(exchange, request));
           summaries.addImportSummary(summary);
           return summary;
         },
@@ -37,9 +37,17 @@ import java.security.NoSuchAlgorithmException;
 public class HashCodeGenerator {
   public static String getHashCode(String value) throws NoSuchAlgorithmException {
     byte[] bytesOfMessage = value.getBytes(StandardCharsets.UTF_8);
-    MessageDigest md = MessageDigest.getInstance("MD5");
-    byte[] digest = md.digest(bytesOfMessage);
+    MessageDigest md = getMessageDigest();
+    return getHashCode(md.digest(bytesOfMessage));
+  }
+
+  /** Returns the message digest used for hash codes, to hash content as it is written. */
+  public static MessageDigest getMessageDigest() throws NoSuchAlgorithmException {
+    return MessageDigest.getInstance("MD5");
+  }
 
+  /** Returns the hash code of the given digest. */
+  public static String getHashCode(byte[] digest) {
     StringBuilder hexString = new StringBuilder();
     for (byte aDigest : digest) {
       String hex = Integer.toHexString(0xFF & aDigest);
@@ -31,6 +31,7 @@ import static org.apache.commons.lang3.StringUtils.trimToNull;
 import static org.hisp.dhis.commons.collection.CollectionUtils.isEmpty;
 import static org.hisp.dhis.commons.util.StreamUtils.wrapAndCheckCompressionFormat;
 import static org.hisp.dhis.external.conf.ConfigurationKey.CHANGELOG_AGGREGATE;
+import static org.hisp.dhis.monitoring.prometheus.config.PrometheusMonitoringConfig.STATUS_TAG;
 import static org.hisp.dhis.system.notification.NotificationLevel.ERROR;
 import static org.hisp.dhis.system.notification.NotificationLevel.INFO;
 import static org.hisp.dhis.system.notification.NotificationLevel.WARN;
@@ -38,6 +39,7 @@ import static org.hisp.dhis.system.util.ValidationUtils.dataValueIsZeroAndInsign
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.Lists;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Writer;
@@ -89,6 +91,7 @@ import org.hisp.dhis.i18n.I18nManager;
 import org.hisp.dhis.importexport.ImportStrategy;
 import org.hisp.dhis.jdbc.batchhandler.DataValueAuditBatchHandler;
 import org.hisp.dhis.jdbc.batchhandler.DataValueBatchHandler;
+import org.hisp.dhis.monitoring.metrics.PhaseTimer;
 import org.hisp.dhis.node.types.CollectionNode;
 import org.hisp.dhis.node.types.ComplexNode;
 import org.hisp.dhis.node.types.RootNode;
@@ -138,6 +141,12 @@ public class DefaultDataValueSetService implements DataValueSetService {
 
   private static final int CACHE_MISS_THRESHOLD = 250;
 
+  /** Timer of the phases of data value set imports, tagged by phase. */
+  static final String IMPORT_TIMER = "dhis2.datavalueset.import";
+
+  /** Counter of imported data values, tagged by the outcome of the import of each value. */
+  static final String VALUE_COUNTER = "dhis2.datavalueset.import.values";
+
   private final IdentifiableObjectManager identifiableObjectManager;
 
   private final CategoryService categoryService;
@@ -178,6 +187,8 @@ public class DefaultDataValueSetService implements DataValueSetService {
 
   private final UserService userService;
 
+  private final MeterRegistry meterRegistry;
+
   // -------------------------------------------------------------------------
   // DataValueSet implementation
   // -------------------------------------------------------------------------
@@ -690,15 +701,22 @@ public class DefaultDataValueSetService implements DataValueSetService {
     NotificationLevel notificationLevel = options.getNotificationLevel(INFO);
     notifier.notify(id, notificationLevel, "Process started");
 
-    // ---------------------------------------------------------------------
-    // Heat caches
-    // ---------------------------------------------------------------------
-    preheatCaches(context);
+    PhaseTimer phases = new PhaseTimer(meterRegistry, IMPORT_TIMER);
 
-    // ---------------------------------------------------------------------
-    // Get outer meta-data
-    // ---------------------------------------------------------------------
-    ImportContext.DataSetContext dataSetContext = createDataSetContext(context, dataValueSet);
+    ImportContext.DataSetContext dataSetContext =
+        phases.record(
+            "preheat",
+            () -> {
+              // -------------------------------------------------------------
+              // Heat caches
+              // -------------------------------------------------------------
+              preheatCaches(context);
+
+              // -------------------------------------------------------------
+              // Get outer meta-data
+              // -------------------------------------------------------------
+              return createDataSetContext(context, dataValueSet);
+            });
 
     // ---------------------------------------------------------------------
     // Validation
@@ -738,18 +756,12 @@ public class DefaultDataValueSetService implements DataValueSetService {
     clock.logTime("Validated outer meta-data");
     notifier.notify(id, notificationLevel, "Importing data values");
 
-    List<? extends DataValueEntry> values = dataValueSet.getDataValues();
-    int index = 0;
-    if (values != null && !values.isEmpty()) {
-      for (DataValueEntry dataValue : values) {
-        importDataValue(context, dataSetContext, importCount, now, index++, dataValue);
-      }
-    }
-    DataValueEntry dataValue = reader.readNext();
-    while (dataValue != null) {
-      importDataValue(context, dataSetContext, importCount, now, index++, dataValue);
-      dataValue = reader.readNext();
-    }
+    phases.record(
+        "values",
+        () ->
+            importDataValues(context, dataSetContext, dataValueSet, reader, importCount, now));
+
+    countDataValues(importCount);
 
     context
         .getSummary()
@@ -771,6 +783,40 @@ public class DefaultDataValueSetService implements DataValueSetService {
     return context.getSummary();
   }
 
+  private void importDataValues(
+      ImportContext context,
+      DataSetContext dataSetContext,
+      DataValueSet dataValueSet,
+      DataValueSetReader reader,
+      ImportCount importCount,
+      Date now) {
+    List<? extends DataValueEntry> values = dataValueSet.getDataValues();
+    int index = 0;
+    if (values != null && !values.isEmpty()) {
+      for (DataValueEntry dataValue : values) {
+        importDataValue(context, dataSetContext, importCount, now, index++, dataValue);
+      }
+    }
+    DataValueEntry dataValue = reader.readNext();
+    while (dataValue != null) {
+      importDataValue(context, dataSetContext, importCount, now, index++, dataValue);
+      dataValue = reader.readNext();
+    }
+  }
+
+  private void countDataValues(ImportCount importCount) {
+    countDataValues("imported", importCount.getImported());
+    countDataValues("updated", importCount.getUpdated());
+    countDataValues("deleted", importCount.getDeleted());
+    countDataValues("ignored", importCount.getIgnored());
+  }
+
+  private void countDataValues(String status, int count) {
+    if (count > 0) {
+      meterRegistry.counter(VALUE_COUNTER, STATUS_TAG, status).increment(count);
+    }
+  }
+
   static LocalDate getCompletionDate(String completeDate) {
     if (completeDate == null || completeDate.isEmpty()) return null;
     LocalDate today = LocalDate.now();
@@ -42,9 +42,12 @@ import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 import javax.annotation.Nonnull;
+import javax.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.hisp.dhis.attribute.Attribute;
@@ -106,9 +109,7 @@ import org.hisp.dhis.system.SystemService;
 import org.hisp.dhis.trackedentity.TrackedEntityAttribute;
 import org.hisp.dhis.trackedentity.TrackedEntityType;
 import org.hisp.dhis.user.CurrentUserUtil;
-import org.hisp.dhis.user.User;
 import org.hisp.dhis.user.UserDetails;
-import org.hisp.dhis.user.UserService;
 import org.hisp.dhis.util.DateUtils;
 import org.hisp.dhis.visualization.Visualization;
 import org.springframework.stereotype.Service;
@@ -121,6 +122,8 @@ import org.springframework.transaction.annotation.Transactional;
 @RequiredArgsConstructor
 @Service("org.hisp.dhis.dxf2.metadata.MetadataExportService")
 public class DefaultMetadataExportService implements MetadataExportService {
+  private static final int EXPORT_CHUNK_SIZE = 500;
+
   private final SchemaService schemaService;
 
   private final QueryService queryService;
@@ -137,10 +140,9 @@ public class DefaultMetadataExportService implements MetadataExportService {
 
   private final ObjectMapper objectMapper;
 
-  private final UserService userService;
+  private final EntityManager entityManager;
 
   @Override
-  @SuppressWarnings("unchecked")
   @Transactional(readOnly = true)
   public Map<Class<? extends IdentifiableObject>, List<? extends IdentifiableObject>> getMetadata(
       MetadataExportParams params) {
@@ -148,48 +150,12 @@ public class DefaultMetadataExportService implements MetadataExportService {
     Map<Class<? extends IdentifiableObject>, List<? extends IdentifiableObject>> metadata =
         new HashMap<>();
 
-    String username =
-        params.getCurrentUserDetails() != null
-            ? params.getCurrentUserDetails().getUsername()
-            : "system-process";
-
-    if (params.getCurrentUserDetails() == null) {
-      params.setCurrentUserDetails(CurrentUserUtil.getCurrentUserDetails());
-    }
-
-    if (params.getClasses().isEmpty()) {
-      schemaService.getMetadataSchemas().stream()
-          .filter(schema -> schema.isIdentifiableObject() && schema.isPersisted())
-          .filter(s -> !s.isSecondaryMetadata())
-          .forEach(
-              schema ->
-                  params.getClasses().add((Class<? extends IdentifiableObject>) schema.getKlass()));
-    }
+    String username = initExport(params);
 
     log.info("(" + username + ") Export:Start");
 
     for (Class<? extends IdentifiableObject> klass : params.getClasses()) {
-      Query query;
-
-      if (params.getQuery(klass) != null) {
-        query = params.getQuery(klass);
-      } else {
-        OrderParams orderParams = new OrderParams(Sets.newHashSet(params.getDefaultOrder()));
-        query =
-            queryService.getQueryFromUrl(
-                klass,
-                params.getDefaultFilter(),
-                orderParams.getOrders(schemaService.getDynamicSchema(klass)));
-      }
-
-      if (query.getCurrentUserDetails() == null && params.getCurrentUserDetails() != null) {
-        query.setCurrentUserDetails(params.getCurrentUserDetails());
-      }
-
-      query.setDefaultOrder();
-      query.setDefaults(params.getDefaults());
-
-      List<? extends IdentifiableObject> objects = queryService.query(query);
+      List<? extends IdentifiableObject> objects = queryService.query(getQuery(params, klass));
 
       if (!objects.isEmpty()) {
         log.info(
@@ -257,8 +223,10 @@ public class DefaultMetadataExportService implements MetadataExportService {
       return;
     }
 
-    Map<Class<? extends IdentifiableObject>, List<? extends IdentifiableObject>> metadata =
-        getMetadata(params);
+    Timer timer = new SystemTimer().start();
+    String username = initExport(params);
+
+    log.info("(" + username + ") Export:Start");
 
     try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
       generator.writeStartObject();
@@ -270,30 +238,140 @@ public class DefaultMetadataExportService implements MetadataExportService {
       generator.writeStringField(SYSTEM_DATE, DateUtils.getIso8601(systemInfo.getServerDate()));
       generator.writeEndObject();
 
-      for (Class<? extends IdentifiableObject> klass : metadata.keySet()) {
-        List<Object> objects = new ArrayList<>(metadata.get(klass));
+      for (Class<? extends IdentifiableObject> klass : params.getClasses()) {
+        int count;
+        Query query = getQuery(params, klass);
+        boolean cursor = queryService.isCursorStream(query);
 
-        if (objects.isEmpty()) {
-          continue;
+        try (Stream<? extends IdentifiableObject> objects = queryService.stream(query)) {
+          count = writeObjects(params, klass, objects.iterator(), cursor, generator);
         }
 
-        User currentUser = userService.getUserByUsername(CurrentUserUtil.getCurrentUsername());
-        FieldFilterParams<?> fieldFilterParams =
-            FieldFilterParams.builder()
-                .objects(objects)
-                .filters(params.getFields(klass))
-                .skipSharing(params.getSkipSharing())
-                .user(currentUser)
-                .build();
-
-        String plural = schemaService.getDynamicSchema(klass).getPlural();
-        generator.writeArrayFieldStart(plural);
-        fieldFilterService.toObjectNodesStream(fieldFilterParams, generator);
-        generator.writeEndArray();
+        if (count > 0) {
+          log.info(
+              "(" + username + ") Exported " + count + " objects of type " + klass.getSimpleName());
+        }
       }
 
       generator.writeEndObject();
     }
+
+    log.info("(" + username + ") Export:Done took " + timer.toString());
+  }
+
+  /**
+   * Writes the given objects as an array in chunks. When the objects are read from a database
+   * cursor, the session is cleared after each chunk, so that memory use does not grow with the
+   * number of exported objects. Objects of a list-backed stream are already loaded and must stay
+   * attached until written, as the field filter may initialize lazy associations.
+   *
+   * @return the number of written objects.
+   */
+  private int writeObjects(
+      MetadataExportParams params,
+      Class<? extends IdentifiableObject> klass,
+      Iterator<? extends IdentifiableObject> objects,
+      boolean cursor,
+      JsonGenerator generator)
+      throws IOException {
+    if (!objects.hasNext()) {
+      return 0;
+    }
+
+    generator.writeArrayFieldStart(schemaService.getDynamicSchema(klass).getPlural());
+
+    List<Object> chunk = new ArrayList<>(EXPORT_CHUNK_SIZE);
+    int count = 0;
+
+    while (objects.hasNext()) {
+      chunk.add(objects.next());
+
+      if (chunk.size() == EXPORT_CHUNK_SIZE) {
+        count += writeChunk(params, klass, chunk, generator);
+        chunk = new ArrayList<>(EXPORT_CHUNK_SIZE);
+
+        if (cursor) {
+          entityManager.clear();
+        }
+      }
+    }
+
+    count += writeChunk(params, klass, chunk, generator);
+
+    generator.writeEndArray();
+
+    return count;
+  }
+
+  private int writeChunk(
+      MetadataExportParams params,
+      Class<? extends IdentifiableObject> klass,
+      List<Object> chunk,
+      JsonGenerator generator)
+      throws IOException {
+    FieldFilterParams<?> fieldFilterParams =
+        FieldFilterParams.builder()
+            .objects(chunk)
+            .filters(params.getFields(klass))
+            .skipSharing(params.getSkipSharing())
+            .build();
+
+    fieldFilterService.toObjectNodesStream(fieldFilterParams, generator);
+    generator.flush();
+
+    return chunk.size();
+  }
+
+  /**
+   * Sets the current user and the default classes to export on the given params, if not set.
+   *
+   * @return the name of the user the export is done for, used for logging.
+   */
+  @SuppressWarnings("unchecked")
+  private String initExport(MetadataExportParams params) {
+    String username =
+        params.getCurrentUserDetails() != null
+            ? params.getCurrentUserDetails().getUsername()
+            : "system-process";
+
+    if (params.getCurrentUserDetails() == null) {
+      params.setCurrentUserDetails(CurrentUserUtil.getCurrentUserDetails());
+    }
+
+    if (params.getClasses().isEmpty()) {
+      schemaService.getMetadataSchemas().stream()
+          .filter(schema -> schema.isIdentifiableObject() && schema.isPersisted())
+          .filter(s -> !s.isSecondaryMetadata())
+          .forEach(
+              schema ->
+                  params.getClasses().add((Class<? extends IdentifiableObject>) schema.getKlass()));
+    }
+
+    return username;
+  }
+
+  private Query getQuery(MetadataExportParams params, Class<? extends IdentifiableObject> klass) {
+    Query query;
+
+    if (params.getQuery(klass) != null) {
+      query = params.getQuery(klass);
+    } else {
+      OrderParams orderParams = new OrderParams(Sets.newHashSet(params.getDefaultOrder()));
+      query =
+          queryService.getQueryFromUrl(
+              klass,
+              params.getDefaultFilter(),
+              orderParams.getOrders(schemaService.getDynamicSchema(klass)));
+    }
+
+    if (query.getCurrentUserDetails() == null && params.getCurrentUserDetails() != null) {
+      query.setCurrentUserDetails(params.getCurrentUserDetails());
+    }
+
+    query.setDefaultOrder();
+    query.setDefaults(params.getDefaults());
+
+    return query;
   }
 
   @Override
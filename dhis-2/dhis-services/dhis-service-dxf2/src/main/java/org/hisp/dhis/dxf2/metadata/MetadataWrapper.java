@@ -40,12 +40,21 @@ import org.hisp.dhis.common.DxfNamespaces;
 public class MetadataWrapper {
   private String metadata;
 
+  /** Base64 encoded GZIP compressed metadata, used instead of the plain metadata when set. */
+  private String compressedMetadata;
+
   public MetadataWrapper() {}
 
   public MetadataWrapper(String metadata) {
     this.metadata = metadata;
   }
 
+  public static MetadataWrapper ofCompressed(String compressedMetadata) {
+    MetadataWrapper wrapper = new MetadataWrapper();
+    wrapper.setCompressedMetadata(compressedMetadata);
+    return wrapper;
+  }
+
   @JsonProperty("metadata")
   @JacksonXmlProperty(localName = "metadata", namespace = DxfNamespaces.DXF_2_0)
   public String getMetadata() {
@@ -56,6 +65,16 @@ public class MetadataWrapper {
     this.metadata = metadata;
   }
 
+  @JsonProperty("compressedMetadata")
+  @JacksonXmlProperty(localName = "compressedMetadata", namespace = DxfNamespaces.DXF_2_0)
+  public String getCompressedMetadata() {
+    return compressedMetadata;
+  }
+
+  public void setCompressedMetadata(String compressedMetadata) {
+    this.compressedMetadata = compressedMetadata;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -68,16 +87,22 @@ public class MetadataWrapper {
 
     MetadataWrapper temp = (MetadataWrapper) o;
 
-    return Objects.equals(temp.getMetadata(), this.getMetadata());
+    return Objects.equals(temp.getMetadata(), this.getMetadata())
+        && Objects.equals(temp.getCompressedMetadata(), this.getCompressedMetadata());
   }
 
   @Override
   public int hashCode() {
-    return metadata != null ? metadata.hashCode() : 0;
+    return Objects.hash(metadata, compressedMetadata);
   }
 
   @Override
   public java.lang.String toString() {
-    return "MetadataWrapper{" + "metadata=" + metadata + '}';
+    return "MetadataWrapper{"
+        + "metadata="
+        + metadata
+        + ", compressedMetadata="
+        + compressedMetadata
+        + '}';
   }
 }
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.dxf2.metadata.objectbundle.hooks;
+
+import static org.hisp.dhis.common.IdentifiableObjectUtils.getUidsAsSet;
+
+import java.util.Objects;
+import lombok.AllArgsConstructor;
+import org.hisp.dhis.dataapproval.DataApprovalStore;
+import org.hisp.dhis.dataapproval.DataApprovalWorkflow;
+import org.hisp.dhis.dxf2.metadata.objectbundle.ObjectBundle;
+import org.springframework.stereotype.Component;
+
+/**
+ * Recomputes the data approval states of a workflow when its approval levels change, as the state
+ * holds the highest approval among the levels of the workflow.
+ */
+@Component
+@AllArgsConstructor
+public class DataApprovalWorkflowObjectBundleHook
+    extends AbstractObjectBundleHook<DataApprovalWorkflow> {
+  public static final String LEVELS_CHANGED_KEY = "approvalLevelsChanged";
+
+  private final DataApprovalStore dataApprovalStore;
+
+  @Override
+  public void preUpdate(
+      DataApprovalWorkflow object, DataApprovalWorkflow persistedObject, ObjectBundle bundle) {
+    bundle.putExtras(persistedObject, LEVELS_CHANGED_KEY, levelsChanged(object, persistedObject));
+  }
+
+  @Override
+  public void postUpdate(DataApprovalWorkflow persistedObject, ObjectBundle bundle) {
+    if (Boolean.TRUE.equals(bundle.getExtras(persistedObject, LEVELS_CHANGED_KEY))) {
+      dataApprovalStore.refreshDataApprovalStates(persistedObject);
+    }
+
+    bundle.removeExtras(persistedObject, LEVELS_CHANGED_KEY);
+  }
+
+  private static boolean levelsChanged(
+      DataApprovalWorkflow object, DataApprovalWorkflow persistedObject) {
+    return !Objects.equals(
+        getUidsAsSet(object.getLevels()), getUidsAsSet(persistedObject.getLevels()));
+  }
+}
@@ -32,9 +32,13 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.hisp.dhis.common.IdentifiableObject;
+import org.hisp.dhis.common.IdentifiableObjectManager;
+import org.hisp.dhis.deletedobject.DeletedObject;
 import org.hisp.dhis.dxf2.metadata.MetadataImportParams;
 import org.hisp.dhis.dxf2.metadata.MetadataImportService;
 import org.hisp.dhis.dxf2.metadata.MetadataObjects;
@@ -42,6 +46,7 @@ import org.hisp.dhis.dxf2.metadata.feedback.ImportReport;
 import org.hisp.dhis.dxf2.metadata.sync.exception.MetadataSyncImportException;
 import org.hisp.dhis.dxf2.metadata.sync.exception.MetadataSyncServiceException;
 import org.hisp.dhis.dxf2.metadata.version.MetadataVersionDelegate;
+import org.hisp.dhis.dxf2.metadata.version.MetadataVersionDeletions;
 import org.hisp.dhis.dxf2.metadata.version.exception.MetadataVersionServiceException;
 import org.hisp.dhis.feedback.Status;
 import org.hisp.dhis.metadata.version.MetadataVersion;
@@ -49,6 +54,8 @@ import org.hisp.dhis.metadata.version.VersionType;
 import org.hisp.dhis.render.RenderFormat;
 import org.hisp.dhis.render.RenderService;
 import org.hisp.dhis.scheduling.JobConfiguration;
+import org.hisp.dhis.schema.Schema;
+import org.hisp.dhis.schema.SchemaService;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
@@ -68,6 +75,10 @@ public class MetadataSyncImportHandler {
 
   private final MetadataImportService metadataImportService;
 
+  private final IdentifiableObjectManager manager;
+
+  private final SchemaService schemaService;
+
   public MetadataSyncSummary importMetadata(MetadataSyncParams syncParams, String versionSnapShot) {
     MetadataVersion version = getMetadataVersion(syncParams);
     MetadataImportParams importParams = syncParams.getImportParams();
@@ -103,6 +114,8 @@ public class MetadataSyncImportHandler {
     boolean addNewVersion = handleImportReport(importReport, version);
 
     if (addNewVersion) {
+      deleteObjects(versionSnapShot, classListMap);
+
       try {
         metadataVersionDelegate.addNewMetadataVersion(version);
       } catch (MetadataVersionServiceException e) {
@@ -150,6 +163,76 @@ public class MetadataSyncImportHandler {
     }
   }
 
+  /**
+   * Deletes the objects listed as deleted in the given snapshot. Objects which are part of the
+   * snapshot are kept, as they were created again after they were deleted.
+   *
+   * @throws MetadataSyncServiceException if an object could not be deleted, so that the version is
+   *     not added and its sync is retried
+   */
+  @SuppressWarnings("unchecked")
+  private void deleteObjects(
+      String metadataVersionSnapshot,
+      Map<Class<? extends IdentifiableObject>, List<IdentifiableObject>> classListMap) {
+    MetadataVersionDeletions deletions;
+
+    try {
+      deletions = renderService.fromJson(metadataVersionSnapshot, MetadataVersionDeletions.class);
+    } catch (IOException ex) {
+      String message = "Exception occurred while trying to parse the deleted objects";
+      log.error(message);
+      throw new MetadataSyncServiceException(message, ex);
+    }
+
+    if (deletions == null || deletions.getDeletedObjects().isEmpty()) {
+      return;
+    }
+
+    Map<String, Class<? extends IdentifiableObject>> klasses =
+        schemaService.getMetadataSchemas().stream()
+            .filter(Schema::isIdentifiableObject)
+            .filter(schema -> schema.getKlass() != JobConfiguration.class)
+            .collect(
+                Collectors.toMap(
+                    schema -> schema.getKlass().getSimpleName(),
+                    schema -> (Class<? extends IdentifiableObject>) schema.getKlass(),
+                    (a, b) -> a));
+
+    Set<String> imported =
+        classListMap.values().stream()
+            .flatMap(List::stream)
+            .map(IdentifiableObject::getUid)
+            .collect(Collectors.toSet());
+
+    for (DeletedObject deletedObject : deletions.getDeletedObjects()) {
+      Class<? extends IdentifiableObject> klass = klasses.get(deletedObject.getKlass());
+
+      if (klass == null || imported.contains(deletedObject.getUid())) {
+        continue;
+      }
+
+      IdentifiableObject object = manager.get(klass, deletedObject.getUid());
+
+      if (object == null) {
+        continue;
+      }
+
+      try {
+        manager.delete(object);
+      } catch (Exception ex) {
+        String message =
+            "Could not delete "
+                + deletedObject.getKlass()
+                + " "
+                + deletedObject.getUid()
+                + " deleted on the remote server: "
+                + ex.getMessage();
+        log.error(message);
+        throw new MetadataSyncServiceException(message, ex);
+      }
+    }
+  }
+
   private MetadataVersion getMetadataVersion(MetadataSyncParams syncParams) {
     if (syncParams == null) {
       throw new MetadataSyncServiceException("MetadataSyncParams cant be null");
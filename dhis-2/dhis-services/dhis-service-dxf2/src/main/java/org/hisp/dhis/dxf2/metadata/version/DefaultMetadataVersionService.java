@@ -27,33 +27,47 @@
  */
 package org.hisp.dhis.dxf2.metadata.version;
 
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.collect.Lists;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.UnsupportedEncodingException;
-import java.nio.charset.Charset;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Date;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.hisp.dhis.datastore.DatastoreEntry;
 import org.hisp.dhis.datastore.MetadataDatastoreService;
+import org.hisp.dhis.deletedobject.DeletedObject;
+import org.hisp.dhis.deletedobject.DeletedObjectQuery;
+import org.hisp.dhis.deletedobject.DeletedObjectService;
 import org.hisp.dhis.dxf2.common.HashCodeGenerator;
 import org.hisp.dhis.dxf2.metadata.MetadataExportParams;
 import org.hisp.dhis.dxf2.metadata.MetadataExportService;
 import org.hisp.dhis.dxf2.metadata.MetadataWrapper;
 import org.hisp.dhis.dxf2.metadata.systemsettings.MetadataSystemSettingService;
 import org.hisp.dhis.dxf2.metadata.version.exception.MetadataVersionServiceException;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.metadata.version.MetadataVersion;
 import org.hisp.dhis.metadata.version.MetadataVersionService;
 import org.hisp.dhis.metadata.version.MetadataVersionStore;
 import org.hisp.dhis.metadata.version.VersionType;
 import org.hisp.dhis.render.RenderService;
+import org.hisp.dhis.schema.Schema;
+import org.hisp.dhis.schema.SchemaService;
 import org.hisp.dhis.util.DateUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -77,6 +91,12 @@ public class DefaultMetadataVersionService implements MetadataVersionService {
 
   private final RenderService renderService;
 
+  private final DeletedObjectService deletedObjectService;
+
+  private final SchemaService schemaService;
+
+  private final DhisConfigurationProvider config;
+
   // -------------------------------------------------------------------------
   // MetadataVersionService implementation
   // -------------------------------------------------------------------------
@@ -155,6 +175,12 @@ public class DefaultMetadataVersionService implements MetadataVersionService {
     }
   }
 
+  @Override
+  @Transactional(readOnly = true)
+  public MetadataVersion getLatestCheckpoint() {
+    return versionStore.getLatestCheckpoint();
+  }
+
   @Override
   @Transactional(readOnly = true)
   public List<MetadataVersion> getAllVersionsInBetween(Date startDate, Date endDate) {
@@ -172,42 +198,36 @@ public class DefaultMetadataVersionService implements MetadataVersionService {
    * This method is taking care of 3 steps: 1. Generating a metadata snapshot (using the
    * ExportService) 2. Saving that snapshot to the DataStore 3. Creating the actual MetadataVersion
    * entry.
+   *
+   * <p>The snapshot holds all metadata for the first version and then periodically, as configured
+   * by {@link ConfigurationKey#METADATA_VERSION_CHECKPOINT_INTERVAL}. Otherwise it holds the
+   * objects created and updated since the current version. Every version after the first, including
+   * checkpoints, also lists the objects deleted since the current version, as a checkpoint is
+   * imported on top of the metadata of the previous version.
    */
   @Override
   @Transactional
   public synchronized boolean saveVersion(VersionType versionType) {
     MetadataVersion currentVersion = getCurrentVersion();
     String versionName = MetadataVersionNameGenerator.getNextVersionName(currentVersion);
+    boolean checkpoint = isCheckpointDue(currentVersion);
 
-    Date minDate;
+    Date deletedSince = currentVersion != null ? currentVersion.getCreated() : null;
+    Date minDate = checkpoint ? null : deletedSince;
 
-    if (currentVersion == null) {
-      minDate = null;
-    } else {
-      minDate = currentVersion.getCreated();
-    }
-
-    // 1. Get export of metadata
-    ByteArrayOutputStream os = getMetadataExport(minDate);
+    // 1. Get compressed export of metadata
+    MetadataSnapshot snapshot = getMetadataExport(minDate, deletedSince);
 
     // 2. Save the metadata snapshot in DHIS Data Store
-    String value = getBodyAsString(StandardCharsets.UTF_8, os);
-    createMetadataVersionInDataStore(versionName, value);
+    addMetadataVersionInDataStore(versionName, snapshot.compressedMetadata());
 
     // 3. Create an entry for the MetadataVersion
     MetadataVersion version = new MetadataVersion();
     version.setName(versionName);
     version.setCreated(new Date());
     version.setType(versionType);
-    try {
-      String hashCode = HashCodeGenerator.getHashCode(value);
-      version.setHashCode(hashCode);
-    } catch (NoSuchAlgorithmException e) {
-      String message =
-          "Exception occurred while generating MetadataVersion HashCode " + e.getMessage();
-      log.error(message, e);
-      throw new MetadataVersionServiceException(message, e);
-    }
+    version.setHashCode(snapshot.hash());
+    version.setCheckpoint(checkpoint);
 
     try {
       addVersion(version);
@@ -224,19 +244,37 @@ public class DefaultMetadataVersionService implements MetadataVersionService {
   @Override
   @Transactional(readOnly = true)
   public String getVersionData(String versionName) {
-    DatastoreEntry entry = metaDataDatastoreService.getMetaDataVersion(versionName);
+    MetadataWrapper wrapper = getMetadataWrapper(versionName);
 
-    if (entry != null) {
-      try {
-        return renderService.fromJson(entry.getValue(), MetadataWrapper.class).getMetadata();
-      } catch (IOException e) {
-        log.error("Exception occurred while deserializing metadata.", e);
-      }
+    if (wrapper == null || wrapper.getCompressedMetadata() == null) {
+      return wrapper != null ? wrapper.getMetadata() : null;
+    }
+
+    byte[] compressed = Base64.getDecoder().decode(wrapper.getCompressedMetadata());
+
+    try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+      return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      log.error("Exception occurred while decompressing metadata.", e);
     }
 
     return null;
   }
 
+  @Override
+  @Transactional(readOnly = true)
+  public byte[] getCompressedVersionData(String versionName) {
+    MetadataWrapper wrapper = getMetadataWrapper(versionName);
+
+    if (wrapper == null || wrapper.getCompressedMetadata() == null) {
+      return wrapper != null && wrapper.getMetadata() != null
+          ? compressToBytes(wrapper.getMetadata())
+          : null;
+    }
+
+    return Base64.getDecoder().decode(wrapper.getCompressedMetadata());
+  }
+
   @Override
   @Transactional
   public void createMetadataVersionInDataStore(String versionName, String versionSnapshot) {
@@ -245,23 +283,7 @@ public class DefaultMetadataVersionService implements MetadataVersionService {
           "The Metadata Snapshot is null while trying to create a Metadata Version entry in DataStore.");
     }
 
-    DatastoreEntry entry = new DatastoreEntry();
-    entry.setKey(versionName);
-    entry.setNamespace(MetadataDatastoreService.METADATA_STORE_NS);
-
-    // MetadataWrapper is used to avoid Metadata keys reordering by jsonb
-    // (jsonb does not preserve keys order)
-    entry.setValue(renderService.toJsonAsString(new MetadataWrapper(versionSnapshot)));
-
-    try {
-      metaDataDatastoreService.addMetaEntry(entry);
-
-    } catch (Exception ex) {
-      String message =
-          "Exception occurred while saving the Metadata snapshot in Data Store" + ex.getMessage();
-      log.error(message, ex);
-      throw new MetadataVersionServiceException(message, ex);
-    }
+    addMetadataVersionInDataStore(versionName, compress(versionSnapshot));
   }
 
   @Override
@@ -302,10 +324,45 @@ public class DefaultMetadataVersionService implements MetadataVersionService {
   // Private methods
   // --------------------------------------------------------------------------
 
-  /** Generates the metadata export based on the created date of the current version. */
-  private ByteArrayOutputStream getMetadataExport(Date minDate) {
-    ByteArrayOutputStream os;
+  /**
+   * Indicates whether the next version should hold all metadata. That is the case for the first
+   * version and once the configured number of versions have been stored as deltas.
+   */
+  private boolean isCheckpointDue(MetadataVersion currentVersion) {
+    if (currentVersion == null) {
+      return true;
+    }
+
+    int interval =
+        Integer.parseInt(config.getProperty(ConfigurationKey.METADATA_VERSION_CHECKPOINT_INTERVAL));
+
+    if (interval <= 0) {
+      return false;
+    }
+
+    MetadataVersion checkpoint = versionStore.getLatestCheckpoint();
+
+    if (checkpoint == null) {
+      return true;
+    }
+
+    // The versions in between include the checkpoint itself
+    int deltas =
+        versionStore
+                .getAllVersionsInBetween(checkpoint.getCreated(), currentVersion.getCreated())
+                .size()
+            - 1;
 
+    return deltas >= interval;
+  }
+
+  /**
+   * Generates the metadata export based on the created date of the current version, or of all
+   * metadata if no date is given, and lists the objects deleted since the given deletion date, if
+   * any. The JSON is compressed and hashed as it is written, so that only
+   * the compressed bytes are buffered. The exported metadata is still held in memory as a tree.
+   */
+  private MetadataSnapshot getMetadataExport(Date minDate, Date deletedSince) {
     try {
       MetadataExportParams exportParams = new MetadataExportParams();
 
@@ -317,9 +374,22 @@ public class DefaultMetadataVersionService implements MetadataVersionService {
         metadataExportService.validate(exportParams);
       }
 
-      os = new ByteArrayOutputStream(1024);
       ObjectNode metadata = metadataExportService.getMetadataAsObjectNode(exportParams);
-      renderService.toJson(os, metadata);
+
+      if (deletedSince != null) {
+        addDeletedObjects(metadata, deletedSince);
+      }
+
+      MessageDigest digest = HashCodeGenerator.getMessageDigest();
+      ByteArrayOutputStream os = new ByteArrayOutputStream(1024);
+
+      try (OutputStream out = new DigestOutputStream(new GZIPOutputStream(os), digest)) {
+        renderService.toJson(out, metadata);
+      }
+
+      return new MetadataSnapshot(
+          Base64.getEncoder().encodeToString(os.toByteArray()),
+          HashCodeGenerator.getHashCode(digest.digest()));
     } catch (Exception ex) // We have to catch the "Exception" object as no
     // specific exception on the contract.
     {
@@ -329,22 +399,92 @@ public class DefaultMetadataVersionService implements MetadataVersionService {
       log.error(message, ex);
       throw new MetadataVersionServiceException(message, ex);
     }
-
-    return os;
   }
 
-  private String getBodyAsString(Charset charset, ByteArrayOutputStream os) {
-    if (os != null) {
+  /** Adds the metadata objects deleted since the given date to the given snapshot. */
+  private void addDeletedObjects(ObjectNode metadata, Date minDate) {
+    DeletedObjectQuery query = new DeletedObjectQuery();
+    query.setKlass(
+        schemaService.getMetadataSchemas().stream()
+            .filter(Schema::isIdentifiableObject)
+            .map(schema -> schema.getKlass().getSimpleName())
+            .distinct()
+            .toList());
+    query.setDeletedAt(minDate);
+    query.setSkipPaging(true);
+
+    List<DeletedObject> deletedObjects = deletedObjectService.getDeletedObjects(query);
+
+    if (deletedObjects.isEmpty()) {
+      return;
+    }
+
+    ArrayNode deletions = metadata.putArray(MetadataVersionDeletions.PROPERTY);
 
-      byte[] bytes = os.toByteArray();
+    for (DeletedObject deletedObject : deletedObjects) {
+      deletions
+          .addObject()
+          .put("klass", deletedObject.getKlass())
+          .put("uid", deletedObject.getUid());
+    }
+  }
+
+  private MetadataWrapper getMetadataWrapper(String versionName) {
+    DatastoreEntry entry = metaDataDatastoreService.getMetaDataVersion(versionName);
 
+    if (entry != null) {
       try {
-        return new String(bytes, charset.name());
-      } catch (UnsupportedEncodingException ex) {
-        log.error("Exception occurred while trying to convert ByteArray to String. ", ex);
+        return renderService.fromJson(entry.getValue(), MetadataWrapper.class);
+      } catch (IOException e) {
+        log.error("Exception occurred while deserializing metadata.", e);
       }
     }
 
     return null;
   }
+
+  private void addMetadataVersionInDataStore(String versionName, String compressedSnapshot) {
+    DatastoreEntry entry = new DatastoreEntry();
+    entry.setKey(versionName);
+    entry.setNamespace(MetadataDatastoreService.METADATA_STORE_NS);
+
+    // MetadataWrapper is used to avoid Metadata keys reordering by jsonb
+    // (jsonb does not preserve keys order)
+    entry.setValue(renderService.toJsonAsString(MetadataWrapper.ofCompressed(compressedSnapshot)));
+
+    try {
+      metaDataDatastoreService.addMetaEntry(entry);
+
+    } catch (Exception ex) {
+      String message =
+          "Exception occurred while saving the Metadata snapshot in Data Store" + ex.getMessage();
+      log.error(message, ex);
+      throw new MetadataVersionServiceException(message, ex);
+    }
+  }
+
+  private static String compress(String snapshot) {
+    return Base64.getEncoder().encodeToString(compressToBytes(snapshot));
+  }
+
+  private static byte[] compressToBytes(String snapshot) {
+    ByteArrayOutputStream os = new ByteArrayOutputStream(1024);
+
+    try (OutputStream out = new GZIPOutputStream(os)) {
+      out.write(snapshot.getBytes(StandardCharsets.UTF_8));
+    } catch (IOException ex) {
+      throw new MetadataVersionServiceException(
+          "Exception occurred while compressing the Metadata snapshot", ex);
+    }
+
+    return os.toByteArray();
+  }
+
+  /**
+   * Compressed metadata snapshot.
+   *
+   * @param compressedMetadata the Base64 encoded GZIP compressed snapshot.
+   * @param hash the hash code of the uncompressed snapshot.
+   */
+  private record MetadataSnapshot(String compressedMetadata, String hash) {}
 }
@@ -25,19 +25,25 @@
  * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
  * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
  */
-package org.hisp.dhis.system.startup;
+package org.hisp.dhis.dxf2.metadata.version;
 
-import java.util.Comparator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+import org.hisp.dhis.deletedobject.DeletedObject;
 
 /**
- * Compares StartupRoutines based on their runlevel values.
- *
- * @author <a href="mailto:torgeilo@gmail.com">Torgeir Lorange Ostby</a>
- * @version $Id: StartupRoutineComparator.java 3217 2007-04-02 08:54:21Z torgeilo $
+ * The metadata objects deleted since the previous metadata version, as listed in the snapshot of
+ * every metadata version but the first.
  */
-public class StartupRoutineComparator implements Comparator<StartupRoutine> {
-  @Override
-  public int compare(StartupRoutine routineA, StartupRoutine routineB) {
-    return routineA.getRunlevel() - routineB.getRunlevel();
-  }
+@Getter
+@Setter
+public class MetadataVersionDeletions {
+  /** Name of the snapshot property which lists the deleted objects. */
+  public static final String PROPERTY = "deletedObjects";
+
+  @JsonProperty(PROPERTY)
+  private List<DeletedObject> deletedObjects = new ArrayList<>();
 }
@@ -38,6 +38,8 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UncheckedIOException;
@@ -76,6 +78,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.AdditionalAnswers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.core.io.ClassPathResource;
 
@@ -124,6 +127,8 @@ class DataValueSetServiceImportTest extends DhisConvenienceTest {
 
   @Mock private UserService userService;
 
+  @Spy private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
   @InjectMocks private DefaultDataValueSetService dataValueSetService;
 
   @Test
@@ -163,6 +168,20 @@ class DataValueSetServiceImportTest extends DhisConvenienceTest {
 
     assertSuccessWithImportedUpdatedDeleted(0, 0, 0, 3, summary);
     verify(batchHandler, never()).updateObject(any());
+    assertEquals(
+        3,
+        meterRegistry
+            .get(DefaultDataValueSetService.VALUE_COUNTER)
+            .tag("status", "ignored")
+            .counter()
+            .count());
+    assertEquals(
+        1L,
+        meterRegistry
+            .get(DefaultDataValueSetService.IMPORT_TIMER)
+            .tag("phase", "values")
+            .timer()
+            .count());
   }
 
   private InputStream readFile(String filename) {
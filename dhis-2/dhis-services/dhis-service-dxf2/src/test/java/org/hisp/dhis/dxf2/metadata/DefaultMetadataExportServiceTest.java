@@ -30,18 +30,34 @@ package org.hisp.dhis.dxf2.metadata;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.IntStream;
+import javax.persistence.EntityManager;
 import org.hisp.dhis.common.IdentifiableObject;
 import org.hisp.dhis.common.SetMap;
 import org.hisp.dhis.dashboard.Dashboard;
 import org.hisp.dhis.dashboard.DashboardItem;
+import org.hisp.dhis.dataelement.DataElement;
+import org.hisp.dhis.fieldfiltering.FieldFilterParams;
+import org.hisp.dhis.fieldfiltering.FieldFilterService;
 import org.hisp.dhis.mapping.MapView;
 import org.hisp.dhis.option.Option;
 import org.hisp.dhis.option.OptionGroup;
@@ -51,15 +67,23 @@ import org.hisp.dhis.programrule.ProgramRule;
 import org.hisp.dhis.programrule.ProgramRuleAction;
 import org.hisp.dhis.programrule.ProgramRuleService;
 import org.hisp.dhis.programrule.ProgramRuleVariableService;
+import org.hisp.dhis.query.Query;
+import org.hisp.dhis.query.QueryService;
+import org.hisp.dhis.query.Restrictions;
 import org.hisp.dhis.scheduling.JobConfiguration;
 import org.hisp.dhis.schema.Schema;
 import org.hisp.dhis.schema.SchemaService;
+import org.hisp.dhis.system.SystemInfo;
+import org.hisp.dhis.system.SystemService;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 /**
@@ -75,6 +99,18 @@ class DefaultMetadataExportServiceTest {
 
   @Mock private ProgramRuleVariableService programRuleVariableService;
 
+  @Mock private QueryService queryService;
+
+  @Mock private FieldFilterService fieldFilterService;
+
+  @Mock private SystemService systemService;
+
+  @Mock private EntityManager entityManager;
+
+  @Spy private ObjectMapper objectMapper = new ObjectMapper();
+
+  @Captor private ArgumentCaptor<FieldFilterParams<?>> paramsCaptor;
+
   @InjectMocks private DefaultMetadataExportService service;
 
   @Test
@@ -181,4 +217,57 @@ class DefaultMetadataExportServiceTest {
     assertNotNull(result.get(OptionGroup.class));
     assertNotNull(result.get(OptionSet.class));
   }
+
+  @Test
+  void testGetMetadataAsObjectNodeStreamWritesObjectsInChunks() throws IOException {
+    Schema schema = new Schema(DataElement.class, "dataElement", "dataElements");
+    Query query = Query.from(schema);
+    List<DataElement> dataElements =
+        IntStream.range(0, 1200).mapToObj(i -> new DataElement("dataElement" + i)).toList();
+
+    when(systemService.getSystemInfo())
+        .thenReturn(SystemInfo.builder().serverDate(new Date()).build());
+    when(schemaService.getDynamicSchema(DataElement.class)).thenReturn(schema);
+    when(queryService.isCursorStream(query)).thenReturn(true);
+    doReturn(dataElements.stream()).when(queryService).stream(query);
+
+    MetadataExportParams params = new MetadataExportParams().addQuery(query);
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+    service.getMetadataAsObjectNodeStream(params, outputStream);
+
+    verify(fieldFilterService, times(3))
+        .toObjectNodesStream(paramsCaptor.capture(), any(JsonGenerator.class));
+    assertEquals(
+        List.of(500, 500, 200),
+        paramsCaptor.getAllValues().stream().map(p -> p.getObjects().size()).toList());
+    verify(entityManager, times(2)).clear();
+    assertTrue(outputStream.toString().contains("\"dataElements\":[]"));
+  }
+
+  @Test
+  void testGetMetadataAsObjectNodeStreamKeepsSessionForInMemoryQuery() throws IOException {
+    Schema schema = new Schema(DataElement.class, "dataElement", "dataElements");
+    Query query = Query.from(schema);
+    query.add(Restrictions.eq("displayName", "dataElement"));
+    List<DataElement> dataElements =
+        IntStream.range(0, 1200).mapToObj(i -> new DataElement("dataElement" + i)).toList();
+
+    when(systemService.getSystemInfo())
+        .thenReturn(SystemInfo.builder().serverDate(new Date()).build());
+    when(schemaService.getDynamicSchema(DataElement.class)).thenReturn(schema);
+    when(queryService.isCursorStream(query)).thenReturn(false);
+    doReturn(dataElements.stream()).when(queryService).stream(query);
+
+    MetadataExportParams params = new MetadataExportParams().addQuery(query);
+
+    service.getMetadataAsObjectNodeStream(params, new ByteArrayOutputStream());
+
+    verify(fieldFilterService, times(3))
+        .toObjectNodesStream(paramsCaptor.capture(), any(JsonGenerator.class));
+    assertEquals(
+        List.of(500, 500, 200),
+        paramsCaptor.getAllValues().stream().map(p -> p.getObjects().size()).toList());
+    verify(entityManager, never()).clear();
+  }
 }
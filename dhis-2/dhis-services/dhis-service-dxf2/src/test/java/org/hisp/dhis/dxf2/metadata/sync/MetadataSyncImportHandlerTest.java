@@ -31,6 +31,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -38,17 +39,24 @@ import static org.mockito.Mockito.when;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.List;
+import org.hisp.dhis.common.IdentifiableObjectManager;
+import org.hisp.dhis.dataelement.DataElement;
+import org.hisp.dhis.deletedobject.DeletedObject;
 import org.hisp.dhis.dxf2.metadata.MetadataImportParams;
 import org.hisp.dhis.dxf2.metadata.MetadataImportService;
 import org.hisp.dhis.dxf2.metadata.feedback.ImportReport;
 import org.hisp.dhis.dxf2.metadata.sync.exception.MetadataSyncImportException;
 import org.hisp.dhis.dxf2.metadata.sync.exception.MetadataSyncServiceException;
 import org.hisp.dhis.dxf2.metadata.version.MetadataVersionDelegate;
+import org.hisp.dhis.dxf2.metadata.version.MetadataVersionDeletions;
 import org.hisp.dhis.feedback.Status;
 import org.hisp.dhis.metadata.version.MetadataVersion;
 import org.hisp.dhis.metadata.version.VersionType;
 import org.hisp.dhis.render.RenderFormat;
 import org.hisp.dhis.render.RenderService;
+import org.hisp.dhis.schema.Schema;
+import org.hisp.dhis.schema.SchemaService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -67,6 +75,10 @@ class MetadataSyncImportHandlerTest {
 
   @Mock private RenderService renderService;
 
+  @Mock private IdentifiableObjectManager manager;
+
+  @Mock private SchemaService schemaService;
+
   @InjectMocks private MetadataSyncImportHandler metadataSyncImportHandler;
 
   private MetadataVersion metadataVersion;
@@ -248,4 +260,56 @@ class MetadataSyncImportHandlerTest {
     assertEquals(
         metadataSyncSummary.getMetadataVersion(), actualMetadataSyncSummary.getMetadataVersion());
   }
+
+  @Test
+  void testShouldDeleteObjectsDeletedOnRemote() throws IOException {
+    syncParams.setImportParams(new MetadataImportParams());
+    syncParams.setVersion(metadataVersion);
+    importReport.setStatus(Status.OK);
+
+    DataElement dataElement = new DataElement("DataElementA");
+    dataElement.setUid("deabcdefghA");
+    MetadataVersionDeletions deletions = new MetadataVersionDeletions();
+    deletions.getDeletedObjects().add(new DeletedObject(dataElement));
+
+    when(metadataImportService.importMetadata(eq(syncParams.getImportParams()), any()))
+        .thenReturn(importReport);
+    when(renderService.fromJson(expectedMetadataSnapshot, MetadataVersionDeletions.class))
+        .thenReturn(deletions);
+    when(schemaService.getMetadataSchemas())
+        .thenReturn(List.of(new Schema(DataElement.class, "dataElement", "dataElements")));
+    when(manager.get(DataElement.class, "deabcdefghA")).thenReturn(dataElement);
+
+    metadataSyncImportHandler.importMetadata(syncParams, expectedMetadataSnapshot);
+
+    verify(manager).delete(dataElement);
+    verify(metadataVersionDelegate).addNewMetadataVersion(metadataVersion);
+  }
+
+  @Test
+  void testShouldNotAddVersionWhenDeletingObjectFails() throws IOException {
+    syncParams.setImportParams(new MetadataImportParams());
+    syncParams.setVersion(metadataVersion);
+    importReport.setStatus(Status.OK);
+
+    DataElement dataElement = new DataElement("DataElementA");
+    dataElement.setUid("deabcdefghA");
+    MetadataVersionDeletions deletions = new MetadataVersionDeletions();
+    deletions.getDeletedObjects().add(new DeletedObject(dataElement));
+
+    when(metadataImportService.importMetadata(eq(syncParams.getImportParams()), any()))
+        .thenReturn(importReport);
+    when(renderService.fromJson(expectedMetadataSnapshot, MetadataVersionDeletions.class))
+        .thenReturn(deletions);
+    when(schemaService.getMetadataSchemas())
+        .thenReturn(List.of(new Schema(DataElement.class, "dataElement", "dataElements")));
+    when(manager.get(DataElement.class, "deabcdefghA")).thenReturn(dataElement);
+    doThrow(new IllegalStateException("referenced")).when(manager).delete(dataElement);
+
+    assertThrows(
+        MetadataSyncServiceException.class,
+        () -> metadataSyncImportHandler.importMetadata(syncParams, expectedMetadataSnapshot));
+
+    verify(metadataVersionDelegate, never()).addNewMetadataVersion(metadataVersion);
+  }
 }
@@ -27,6 +27,8 @@
  */
 package org.hisp.dhis.fieldfiltering;
 
+import static org.hisp.dhis.monitoring.prometheus.config.PrometheusMonitoringConfig.TYPE_TAG;
+
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JavaType;
@@ -39,6 +41,7 @@ import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.util.ArrayList;
@@ -78,6 +81,12 @@ import org.springframework.transaction.annotation.Transactional;
  */
 @Service
 public class FieldFilterService {
+  /** Timer of the rendering of filtered objects, tagged by the type of the root objects. */
+  static final String RENDER_TIMER = "dhis2.fieldfilter.render";
+
+  /** Counter of rendered objects, tagged by the type of the root objects. */
+  static final String OBJECT_COUNTER = "dhis2.fieldfilter.objects";
+
   private final FieldPathHelper fieldPathHelper;
 
   @Qualifier("jsonMapper")
@@ -93,6 +102,8 @@ public class FieldFilterService {
 
   private final AttributeService attributeService;
 
+  private final MeterRegistry meterRegistry;
+
   public FieldFilterService(
       FieldPathHelper fieldPathHelper,
       ObjectMapper jsonMapper,
@@ -100,7 +111,8 @@ public class FieldFilterService {
       AclService aclService,
       UserGroupService userGroupService,
       UserService userService,
-      AttributeService attributeService) {
+      AttributeService attributeService,
+      MeterRegistry meterRegistry) {
     this.fieldPathHelper = fieldPathHelper;
     this.jsonMapper = configureFieldFilterObjectMapper(jsonMapper);
     this.schemaService = schemaService;
@@ -108,6 +120,7 @@ public class FieldFilterService {
     this.userGroupService = userGroupService;
     this.userService = userService;
     this.attributeService = attributeService;
+    this.meterRegistry = meterRegistry;
   }
 
   private ObjectMapper configureFieldFilterObjectMapper(ObjectMapper objectMapper) {
@@ -216,18 +229,14 @@ public class FieldFilterService {
       boolean isSkipSharing,
       Consumer<ObjectNode> consumer) {
 
-    UserDetails currentUserDetails = null;
-    if (user == null) {
-      currentUserDetails = CurrentUserUtil.getCurrentUserDetails();
-    } else {
-      currentUserDetails = UserDetails.fromUser(user);
-    }
+    UserDetails currentUserDetails =
+        user == null ? CurrentUserUtil.getCurrentUserDetails() : UserDetails.fromUser(user);
 
     // In case we get a proxied object in we can't just use o.getClass(), we
     // need to figure out the real class name by using HibernateProxyUtils.
     Object firstObject = objects.iterator().next();
-    List<FieldPath> paths =
-        fieldPathHelper.apply(filter, HibernateProxyUtils.getRealClass(firstObject));
+    Class<?> rootClass = HibernateProxyUtils.getRealClass(firstObject);
+    List<FieldPath> paths = fieldPathHelper.apply(filter, rootClass);
 
     SimpleFilterProvider filterProvider = getSimpleFilterProvider(paths, isSkipSharing);
 
@@ -237,17 +246,26 @@ public class FieldFilterService {
 
     Map<String, List<FieldTransformer>> fieldTransformers = getTransformers(paths);
 
-    for (Object object : objects) {
-      applyAccess(object, paths, isSkipSharing, currentUserDetails);
-      applySharingDisplayNames(object, paths, isSkipSharing);
-      applyAttributeValuesAttribute(object, paths, isSkipSharing);
+    String type = rootClass.getSimpleName();
 
-      ObjectNode objectNode = objectMapper.valueToTree(object);
-      applyAttributeValueFields(object, objectNode, paths);
-      applyTransformers(objectNode, null, "", fieldTransformers);
+    meterRegistry
+        .timer(RENDER_TIMER, TYPE_TAG, type)
+        .record(
+            () -> {
+              for (Object object : objects) {
+                applyAccess(object, paths, isSkipSharing, currentUserDetails);
+                applySharingDisplayNames(object, paths, isSkipSharing);
+                applyAttributeValuesAttribute(object, paths, isSkipSharing);
 
-      consumer.accept(objectNode);
-    }
+                ObjectNode objectNode = objectMapper.valueToTree(object);
+                applyAttributeValueFields(object, objectNode, paths);
+                applyTransformers(objectNode, null, "", fieldTransformers);
+
+                consumer.accept(objectNode);
+              }
+            });
+
+    meterRegistry.counter(OBJECT_COUNTER, TYPE_TAG, type).increment(objects.size());
   }
 
   /**
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.datastatistics;
+
+import static org.hisp.dhis.external.conf.ConfigurationKey.DATA_STATISTICS_EVENT_BUFFER_SIZE;
+import static org.hisp.dhis.external.conf.ConfigurationKey.DATA_STATISTICS_EVENT_FLUSH_INTERVAL;
+import static org.hisp.dhis.external.conf.ConfigurationKey.DATA_STATISTICS_EVENT_FLUSH_SIZE;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded in-memory buffer of {@link DataStatisticsEvent}s which writes the events in multi-row
+ * batches on a background thread, once {@link ConfigurationKey#DATA_STATISTICS_EVENT_FLUSH_SIZE}
+ * events are buffered or {@link ConfigurationKey#DATA_STATISTICS_EVENT_FLUSH_INTERVAL} seconds
+ * have passed. When the buffer is full the recording thread writes the buffered events itself, so
+ * events are never dropped. The buffer is drained on shutdown.
+ */
+@Slf4j
+@Component
+public class DataStatisticsEventBuffer implements DisposableBean {
+  private final DataStatisticsEventStore eventStore;
+
+  private final int flushSize;
+
+  /** Buffered events, null when buffering is disabled. */
+  private final BlockingQueue<DataStatisticsEvent> events;
+
+  private final ScheduledExecutorService flusher;
+
+  private final AtomicBoolean flushPending = new AtomicBoolean();
+
+  private final Object flushLock = new Object();
+
+  public DataStatisticsEventBuffer(
+      DataStatisticsEventStore eventStore, DhisConfigurationProvider config) {
+    this.eventStore = eventStore;
+
+    int capacity = Integer.parseInt(config.getProperty(DATA_STATISTICS_EVENT_BUFFER_SIZE));
+    this.flushSize =
+        Math.max(1, Integer.parseInt(config.getProperty(DATA_STATISTICS_EVENT_FLUSH_SIZE)));
+    long interval =
+        Math.max(1, Long.parseLong(config.getProperty(DATA_STATISTICS_EVENT_FLUSH_INTERVAL)));
+
+    if (capacity > 0) {
+      this.events = new ArrayBlockingQueue<>(capacity);
+      this.flusher =
+          Executors.newSingleThreadScheduledExecutor(
+              new ThreadFactoryBuilder()
+                  .setNameFormat("data-statistics-flush-%d")
+                  .setDaemon(true)
+                  .build());
+      this.flusher.scheduleWithFixedDelay(
+          this::flushQuietly, interval, interval, TimeUnit.SECONDS);
+    } else {
+      this.events = null;
+      this.flusher = null;
+    }
+  }
+
+  /**
+   * Records the given event. The event is written by a later flush, or immediately when buffering
+   * is disabled.
+   *
+   * @param event the event to record.
+   */
+  public void add(DataStatisticsEvent event) {
+    if (events == null) {
+      eventStore.saveEvents(List.of(event));
+      return;
+    }
+
+    while (!events.offer(event)) {
+      flush();
+    }
+
+    if (events.size() >= flushSize && flushPending.compareAndSet(false, true)) {
+      flusher.execute(
+          () -> {
+            flushPending.set(false);
+            flushQuietly();
+          });
+    }
+  }
+
+  /**
+   * Writes all buffered events to the database on the calling thread. Events of a batch which
+   * could not be written are put back into the buffer as far as capacity allows.
+   */
+  public void flush() {
+    if (events == null) {
+      return;
+    }
+
+    synchronized (flushLock) {
+      List<DataStatisticsEvent> batch = new ArrayList<>(flushSize);
+
+      while (events.drainTo(batch, flushSize) > 0) {
+        try {
+          eventStore.saveEvents(batch);
+        } catch (RuntimeException ex) {
+          batch.forEach(events::offer);
+          throw ex;
+        }
+
+        batch.clear();
+      }
+    }
+  }
+
+  /** Number of events currently buffered. */
+  public int size() {
+    return events == null ? 0 : events.size();
+  }
+
+  @Override
+  public void destroy() {
+    if (flusher == null) {
+      return;
+    }
+
+    flusher.shutdown();
+
+    try {
+      if (!flusher.awaitTermination(30, TimeUnit.SECONDS)) {
+        log.warn("Data statistics event flush did not complete in time");
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+
+    flushQuietly();
+  }
+
+  private void flushQuietly() {
+    try {
+      flush();
+    } catch (RuntimeException ex) {
+      log.error("Failed to flush data statistics events", ex);
+    }
+  }
+}
@@ -56,6 +56,7 @@ import org.hisp.dhis.user.UserService;
 import org.hisp.dhis.visualization.Visualization;
 import org.joda.time.DateTime;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -84,6 +85,8 @@ public class DefaultDataStatisticsService implements DataStatisticsService {
 
   private final SystemService systemService;
 
+  private final DataStatisticsEventBuffer dataStatisticsEventBuffer;
+
   // -------------------------------------------------------------------------
   // DataStatisticsService implementation
   // -------------------------------------------------------------------------
@@ -95,6 +98,12 @@ public class DefaultDataStatisticsService implements DataStatisticsService {
     return event.getId();
   }
 
+  @Override
+  @Transactional(propagation = Propagation.SUPPORTS)
+  public void recordEvent(DataStatisticsEvent event) {
+    dataStatisticsEventBuffer.add(event);
+  }
+
   @Override
   public List<AggregatedStatistics> getReports(
       Date startDate, Date endDate, EventInterval eventInterval) {
@@ -178,6 +187,8 @@ public class DefaultDataStatisticsService implements DataStatisticsService {
 
   @Override
   public long saveDataStatisticsSnapshot(JobProgress progress) {
+    dataStatisticsEventBuffer.flush();
+
     return saveDataStatistics(getDataStatisticsSnapshot(new Date(), progress));
   }
 
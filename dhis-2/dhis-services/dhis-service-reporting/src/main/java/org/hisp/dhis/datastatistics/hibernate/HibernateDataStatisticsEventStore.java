@@ -33,6 +33,9 @@ import static org.hisp.dhis.setting.SettingKey.COUNT_PASSIVE_DASHBOARD_VIEWS_IN_
 import static org.hisp.dhis.system.util.SqlUtils.escapeSql;
 import static org.hisp.dhis.util.DateUtils.asSqlDate;
 
+import com.google.common.collect.Lists;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -61,6 +64,9 @@ import org.springframework.util.Assert;
 @Repository("org.hisp.dhis.datastatistics.DataStatisticsEventStore")
 public class HibernateDataStatisticsEventStore extends HibernateGenericStore<DataStatisticsEvent>
     implements DataStatisticsEventStore {
+  /** Maximum number of rows written by a single insert statement. */
+  private static final int INSERT_ROWS = 1000;
+
   private final SystemSettingManager systemSettingManager;
 
   private final UserSettingService userSettingService;
@@ -80,6 +86,29 @@ public class HibernateDataStatisticsEventStore extends HibernateGenericStore<Dat
     this.userSettingService = userSettingService;
   }
 
+  @Override
+  public void saveEvents(List<DataStatisticsEvent> events) {
+    for (List<DataStatisticsEvent> rows : Lists.partition(events, INSERT_ROWS)) {
+      String sql =
+          "insert into datastatisticsevent (eventid, eventtype, timestamp, username, favoriteuid) "
+              + "values "
+              + String.join(
+                  ", ",
+                  Collections.nCopies(rows.size(), "(nextval('hibernate_sequence'), ?, ?, ?, ?)"));
+
+      List<Object> args = new ArrayList<>(rows.size() * 4);
+
+      for (DataStatisticsEvent event : rows) {
+        args.add(event.getEventType() != null ? event.getEventType().name() : null);
+        args.add(event.getTimestamp());
+        args.add(event.getUsername());
+        args.add(event.getFavoriteUid());
+      }
+
+      jdbcTemplate.update(sql, args.toArray());
+    }
+  }
+
   @Override
   public Map<DataStatisticsEventType, Double> getDataStatisticsEventCount(
       Date startDate, Date endDate) {
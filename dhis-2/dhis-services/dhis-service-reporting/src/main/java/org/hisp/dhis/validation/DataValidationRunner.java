@@ -360,11 +360,11 @@ public class DataValidationRunner {
       Period p = context.getPeriodIdMap().get(id);
 
       if (p == null) {
-        log.trace("DataValidationTask calling getPeriod( id " + id + " )");
+        log.trace("DataValidationTask calling getRegisteredPeriod( id " + id + " )");
 
-        p = periodService.getPeriod(id);
+        p = periodService.getRegisteredPeriod(id);
 
-        log.trace("DataValidationTask called getPeriod( id " + id + " )");
+        log.trace("DataValidationTask called getRegisteredPeriod( id " + id + " )");
 
         context.getPeriodIdMap().put(id, p);
       }
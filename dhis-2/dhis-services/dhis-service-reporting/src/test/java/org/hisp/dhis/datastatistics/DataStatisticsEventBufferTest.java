@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.datastatistics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class DataStatisticsEventBufferTest {
+  @Mock private DataStatisticsEventStore eventStore;
+
+  @Mock private DhisConfigurationProvider config;
+
+  private final List<DataStatisticsEvent> saved = new CopyOnWriteArrayList<>();
+
+  private DataStatisticsEventBuffer buffer;
+
+  @BeforeEach
+  void setUp() {
+    lenient()
+        .doAnswer(
+            invocation -> {
+              saved.addAll(invocation.getArgument(0));
+              return null;
+            })
+        .when(eventStore)
+        .saveEvents(anyList());
+  }
+
+  @AfterEach
+  void tearDown() {
+    if (buffer != null) {
+      buffer.destroy();
+    }
+  }
+
+  @Test
+  void testEventsAreWrittenOnFlush() {
+    buffer = createBuffer("100", "50");
+
+    buffer.add(event());
+    buffer.add(event());
+
+    verify(eventStore, never()).saveEvents(anyList());
+    assertEquals(2, buffer.size());
+
+    buffer.flush();
+
+    assertEquals(2, saved.size());
+    assertEquals(0, buffer.size());
+  }
+
+  @Test
+  void testFullBufferIsWrittenByRecordingThread() {
+    buffer = createBuffer("2", "50");
+
+    buffer.add(event());
+    buffer.add(event());
+    buffer.add(event());
+
+    assertEquals(2, saved.size());
+    assertEquals(1, buffer.size());
+  }
+
+  @Test
+  void testEventsAreWrittenInBatches() {
+    buffer = createBuffer("100", "50");
+
+    for (int i = 0; i < 20; i++) {
+      buffer.add(event());
+    }
+
+    buffer.destroy();
+
+    assertEquals(20, saved.size());
+    assertEquals(0, buffer.size());
+  }
+
+  @Test
+  void testFailedBatchIsRequeued() {
+    buffer = createBuffer("100", "50");
+    buffer.add(event());
+
+    doThrow(new IllegalStateException("down")).when(eventStore).saveEvents(anyList());
+
+    assertThrows(IllegalStateException.class, buffer::flush);
+    assertEquals(1, buffer.size());
+  }
+
+  @Test
+  void testEventIsWrittenImmediatelyWhenBufferingIsDisabled() {
+    buffer = createBuffer("0", "50");
+
+    buffer.add(event());
+
+    assertEquals(1, saved.size());
+  }
+
+  private DataStatisticsEventBuffer createBuffer(String size, String flushSize) {
+    when(config.getProperty(ConfigurationKey.DATA_STATISTICS_EVENT_BUFFER_SIZE)).thenReturn(size);
+    when(config.getProperty(ConfigurationKey.DATA_STATISTICS_EVENT_FLUSH_SIZE))
+        .thenReturn(flushSize);
+    when(config.getProperty(ConfigurationKey.DATA_STATISTICS_EVENT_FLUSH_INTERVAL))
+        .thenReturn("3600");
+    return new DataStatisticsEventBuffer(eventStore, config);
+  }
+
+  private static DataStatisticsEvent event() {
+    return new DataStatisticsEvent(
+        DataStatisticsEventType.VISUALIZATION_VIEW, new Date(), "admin", "fav1");
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.tracker.export;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.persistence.EntityManager;
+import org.hibernate.engine.spi.EntityKey;
+import org.hibernate.engine.spi.SessionImplementor;
+
+/**
+ * Tracks the entities loaded into the session while one chunk of a streamed export is prepared, so
+ * that they can be evicted once the chunk was written. Entities which were managed before the chunk
+ * started, like the current user and the metadata used by access checks, stay managed, as do
+ * entities loaded or persisted after the chunk was loaded.
+ */
+public class SessionChunk {
+  private final SessionImplementor session;
+
+  private final Set<EntityKey> managedBefore;
+
+  private List<Object> loaded = List.of();
+
+  private SessionChunk(SessionImplementor session) {
+    this.session = session;
+    this.managedBefore =
+        Set.copyOf(session.getPersistenceContextInternal().getEntitiesByKey().keySet());
+  }
+
+  /** Starts a chunk, remembering the entities managed by the session of the given manager. */
+  public static SessionChunk start(EntityManager entityManager) {
+    return new SessionChunk(entityManager.unwrap(SessionImplementor.class));
+  }
+
+  /** Remembers the entities loaded since the chunk started as the entities of the chunk. */
+  public void loaded() {
+    loaded =
+        session.getPersistenceContextInternal().getEntitiesByKey().entrySet().stream()
+            .filter(e -> !managedBefore.contains(e.getKey()))
+            .map(Map.Entry::getValue)
+            .toList();
+  }
+
+  /**
+   * Evicts the entities of the chunk from the session. Entities evicted along with another one of
+   * the chunk through a cascade are skipped.
+   */
+  public void evict() {
+    loaded.stream().filter(session::contains).forEach(session::evict);
+    loaded = List.of();
+  }
+}
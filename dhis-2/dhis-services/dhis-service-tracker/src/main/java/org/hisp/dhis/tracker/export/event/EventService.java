@@ -29,6 +29,7 @@ package org.hisp.dhis.tracker.export.event;
 
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 import org.hisp.dhis.feedback.BadRequestException;
 import org.hisp.dhis.feedback.ForbiddenException;
 import org.hisp.dhis.feedback.NotFoundException;
@@ -51,6 +52,13 @@ public interface EventService {
   Page<Event> getEvents(EventOperationParams params, PageParams pageParams)
       throws BadRequestException, ForbiddenException;
 
+  /**
+   * Passes all events matching given params to the consumer one at a time, so that large exports
+   * can be written out without holding all events in memory.
+   */
+  void streamEvents(EventOperationParams params, Consumer<Event> consumer)
+      throws BadRequestException, ForbiddenException;
+
   /**
    * Fields the {@link #getEvents(EventOperationParams)} and {@link #getEvents(EventOperationParams,
    * PageParams)} can order events by. Ordering by fields other than these is considered a
@@ -29,6 +29,7 @@ package org.hisp.dhis.tracker.export.event;
 
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 import org.hisp.dhis.program.Event;
 import org.hisp.dhis.tracker.export.Page;
 import org.hisp.dhis.tracker.export.PageParams;
@@ -43,6 +44,13 @@ public interface EventStore {
   /** Get a page of events matching given params. */
   Page<Event> getEvents(EventQueryParams params, PageParams pageParams);
 
+  /**
+   * Passes all events matching given params to the consumer as they are read from a database
+   * cursor, without loading the complete result into memory. Has to be called within a
+   * transaction.
+   */
+  void streamEvents(EventQueryParams params, Consumer<Event> consumer);
+
   /**
    * Fields the {@link #getEvents(EventQueryParams)} can order events by. Ordering by fields other
    * than these is considered a programmer error. Validation of user provided field names should
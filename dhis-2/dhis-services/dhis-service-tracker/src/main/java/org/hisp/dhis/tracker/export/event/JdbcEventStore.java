@@ -55,8 +55,10 @@ import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.function.IntSupplier;
 import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
@@ -97,6 +99,7 @@ import org.hisp.dhis.trackedentity.TrackedEntityAttribute;
 import org.hisp.dhis.tracker.export.Order;
 import org.hisp.dhis.tracker.export.Page;
 import org.hisp.dhis.tracker.export.PageParams;
+import org.hisp.dhis.tracker.export.SessionChunk;
 import org.hisp.dhis.user.CurrentUserUtil;
 import org.hisp.dhis.user.User;
 import org.hisp.dhis.user.UserDetails;
@@ -107,6 +110,8 @@ import org.locationtech.jts.io.ParseException;
 import org.locationtech.jts.io.WKTReader;
 import org.postgresql.util.PGobject;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Repository;
@@ -116,7 +121,6 @@ import org.springframework.stereotype.Repository;
  */
 @Slf4j
 @Repository("org.hisp.dhis.tracker.export.event.EventStore")
-@RequiredArgsConstructor
 class JdbcEventStore implements EventStore {
   private static final String RELATIONSHIP_IDS_QUERY =
       " left join (select ri.eventid as ri_ev_id, json_agg(ri.relationshipid) as ev_rl from relationshipitem ri"
@@ -182,6 +186,8 @@ class JdbcEventStore implements EventStore {
   private static final String COLUMN_USER_UID = "u_uid";
   private static final String COLUMN_ORG_UNIT_PATH = "ou_path";
   private static final String DEFAULT_ORDER = COLUMN_EVENT_ID + " desc";
+  private static final int STREAM_FETCH_SIZE = 1000;
+  private static final int STREAM_CHUNK_SIZE = 500;
   private static final String USER_SCOPE_ORG_UNIT_PATH_LIKE_MATCH_QUERY =
       " ou.path like CONCAT(orgunit.path, '%') ";
   private static final String CUSTOM_ORG_UNIT_PATH_LIKE_MATCH_QUERY =
@@ -228,7 +234,6 @@ class JdbcEventStore implements EventStore {
 
   private final NamedParameterJdbcTemplate jdbcTemplate;
 
-  @Qualifier("dataValueJsonMapper")
   private final ObjectMapper jsonMapper;
 
   private final UserService userService;
@@ -237,6 +242,36 @@ class JdbcEventStore implements EventStore {
 
   private final RelationshipStore relationshipStore;
 
+  private final EntityManager entityManager;
+
+  /**
+   * Template fetching rows in batches of {@link #STREAM_FETCH_SIZE} through a forward-only cursor.
+   * Postgres only uses a cursor inside a transaction, which callers are expected to hold.
+   */
+  private final NamedParameterJdbcTemplate streamingJdbcTemplate;
+
+  JdbcEventStore(
+      StatementBuilder statementBuilder,
+      NamedParameterJdbcTemplate jdbcTemplate,
+      @Qualifier("dataValueJsonMapper") ObjectMapper jsonMapper,
+      UserService userService,
+      IdentifiableObjectManager manager,
+      RelationshipStore relationshipStore,
+      EntityManager entityManager) {
+    this.statementBuilder = statementBuilder;
+    this.jdbcTemplate = jdbcTemplate;
+    this.jsonMapper = jsonMapper;
+    this.userService = userService;
+    this.manager = manager;
+    this.relationshipStore = relationshipStore;
+    this.entityManager = entityManager;
+
+    JdbcTemplate streamingTemplate =
+        new JdbcTemplate(jdbcTemplate.getJdbcTemplate().getDataSource());
+    streamingTemplate.setFetchSize(STREAM_FETCH_SIZE);
+    this.streamingJdbcTemplate = new NamedParameterJdbcTemplate(streamingTemplate);
+  }
+
   @Override
   public List<Event> getEvents(EventQueryParams queryParams) {
     return fetchEvents(queryParams, null);
@@ -283,155 +318,243 @@ class JdbcEventStore implements EventStore {
 
             validateIdentifiersPresence(resultSet, queryParams.getIdSchemes());
 
-            Event event;
-            if (eventsByUid.containsKey(eventUid)) {
-              event = eventsByUid.get(eventUid);
-            } else {
-              event = new Event();
-              event.setUid(eventUid);
+            Event event = eventsByUid.get(eventUid);
+            if (event == null) {
+              event = mapEvent(resultSet, queryParams, relationshipIds, gson);
               eventsByUid.put(eventUid, event);
-
-              TrackedEntity te = new TrackedEntity();
-              te.setUid(resultSet.getString(COLUMN_TRACKEDENTITY_UID));
-              event.setStatus(EventStatus.valueOf(resultSet.getString(COLUMN_EVENT_STATUS)));
-              ProgramType programType = ProgramType.fromValue(resultSet.getString("p_type"));
-              Program program = new Program();
-              program.setUid(resultSet.getString("p_identifier"));
-              program.setProgramType(programType);
-              Enrollment enrollment = new Enrollment();
-              enrollment.setUid(resultSet.getString(COLUMN_ENROLLMENT_UID));
-              enrollment.setProgram(program);
-              enrollment.setTrackedEntity(te);
-              OrganisationUnit ou = new OrganisationUnit();
-              ou.setUid(resultSet.getString(COLUMN_ORG_UNIT_UID));
-              ProgramStage ps = new ProgramStage();
-              ps.setUid(resultSet.getString("ps_identifier"));
-              event.setDeleted(resultSet.getBoolean(COLUMN_EVENT_DELETED));
-
-              enrollment.setStatus(
-                  ProgramStatus.valueOf(resultSet.getString(COLUMN_ENROLLMENT_STATUS)));
-              enrollment.setFollowup(resultSet.getBoolean(COLUMN_ENROLLMENT_FOLLOWUP));
-              event.setEnrollment(enrollment);
-              event.setProgramStage(ps);
-              event.setOrganisationUnit(ou);
-
-              CategoryOptionCombo coc = new CategoryOptionCombo();
-              coc.setUid(resultSet.getString("coc_identifier"));
-              Set<CategoryOption> options =
-                  Arrays.stream(resultSet.getString("co_uids").split(TextUtils.COMMA))
-                      .map(
-                          optionUid -> {
-                            CategoryOption option = new CategoryOption();
-                            option.setUid(optionUid);
-                            return option;
-                          })
-                      .collect(Collectors.toSet());
-              coc.setCategoryOptions(options);
-              event.setAttributeOptionCombo(coc);
-
-              event.setStoredBy(resultSet.getString(COLUMN_EVENT_STORED_BY));
-              event.setScheduledDate(resultSet.getTimestamp(COLUMN_EVENT_SCHEDULED_DATE));
-              event.setOccurredDate(resultSet.getTimestamp(COLUMN_EVENT_OCCURRED_DATE));
-              event.setCreated(resultSet.getTimestamp(COLUMN_EVENT_CREATED));
-              event.setCreatedAtClient(resultSet.getTimestamp(COLUMN_EVENT_CREATED_AT_CLIENT));
-              event.setCreatedByUserInfo(
-                  EventUtils.jsonToUserInfo(
-                      resultSet.getString(COLUMN_EVENT_CREATED_BY), jsonMapper));
-              event.setLastUpdated(resultSet.getTimestamp(COLUMN_EVENT_LAST_UPDATED));
-              event.setLastUpdatedAtClient(
-                  resultSet.getTimestamp(COLUMN_EVENT_LAST_UPDATED_AT_CLIENT));
-              event.setLastUpdatedByUserInfo(
-                  EventUtils.jsonToUserInfo(
-                      resultSet.getString(COLUMN_EVENT_LAST_UPDATED_BY), jsonMapper));
-
-              event.setCompletedBy(resultSet.getString(COLUMN_EVENT_COMPLETED_BY));
-              event.setCompletedDate(resultSet.getTimestamp(COLUMN_EVENT_COMPLETED_DATE));
-
-              if (resultSet.getObject("ev_geometry") != null) {
-                try {
-                  Geometry geom = new WKTReader().read(resultSet.getString("ev_geometry"));
-
-                  event.setGeometry(geom);
-                } catch (ParseException e) {
-                  log.error("Unable to read geometry for event: '{}'", event.getUid(), e);
-                }
-              }
-
-              if (resultSet.getObject("user_assigned") != null) {
-                User eventUser = new User();
-                eventUser.setUid(resultSet.getString("user_assigned"));
-                eventUser.setUsername(resultSet.getString(COLUMN_EVENT_ASSIGNED_USER_USERNAME));
-                eventUser.setName(resultSet.getString(COLUMN_EVENT_ASSIGNED_USER_DISPLAY_NAME));
-                eventUser.setFirstName(resultSet.getString("user_assigned_first_name"));
-                eventUser.setSurname(resultSet.getString("user_assigned_surname"));
-                event.setAssignedUser(eventUser);
-              }
-
-              if (!StringUtils.isEmpty(resultSet.getString("ev_eventdatavalues"))) {
-                Set<EventDataValue> eventDataValues =
-                    convertEventDataValueJsonIntoSet(resultSet.getString("ev_eventdatavalues"));
-
-                event.getEventDataValues().addAll(eventDataValues);
-              }
-
-              if (queryParams.isIncludeRelationships() && resultSet.getObject("ev_rl") != null) {
-                PGobject pGobject = (PGobject) resultSet.getObject("ev_rl");
-
-                if (pGobject != null) {
-                  String value = pGobject.getValue();
-
-                  relationshipIds.addAll(Lists.newArrayList(gson.fromJson(value, Long[].class)));
-                }
-              }
-
               events.add(event);
             }
 
-            if (resultSet.getString("note_text") != null
-                && !notes.contains(resultSet.getString("note_id"))) {
-              Note note = new Note();
-              note.setUid(resultSet.getString("note_uid"));
-              note.setNoteText(resultSet.getString("note_text"));
-              note.setCreated(resultSet.getDate("note_created"));
-              note.setCreator(resultSet.getString("note_creator"));
-
-              if (resultSet.getObject("note_user_id") != null) {
-                User noteLastUpdatedBy = new User();
-                noteLastUpdatedBy.setId(resultSet.getLong("note_user_id"));
-                noteLastUpdatedBy.setCode(resultSet.getString("note_user_code"));
-                noteLastUpdatedBy.setUid(resultSet.getString("note_user_uid"));
-                noteLastUpdatedBy.setUsername(resultSet.getString("note_user_username"));
-                noteLastUpdatedBy.setFirstName(resultSet.getString("note_user_firstname"));
-                noteLastUpdatedBy.setSurname(resultSet.getString("note_user_surname"));
-                note.setLastUpdatedBy(noteLastUpdatedBy);
-              }
-
-              note.setLastUpdated(resultSet.getDate("note_lastupdated"));
-
-              event.getNotes().add(note);
-              notes.add(resultSet.getString("note_id"));
-            }
+            addNote(resultSet, event, notes);
           }
 
-          List<Relationship> relationships = relationshipStore.getById(relationshipIds);
+          addRelationshipItems(events, relationshipIds);
 
-          Multimap<String, RelationshipItem> map = LinkedListMultimap.create();
+          return events;
+        });
+  }
 
-          for (Relationship relationship : relationships) {
-            if (relationship.getFrom().getEvent() != null) {
-              map.put(relationship.getFrom().getEvent().getUid(), relationship.getFrom());
-            }
-            if (relationship.getTo().getEvent() != null) {
-              map.put(relationship.getTo().getEvent().getUid(), relationship.getTo());
-            }
-          }
+  @Override
+  public void streamEvents(EventQueryParams queryParams, Consumer<Event> consumer) {
+    User currentUser = userService.getUserByUsername(CurrentUserUtil.getCurrentUsername());
+    setAccessiblePrograms(currentUser, queryParams);
 
-          if (!map.isEmpty()) {
-            events.forEach(e -> e.getRelationshipItems().addAll(map.get(e.getUid())));
-          }
+    final MapSqlParameterSource mapSqlParameterSource = new MapSqlParameterSource();
 
-          return events;
-        });
+    // rows of one event must be adjacent, so ties in the requested order are broken by event id
+    String sql =
+        buildSql(queryParams, null, mapSqlParameterSource, currentUser)
+            + ", "
+            + COLUMN_EVENT_ID
+            + " desc";
+
+    StreamingEventRowHandler rowHandler = new StreamingEventRowHandler(queryParams, consumer);
+
+    streamingJdbcTemplate.query(sql, mapSqlParameterSource, rowHandler);
+
+    rowHandler.flush();
+  }
+
+  /**
+   * Maps the rows of the streamed result set into events. Events are handed over in chunks once
+   * their relationships are resolved, so that only one chunk is held in memory at a time. The
+   * relationships loaded for a chunk are evicted from the session once the chunk was handed over.
+   */
+  @RequiredArgsConstructor
+  private class StreamingEventRowHandler implements RowCallbackHandler {
+    private final EventQueryParams queryParams;
+
+    private final Consumer<Event> consumer;
+
+    private final Gson gson = new Gson();
+
+    private final List<Event> events = new ArrayList<>(STREAM_CHUNK_SIZE);
+
+    private final List<Long> relationshipIds = new ArrayList<>();
+
+    private final Set<String> notes = new HashSet<>();
+
+    private Event event;
+
+    @Override
+    public void processRow(ResultSet rs) throws SQLException {
+      String eventUid = rs.getString(COLUMN_EVENT_UID);
+
+      if (eventUid == null) {
+        return;
+      }
+
+      validateIdentifiersPresence(rs, queryParams.getIdSchemes());
+
+      if (event == null || !eventUid.equals(event.getUid())) {
+        if (events.size() >= STREAM_CHUNK_SIZE) {
+          flush();
+        }
+
+        event = mapEvent(rs, queryParams, relationshipIds, gson);
+        events.add(event);
+        notes.clear();
+      }
+
+      addNote(rs, event, notes);
+    }
+
+    void flush() {
+      SessionChunk chunk = SessionChunk.start(entityManager);
+      addRelationshipItems(events, relationshipIds);
+      chunk.loaded();
+      events.forEach(consumer);
+      chunk.evict();
+      events.clear();
+      relationshipIds.clear();
+    }
+  }
+
+  private Event mapEvent(
+      ResultSet rs, EventQueryParams queryParams, List<Long> relationshipIds, Gson gson)
+      throws SQLException {
+    Event event = new Event();
+    event.setUid(rs.getString(COLUMN_EVENT_UID));
+
+    TrackedEntity te = new TrackedEntity();
+    te.setUid(rs.getString(COLUMN_TRACKEDENTITY_UID));
+    event.setStatus(EventStatus.valueOf(rs.getString(COLUMN_EVENT_STATUS)));
+    ProgramType programType = ProgramType.fromValue(rs.getString("p_type"));
+    Program program = new Program();
+    program.setUid(rs.getString("p_identifier"));
+    program.setProgramType(programType);
+    Enrollment enrollment = new Enrollment();
+    enrollment.setUid(rs.getString(COLUMN_ENROLLMENT_UID));
+    enrollment.setProgram(program);
+    enrollment.setTrackedEntity(te);
+    OrganisationUnit ou = new OrganisationUnit();
+    ou.setUid(rs.getString(COLUMN_ORG_UNIT_UID));
+    ProgramStage ps = new ProgramStage();
+    ps.setUid(rs.getString("ps_identifier"));
+    event.setDeleted(rs.getBoolean(COLUMN_EVENT_DELETED));
+
+    enrollment.setStatus(ProgramStatus.valueOf(rs.getString(COLUMN_ENROLLMENT_STATUS)));
+    enrollment.setFollowup(rs.getBoolean(COLUMN_ENROLLMENT_FOLLOWUP));
+    event.setEnrollment(enrollment);
+    event.setProgramStage(ps);
+    event.setOrganisationUnit(ou);
+
+    CategoryOptionCombo coc = new CategoryOptionCombo();
+    coc.setUid(rs.getString("coc_identifier"));
+    Set<CategoryOption> options =
+        Arrays.stream(rs.getString("co_uids").split(TextUtils.COMMA))
+            .map(
+                optionUid -> {
+                  CategoryOption option = new CategoryOption();
+                  option.setUid(optionUid);
+                  return option;
+                })
+            .collect(Collectors.toSet());
+    coc.setCategoryOptions(options);
+    event.setAttributeOptionCombo(coc);
+
+    event.setStoredBy(rs.getString(COLUMN_EVENT_STORED_BY));
+    event.setScheduledDate(rs.getTimestamp(COLUMN_EVENT_SCHEDULED_DATE));
+    event.setOccurredDate(rs.getTimestamp(COLUMN_EVENT_OCCURRED_DATE));
+    event.setCreated(rs.getTimestamp(COLUMN_EVENT_CREATED));
+    event.setCreatedAtClient(rs.getTimestamp(COLUMN_EVENT_CREATED_AT_CLIENT));
+    event.setCreatedByUserInfo(
+        EventUtils.jsonToUserInfo(rs.getString(COLUMN_EVENT_CREATED_BY), jsonMapper));
+    event.setLastUpdated(rs.getTimestamp(COLUMN_EVENT_LAST_UPDATED));
+    event.setLastUpdatedAtClient(rs.getTimestamp(COLUMN_EVENT_LAST_UPDATED_AT_CLIENT));
+    event.setLastUpdatedByUserInfo(
+        EventUtils.jsonToUserInfo(rs.getString(COLUMN_EVENT_LAST_UPDATED_BY), jsonMapper));
+
+    event.setCompletedBy(rs.getString(COLUMN_EVENT_COMPLETED_BY));
+    event.setCompletedDate(rs.getTimestamp(COLUMN_EVENT_COMPLETED_DATE));
+
+    if (rs.getObject("ev_geometry") != null) {
+      try {
+        Geometry geom = new WKTReader().read(rs.getString("ev_geometry"));
+
+        event.setGeometry(geom);
+      } catch (ParseException e) {
+        log.error("Unable to read geometry for event: '{}'", event.getUid(), e);
+      }
+    }
+
+    if (rs.getObject("user_assigned") != null) {
+      User eventUser = new User();
+      eventUser.setUid(rs.getString("user_assigned"));
+      eventUser.setUsername(rs.getString(COLUMN_EVENT_ASSIGNED_USER_USERNAME));
+      eventUser.setName(rs.getString(COLUMN_EVENT_ASSIGNED_USER_DISPLAY_NAME));
+      eventUser.setFirstName(rs.getString("user_assigned_first_name"));
+      eventUser.setSurname(rs.getString("user_assigned_surname"));
+      event.setAssignedUser(eventUser);
+    }
+
+    if (!StringUtils.isEmpty(rs.getString("ev_eventdatavalues"))) {
+      Set<EventDataValue> eventDataValues =
+          convertEventDataValueJsonIntoSet(rs.getString("ev_eventdatavalues"));
+
+      event.getEventDataValues().addAll(eventDataValues);
+    }
+
+    if (queryParams.isIncludeRelationships() && rs.getObject("ev_rl") != null) {
+      PGobject pGobject = (PGobject) rs.getObject("ev_rl");
+
+      if (pGobject != null) {
+        String value = pGobject.getValue();
+
+        relationshipIds.addAll(Lists.newArrayList(gson.fromJson(value, Long[].class)));
+      }
+    }
+
+    return event;
+  }
+
+  private void addNote(ResultSet rs, Event event, Set<String> notes) throws SQLException {
+    if (rs.getString("note_text") != null && !notes.contains(rs.getString("note_id"))) {
+      Note note = new Note();
+      note.setUid(rs.getString("note_uid"));
+      note.setNoteText(rs.getString("note_text"));
+      note.setCreated(rs.getDate("note_created"));
+      note.setCreator(rs.getString("note_creator"));
+
+      if (rs.getObject("note_user_id") != null) {
+        User noteLastUpdatedBy = new User();
+        noteLastUpdatedBy.setId(rs.getLong("note_user_id"));
+        noteLastUpdatedBy.setCode(rs.getString("note_user_code"));
+        noteLastUpdatedBy.setUid(rs.getString("note_user_uid"));
+        noteLastUpdatedBy.setUsername(rs.getString("note_user_username"));
+        noteLastUpdatedBy.setFirstName(rs.getString("note_user_firstname"));
+        noteLastUpdatedBy.setSurname(rs.getString("note_user_surname"));
+        note.setLastUpdatedBy(noteLastUpdatedBy);
+      }
+
+      note.setLastUpdated(rs.getDate("note_lastupdated"));
+
+      event.getNotes().add(note);
+      notes.add(rs.getString("note_id"));
+    }
+  }
+
+  private void addRelationshipItems(List<Event> events, List<Long> relationshipIds) {
+    if (relationshipIds.isEmpty()) {
+      return;
+    }
+
+    List<Relationship> relationships = relationshipStore.getById(relationshipIds);
+
+    Multimap<String, RelationshipItem> map = LinkedListMultimap.create();
+
+    for (Relationship relationship : relationships) {
+      if (relationship.getFrom().getEvent() != null) {
+        map.put(relationship.getFrom().getEvent().getUid(), relationship.getFrom());
+      }
+      if (relationship.getTo().getEvent() != null) {
+        map.put(relationship.getTo().getEvent().getUid(), relationship.getTo());
+      }
+    }
+
+    if (!map.isEmpty()) {
+      events.forEach(e -> e.getRelationshipItems().addAll(map.get(e.getUid())));
+    }
   }
 
   private Page<Event> getPage(PageParams pageParams, List<Event> events, IntSupplier eventCount) {
@@ -27,14 +27,19 @@
  */
 package org.hisp.dhis.tracker.export.trackedentity;
 
+import com.google.common.collect.Iterators;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import javax.annotation.Nonnull;
+import javax.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.lang3.StringUtils;
 import org.hisp.dhis.changelog.ChangeLogType;
@@ -62,6 +67,7 @@ import org.hisp.dhis.trackedentity.TrackerOwnershipManager;
 import org.hisp.dhis.trackedentityattributevalue.TrackedEntityAttributeValue;
 import org.hisp.dhis.tracker.export.Page;
 import org.hisp.dhis.tracker.export.PageParams;
+import org.hisp.dhis.tracker.export.SessionChunk;
 import org.hisp.dhis.tracker.export.enrollment.EnrollmentParams;
 import org.hisp.dhis.tracker.export.enrollment.EnrollmentService;
 import org.hisp.dhis.tracker.export.event.EventParams;
@@ -78,6 +84,7 @@ import org.springframework.transaction.annotation.Transactional;
 @Service("org.hisp.dhis.tracker.export.trackedentity.TrackedEntityService")
 @RequiredArgsConstructor
 class DefaultTrackedEntityService implements TrackedEntityService {
+  private static final int STREAM_CHUNK_SIZE = 500;
 
   private final TrackedEntityStore trackedEntityStore;
 
@@ -101,6 +108,8 @@ class DefaultTrackedEntityService implements TrackedEntityService {
 
   private final UserService userService;
 
+  private final EntityManager entityManager;
+
   @Override
   public TrackedEntity getTrackedEntity(
       String uid, TrackedEntityParams params, boolean includeDeleted)
@@ -334,6 +343,42 @@ class DefaultTrackedEntityService implements TrackedEntityService {
     return Page.of(trackedEntities, ids.getPager());
   }
 
+  @Override
+  public void streamTrackedEntities(
+      TrackedEntityOperationParams operationParams, Consumer<TrackedEntity> consumer)
+      throws BadRequestException, ForbiddenException, NotFoundException {
+    TrackedEntityQueryParams queryParams = mapper.map(operationParams);
+
+    try (Stream<Long> ids = trackedEntityStore.streamTrackedEntityIds(queryParams)) {
+      Iterator<List<Long>> chunks = Iterators.partition(ids.iterator(), STREAM_CHUNK_SIZE);
+
+      while (chunks.hasNext()) {
+        SessionChunk chunk = SessionChunk.start(entityManager);
+
+        List<TrackedEntity> trackedEntities =
+            this.trackedEntityAggregate.find(
+                chunks.next(),
+                operationParams.getTrackedEntityParams(),
+                queryParams,
+                operationParams.getOrgUnitMode());
+
+        mapRelationshipItems(
+            trackedEntities,
+            operationParams.getTrackedEntityParams(),
+            operationParams.isIncludeDeleted());
+
+        // the search audit persisted below is not evicted with the entities of the chunk
+        chunk.loaded();
+
+        addSearchAudit(trackedEntities, queryParams.getUser());
+
+        trackedEntities.forEach(consumer);
+
+        chunk.evict();
+      }
+    }
+  }
+
   public List<Long> getTrackedEntityIds(TrackedEntityQueryParams params) {
     return trackedEntityStore.getTrackedEntityIds(params);
   }
@@ -44,6 +44,7 @@ import java.util.Set;
 import java.util.function.Function;
 import java.util.function.IntSupplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import javax.persistence.EntityManager;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.Predicate;
@@ -183,6 +184,17 @@ class HibernateTrackedEntityStore extends SoftDeleteHibernateObjectStore<Tracked
     return getPage(pageParams, ids, teCount);
   }
 
+  @Override
+  public Stream<Long> streamTrackedEntityIds(TrackedEntityQueryParams params) {
+    if (params.getMaxTeLimit() > 0) {
+      // the limit is checked against the complete result before any tracked entity is returned
+      return getTrackedEntityIds(params).stream();
+    }
+
+    return jdbcTemplate.queryForStream(
+        getQuery(params, null), (rs, rowNum) -> rs.getLong("trackedentityid"));
+  }
+
   private Page<Long> getPage(PageParams pageParams, List<Long> teIds, IntSupplier enrollmentCount) {
     if (pageParams.isPageTotal()) {
       Pager pager =
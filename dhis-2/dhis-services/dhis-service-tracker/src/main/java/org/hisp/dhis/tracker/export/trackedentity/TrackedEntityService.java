@@ -29,6 +29,7 @@ package org.hisp.dhis.tracker.export.trackedentity;
 
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 import org.hisp.dhis.feedback.BadRequestException;
 import org.hisp.dhis.feedback.ForbiddenException;
 import org.hisp.dhis.feedback.NotFoundException;
@@ -57,6 +58,15 @@ public interface TrackedEntityService {
   Page<TrackedEntity> getTrackedEntities(TrackedEntityOperationParams params, PageParams pageParams)
       throws BadRequestException, ForbiddenException, NotFoundException;
 
+  /**
+   * Passes all tracked entities matching given params to the consumer one at a time. Tracked
+   * entities are loaded in chunks while their ids are read from a database cursor, so that large
+   * exports can be written out without holding all tracked entities in memory.
+   */
+  void streamTrackedEntities(
+      TrackedEntityOperationParams operationParams, Consumer<TrackedEntity> consumer)
+      throws BadRequestException, ForbiddenException, NotFoundException;
+
   /**
    * Fields the {@link #getTrackedEntities(TrackedEntityOperationParams)} can order tracked entities
    * by. Ordering by fields other than these is considered a programmer error. Validation of user
@@ -27,6 +27,9 @@
  */
 package org.hisp.dhis.tracker.imports;
 
+import static org.hisp.dhis.monitoring.prometheus.config.PrometheusMonitoringConfig.TYPE_TAG;
+
+import io.micrometer.core.instrument.MeterRegistry;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -36,6 +39,7 @@ import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 import lombok.RequiredArgsConstructor;
 import org.hisp.dhis.common.IndirectTransactional;
+import org.hisp.dhis.monitoring.metrics.PhaseTimer;
 import org.hisp.dhis.scheduling.JobProgress;
 import org.hisp.dhis.tracker.TrackerType;
 import org.hisp.dhis.tracker.imports.bundle.TrackerBundle;
@@ -59,6 +63,12 @@ import org.springframework.stereotype.Service;
 @Service
 @RequiredArgsConstructor
 public class DefaultTrackerImportService implements TrackerImportService {
+  /** Timer of the import stages, tagged by phase. */
+  static final String STAGE_TIMER = "dhis2.tracker.import";
+
+  /** Counter of the imported objects, tagged by tracker type. */
+  static final String OBJECT_COUNTER = "dhis2.tracker.import.objects";
+
   @Nonnull private final TrackerBundleService trackerBundleService;
 
   @Nonnull private final ValidationService validationService;
@@ -67,11 +77,14 @@ public class DefaultTrackerImportService implements TrackerImportService {
 
   @Nonnull private final TrackerUserService trackerUserService;
 
-  private PersistenceReport commit(TrackerImportParams params, TrackerBundle trackerBundle) {
+  @Nonnull private final MeterRegistry meterRegistry;
+
+  private PersistenceReport commit(
+      TrackerImportParams params, TrackerBundle trackerBundle, PhaseTimer stages) {
     if (TrackerImportStrategy.DELETE == params.getImportStrategy()) {
-      return deleteBundle(trackerBundle);
+      return stages.record("commit", () -> deleteBundle(trackerBundle));
     } else {
-      return commitBundle(trackerBundle);
+      return commitBundle(trackerBundle, stages);
     }
   }
 
@@ -80,30 +93,46 @@ public class DefaultTrackerImportService implements TrackerImportService {
   public ImportReport importTracker(
       TrackerImportParams params, TrackerObjects trackerObjects, JobProgress jobProgress) {
     User user = trackerUserService.getUser(params.getUserId());
+    PhaseTimer stages = new PhaseTimer(meterRegistry, STAGE_TIMER);
 
     jobProgress.startingStage("Running PreHeat");
     TrackerBundle trackerBundle =
-        jobProgress.runStage(() -> trackerBundleService.create(params, trackerObjects, user));
+        jobProgress.runStage(
+            () ->
+                stages.record(
+                    "preheat", () -> trackerBundleService.create(params, trackerObjects, user)));
 
     jobProgress.startingStage("Calculating Payload Size");
     Map<TrackerType, Integer> bundleSize =
         jobProgress.runStage(() -> calculatePayloadSize(trackerBundle));
+    countObjects(bundleSize);
 
     jobProgress.startingStage("Running PreProcess");
-    jobProgress.runStage(() -> trackerPreprocessService.preprocess(trackerBundle));
+    jobProgress.runStage(
+        () ->
+            stages.record("preprocess", () -> trackerPreprocessService.preprocess(trackerBundle)));
 
     jobProgress.startingStage("Running Validation");
-    ValidationResult validationResult = jobProgress.runStage(() -> validateBundle(trackerBundle));
+    ValidationResult validationResult =
+        jobProgress.runStage(
+            () -> stages.record("validation", () -> validateBundle(trackerBundle)));
 
     ValidationReport validationReport = ValidationReport.fromResult(validationResult);
 
     if (!trackerBundle.isSkipRuleEngine() && !params.getImportStrategy().isDelete()) {
       jobProgress.startingStage("Running Rule Engine");
-      jobProgress.runStage(() -> trackerBundleService.runRuleEngine(trackerBundle));
+      jobProgress.runStage(
+          () ->
+              stages.record(
+                  "rule_engine", () -> trackerBundleService.runRuleEngine(trackerBundle)));
 
       jobProgress.startingStage("Running Rule Engine Validation");
       ValidationResult result =
-          jobProgress.runStage(() -> validationService.validateRuleEngine(trackerBundle));
+          jobProgress.runStage(
+              () ->
+                  stages.record(
+                      "rule_engine_validation",
+                      () -> validationService.validateRuleEngine(trackerBundle)));
       trackerBundle.setTrackedEntities(result.getTrackedEntities());
       trackerBundle.setEnrollments(result.getEnrollments());
       trackerBundle.setEvents(result.getEvents());
@@ -118,10 +147,12 @@ public class DefaultTrackerImportService implements TrackerImportService {
     }
 
     jobProgress.startingStage("Commit Transaction");
-    PersistenceReport persistenceReport = jobProgress.runStage(() -> commit(params, trackerBundle));
+    PersistenceReport persistenceReport =
+        jobProgress.runStage(() -> commit(params, trackerBundle, stages));
 
     jobProgress.startingStage("PostCommit");
-    jobProgress.runStage(() -> trackerBundleService.postCommit(trackerBundle));
+    jobProgress.runStage(
+        () -> stages.record("post_commit", () -> trackerBundleService.postCommit(trackerBundle)));
 
     return ImportReport.withImportCompleted(
         Status.OK, persistenceReport, validationReport, bundleSize);
@@ -149,8 +180,17 @@ public class DefaultTrackerImportService implements TrackerImportService {
         TrackerType.RELATIONSHIP, bundle.getRelationships().size());
   }
 
-  protected PersistenceReport commitBundle(TrackerBundle trackerBundle) {
-    PersistenceReport persistenceReport = trackerBundleService.commit(trackerBundle);
+  private void countObjects(Map<TrackerType, Integer> bundleSize) {
+    bundleSize.forEach(
+        (type, size) ->
+            meterRegistry
+                .counter(OBJECT_COUNTER, TYPE_TAG, type.name().toLowerCase())
+                .increment(size));
+  }
+
+  protected PersistenceReport commitBundle(TrackerBundle trackerBundle, PhaseTimer stages) {
+    PersistenceReport persistenceReport =
+        stages.record("commit", () -> trackerBundleService.commit(trackerBundle));
 
     if (!trackerBundle.isSkipSideEffects()) {
       List<TrackerSideEffectDataBundle> sideEffectDataBundles =
@@ -159,7 +199,9 @@ public class DefaultTrackerImportService implements TrackerImportService {
               .flatMap(Collection::stream)
               .toList();
 
-      trackerBundleService.handleTrackerSideEffects(sideEffectDataBundles);
+      stages.record(
+          "side_effects",
+          () -> trackerBundleService.handleTrackerSideEffects(sideEffectDataBundles));
     }
 
     return persistenceReport;
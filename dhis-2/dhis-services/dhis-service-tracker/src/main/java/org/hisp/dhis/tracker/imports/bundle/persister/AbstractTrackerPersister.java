@@ -42,6 +42,8 @@ import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.hisp.dhis.changelog.ChangeLogType;
 import org.hisp.dhis.common.BaseIdentifiableObject;
 import org.hisp.dhis.common.ValueType;
@@ -102,6 +104,44 @@ public abstract class AbstractTrackerPersister<
 
     Set<String> updatedTeiList = bundle.getUpdatedTeis();
 
+    //
+    // Unless every object is flushed on its own, writes are flushed once per JDBC batch size
+    // worth of entities, so that inserts and updates fill the ordered JDBC batches. The session
+    // keeps its flush mode, so queries issued while persisting still see the pending writes.
+    //
+    int flushInterval =
+        FlushMode.AUTO == bundle.getFlushMode()
+            ? getJdbcBatchSize(entityManager.unwrap(Session.class))
+            : 0;
+
+    persistEntities(
+        entityManager,
+        bundle,
+        dtos,
+        updatedTeiList,
+        typeReport,
+        sideEffectDataBundles,
+        flushInterval);
+
+    if (flushInterval > 0) {
+      entityManager.flush();
+    }
+
+    typeReport.getSideEffectDataBundles().addAll(sideEffectDataBundles);
+
+    return typeReport;
+  }
+
+  private void persistEntities(
+      EntityManager entityManager,
+      TrackerBundle bundle,
+      List<T> dtos,
+      Set<String> updatedTeiList,
+      TrackerTypeReport typeReport,
+      List<TrackerSideEffectDataBundle> sideEffectDataBundles,
+      int flushInterval) {
+    int processed = 0;
+
     for (T trackerDto : dtos) {
 
       Entity objectReport = new Entity(getType(), trackerDto.getUid());
@@ -150,7 +190,8 @@ public abstract class AbstractTrackerPersister<
         //
         updatePreheat(bundle.getPreheat(), convertedDto);
 
-        if (FlushMode.OBJECT == bundle.getFlushMode()) {
+        if (FlushMode.OBJECT == bundle.getFlushMode()
+            || flushInterval > 0 && ++processed % flushInterval == 0) {
           entityManager.flush();
         }
 
@@ -179,10 +220,16 @@ public abstract class AbstractTrackerPersister<
         }
       }
     }
+  }
 
-    typeReport.getSideEffectDataBundles().addAll(sideEffectDataBundles);
+  /** Returns the configured JDBC batch size, or 1 if statements are not batched. */
+  private static int getJdbcBatchSize(Session session) {
+    int batchSize =
+        ((SessionFactoryImplementor) session.getSessionFactory())
+            .getSessionFactoryOptions()
+            .getJdbcBatchSize();
 
-    return typeReport;
+    return Math.max(batchSize, 1);
   }
 
   // // // // // // // //
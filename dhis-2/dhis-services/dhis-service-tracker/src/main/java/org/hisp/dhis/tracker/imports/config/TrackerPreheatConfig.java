@@ -27,9 +27,15 @@
  */
 package org.hisp.dhis.tracker.imports.config;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 import java.util.stream.Collectors;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.tracker.imports.preheat.supplier.ClassBasedSupplier;
 import org.hisp.dhis.tracker.imports.preheat.supplier.DefaultsSupplier;
 import org.hisp.dhis.tracker.imports.preheat.supplier.DuplicateRelationshipSupplier;
@@ -81,4 +87,28 @@ public class TrackerPreheatConfig {
   public Map<String, String> getPreheatStrategies() {
     return new PreheatStrategyScanner().scanSupplierStrategies();
   }
+
+  /** Bounded pool running the suppliers which can run concurrently with the importing thread. */
+  @Bean(name = "preheatExecutor", destroyMethod = "shutdown")
+  public ExecutorService getPreheatExecutor(DhisConfigurationProvider config) {
+    int threads = Integer.parseInt(config.getProperty(ConfigurationKey.TRACKER_PREHEAT_THREADS));
+
+    return Executors.newFixedThreadPool(
+        threads,
+        new ThreadFactoryBuilder().setNameFormat("TRACKER-PREHEAT-%d").setDaemon(true).build());
+  }
+
+  /**
+   * Permits for the imports which may wait for suppliers running on the preheat executor. Such an
+   * import holds a connection while the suppliers take connections of their own from the same pool,
+   * so the number of waiting imports is kept below the pool size minus the preheat threads. Imports
+   * without a permit run all suppliers on the importing thread.
+   */
+  @Bean("preheatExecutorPermits")
+  public Semaphore getPreheatExecutorPermits(DhisConfigurationProvider config) {
+    int poolSize = Integer.parseInt(config.getProperty(ConfigurationKey.CONNECTION_POOL_MAX_SIZE));
+    int threads = Integer.parseInt(config.getProperty(ConfigurationKey.TRACKER_PREHEAT_THREADS));
+
+    return new Semaphore(Math.max(poolSize - threads, 0));
+  }
 }
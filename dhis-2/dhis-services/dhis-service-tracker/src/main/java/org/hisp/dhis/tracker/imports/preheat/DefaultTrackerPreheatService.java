@@ -29,12 +29,21 @@ package org.hisp.dhis.tracker.imports.preheat;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import java.beans.Introspector;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
 import javax.annotation.Nonnull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.hisp.dhis.common.IdentifiableObjectManager;
+import org.hisp.dhis.monitoring.metrics.PhaseTimer;
 import org.hisp.dhis.preheat.PreheatException;
 import org.hisp.dhis.tracker.imports.TrackerIdSchemeParams;
 import org.hisp.dhis.tracker.imports.domain.TrackerObjects;
@@ -48,6 +57,15 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
+ * Runs the preheat suppliers in the preheat order. Suppliers which are {@link
+ * PreheatSupplier#isConcurrent() concurrent} run on the preheat executor as soon as the suppliers
+ * they depend on are done, all other suppliers run one after another on the importing thread.
+ *
+ * <p>The importing thread holds a connection while it waits for the suppliers on the preheat
+ * executor, which take connections from the same pool. Only imports holding one of the preheat
+ * executor permits use the executor, so that waiting imports cannot exhaust the pool. Other imports
+ * run all suppliers on the importing thread.
+ *
  * @author Morten Olav Hansen <mortenoh@gmail.com>
  */
 @RequiredArgsConstructor
@@ -55,6 +73,8 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 public class DefaultTrackerPreheatService
     implements TrackerPreheatService, ApplicationContextAware {
+  static final String SUPPLIER_TIMER = "dhis2.tracker.preheat";
+
   @Nonnull private final IdentifiableObjectManager manager;
 
   private ApplicationContext ctx;
@@ -67,6 +87,14 @@ public class DefaultTrackerPreheatService
   @Qualifier("preheatOrder")
   private final List<String> preheatSuppliers;
 
+  @Qualifier("preheatExecutor")
+  private final Executor preheatExecutor;
+
+  @Qualifier("preheatExecutorPermits")
+  private final Semaphore preheatExecutorPermits;
+
+  @Nonnull private final MeterRegistry meterRegistry;
+
   // TODO this flag should be configurable
   private static final boolean FAIL_FAST_ON_PREHEAT_ERROR = false;
 
@@ -80,28 +108,96 @@ public class DefaultTrackerPreheatService
 
     checkNotNull(preheat.getUser(), "TrackerPreheat is missing the user object.");
 
-    for (String supplier : preheatSuppliers) {
-      final String beanName = Introspector.decapitalize(supplier);
-      try {
-        ctx.getBean(beanName, PreheatSupplier.class).add(trackerObjects, preheat);
-      } catch (BeansException beanException) {
-        processException(
-            "Unable to find a preheat supplier with name "
-                + beanName
-                + " in the Spring context. Skipping supplier.",
-            beanException,
-            supplier);
-      } catch (Exception e) {
-        processException(
-            "An error occurred while executing a preheat supplier with name " + supplier,
-            e,
-            supplier);
+    PhaseTimer timer = new PhaseTimer(meterRegistry, SUPPLIER_TIMER);
+    Map<String, CompletableFuture<Void>> scheduled = new HashMap<>();
+    boolean concurrent = preheatExecutorPermits.tryAcquire();
+
+    try {
+      for (String supplier : preheatSuppliers) {
+        PreheatSupplier preheatSupplier = getSupplier(supplier);
+
+        if (preheatSupplier == null) {
+          continue;
+        }
+
+        CompletableFuture<Void> dependencies = getDependencies(preheatSupplier, scheduled);
+        Runnable add = () -> add(supplier, preheatSupplier, trackerObjects, preheat, timer);
+
+        if (concurrent && preheatSupplier.isConcurrent()) {
+          scheduled.put(supplier, dependencies.thenRunAsync(add, preheatExecutor));
+        } else {
+          await(dependencies);
+          add.run();
+          scheduled.put(supplier, CompletableFuture.completedFuture(null));
+        }
+      }
+
+      await(CompletableFuture.allOf(scheduled.values().toArray(CompletableFuture[]::new)));
+    } finally {
+      if (concurrent) {
+        preheatExecutorPermits.release();
       }
     }
 
     return preheat;
   }
 
+  private PreheatSupplier getSupplier(String supplier) {
+    final String beanName = Introspector.decapitalize(supplier);
+    try {
+      return ctx.getBean(beanName, PreheatSupplier.class);
+    } catch (BeansException beanException) {
+      processException(
+          "Unable to find a preheat supplier with name "
+              + beanName
+              + " in the Spring context. Skipping supplier.",
+          beanException,
+          supplier);
+      return null;
+    }
+  }
+
+  /**
+   * Returns a future completing when all dependencies of the given supplier are done. Dependencies
+   * which are not part of the preheat order, or which could not be found, are ignored.
+   */
+  private CompletableFuture<Void> getDependencies(
+      PreheatSupplier supplier, Map<String, CompletableFuture<Void>> scheduled) {
+    return CompletableFuture.allOf(
+        supplier.getDependencies().stream()
+            .map(Class::getSimpleName)
+            .map(scheduled::get)
+            .filter(Objects::nonNull)
+            .toArray(CompletableFuture[]::new));
+  }
+
+  private void add(
+      String supplier,
+      PreheatSupplier preheatSupplier,
+      TrackerObjects trackerObjects,
+      TrackerPreheat preheat,
+      PhaseTimer timer) {
+    try {
+      timer.record(supplier, () -> preheatSupplier.add(trackerObjects, preheat));
+    } catch (Exception e) {
+      processException(
+          "An error occurred while executing a preheat supplier with name " + supplier,
+          e,
+          supplier);
+    }
+  }
+
+  private static void await(CompletableFuture<Void> future) {
+    try {
+      future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
   private void processException(String message, Exception e, String supplier) {
     if (FAIL_FAST_ON_PREHEAT_ERROR) {
       throw new PreheatException(
@@ -42,6 +42,7 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -87,10 +88,11 @@ public class TrackerPreheat {
 
   /**
    * Internal map of all metadata objects mapped by class type => [id] The value of each id can be
-   * either the metadata object's uid, code, name or attribute value
+   * either the metadata object's uid, code, name or attribute value. It is concurrent as suppliers
+   * running on preheat threads read it while other suppliers add to it.
    */
   private final Map<Class<? extends IdentifiableObject>, Map<String, IdentifiableObject>> map =
-      new HashMap<>();
+      new ConcurrentHashMap<>();
 
   /** Internal map of all default object (like category option combo, etc). */
   private final Map<Class<? extends IdentifiableObject>, IdentifiableObject> defaults =
@@ -342,11 +344,14 @@ public class TrackerPreheat {
    *
    * @param klass The metadata class to fetch
    * @param key The key used during the pre-heat creation
-   * @return A metadata object or null
+   * @return A metadata object or null, also if the key is null
    */
   @SuppressWarnings("unchecked")
   public <T extends IdentifiableObject> T get(
       Class<? extends IdentifiableObject> klass, String key) {
+    if (key == null) {
+      return null;
+    }
     return (T) map.getOrDefault(klass, new HashMap<>()).get(key);
   }
 
@@ -399,7 +404,7 @@ public class TrackerPreheat {
 
     Class<? extends IdentifiableObject> klass = HibernateProxyUtils.getRealClass(object);
 
-    map.computeIfAbsent(klass, k -> new HashMap<>());
+    map.computeIfAbsent(klass, k -> new ConcurrentHashMap<>());
 
     if (User.class.isAssignableFrom(klass)) {
       User userObject = (User) object;
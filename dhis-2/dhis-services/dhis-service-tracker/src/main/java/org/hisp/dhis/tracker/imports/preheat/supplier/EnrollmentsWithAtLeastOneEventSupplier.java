@@ -30,6 +30,7 @@ package org.hisp.dhis.tracker.imports.preheat.supplier;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 import org.hisp.dhis.common.IdentifiableObject;
 import org.hisp.dhis.program.Enrollment;
@@ -63,6 +64,16 @@ public class EnrollmentsWithAtLeastOneEventSupplier extends JdbcAbstractPreheatS
     super(jdbcTemplate);
   }
 
+  @Override
+  public Set<Class<? extends PreheatSupplier>> getDependencies() {
+    return Set.of(ClassBasedSupplier.class, EnrollmentSupplier.class);
+  }
+
+  @Override
+  public boolean isConcurrent() {
+    return true;
+  }
+
   @Override
   public void preheatAdd(TrackerObjects trackerObjects, TrackerPreheat preheat) {
     final Map<String, Enrollment> enrollments = preheat.getEnrollments();
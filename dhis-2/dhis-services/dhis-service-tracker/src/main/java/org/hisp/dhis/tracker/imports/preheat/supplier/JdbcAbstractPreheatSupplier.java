@@ -34,6 +34,14 @@ import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 /**
  * Allows a {@link PreheatSupplier} to access the database using JDBC.
  *
+ * <p>Subclasses which are {@link #isConcurrent() concurrent} must only read ids and uids from the
+ * {@link org.hisp.dhis.tracker.imports.preheat.TrackerPreheat}. Their queries run on the preheat
+ * executor, where no transaction is bound, so the primary {@code jdbcTemplate} takes a connection
+ * of its own from the primary database, outside the import transaction. That is fine as the
+ * preheat runs before the import writes anything. They must not use the {@code
+ * readOnlyJdbcTemplate}, as a read replica may lag behind the data the validation relies on. Each
+ * preheat thread holds at most one connection, which is released as soon as its query is done.
+ *
  * @author Luciano Fiandesio
  */
 public abstract class JdbcAbstractPreheatSupplier extends AbstractPreheatSupplier {
@@ -27,6 +27,7 @@
  */
 package org.hisp.dhis.tracker.imports.preheat.supplier;
 
+import java.util.Set;
 import org.hisp.dhis.tracker.imports.TrackerImportParams;
 import org.hisp.dhis.tracker.imports.domain.TrackerObjects;
 import org.hisp.dhis.tracker.imports.preheat.TrackerPreheat;
@@ -44,4 +45,26 @@ public interface PreheatSupplier {
    * @param preheat {@link TrackerPreheat}
    */
   void add(TrackerObjects trackerObjects, TrackerPreheat preheat);
+
+  /**
+   * Returns the suppliers adding the data this supplier reads from the {@link TrackerPreheat}. They
+   * have to run before this supplier, so they must come before it in the preheat order.
+   *
+   * @return the suppliers this supplier depends on
+   */
+  default Set<Class<? extends PreheatSupplier>> getDependencies() {
+    return Set.of();
+  }
+
+  /**
+   * Indicates whether this supplier can run on a preheat thread concurrently with other suppliers.
+   * This is only the case for suppliers which do not use the Hibernate session of the import, and
+   * only read the ids and uids of objects already in the {@link TrackerPreheat}. All other
+   * suppliers run one after another on the importing thread.
+   *
+   * @return true if this supplier can run concurrently
+   */
+  default boolean isConcurrent() {
+    return false;
+  }
 }
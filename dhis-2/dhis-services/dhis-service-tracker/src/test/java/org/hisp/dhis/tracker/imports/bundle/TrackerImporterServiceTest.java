@@ -27,6 +27,7 @@
  */
 package org.hisp.dhis.tracker.imports.bundle;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -35,6 +36,7 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -76,6 +78,8 @@ class TrackerImporterServiceTest {
 
   @Mock private ValidationResult validationResult;
 
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
   private DefaultTrackerImportService subject;
 
   private TrackerImportParams params = null;
@@ -88,7 +92,11 @@ class TrackerImporterServiceTest {
   public void setUp() {
     subject =
         new DefaultTrackerImportService(
-            trackerBundleService, validationService, trackerPreprocessService, trackerUserService);
+            trackerBundleService,
+            validationService,
+            trackerPreprocessService,
+            trackerUserService,
+            meterRegistry);
 
     final List<Event> events = rnd.objects(Event.class, 3).collect(Collectors.toList());
 
@@ -148,6 +156,23 @@ class TrackerImporterServiceTest {
     verify(trackerBundleService, times(1)).handleTrackerSideEffects(anyList());
   }
 
+  @Test
+  void testStagesAreTimed() {
+    when(trackerBundleService.create(any(TrackerImportParams.class), any(), any()))
+        .thenReturn(ParamsConverter.convert(params, trackerObjects, new User()));
+
+    subject.importTracker(params, trackerObjects, NoopJobProgress.INSTANCE);
+
+    for (String phase : List.of("preheat", "preprocess", "validation", "commit", "post_commit")) {
+      assertEquals(
+          1, meterRegistry.get("dhis2.tracker.import").tag("phase", phase).timer().count(), phase);
+    }
+
+    assertEquals(
+        3,
+        meterRegistry.get("dhis2.tracker.import.objects").tag("type", "event").counter().count());
+  }
+
   private User getUser() {
     User user = new User();
     user.setUid("user1234");
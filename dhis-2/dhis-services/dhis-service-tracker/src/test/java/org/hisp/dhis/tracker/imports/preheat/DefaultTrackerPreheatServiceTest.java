@@ -27,27 +27,37 @@
  */
 package org.hisp.dhis.tracker.imports.preheat;
 
+import static org.hisp.dhis.monitoring.prometheus.config.PrometheusMonitoringConfig.PHASE_TAG;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doCallRealMethod;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
 import org.hisp.dhis.common.IdentifiableObjectManager;
 import org.hisp.dhis.tracker.imports.TrackerIdSchemeParams;
 import org.hisp.dhis.tracker.imports.domain.TrackedEntity;
 import org.hisp.dhis.tracker.imports.domain.TrackerObjects;
 import org.hisp.dhis.tracker.imports.preheat.supplier.ClassBasedSupplier;
 import org.hisp.dhis.tracker.imports.preheat.supplier.PreheatSupplier;
+import org.hisp.dhis.tracker.imports.preheat.supplier.ProgramOrgUnitsSupplier;
 import org.hisp.dhis.user.User;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
@@ -65,6 +75,8 @@ class DefaultTrackerPreheatServiceTest {
 
   @Mock private ClassBasedSupplier classBasedSupplier;
 
+  @Mock private ProgramOrgUnitsSupplier programOrgUnitsSupplier;
+
   @Mock private ApplicationContext applicationContext;
 
   @Captor private ArgumentCaptor<Class<PreheatSupplier>> preheatSupplierClassCaptor;
@@ -73,6 +85,16 @@ class DefaultTrackerPreheatServiceTest {
 
   private DefaultTrackerPreheatService preheatService;
 
+  private SimpleMeterRegistry meterRegistry;
+
+  private final List<Runnable> executed = new ArrayList<>();
+
+  private final Executor executor =
+      task -> {
+        executed.add(task);
+        task.run();
+      };
+
   private final TrackerObjects preheatParams =
       TrackerObjects.builder()
           .trackedEntities(Collections.singletonList(new TrackedEntity()))
@@ -82,9 +104,14 @@ class DefaultTrackerPreheatServiceTest {
 
   @BeforeEach
   public void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
     preheatService =
         new DefaultTrackerPreheatService(
-            manager, List.of(ClassBasedSupplier.class.getSimpleName()));
+            manager,
+            List.of(ClassBasedSupplier.class.getSimpleName()),
+            executor,
+            new Semaphore(1),
+            meterRegistry);
 
     preheatService.setApplicationContext(applicationContext);
     when(manager.get(User.class, getUser().getUid())).thenReturn(getUser());
@@ -128,6 +155,60 @@ class DefaultTrackerPreheatServiceTest {
     verify(classBasedSupplier).add(any(), any());
   }
 
+  @Test
+  void shouldRunConcurrentSupplierOnExecutorAfterItsDependencies() {
+    Semaphore permits = new Semaphore(1);
+    setUpConcurrentSupplier(permits);
+
+    preheatService.preheat(preheatParams, idSchemeParams, getUser());
+
+    InOrder inOrder = inOrder(classBasedSupplier, programOrgUnitsSupplier);
+    inOrder.verify(classBasedSupplier).add(any(), any());
+    inOrder.verify(programOrgUnitsSupplier).add(any(), any());
+    assertEquals(1, executed.size());
+    assertEquals(
+        1,
+        meterRegistry
+            .get(DefaultTrackerPreheatService.SUPPLIER_TIMER)
+            .tag(PHASE_TAG, ProgramOrgUnitsSupplier.class.getSimpleName())
+            .timer()
+            .count());
+    assertEquals(1, permits.availablePermits());
+  }
+
+  @Test
+  void shouldRunConcurrentSupplierOnImportingThreadWithoutPermit() {
+    Semaphore permits = new Semaphore(0);
+    setUpConcurrentSupplier(permits);
+
+    preheatService.preheat(preheatParams, idSchemeParams, getUser());
+
+    InOrder inOrder = inOrder(classBasedSupplier, programOrgUnitsSupplier);
+    inOrder.verify(classBasedSupplier).add(any(), any());
+    inOrder.verify(programOrgUnitsSupplier).add(any(), any());
+    assertEquals(0, executed.size());
+    assertEquals(0, permits.availablePermits());
+  }
+
+  private void setUpConcurrentSupplier(Semaphore permits) {
+    preheatService =
+        new DefaultTrackerPreheatService(
+            manager,
+            List.of(
+                ClassBasedSupplier.class.getSimpleName(),
+                ProgramOrgUnitsSupplier.class.getSimpleName()),
+            executor,
+            permits,
+            meterRegistry);
+    preheatService.setApplicationContext(applicationContext);
+    when(applicationContext.getBean("classBasedSupplier", PreheatSupplier.class))
+        .thenReturn(classBasedSupplier);
+    when(applicationContext.getBean("programOrgUnitsSupplier", PreheatSupplier.class))
+        .thenReturn(programOrgUnitsSupplier);
+    when(programOrgUnitsSupplier.isConcurrent()).thenReturn(true);
+    when(programOrgUnitsSupplier.getDependencies()).thenReturn(Set.of(ClassBasedSupplier.class));
+  }
+
   private User getUser() {
     User user = new User();
     user.setUid("user1234");
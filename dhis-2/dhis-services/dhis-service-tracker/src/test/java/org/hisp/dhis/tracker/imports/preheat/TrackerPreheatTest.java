@@ -298,6 +298,14 @@ class TrackerPreheatTest extends DhisConvenienceTest {
     assertNull(preheat.get(Attribute.class, (MetadataIdentifier) null));
   }
 
+  @Test
+  void testGetByMetadataIdentifierGivenNullIdentifier() {
+    preheat.put(TrackerIdSchemeParam.UID, new Program());
+
+    assertNull(preheat.getProgram(MetadataIdentifier.ofUid((String) null)));
+    assertNull(preheat.get(Program.class, (String) null));
+  }
+
   @Test
   void testPutUid() {
     DataElement de1 = new DataElement("dataElementA");
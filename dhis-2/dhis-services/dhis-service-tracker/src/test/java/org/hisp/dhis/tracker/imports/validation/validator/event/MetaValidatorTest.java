@@ -38,6 +38,7 @@ import org.hisp.dhis.common.CodeGenerator;
 import org.hisp.dhis.organisationunit.OrganisationUnit;
 import org.hisp.dhis.program.Program;
 import org.hisp.dhis.program.ProgramStage;
+import org.hisp.dhis.tracker.imports.TrackerIdSchemeParam;
 import org.hisp.dhis.tracker.imports.TrackerIdSchemeParams;
 import org.hisp.dhis.tracker.imports.bundle.TrackerBundle;
 import org.hisp.dhis.tracker.imports.domain.Event;
@@ -135,6 +136,27 @@ class MetaValidatorTest {
     assertHasError(reporter, event, E1011);
   }
 
+  @Test
+  void verifyEventValidationFailsWhenProgramStageAndOrgUnitAreMissing() {
+    TrackerPreheat realPreheat = new TrackerPreheat();
+    Program program = new Program();
+    program.setUid(PROGRAM_UID);
+    realPreheat.put(TrackerIdSchemeParam.UID, program);
+    when(bundle.getPreheat()).thenReturn(realPreheat);
+    Event event =
+        Event.builder()
+            .event(CodeGenerator.generateUid())
+            .programStage(MetadataIdentifier.ofUid((String) null))
+            .orgUnit(MetadataIdentifier.ofUid((String) null))
+            .program(MetadataIdentifier.ofUid(PROGRAM_UID))
+            .build();
+
+    validator.validate(reporter, bundle, event);
+
+    assertHasError(reporter, event, E1011);
+    assertHasError(reporter, event, E1013);
+  }
+
   private Event validEvent() {
     return Event.builder()
         .event(CodeGenerator.generateUid())
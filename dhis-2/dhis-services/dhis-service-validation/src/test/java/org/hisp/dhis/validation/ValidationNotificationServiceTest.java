@@ -55,6 +55,7 @@ import org.hisp.dhis.notification.ValidationNotificationMessageRenderer;
 import org.hisp.dhis.organisationunit.OrganisationUnit;
 import org.hisp.dhis.period.DefaultPeriodService;
 import org.hisp.dhis.period.Period;
+import org.hisp.dhis.period.PeriodRegistry;
 import org.hisp.dhis.period.PeriodStore;
 import org.hisp.dhis.period.PeriodType;
 import org.hisp.dhis.period.PeriodTypeEnum;
@@ -70,6 +71,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
 
 /**
  * Tests for the business logic implemented in ValidationNotificationService.
@@ -100,6 +102,10 @@ class ValidationNotificationServiceTest extends DhisConvenienceTest {
 
   @Mock private PeriodStore periodStore;
 
+  @Mock private PeriodRegistry periodRegistry;
+
+  @Mock private ApplicationEventPublisher eventPublisher;
+
   private DefaultPeriodService periodService;
 
   private DefaultValidationNotificationService subject;
@@ -132,7 +138,7 @@ class ValidationNotificationServiceTest extends DhisConvenienceTest {
   void initTest() {
     subject =
         new DefaultValidationNotificationService(renderer, messageService, validationResultService);
-    this.periodService = new DefaultPeriodService(periodStore);
+    this.periodService = new DefaultPeriodService(periodStore, periodRegistry, eventPublisher);
     sentMessages = new ArrayList<>();
     when(messageService.sendValidationMessage(
             anySet(), anyString(), anyString(), any(MessageConversationPriority.class)))
@@ -31,7 +31,15 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
@@ -73,6 +81,23 @@ public class AuditManager {
   private static final Map<String, Map<Field, Method>> cachedAuditAttributeFields =
       new ConcurrentHashMap<>();
 
+  /** Types of audit entry values which can be held as they are until the entry is serialized. */
+  private static final Set<Class<?>> IMMUTABLE_TYPES =
+      Set.of(
+          String.class,
+          Boolean.class,
+          Character.class,
+          Byte.class,
+          Short.class,
+          Integer.class,
+          Long.class,
+          Float.class,
+          Double.class,
+          BigInteger.class,
+          BigDecimal.class);
+
+  private static final Object NOT_COPYABLE = new Object();
+
   public AuditManager(
       AuditProducerSupplier auditProducerSupplier,
       AuditScheduler auditScheduler,
@@ -104,7 +129,23 @@ public class AuditManager {
       audit.setCreatedBy(usernameSupplier.get());
     }
 
-    if (audit.getData() == null) {
+    // audit entries of the Hibernate listeners are maps, their payload is created by the scheduler
+    // when queued instead of on the thread that flushed the entity. The map is copied as values
+    // like dates can still be changed through the entity, unless it holds values which cannot be
+    // copied, like embedded components, in which case the payload is created right away.
+    boolean deferData = false;
+
+    if (config.isUseQueue() && audit.getData() == null) {
+      Object copy = copyValue(audit.getAuditableEntity().getEntity());
+
+      if (copy instanceof Map) {
+        audit.setAuditableEntity(
+            new AuditableEntity(audit.getAuditableEntity().getEntityClass(), copy));
+        deferData = true;
+      }
+    }
+
+    if (audit.getData() == null && !deferData) {
       audit.setData(
           this.objectFactory.create(
               audit.getAuditScope(),
@@ -120,6 +161,56 @@ public class AuditManager {
     }
   }
 
+  /**
+   * Copies a value of an audit entry map, so that it is serialized as it was when audited.
+   *
+   * @return the copy, or {@link #NOT_COPYABLE} if the value or one of its elements cannot be
+   *     copied and might still be changed by reference
+   */
+  private static Object copyValue(Object value) {
+    if (value == null || value instanceof Enum || IMMUTABLE_TYPES.contains(value.getClass())) {
+      return value;
+    }
+
+    if (value instanceof Date date) {
+      return date.clone();
+    }
+
+    if (value instanceof Collection<?> collection) {
+      List<Object> copy = new ArrayList<>(collection.size());
+
+      for (Object item : collection) {
+        Object itemCopy = copyValue(item);
+
+        if (itemCopy == NOT_COPYABLE) {
+          return NOT_COPYABLE;
+        }
+
+        copy.add(itemCopy);
+      }
+
+      return copy;
+    }
+
+    if (value instanceof Map<?, ?> map) {
+      Map<Object, Object> copy = new LinkedHashMap<>();
+
+      for (Map.Entry<?, ?> entry : map.entrySet()) {
+        Object entryCopy = copyValue(entry.getValue());
+
+        if (entryCopy == NOT_COPYABLE) {
+          return NOT_COPYABLE;
+        }
+
+        copy.put(entry.getKey(), entryCopy);
+      }
+
+      return copy;
+    }
+
+    return NOT_COPYABLE;
+  }
+
   public Map<Field, Method> getAuditAttributeFields(Class<?> auditClass) {
     Map<Field, Method> map = cachedAuditAttributeFields.get(auditClass.getName());
 
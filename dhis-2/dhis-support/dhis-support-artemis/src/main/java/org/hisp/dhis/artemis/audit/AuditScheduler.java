@@ -32,6 +32,7 @@ import java.util.Collection;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.DelayQueue;
 import lombok.extern.slf4j.Slf4j;
+import org.hisp.dhis.artemis.audit.legacy.AuditObjectFactory;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
@@ -46,6 +47,9 @@ import org.springframework.stereotype.Component;
  * <p>To avoid excessive memory pressure, max 200 messages can stay in the queue: in-excess messages
  * are processed immediately.
  *
+ * <p>Audit messages queued without data get their data created from the auditable entity when they
+ * are de-queued, so that serializing the entity does not happen on the thread that changed it.
+ *
  * @author Luciano Fiandesio
  */
 @Slf4j
@@ -57,10 +61,14 @@ public class AuditScheduler {
 
   private final AuditProducerSupplier auditProducerSupplier;
 
+  private final AuditObjectFactory objectFactory;
+
   private final BlockingQueue<QueuedAudit> delayed = new DelayQueue<>();
 
-  public AuditScheduler(AuditProducerSupplier auditProducerSupplier) {
+  public AuditScheduler(
+      AuditProducerSupplier auditProducerSupplier, AuditObjectFactory objectFactory) {
     this.auditProducerSupplier = auditProducerSupplier;
+    this.objectFactory = objectFactory;
   }
 
   public void addAuditItem(final Audit auditItem) {
@@ -72,7 +80,7 @@ public class AuditScheduler {
     final QueuedAudit postponed = new QueuedAudit(auditItem, DELAY);
 
     if (delayed.size() >= MAX_SIZE) {
-      auditProducerSupplier.publish(auditItem);
+      auditProducerSupplier.publish(withData(auditItem));
     } else {
       if (!delayed.contains(postponed)) {
         delayed.offer(postponed);
@@ -86,6 +94,22 @@ public class AuditScheduler {
 
     delayed.drainTo(expired);
 
-    expired.stream().map(QueuedAudit::getAuditItem).forEach(auditProducerSupplier::publish);
+    expired.stream()
+        .map(QueuedAudit::getAuditItem)
+        .map(this::withData)
+        .forEach(auditProducerSupplier::publish);
+  }
+
+  private Audit withData(Audit audit) {
+    if (audit.getData() == null && audit.getAuditableEntity() != null) {
+      audit.setData(
+          objectFactory.create(
+              audit.getAuditScope(),
+              audit.getAuditType(),
+              audit.getAuditableEntity().getEntity(),
+              audit.getCreatedBy()));
+    }
+
+    return audit;
   }
 }
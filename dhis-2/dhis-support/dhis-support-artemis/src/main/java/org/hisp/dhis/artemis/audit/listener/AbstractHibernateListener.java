@@ -37,6 +37,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.Hibernate;
 import org.hibernate.event.spi.EventSource;
@@ -45,8 +46,10 @@ import org.hibernate.event.spi.PostInsertEvent;
 import org.hibernate.event.spi.PostUpdateEvent;
 import org.hibernate.persister.entity.EntityPersister;
 import org.hibernate.proxy.HibernateProxy;
+import org.hibernate.proxy.LazyInitializer;
 import org.hisp.dhis.artemis.audit.AuditManager;
 import org.hisp.dhis.artemis.audit.legacy.AuditObjectFactory;
+import org.hisp.dhis.artemis.audit.listener.AuditPlan.AuditedProperty;
 import org.hisp.dhis.artemis.config.UsernameSupplier;
 import org.hisp.dhis.audit.AuditType;
 import org.hisp.dhis.audit.Auditable;
@@ -73,6 +76,10 @@ public abstract class AbstractHibernateListener {
 
   private final SchemaService schemaService;
 
+  private final Map<Class<?>, Optional<Auditable>> auditables = new ConcurrentHashMap<>();
+
+  private final Map<Class<?>, AuditPlan> auditPlans = new ConcurrentHashMap<>();
+
   public AbstractHibernateListener(
       AuditManager auditManager,
       AuditObjectFactory objectFactory,
@@ -90,22 +97,37 @@ public abstract class AbstractHibernateListener {
   }
 
   Optional<Auditable> getAuditable(Object object, String type) {
-    if (AnnotationUtils.isAnnotationPresent(
-        HibernateProxyUtils.getRealClass(object), Auditable.class)) {
-      Auditable auditable =
-          AnnotationUtils.getAnnotation(HibernateProxyUtils.getRealClass(object), Auditable.class);
-
-      boolean shouldAudit =
-          Arrays.stream(auditable.eventType()).anyMatch(s -> s.contains("all") || s.contains(type));
-
-      if (shouldAudit) {
-        return Optional.of(auditable);
-      }
+    Auditable auditable =
+        auditables
+            .computeIfAbsent(
+                HibernateProxyUtils.getRealClass(object),
+                klass ->
+                    Optional.ofNullable(AnnotationUtils.getAnnotation(klass, Auditable.class)))
+            .orElse(null);
+
+    if (auditable != null
+        && Arrays.stream(auditable.eventType())
+            .anyMatch(s -> s.contains("all") || s.contains(type))) {
+      return Optional.of(auditable);
     }
 
     return Optional.empty();
   }
 
+  /**
+   * Returns the audit plan of the entity's class, compiling it on first use.
+   *
+   * @param entity the audited entity
+   * @param persister the persister of the entity
+   * @return the audit plan of the entity's class
+   */
+  AuditPlan getAuditPlan(Object entity, EntityPersister persister) {
+    return auditPlans.computeIfAbsent(
+        HibernateProxyUtils.getRealClass(entity),
+        klass ->
+            AuditPlan.compile(persister.getPropertyNames(), schemaService.getDynamicSchema(klass)));
+  }
+
   public String getCreatedBy() {
     return usernameSupplier.get();
   }
@@ -121,30 +143,20 @@ public abstract class AbstractHibernateListener {
    */
   protected Object createAuditEntry(PostDeleteEvent event) {
     Map<String, Object> objectMap = new HashMap<>();
-    Schema schema =
-        schemaService.getDynamicSchema(HibernateProxyUtils.getRealClass(event.getEntity()));
-    Map<String, Property> properties = schema.getFieldNameMapProperties();
+    Object[] state = event.getDeletedState();
 
-    for (int i = 0; i < event.getDeletedState().length; i++) {
-      if (event.getDeletedState()[i] == null) {
-        continue;
-      }
-
-      Object value = event.getDeletedState()[i];
-      String pName = event.getPersister().getPropertyNames()[i];
-      Property property = properties.get(pName);
+    for (AuditedProperty audited :
+        getAuditPlan(event.getEntity(), event.getPersister()).getDeleteProperties()) {
+      Object value = state[audited.index()];
 
-      if (property == null || !property.isOwner()) {
+      if (value == null || !Hibernate.isInitialized(value)) {
         continue;
       }
 
-      if (Hibernate.isInitialized(value)) {
-        if (property.isCollection()
-            && BaseIdentifiableObject.class.isAssignableFrom(property.getItemKlass())) {
-          objectMap.put(pName, IdentifiableObjectUtils.getUids((Collection) value));
-        } else {
-          objectMap.put(pName, getId(value));
-        }
+      if (audited.identifiableCollection()) {
+        objectMap.put(audited.name(), IdentifiableObjectUtils.getUids((Collection) value));
+      } else {
+        objectMap.put(audited.name(), getId(value));
       }
     }
     return objectMap;
@@ -167,41 +179,62 @@ public abstract class AbstractHibernateListener {
       Serializable id,
       EntityPersister persister) {
     Map<String, Object> objectMap = new HashMap<>();
-    Schema schema = schemaService.getDynamicSchema(HibernateProxyUtils.getRealClass(entity));
-    Map<String, Property> properties = schema.getFieldNameMapProperties();
-
     HibernateProxy entityProxy = null;
 
-    for (int i = 0; i < state.length; i++) {
-      if (state[i] == null) continue;
-
-      Object value = state[i];
+    for (AuditedProperty audited : getAuditPlan(entity, persister).getProperties()) {
+      Object value = state[audited.index()];
 
-      String pName = persister.getPropertyNames()[i];
-      Property property = properties.get(pName);
+      if (value == null) continue;
 
-      if (shouldIgnoreProperty(property)) {
-        continue;
+      if (!Hibernate.isInitialized(value)) {
+        value = getLoadedEntity(value, session);
       }
 
-      if (shouldInitializeProxy(value) || property.isEmbeddedObject()) {
+      if (value == null) {
+        // not loaded in this session, fall back to loading it through the audited entity
         if (entityProxy == null) {
           entityProxy = createProxy(id, session, persister);
         }
 
-        value = getPropertyValue(entityProxy, persister, pName);
+        value = getPropertyValue(entityProxy, persister, audited.name());
       }
 
       if (value == null) {
         continue;
       }
 
-      putValueToMap(property, objectMap, value);
+      putValueToMap(audited.property(), objectMap, value);
     }
 
     return objectMap;
   }
 
+  /**
+   * Returns the entity behind an uninitialized proxy if it is already loaded in the session, which
+   * gives access to its identifiers without a SELECT.
+   *
+   * @return the loaded entity or null if the value is not a proxy or its entity is not loaded
+   */
+  private Object getLoadedEntity(Object value, EventSource session) {
+    if (!(value instanceof HibernateProxy proxy) || session == null) {
+      return null;
+    }
+
+    try {
+      LazyInitializer initializer = proxy.getHibernateLazyInitializer();
+      EntityPersister persister =
+          session.getFactory().getMetamodel().entityPersister(initializer.getEntityName());
+
+      return session
+          .getPersistenceContext()
+          .getEntity(session.generateEntityKey(initializer.getIdentifier(), persister));
+    } catch (Exception ex) {
+      log.debug("Couldn't look up loaded entity " + DebugUtils.getStackTrace(ex));
+    }
+
+    return null;
+  }
+
   private HibernateProxy createProxy(
       Serializable id, EventSource session, EntityPersister persister) {
     try {
@@ -278,14 +311,6 @@ public abstract class AbstractHibernateListener {
     return null;
   }
 
-  private boolean shouldInitializeProxy(Object value) {
-    if (value == null || Hibernate.isInitialized(value)) {
-      return false;
-    }
-
-    return true;
-  }
-
   private Object getId(Object object) {
     if (BaseIdentifiableObject.class.isAssignableFrom(object.getClass())) {
       return ((BaseIdentifiableObject) object).getUid();
@@ -293,10 +318,4 @@ public abstract class AbstractHibernateListener {
 
     return object;
   }
-
-  private boolean shouldIgnoreProperty(Property property) {
-    return property == null
-        || (!property.isOwner() && !property.isEmbeddedObject())
-        || !property.isReadable();
-  }
 }
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.artemis.audit.listener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.hisp.dhis.common.BaseIdentifiableObject;
+import org.hisp.dhis.schema.Property;
+import org.hisp.dhis.schema.Schema;
+
+/**
+ * The audit plan of an entity class: the indexes of the Hibernate entity state that are part of an
+ * audit entry together with their schema {@link Property}. A plan is compiled once per entity class
+ * so that creating an audit entry only has to visit the audited state indexes.
+ */
+final class AuditPlan {
+  /**
+   * An audited index of the entity state.
+   *
+   * @param index index in the entity state array
+   * @param property the schema property of the state index
+   * @param identifiableCollection true if the value is a collection of identifiable objects
+   */
+  record AuditedProperty(int index, Property property, boolean identifiableCollection) {
+    String name() {
+      return property.getFieldName();
+    }
+  }
+
+  /** Properties audited on insert and update. */
+  private final List<AuditedProperty> properties;
+
+  /** Properties audited on delete. */
+  private final List<AuditedProperty> deleteProperties;
+
+  private AuditPlan(List<AuditedProperty> properties, List<AuditedProperty> deleteProperties) {
+    this.properties = properties;
+    this.deleteProperties = deleteProperties;
+  }
+
+  List<AuditedProperty> getProperties() {
+    return properties;
+  }
+
+  List<AuditedProperty> getDeleteProperties() {
+    return deleteProperties;
+  }
+
+  /**
+   * Compiles the plan of an entity class.
+   *
+   * @param propertyNames the property names of the entity persister, in state order
+   * @param schema the schema of the entity class
+   * @return the compiled plan
+   */
+  static AuditPlan compile(String[] propertyNames, Schema schema) {
+    Map<String, Property> schemaProperties = schema.getFieldNameMapProperties();
+    List<AuditedProperty> properties = new ArrayList<>();
+    List<AuditedProperty> deleteProperties = new ArrayList<>();
+
+    for (int i = 0; i < propertyNames.length; i++) {
+      Property property = schemaProperties.get(propertyNames[i]);
+
+      if (property == null) {
+        continue;
+      }
+
+      AuditedProperty audited =
+          new AuditedProperty(
+              i,
+              property,
+              property.isCollection()
+                  && property.getItemKlass() != null
+                  && BaseIdentifiableObject.class.isAssignableFrom(property.getItemKlass()));
+
+      if ((property.isOwner() || property.isEmbeddedObject()) && property.isReadable()) {
+        properties.add(audited);
+      }
+
+      if (property.isOwner()) {
+        deleteProperties.add(audited);
+      }
+    }
+
+    return new AuditPlan(List.copyOf(properties), List.copyOf(deleteProperties));
+  }
+}
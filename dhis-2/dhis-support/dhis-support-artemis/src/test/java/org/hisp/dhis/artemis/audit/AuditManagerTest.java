@@ -29,14 +29,24 @@ package org.hisp.dhis.artemis.audit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import org.hisp.dhis.artemis.AuditProducerConfiguration;
 import org.hisp.dhis.artemis.audit.configuration.AuditMatrix;
 import org.hisp.dhis.artemis.audit.legacy.AuditObjectFactory;
 import org.hisp.dhis.artemis.config.UsernameSupplier;
 import org.hisp.dhis.audit.AuditAttributes;
+import org.hisp.dhis.audit.AuditScope;
+import org.hisp.dhis.audit.AuditType;
+import org.hisp.dhis.common.ObjectStyle;
 import org.hisp.dhis.dataelement.DataElement;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -91,4 +101,97 @@ class AuditManagerTest {
     assertEquals(dataElement.getUid(), attributes.get("uid"));
     assertEquals("CODEA", attributes.get("code"));
   }
+
+  @Test
+  void testQueuedAuditDataIsNotCreatedOnSend() {
+    auditManager =
+        new AuditManager(
+            auditProducerSupplier,
+            auditScheduler,
+            AuditProducerConfiguration.builder().useQueue(true).build(),
+            auditMatrix,
+            auditObjectFactory,
+            usernameSupplier);
+    Audit audit =
+        Audit.builder()
+            .auditType(AuditType.UPDATE)
+            .auditScope(AuditScope.METADATA)
+            .createdBy("admin")
+            .auditableEntity(
+                new AuditableEntity(DataElement.class, Map.of("uid", "DataElementUID")))
+            .build();
+    when(auditMatrix.isEnabled(audit)).thenReturn(true);
+
+    auditManager.send(audit);
+
+    verify(auditScheduler).addAuditItem(audit);
+    verifyNoInteractions(auditObjectFactory);
+    assertNull(audit.getData());
+  }
+
+  @Test
+  void testQueuedAuditDataIsCopiedOnSend() {
+    auditManager =
+        new AuditManager(
+            auditProducerSupplier,
+            auditScheduler,
+            AuditProducerConfiguration.builder().useQueue(true).build(),
+            auditMatrix,
+            auditObjectFactory,
+            usernameSupplier);
+    Date lastUpdated = new Date(1000L);
+    List<String> dataSets = new ArrayList<>(List.of("DataSetUID"));
+    Map<String, Object> map = new HashMap<>();
+    map.put("uid", "DataElementUID");
+    map.put("lastUpdated", lastUpdated);
+    map.put("dataSets", dataSets);
+    Audit audit =
+        Audit.builder()
+            .auditType(AuditType.UPDATE)
+            .auditScope(AuditScope.METADATA)
+            .createdBy("admin")
+            .auditableEntity(new AuditableEntity(DataElement.class, map))
+            .build();
+    when(auditMatrix.isEnabled(audit)).thenReturn(true);
+
+    auditManager.send(audit);
+    lastUpdated.setTime(2000L);
+    dataSets.add("AnotherDataSetUID");
+
+    verifyNoInteractions(auditObjectFactory);
+    Map<?, ?> copy = (Map<?, ?>) audit.getAuditableEntity().getEntity();
+    assertEquals(new Date(1000L), copy.get("lastUpdated"));
+    assertEquals(List.of("DataSetUID"), copy.get("dataSets"));
+    assertEquals("DataElementUID", copy.get("uid"));
+  }
+
+  @Test
+  void testQueuedAuditDataWithComponentIsCreatedOnSend() {
+    auditManager =
+        new AuditManager(
+            auditProducerSupplier,
+            auditScheduler,
+            AuditProducerConfiguration.builder().useQueue(true).build(),
+            auditMatrix,
+            auditObjectFactory,
+            usernameSupplier);
+    Map<String, Object> map = new HashMap<>();
+    map.put("uid", "DataElementUID");
+    map.put("style", new ObjectStyle());
+    Audit audit =
+        Audit.builder()
+            .auditType(AuditType.UPDATE)
+            .auditScope(AuditScope.METADATA)
+            .createdBy("admin")
+            .auditableEntity(new AuditableEntity(DataElement.class, map))
+            .build();
+    when(auditMatrix.isEnabled(audit)).thenReturn(true);
+    when(auditObjectFactory.create(AuditScope.METADATA, AuditType.UPDATE, map, "admin"))
+        .thenReturn("{}");
+
+    auditManager.send(audit);
+
+    verify(auditScheduler).addAuditItem(audit);
+    assertEquals("{}", audit.getData());
+  }
 }
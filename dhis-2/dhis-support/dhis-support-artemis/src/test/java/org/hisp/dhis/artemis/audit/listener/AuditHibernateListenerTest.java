@@ -29,13 +29,22 @@ package org.hisp.dhis.artemis.audit.listener;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.HashMap;
 import java.util.Map;
+import org.hibernate.engine.spi.PersistenceContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.hibernate.event.spi.EventSource;
+import org.hibernate.metamodel.spi.MetamodelImplementor;
 import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.proxy.HibernateProxy;
+import org.hibernate.proxy.LazyInitializer;
 import org.hisp.dhis.artemis.audit.AuditManager;
 import org.hisp.dhis.artemis.audit.legacy.AuditObjectFactory;
 import org.hisp.dhis.artemis.config.UsernameSupplier;
@@ -90,6 +99,67 @@ public class AuditHibernateListenerTest {
     assertEquals("userA", auditObjectMap.get("userName").toString());
   }
 
+  @Test
+  void testAuditPlanIsCompiledOnce() {
+    User user = createUser(1, "userA", "passwordA");
+    EventSource session = mock(EventSource.class);
+    EntityPersister persister = mock(EntityPersister.class);
+    when(persister.getPropertyNames()).thenReturn(new String[] {"userName"});
+
+    Schema schema = mock(Schema.class);
+    when(schema.getFieldNameMapProperties())
+        .thenReturn(Map.of("userName", createProperty("userName", true)));
+    when(schemaService.getDynamicSchema(User.class)).thenReturn(schema);
+
+    postInsertAuditListener.createAuditEntry(user, new Object[] {"userA"}, session, 1, persister);
+    postInsertAuditListener.createAuditEntry(user, new Object[] {"userB"}, session, 1, persister);
+
+    verify(schemaService, times(1)).getDynamicSchema(User.class);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testLoadedReferenceIsAuditedWithoutLoadingEntity() {
+    User user = createUser(1, "userA", "passwordA");
+    User lastUpdatedBy = createUser(2, "userB", "passwordB");
+    lastUpdatedBy.setUid("userBuid0001");
+
+    LazyInitializer initializer = mock(LazyInitializer.class);
+    when(initializer.isUninitialized()).thenReturn(true);
+    when(initializer.getEntityName()).thenReturn(User.class.getName());
+    when(initializer.getIdentifier()).thenReturn(2L);
+    HibernateProxy reference = mock(HibernateProxy.class);
+    when(reference.getHibernateLazyInitializer()).thenReturn(initializer);
+
+    EntityPersister persister = mock(EntityPersister.class);
+    when(persister.getPropertyNames()).thenReturn(new String[] {"lastUpdatedBy"});
+    EventSource session = mock(EventSource.class);
+    SessionFactoryImplementor factory = mock(SessionFactoryImplementor.class);
+    MetamodelImplementor metamodel = mock(MetamodelImplementor.class);
+    PersistenceContext persistenceContext = mock(PersistenceContext.class);
+    when(session.getFactory()).thenReturn(factory);
+    when(factory.getMetamodel()).thenReturn(metamodel);
+    when(metamodel.entityPersister(User.class.getName())).thenReturn(persister);
+    when(session.getPersistenceContext()).thenReturn(persistenceContext);
+    when(persistenceContext.getEntity(any())).thenReturn(lastUpdatedBy);
+
+    Property property = new Property(User.class);
+    property.setReadable(true);
+    property.setFieldName("lastUpdatedBy");
+    property.setOwner(true);
+    Schema schema = mock(Schema.class);
+    when(schema.getFieldNameMapProperties()).thenReturn(Map.of("lastUpdatedBy", property));
+    when(schemaService.getDynamicSchema(User.class)).thenReturn(schema);
+
+    Map<String, Object> auditObjectMap =
+        (Map<String, Object>)
+            postInsertAuditListener.createAuditEntry(
+                user, new Object[] {reference}, session, 1, persister);
+
+    assertEquals("userBuid0001", auditObjectMap.get("lastUpdatedBy"));
+    verify(persister, never()).createProxy(any(), any());
+  }
+
   private User createUser(int id, String userName, String password) {
     User user = new User();
     user.setId(id);
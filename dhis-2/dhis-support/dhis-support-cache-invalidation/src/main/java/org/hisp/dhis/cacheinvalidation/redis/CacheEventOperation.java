@@ -31,5 +31,6 @@ public enum CacheEventOperation {
   INSERT,
   UPDATE,
   DELETE,
-  COLLECTION
+  COLLECTION,
+  CREDENTIALS
 }
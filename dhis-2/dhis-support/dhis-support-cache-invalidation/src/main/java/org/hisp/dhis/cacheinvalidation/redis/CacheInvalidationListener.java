@@ -44,13 +44,16 @@ import org.hisp.dhis.dataset.DataSet;
 import org.hisp.dhis.datavalue.DataValue;
 import org.hisp.dhis.organisationunit.OrganisationUnit;
 import org.hisp.dhis.period.Period;
+import org.hisp.dhis.period.PeriodDeletedEvent;
 import org.hisp.dhis.period.PeriodService;
 import org.hisp.dhis.trackedentity.TrackedEntity;
 import org.hisp.dhis.trackedentity.TrackedEntityAttribute;
 import org.hisp.dhis.trackedentity.TrackedEntityAttributeService;
 import org.hisp.dhis.trackedentity.TrackedEntityService;
 import org.hisp.dhis.trackedentityattributevalue.TrackedEntityAttributeValue;
+import org.hisp.dhis.user.UserCredentialsChangedEvent;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
@@ -69,6 +72,8 @@ public class CacheInvalidationListener extends BaseCacheEvictionService
     implements RedisPubSubListener<String, String> {
   protected String serverInstanceId;
 
+  private final ApplicationEventPublisher eventPublisher;
+
   public CacheInvalidationListener(
       SessionFactory sessionFactory,
       PaginationCacheManager paginationCacheManager,
@@ -77,7 +82,8 @@ public class CacheInvalidationListener extends BaseCacheEvictionService
       TrackedEntityAttributeService trackedEntityAttributeService,
       TrackedEntityService trackedEntityService,
       PeriodService periodService,
-      @Qualifier("cacheInvalidationServerId") String serverInstanceId) {
+      @Qualifier("cacheInvalidationServerId") String serverInstanceId,
+      ApplicationEventPublisher eventPublisher) {
     super(
         sessionFactory,
         paginationCacheManager,
@@ -88,6 +94,7 @@ public class CacheInvalidationListener extends BaseCacheEvictionService
         periodService);
 
     this.serverInstanceId = serverInstanceId;
+    this.eventPublisher = eventPublisher;
   }
 
   @Override
@@ -125,6 +132,23 @@ public class CacheInvalidationListener extends BaseCacheEvictionService
       return;
     }
 
+    if (CacheEventOperation.CREDENTIALS == operationType) {
+      Long userId = "*".equals(parts[3]) ? null : Long.parseLong(parts[3]);
+      eventPublisher.publishEvent(new UserCredentialsChangedEvent(userId, true));
+      return;
+    }
+
+    if (CacheEventOperation.DELETE == operationType && Period.class.getName().equals(parts[2])) {
+      Long periodId = "*".equals(parts[3]) ? null : Long.parseLong(parts[3]);
+      eventPublisher.publishEvent(new PeriodDeletedEvent(periodId, true));
+
+      if (periodId == null) {
+        queryCacheManager.evictQueryCache(sessionFactory.getCache(), Period.class);
+        sessionFactory.getCache().evictEntityData(Period.class);
+        return;
+      }
+    }
+
     Serializable entityId = getEntityId(message);
 
     Class<?> entityClass = Class.forName(parts[2]);
@@ -45,15 +45,21 @@ import org.hisp.dhis.dataset.CompleteDataSetRegistration;
 import org.hisp.dhis.datastatistics.DataStatisticsEvent;
 import org.hisp.dhis.datavalue.DataValue;
 import org.hisp.dhis.hibernate.HibernateProxyUtils;
+import org.hisp.dhis.period.Period;
+import org.hisp.dhis.period.PeriodDeletedEvent;
 import org.hisp.dhis.period.PeriodService;
 import org.hisp.dhis.trackedentity.TrackedEntityAttributeService;
 import org.hisp.dhis.trackedentity.TrackedEntityService;
 import org.hisp.dhis.trackedentityattributevalue.TrackedEntityAttributeValue;
+import org.hisp.dhis.user.User;
+import org.hisp.dhis.user.UserCredentialsChangedEvent;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 /**
  * It listens for events from Hibernate and publishes a message to Redis when an event occurs
@@ -102,6 +108,39 @@ public class PostCacheEventPublisher
     handleMessage(CacheEventOperation.DELETE, postDeleteEvent.getEntity(), postDeleteEvent.getId());
   }
 
+  /**
+   * Forwards changes to user credentials made on this server, so that other servers drop the
+   * credentials they verified for the user. A missing user id is sent as {@code *}.
+   */
+  @EventListener
+  public void onUserCredentialsChanged(UserCredentialsChangedEvent event) {
+    if (event.isRemote()) {
+      return;
+    }
+
+    String op = CacheEventOperation.CREDENTIALS.name().toLowerCase();
+    String id = event.getUserId() == null ? "*" : String.valueOf(event.getUserId());
+    String message = serverInstanceId + ":" + op + ":" + User.class.getName() + ":" + id;
+
+    messagePublisher.publish(CHANNEL_NAME, message);
+  }
+
+  /**
+   * Forwards bulk deletions of periods made on this server, so that other servers drop the periods
+   * they registered. Deletions of single periods are forwarded as deletions of the entity.
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onPeriodDeleted(PeriodDeletedEvent event) {
+    if (event.isRemote() || event.getPeriodId() != null) {
+      return;
+    }
+
+    String op = CacheEventOperation.DELETE.name().toLowerCase();
+    String message = serverInstanceId + ":" + op + ":" + Period.class.getName() + ":*";
+
+    messagePublisher.publish(CHANNEL_NAME, message);
+  }
+
   private void handleMessage(CacheEventOperation operation, Object entity, Serializable id) {
     Class<?> realClass = HibernateProxyUtils.getRealClass(entity);
 
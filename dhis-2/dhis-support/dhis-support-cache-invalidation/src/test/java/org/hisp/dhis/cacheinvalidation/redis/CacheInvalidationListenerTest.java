@@ -27,6 +27,8 @@
  */
 package org.hisp.dhis.cacheinvalidation.redis;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.lenient;
@@ -42,12 +44,15 @@ import org.hisp.dhis.common.IdentifiableObjectManager;
 import org.hisp.dhis.period.PeriodService;
 import org.hisp.dhis.trackedentity.TrackedEntityAttributeService;
 import org.hisp.dhis.trackedentity.TrackedEntityService;
+import org.hisp.dhis.user.UserCredentialsChangedEvent;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 
 /**
  * @author Morten Svanæs <msvanaes@dhis2.org>
@@ -70,6 +75,8 @@ class CacheInvalidationListenerTest {
 
   @Mock protected DisabledCaching disabledCaching;
 
+  @Mock protected ApplicationEventPublisher eventPublisher;
+
   private CacheInvalidationListener cacheInvalidationListener;
 
   private AutoCloseable closeable;
@@ -89,7 +96,8 @@ class CacheInvalidationListenerTest {
             trackedEntityAttributeService,
             trackedEntityService,
             periodService,
-            "SERVER_A");
+            "SERVER_A",
+            eventPublisher);
 
     lenient().when(sessionFactory.getCache()).thenReturn(disabledCaching);
   }
@@ -149,4 +157,18 @@ class CacheInvalidationListenerTest {
     verify(sessionFactory.getCache(), times(1)).evict(any(), any());
     verify(paginationCacheManager, times(1)).evictCache(anyString());
   }
+
+  @Test
+  @DisplayName("Should publish user credentials event on CREDENTIALS messages")
+  void testCredentialsMessage() {
+    String message = "SERVER_B" + ":" + "CREDENTIALS" + ":" + "org.hisp.dhis.user.User" + ":" + "1";
+    cacheInvalidationListener.message(CacheInvalidationConfiguration.CHANNEL_NAME, message);
+
+    ArgumentCaptor<UserCredentialsChangedEvent> event =
+        ArgumentCaptor.forClass(UserCredentialsChangedEvent.class);
+    verify(eventPublisher, times(1)).publishEvent(event.capture());
+    assertEquals(1L, event.getValue().getUserId());
+    assertTrue(event.getValue().isRemote());
+    verify(sessionFactory.getCache(), times(0)).evict(any(), any());
+  }
 }
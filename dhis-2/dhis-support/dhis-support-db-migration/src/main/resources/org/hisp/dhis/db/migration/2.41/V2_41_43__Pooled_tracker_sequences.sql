@@ -0,0 +1,7 @@
+-- Tracker entities allocate their ids in blocks of 50 through the pooled optimizer, so that
+-- inserts of an import can be sent in JDBC batches without a sequence call per row.
+-- The increment has to match the increment_size of the id generators in the mapping files.
+
+alter sequence if exists programstageinstance_sequence increment by 50;
+alter sequence if exists programinstance_sequence increment by 50;
+alter sequence if exists trackedentityinstance_sequence increment by 50;
@@ -0,0 +1,43 @@
+-- Holds the highest approval level (lowest level number) recorded for each workflow, period,
+-- org unit and attribute option combination among the approval levels of the workflow, so that
+-- approval status queries and the analytics approval resource table read one row per key instead
+-- of aggregating over all data approvals.
+-- The table is maintained by the data approval store in the transaction which changes approvals.
+
+create table if not exists dataapprovalstate (
+    workflowid bigint not null,
+    periodid bigint not null,
+    organisationunitid bigint not null,
+    attributeoptioncomboid bigint not null,
+    dataapprovallevelid bigint not null,
+    accepted boolean not null,
+    constraint dataapprovalstate_pkey
+        primary key (workflowid, periodid, attributeoptioncomboid, organisationunitid),
+    constraint fk_dataapprovalstate_workflowid
+        foreign key (workflowid) references dataapprovalworkflow (workflowid) on delete cascade,
+    constraint fk_dataapprovalstate_periodid
+        foreign key (periodid) references period (periodid) on delete cascade,
+    constraint fk_dataapprovalstate_organisationunitid
+        foreign key (organisationunitid) references organisationunit (organisationunitid) on delete cascade,
+    constraint fk_dataapprovalstate_attributeoptioncomboid
+        foreign key (attributeoptioncomboid) references categoryoptioncombo (categoryoptioncomboid) on delete cascade,
+    constraint fk_dataapprovalstate_dataapprovallevelid
+        foreign key (dataapprovallevelid) references dataapprovallevel (dataapprovallevelid) on delete cascade
+);
+
+create index if not exists in_dataapprovalstate_organisationunitid
+    on dataapprovalstate (organisationunitid);
+
+insert into dataapprovalstate (
+    workflowid, periodid, organisationunitid, attributeoptioncomboid, dataapprovallevelid, accepted)
+select distinct on (da.workflowid, da.periodid, da.organisationunitid, da.attributeoptioncomboid)
+    da.workflowid, da.periodid, da.organisationunitid, da.attributeoptioncomboid,
+    da.dataapprovallevelid, coalesce(da.accepted, false)
+from dataapproval da
+join dataapprovallevel dal on dal.dataapprovallevelid = da.dataapprovallevelid
+join dataapprovalworkflowlevels dwl on dwl.workflowid = da.workflowid
+    and dwl.dataapprovallevelid = da.dataapprovallevelid
+where da.workflowid is not null
+and da.attributeoptioncomboid is not null
+order by da.workflowid, da.periodid, da.organisationunitid, da.attributeoptioncomboid, dal.level
+on conflict do nothing;
@@ -0,0 +1,7 @@
+-- Records when an incoming SMS was claimed for processing by a node, so that messages left in the
+-- processing state by a node which went down can be claimed again by another node.
+
+alter table incomingsms add column if not exists claimed timestamp;
+
+create index if not exists in_incomingsms_unparsed
+    on incomingsms (receiveddate, id) where parsed = false;
@@ -0,0 +1,16 @@
+-- Holds the latest summary and details result of each data integrity check, so that results are
+-- visible on all servers of a cluster and survive restarts. A row with a non-null runningsince is
+-- a check currently being run, finishedtime is null until the first run of a check completed.
+
+create table if not exists dataintegrityresult (
+    checkname varchar(255) not null,
+    type varchar(16) not null,
+    starttime timestamp,
+    finishedtime timestamp,
+    runningsince timestamp,
+    error text,
+    count integer,
+    percentage double precision,
+    issues jsonb,
+    constraint dataintegrityresult_pkey primary key (checkname, type)
+);
@@ -0,0 +1,12 @@
+-- Marks metadata versions whose snapshot holds all metadata rather than the changes since the
+-- previous version, so that clients without a baseline version can start from the latest one.
+-- The first version has always been stored in full.
+
+alter table metadataversion add column if not exists checkpoint boolean;
+
+update metadataversion set checkpoint = false where checkpoint is null;
+
+update metadataversion set checkpoint = true
+where versionid = (select versionid from metadataversion order by created asc limit 1);
+
+alter table metadataversion alter column checkpoint set not null;
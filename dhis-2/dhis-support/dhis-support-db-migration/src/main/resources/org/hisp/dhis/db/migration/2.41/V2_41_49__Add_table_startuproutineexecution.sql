@@ -0,0 +1,10 @@
+-- Records the startup routines which are executed once per cluster and completed for a build,
+-- identified by its version, revision and build time, so that a node which waited for another
+-- node to execute a routine can skip it.
+
+create table if not exists startuproutineexecution (
+    name varchar(255) not null,
+    revision varchar(100) not null,
+    executed timestamp not null,
+    constraint startuproutineexecution_pkey primary key (name, revision)
+);
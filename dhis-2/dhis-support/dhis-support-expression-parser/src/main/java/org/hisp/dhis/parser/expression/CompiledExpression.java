@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.parser.expression;
+
+import java.util.List;
+import java.util.Map;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.hisp.dhis.common.ValueType;
+import org.hisp.dhis.constant.Constant;
+
+/**
+ * An expression compiled by {@link ExpressionCompiler} into an immutable tree of evaluation nodes.
+ *
+ * <p>Items are not looked up while evaluating. Instead, the caller resolves the value (and value
+ * type) of each of the {@link #getItemKeys()} into arrays in the same order, and passes these in.
+ * Nulls and missing values are counted in the given {@link ExpressionState} exactly as the {@link
+ * CommonExpressionVisitor} would count them.
+ *
+ * <p>A compiled expression only covers the common numeric cases. When evaluation meets a value it
+ * does not handle (such as a null operand, a division by zero or a comparison of non-numeric
+ * values), it throws {@link FallbackException} and the caller must evaluate the expression with
+ * the visitor instead, which then has the final say on the result.
+ */
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+public class CompiledExpression {
+  static final FallbackException FALLBACK = new FallbackException();
+
+  private final Node root;
+
+  /** Keys of the items in the expression, in the order of the value arrays. */
+  @Getter private final List<Object> itemKeys;
+
+  /**
+   * Evaluates the expression.
+   *
+   * @param values the item values, in the order of {@link #getItemKeys()}.
+   * @param valueTypes the item value types, in the order of {@link #getItemKeys()}.
+   * @param constantMap the constants by UID.
+   * @param state the state in which to count items and item values found.
+   * @return the expression value.
+   * @throws FallbackException if the expression must be evaluated by the visitor.
+   */
+  public Object evaluate(
+      Object[] values,
+      ValueType[] valueTypes,
+      Map<String, Constant> constantMap,
+      ExpressionState state) {
+    return root.evaluate(new Frame(values, valueTypes, constantMap, state));
+  }
+
+  /** Thrown when a compiled expression can't evaluate the values it was given. */
+  public static final class FallbackException extends RuntimeException {
+    private FallbackException() {
+      super("Compiled expression needs visitor evaluation", null, false, false);
+    }
+  }
+
+  /** A node in the compiled evaluation tree. */
+  @FunctionalInterface
+  interface Node {
+    Object evaluate(Frame frame);
+  }
+
+  /** The inputs of a single evaluation. */
+  record Frame(
+      Object[] values,
+      ValueType[] valueTypes,
+      Map<String, Constant> constantMap,
+      ExpressionState state) {}
+}
@@ -0,0 +1,397 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.parser.expression;
+
+import static org.hisp.dhis.parser.expression.CompiledExpression.FALLBACK;
+import static org.hisp.dhis.parser.expression.ParserUtils.COMMON_EXPRESSION_ITEMS;
+import static org.hisp.dhis.parser.expression.antlr.ExpressionParser.BooleanLiteralContext;
+import static org.hisp.dhis.parser.expression.antlr.ExpressionParser.C_BRACE;
+import static org.hisp.dhis.parser.expression.antlr.ExpressionParser.DIV;
+import static org.hisp.dhis.parser.expression.antlr.ExpressionParser.EQ;
+import static org.hisp.dhis.parser.expression.antlr.ExpressionParser.EXCLAMATION_POINT;
+import static org.hisp.dhis.parser.expression.antlr.ExpressionParser.ExprContext;
+import static org.hisp.dhis.parser.expression.antlr.ExpressionParser.FIRST_NON_NULL;
+import static org.hisp.dhis.parser.expression.antlr.ExpressionParser.GEQ;
+import static org.hisp.dhis.parser.expression.antlr.ExpressionParser.GREATEST;
+import static org.hisp.dhis.parser.expression.antlr.ExpressionParser.GT;
+import static org.hisp.dhis.parser.expression.antlr.ExpressionParser.IF;
+import static org.hisp.dhis.parser.expression.antlr.ExpressionParser.IS_NOT_NULL;
+import static org.hisp.dhis.parser.expression.antlr.ExpressionParser.IS_NULL;
+import static org.hisp.dhis.parser.expression.antlr.ExpressionParser.LEAST;
+import static org.hisp.dhis.parser.expression.antlr.ExpressionParser.LEQ;
+import static org.hisp.dhis.parser.expression.antlr.ExpressionParser.LT;
+import static org.hisp.dhis.parser.expression.antlr.ExpressionParser.MINUS;
+import static org.hisp.dhis.parser.expression.antlr.ExpressionParser.MOD;
+import static org.hisp.dhis.parser.expression.antlr.ExpressionParser.MUL;
+import static org.hisp.dhis.parser.expression.antlr.ExpressionParser.NE;
+import static org.hisp.dhis.parser.expression.antlr.ExpressionParser.NOT;
+import static org.hisp.dhis.parser.expression.antlr.ExpressionParser.NumericLiteralContext;
+import static org.hisp.dhis.parser.expression.antlr.ExpressionParser.PAREN;
+import static org.hisp.dhis.parser.expression.antlr.ExpressionParser.PLUS;
+import static org.hisp.dhis.parser.expression.antlr.ExpressionParser.POWER;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.IntPredicate;
+import lombok.extern.slf4j.Slf4j;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.hisp.dhis.antlr.Parser;
+import org.hisp.dhis.constant.Constant;
+import org.hisp.dhis.parser.expression.CompiledExpression.Frame;
+import org.hisp.dhis.parser.expression.CompiledExpression.Node;
+
+/**
+ * Compiles an expression into a {@link CompiledExpression}, so that expressions which are evaluated
+ * many times (such as validation rules and predictors, for each organisation unit, period and
+ * attribute option combination) don't walk the parse tree through the expression items each time.
+ *
+ * <p>Only literals, constants, {@link CompilableExpressionItem}s, arithmetic, numeric comparisons,
+ * parentheses and the functions if, isNull, isNotNull, firstNonNull, greatest and least are
+ * compiled. Expressions containing anything else are not compiled, and are evaluated by the
+ * visitor as before.
+ */
+@Slf4j
+public class ExpressionCompiler {
+  private ExpressionCompiler() {
+    throw new UnsupportedOperationException("util");
+  }
+
+  /** Thrown internally when part of an expression can't be compiled. */
+  private static final class NotCompilableException extends RuntimeException {
+    private NotCompilableException() {
+      super(null, null, false, false);
+    }
+  }
+
+  private static final NotCompilableException NOT_COMPILABLE = new NotCompilableException();
+
+  /**
+   * Compiles an expression.
+   *
+   * @param expression the expression to compile.
+   * @param visitor a visitor set up to evaluate the expression, used for its item map and to find
+   *     the item keys.
+   * @return the compiled expression, or null if the expression can't be compiled.
+   */
+  public static CompiledExpression compile(String expression, CommonExpressionVisitor visitor) {
+    try {
+      ExprContext root = getRootContext(expression, visitor);
+
+      if (root == null) {
+        return null;
+      }
+
+      Map<Object, Integer> slots = new LinkedHashMap<>();
+
+      Node node = new Builder(visitor, slots).compile(root);
+
+      return new CompiledExpression(node, List.copyOf(slots.keySet()));
+    } catch (NotCompilableException ex) {
+      return null;
+    } catch (RuntimeException ex) {
+      // Anything that fails here also fails in the visitor, which reports it
+
+      log.debug("Expression not compiled: '{}': {}", expression, ex.getMessage());
+
+      return null;
+    }
+  }
+
+  /**
+   * Finds the root expression context by visiting the expression with an item method that just
+   * remembers the first item context it is called for, without visiting any further.
+   */
+  private static ExprContext getRootContext(String expression, CommonExpressionVisitor visitor) {
+    ExprContext[] root = new ExprContext[1];
+
+    CommonExpressionVisitor rootVisitor =
+        visitor.toBuilder()
+            .itemMethod(
+                (item, ctx, v) -> {
+                  root[0] = ctx;
+                  return null;
+                })
+            .state(new ExpressionState())
+            .build();
+
+    Parser.visit(expression, rootVisitor);
+
+    return root[0];
+  }
+
+  /** Compiles the nodes of one expression, assigning value slots to the items found. */
+  private static class Builder {
+    private final CommonExpressionVisitor visitor;
+
+    private final Map<Object, Integer> slots;
+
+    private Builder(CommonExpressionVisitor visitor, Map<Object, Integer> slots) {
+      this.visitor = visitor;
+      this.slots = slots;
+    }
+
+    private Node compile(ExprContext ctx) {
+      if (ctx.it != null) {
+        return compileItem(ctx);
+      }
+
+      if (!ctx.expr().isEmpty()) {
+        return compile(ctx.expr(0));
+      }
+
+      return compileLiteral(ctx.getChild(0));
+    }
+
+    private Node compileItem(ExprContext ctx) {
+      int type = ctx.it.getType();
+
+      ExpressionItem item = visitor.getItemMap().get(type);
+
+      if (item instanceof CompilableExpressionItem compilableItem) {
+        return compileValue(compilableItem.getCompiledItemKey(ctx, visitor));
+      }
+
+      ExpressionItem commonItem = COMMON_EXPRESSION_ITEMS.get(type);
+
+      if (item == null || commonItem == null || item.getClass() != commonItem.getClass()) {
+        throw NOT_COMPILABLE;
+      }
+
+      List<Node> args = ctx.expr().stream().map(this::compile).toList();
+
+      return switch (type) {
+        case PAREN -> args.get(0);
+        case PLUS -> args.size() == 1 ? unary(args.get(0), 1) : math(args, Double::sum);
+        case MINUS -> args.size() == 1 ? unary(args.get(0), -1) : math(args, (a, b) -> a - b);
+        case MUL -> math(args, (a, b) -> a * b);
+        case DIV -> divide(args, (a, b) -> a / b);
+        case MOD -> divide(args, (a, b) -> a % b);
+        case POWER -> math(args, Math::pow);
+        case NOT, EXCLAMATION_POINT -> not(args.get(0));
+        case EQ -> compare(args, c -> c == 0);
+        case NE -> compare(args, c -> c != 0);
+        case GT -> compare(args, c -> c > 0);
+        case LT -> compare(args, c -> c < 0);
+        case GEQ -> compare(args, c -> c >= 0);
+        case LEQ -> compare(args, c -> c <= 0);
+        case IF -> conditional(args);
+        case IS_NULL -> isNull(args.get(0), true);
+        case IS_NOT_NULL -> isNull(args.get(0), false);
+        case FIRST_NON_NULL -> firstNonNull(args);
+        case GREATEST -> greatestOrLeast(args, 1.0);
+        case LEAST -> greatestOrLeast(args, -1.0);
+        case C_BRACE -> constant(ctx.uid0.getText());
+        default -> throw NOT_COMPILABLE;
+      };
+    }
+
+    private Node compileValue(Object key) {
+      if (key == null) {
+        throw NOT_COMPILABLE;
+      }
+
+      int slot = slots.computeIfAbsent(key, k -> slots.size());
+
+      return f -> f.state().handleNulls(f.values()[slot], f.valueTypes()[slot]);
+    }
+
+    private Node compileLiteral(ParseTree tree) {
+      while (tree != null) {
+        if (tree instanceof NumericLiteralContext) {
+          Double value = Double.valueOf(tree.getText());
+
+          return f -> value;
+        }
+
+        if (tree instanceof BooleanLiteralContext) {
+          Boolean value = Boolean.valueOf(tree.getText());
+
+          return f -> value;
+        }
+
+        tree = tree.getChildCount() == 1 ? tree.getChild(0) : null;
+      }
+
+      throw NOT_COMPILABLE;
+    }
+  }
+
+  // -------------------------------------------------------------------------
+  // Node factories
+  // -------------------------------------------------------------------------
+
+  private static Node unary(Node arg, double sign) {
+    return f -> sign * number(arg.evaluate(f));
+  }
+
+  private static Node math(List<Node> args, DoubleBinaryOperator op) {
+    Node left = args.get(0);
+    Node right = args.get(1);
+
+    return f -> op.applyAsDouble(number(left.evaluate(f)), number(right.evaluate(f)));
+  }
+
+  /** Division by zero is left to the visitor. */
+  private static Node divide(List<Node> args, DoubleBinaryOperator op) {
+    Node left = args.get(0);
+    Node right = args.get(1);
+
+    return f -> {
+      double dividend = number(left.evaluate(f));
+      double divisor = number(right.evaluate(f));
+
+      if (divisor == 0d) {
+        throw FALLBACK;
+      }
+
+      return op.applyAsDouble(dividend, divisor);
+    };
+  }
+
+  private static Node not(Node arg) {
+    return f -> !bool(arg.evaluate(f));
+  }
+
+  private static Node compare(List<Node> args, IntPredicate test) {
+    Node left = args.get(0);
+    Node right = args.get(1);
+
+    return f -> test.test(Double.compare(number(left.evaluate(f)), number(right.evaluate(f))));
+  }
+
+  private static Node conditional(List<Node> args) {
+    Node test = args.get(0);
+    Node ifTrue = args.get(1);
+    Node ifFalse = args.get(2);
+
+    return f -> {
+      Object value = test.evaluate(f);
+
+      if (value == null) {
+        return null;
+      }
+
+      return bool(value) ? ifTrue.evaluate(f) : ifFalse.evaluate(f);
+    };
+  }
+
+  private static Node isNull(Node arg, boolean isNull) {
+    return f -> (allowingNulls(arg, f) == null) == isNull;
+  }
+
+  private static Node firstNonNull(List<Node> args) {
+    Node[] nodes = args.toArray(new Node[0]);
+
+    return f -> {
+      for (Node node : nodes) {
+        Object value = allowingNulls(node, f);
+
+        if (value != null) {
+          return value;
+        }
+      }
+
+      return null;
+    };
+  }
+
+  /** Evaluates all arguments, skipping nulls, as {@code FunctionGreatestOrLeast} does. */
+  private static Node greatestOrLeast(List<Node> args, double greatestLeast) {
+    Node[] nodes = args.toArray(new Node[0]);
+
+    return f -> {
+      List<Double> values = new ArrayList<>(nodes.length);
+
+      for (Node node : nodes) {
+        Object value = node.evaluate(f);
+
+        values.add(value == null ? null : number(value));
+      }
+
+      Double returnVal = null;
+
+      for (Double val : values) {
+        if (returnVal == null || val != null && (val - returnVal) * greatestLeast > 0) {
+          returnVal = val;
+        }
+      }
+
+      return returnVal;
+    };
+  }
+
+  private static Node constant(String uid) {
+    return f -> {
+      Constant constant = f.constantMap().get(uid);
+
+      if (constant == null) {
+        throw FALLBACK;
+      }
+
+      return constant.getValue();
+    };
+  }
+
+  // -------------------------------------------------------------------------
+  // Supportive methods
+  // -------------------------------------------------------------------------
+
+  /** Evaluates a node without replacing nulls, as {@code visitAllowingNulls} does. */
+  private static Object allowingNulls(Node node, Frame f) {
+    ExpressionState state = f.state();
+
+    boolean savedReplaceNulls = state.isReplaceNulls();
+
+    state.setReplaceNulls(false);
+
+    Object result = node.evaluate(f);
+
+    state.setReplaceNulls(savedReplaceNulls);
+
+    return result;
+  }
+
+  private static double number(Object value) {
+    if (value instanceof Double d) {
+      return d;
+    }
+
+    throw FALLBACK;
+  }
+
+  private static boolean bool(Object value) {
+    if (value instanceof Boolean b) {
+      return b;
+    }
+
+    throw FALLBACK;
+  }
+}
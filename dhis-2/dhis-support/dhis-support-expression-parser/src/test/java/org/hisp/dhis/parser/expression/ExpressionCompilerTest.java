@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.parser.expression;
+
+import static org.hisp.dhis.common.DimensionItemType.DATA_ELEMENT;
+import static org.hisp.dhis.parser.expression.ExpressionItem.ITEM_EVALUATE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.hisp.dhis.antlr.Parser;
+import org.hisp.dhis.common.DimensionalItemId;
+import org.hisp.dhis.common.DimensionalItemObject;
+import org.hisp.dhis.constant.Constant;
+import org.hisp.dhis.dataelement.DataElement;
+import org.hisp.dhis.expression.ExpressionParams;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Tests that {@link CompiledExpression}s evaluate to the same values, and count the same items and
+ * item values, as the {@link CommonExpressionVisitor}.
+ */
+class ExpressionCompilerTest {
+  private static final String A = "dataElemenA";
+
+  private static final String B = "dataElemenB";
+
+  private static final String C = "dataElemenC";
+
+  private static final List<Map<String, Object>> VALUES =
+      List.of(
+          Map.of(A, 4d, B, 2d, C, 3d),
+          Map.of(A, -1.5d, B, 0d, C, 10d),
+          Map.of(A, 7d, C, 0d),
+          Map.of(B, 5d),
+          Map.of());
+
+  private final Map<String, Constant> constantMap =
+      Map.of("xxxxxxxxx05", new Constant("Five", 5d));
+
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        "#{dataElemenA} + #{dataElemenB} * 2 - #{dataElemenC}",
+        "(#{dataElemenA} + #{dataElemenB}) / #{dataElemenC}",
+        "#{dataElemenA} % 3 + -#{dataElemenB} ^ 2",
+        "2 ^ 3 ^ 2 + C{xxxxxxxxx05}",
+        "if(#{dataElemenA} > #{dataElemenB}, #{dataElemenA} - #{dataElemenB}, 0)",
+        "if(#{dataElemenA} == #{dataElemenB}, 1, 2) + if(#{dataElemenA} != 0, 3, 4)",
+        "!(#{dataElemenA} <= #{dataElemenC})",
+        "if(isNull(#{dataElemenA}), 1, 0) + if(isNotNull(#{dataElemenB}), 10, 0)",
+        "firstNonNull(#{dataElemenA}, #{dataElemenB}, 0) * 2",
+        "greatest(#{dataElemenA}, #{dataElemenB}, #{dataElemenC})",
+        "least(#{dataElemenA}, #{dataElemenB}) + 1.5e1"
+      })
+  void testCompiledMatchesVisitor(String expression) {
+    for (Map<String, Object> values : VALUES) {
+      ExpressionParams params = params(values);
+
+      ExpressionState visitorState = new ExpressionState();
+      Object expected = Parser.visit(expression, visitor(params, visitorState));
+
+      CompiledExpression compiled = ExpressionCompiler.compile(expression, visitor(params));
+
+      if (compiled == null) {
+        continue; // Evaluated by the visitor
+      }
+
+      ExpressionState compiledState = new ExpressionState();
+      Object actual;
+
+      try {
+        actual =
+            TestDataElementItem.evaluateCompiled(compiled, params, constantMap, compiledState);
+      } catch (CompiledExpression.FallbackException ex) {
+        continue; // Evaluated by the visitor
+      }
+
+      String message = expression + " with " + values;
+      assertEquals(expected, actual, message);
+      assertEquals(visitorState.getItemsFound(), compiledState.getItemsFound(), message);
+      assertEquals(visitorState.getItemValuesFound(), compiledState.getItemValuesFound(), message);
+    }
+  }
+
+  @Test
+  void testCompileArithmetic() {
+    CompiledExpression compiled =
+        ExpressionCompiler.compile(
+            "#{dataElemenA} + #{dataElemenB} * #{dataElemenA}", visitor(params(Map.of())));
+
+    assertNotNull(compiled);
+    assertEquals(
+        List.of(new DimensionalItemId(DATA_ELEMENT, A), new DimensionalItemId(DATA_ELEMENT, B)),
+        compiled.getItemKeys());
+
+    ExpressionParams params = params(Map.of(A, 3d, B, 4d));
+    ExpressionState state = new ExpressionState();
+
+    assertEquals(
+        15d, TestDataElementItem.evaluateCompiled(compiled, params, constantMap, state));
+    assertEquals(3, state.getItemsFound());
+    assertEquals(3, state.getItemValuesFound());
+  }
+
+  @Test
+  void testDivisionByZeroFallsBack() {
+    CompiledExpression compiled =
+        ExpressionCompiler.compile("#{dataElemenA} / #{dataElemenB}", visitor(params(Map.of())));
+
+    assertNotNull(compiled);
+
+    ExpressionParams params = params(Map.of(A, 1d, B, 0d));
+
+    assertThrows(
+        CompiledExpression.FallbackException.class,
+        () ->
+            TestDataElementItem.evaluateCompiled(
+                compiled, params, constantMap, new ExpressionState()));
+  }
+
+  @Test
+  void testNotCompiled() {
+    ExpressionParams params = params(Map.of());
+
+    assertNull(ExpressionCompiler.compile("#{dataElemenA} and true", visitor(params)));
+    assertNull(ExpressionCompiler.compile("log(#{dataElemenA})", visitor(params)));
+    assertNull(ExpressionCompiler.compile("'text'", visitor(params)));
+    assertNull(ExpressionCompiler.compile("#{dataElemenA} +", visitor(params)));
+  }
+
+  // -------------------------------------------------------------------------
+  // Supportive methods
+  // -------------------------------------------------------------------------
+
+  private ExpressionParams params(Map<String, Object> values) {
+    Map<DimensionalItemId, DimensionalItemObject> itemMap = new HashMap<>();
+    Map<DimensionalItemObject, Object> valueMap = new HashMap<>();
+
+    for (String uid : List.of(A, B, C)) {
+      DataElement dataElement = new DataElement(uid);
+      dataElement.setUid(uid);
+
+      itemMap.put(new DimensionalItemId(DATA_ELEMENT, uid), dataElement);
+
+      if (values.containsKey(uid)) {
+        valueMap.put(dataElement, values.get(uid));
+      }
+    }
+
+    return ExpressionParams.builder().itemMap(itemMap).valueMap(valueMap).build();
+  }
+
+  private CommonExpressionVisitor visitor(ExpressionParams params) {
+    return visitor(params, new ExpressionState());
+  }
+
+  private CommonExpressionVisitor visitor(ExpressionParams params, ExpressionState state) {
+    return CommonExpressionVisitor.builder()
+        .constantMap(constantMap)
+        .itemMap(TestDataElementItem.ITEMS)
+        .itemMethod(ITEM_EVALUATE)
+        .params(params)
+        .state(state)
+        .build();
+  }
+}
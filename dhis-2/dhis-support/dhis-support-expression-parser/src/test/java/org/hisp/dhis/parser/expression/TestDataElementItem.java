@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.parser.expression;
+
+import static org.hisp.dhis.common.DimensionItemType.DATA_ELEMENT;
+import static org.hisp.dhis.parser.expression.ParserUtils.COMMON_EXPRESSION_ITEMS;
+import static org.hisp.dhis.parser.expression.antlr.ExpressionParser.ExprContext;
+import static org.hisp.dhis.parser.expression.antlr.ExpressionParser.HASH_BRACE;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.List;
+import java.util.Map;
+import org.hisp.dhis.common.DimensionalItemId;
+import org.hisp.dhis.common.DimensionalItemObject;
+import org.hisp.dhis.common.ValueType;
+import org.hisp.dhis.constant.Constant;
+import org.hisp.dhis.expression.ExpressionParams;
+
+/**
+ * Numeric data element item for testing expression evaluation, evaluated the way the expression
+ * service evaluates dimensional items.
+ */
+class TestDataElementItem implements CompilableExpressionItem {
+  /** The common expression items, plus data elements. */
+  static final Map<Integer, ExpressionItem> ITEMS =
+      ImmutableMap.<Integer, ExpressionItem>builder()
+          .putAll(COMMON_EXPRESSION_ITEMS)
+          .put(HASH_BRACE, new TestDataElementItem())
+          .build();
+
+  @Override
+  public Object getCompiledItemKey(ExprContext ctx, CommonExpressionVisitor visitor) {
+    return new DimensionalItemId(DATA_ELEMENT, ctx.uid0.getText());
+  }
+
+  @Override
+  public Object evaluate(ExprContext ctx, CommonExpressionVisitor visitor) {
+    DimensionalItemObject item =
+        visitor.getParams().getItemMap().get(getCompiledItemKey(ctx, visitor));
+
+    Object value = (item != null) ? visitor.getParams().getValueMap().get(item) : null;
+
+    return visitor.getState().handleNulls(value, ValueType.NUMBER);
+  }
+
+  /** Evaluates a compiled expression, resolving its item values from the params. */
+  static Object evaluateCompiled(
+      CompiledExpression compiled,
+      ExpressionParams params,
+      Map<String, Constant> constantMap,
+      ExpressionState state) {
+    List<Object> itemKeys = compiled.getItemKeys();
+
+    Object[] values = new Object[itemKeys.size()];
+    ValueType[] valueTypes = new ValueType[itemKeys.size()];
+
+    for (int i = 0; i < values.length; i++) {
+      DimensionalItemObject item = params.getItemMap().get(itemKeys.get(i));
+
+      values[i] = (item != null) ? params.getValueMap().get(item) : null;
+      valueTypes[i] = ValueType.NUMBER;
+    }
+
+    return compiled.evaluate(values, valueTypes, constantMap, state);
+  }
+}
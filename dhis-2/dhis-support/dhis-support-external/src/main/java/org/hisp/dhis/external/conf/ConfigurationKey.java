@@ -45,6 +45,12 @@ public enum ConfigurationKey {
   /** Session timeout in seconds. (default: 3600). */
   SYSTEM_SESSION_TIMEOUT("system.session.timeout", "3600", false),
 
+  /**
+   * Time in seconds for which verified HTTP Basic credentials are remembered, so that repeated
+   * requests by the same client skip password hashing, 0 disables. (default: 60).
+   */
+  SYSTEM_HTTP_BASIC_CREDENTIAL_CACHE_TTL("system.http_basic.credential_cache.ttl", "60", false),
+
   /** System monitoring URL. */
   SYSTEM_MONITORING_URL("system.monitoring.url"),
 
@@ -112,6 +118,12 @@ public enum ConfigurationKey {
   /** Sets 'hibernate.cache.use_query_cache'. (default: true) */
   USE_QUERY_CACHE("hibernate.cache.use_query_cache", "true", false),
 
+  /**
+   * Sets 'hibernate.jdbc.batch_size', the number of inserts and updates sent to the database in
+   * one JDBC batch. Inserts and updates are ordered by entity to make full use of it. (default: 50)
+   */
+  HIBERNATE_JDBC_BATCH_SIZE("hibernate.jdbc.batch_size", "50", false),
+
   /**
    * Sets 'hibernate.hbm2ddl.auto' (default: validate). This can be overridden by the same property
    * loaded by any class implementing {@link DhisConfigurationProvider} like {@link
@@ -334,6 +346,12 @@ public enum ConfigurationKey {
   META_DATA_SYNC_RETRY_TIME_FREQUENCY_MILLISEC(
       "metadata.sync.retry.time.frequency.millisec", "30000", false),
 
+  /**
+   * Number of metadata versions stored as deltas of their previous version before a full metadata
+   * snapshot is stored again, 0 stores only the first version in full. (default: 20)
+   */
+  METADATA_VERSION_CHECKPOINT_INTERVAL("metadata.version.checkpoint.interval", "20", false),
+
   /** EHCache replication host. */
   CLUSTER_HOSTNAME("cluster.hostname", "", false),
 
@@ -361,6 +379,21 @@ public enum ConfigurationKey {
   /** Enable redis cache. (default: false) */
   REDIS_ENABLED("redis.enabled", Constants.OFF, false),
 
+  /**
+   * Keep an in-process copy of Redis cache entries in front of Redis, invalidated across servers
+   * through Redis pub/sub. (default: on)
+   */
+  REDIS_NEAR_CACHE_ENABLED("redis.near_cache.enabled", Constants.ON, false),
+
+  /**
+   * Seconds an entry is kept in the in-process Redis near cache. Bounds staleness should an
+   * invalidation message be lost. (default: 60)
+   */
+  REDIS_NEAR_CACHE_TTL("redis.near_cache.ttl", "60", false),
+
+  /** Maximum number of entries per region in the in-process Redis near cache. (default: 10000) */
+  REDIS_NEAR_CACHE_MAX_SIZE("redis.near_cache.max_size", "10000", false),
+
   /**
    * Allows Flyway migrations to be run "out of order".
    *
@@ -377,9 +410,63 @@ public enum ConfigurationKey {
 
   PROGRAM_TEMPORARY_OWNERSHIP_TIMEOUT("tracker.temporary.ownership.timeout", "3", false),
 
+  /**
+   * Maximum number of threads running the tracker import preheat suppliers which can run
+   * concurrently with the importing thread. Each thread takes a connection from the main connection
+   * pool while the importing thread holds one, so at most connection.pool.max_size minus this
+   * number of imports use these threads at once, and the others run all suppliers on the importing
+   * thread. The main connection pool should therefore be well above this number. (default: 4)
+   */
+  TRACKER_PREHEAT_THREADS("tracker.preheat.threads", "4", false),
+
   /** Analytics server-side cache expiration in seconds. (default: 0) */
   ANALYTICS_CACHE_EXPIRATION("analytics.cache.expiration", "0"),
 
+  /**
+   * Maximum number of analytics queries of the most viewed dashboards to run again after the
+   * analytics tables were updated, so that their results are cached before users open the
+   * dashboards, 0 disables. (default: 0)
+   */
+  ANALYTICS_CACHE_WARM_QUERIES("analytics.cache.warm.queries", "0", false),
+
+  /** Number of most viewed dashboards for which the analytics cache is pre-warmed. (default: 20) */
+  ANALYTICS_CACHE_WARM_DASHBOARDS("analytics.cache.warm.dashboards", "20", false),
+
+  /** Number of threads used to pre-warm the analytics cache. (default: 2) */
+  ANALYTICS_CACHE_WARM_THREADS("analytics.cache.warm.threads", "2", false),
+
+  /** Maximum time in seconds spent pre-warming the analytics cache. (default: 600) */
+  ANALYTICS_CACHE_WARM_TIMEOUT("analytics.cache.warm.timeout", "600", false),
+
+  /**
+   * Seconds a request waits for an analytics response which is being computed by another request
+   * or server before running the query itself. (default: 120)
+   */
+  ANALYTICS_CACHE_SINGLE_FLIGHT_TIMEOUT("analytics.cache.single_flight.timeout", "120", false),
+
+  /**
+   * Maximum number of analytics queries running at the same time, 0 disables admission control
+   * and all further analytics.query limits. Further queries wait until a query completes.
+   * (default: 0)
+   */
+  ANALYTICS_QUERY_MAX_CONCURRENT("analytics.query.max_concurrent", "0", false),
+
+  /** Maximum number of analytics queries running at the same time per user. (default: 4) */
+  ANALYTICS_QUERY_MAX_CONCURRENT_PER_USER("analytics.query.max_concurrent_per_user", "4", false),
+
+  /**
+   * Maximum number of background analytics queries running at the same time, e.g. of API clients
+   * and data exchanges. The remaining capacity is reserved for interactive queries. (default: 8)
+   */
+  ANALYTICS_QUERY_MAX_CONCURRENT_BACKGROUND(
+      "analytics.query.max_concurrent_background", "8", false),
+
+  /** Seconds an analytics query waits to be started before it is rejected. (default: 60) */
+  ANALYTICS_QUERY_QUEUE_TIMEOUT("analytics.query.queue_timeout", "60", false),
+
+  /** Seconds after which the database cancels an analytics query, 0 for no limit. (default: 0) */
+  ANALYTICS_QUERY_TIMEOUT("analytics.query.timeout", "0", false),
+
   /** Use unlogged tables during analytics export. (default: off) */
   ANALYTICS_TABLE_UNLOGGED("analytics.table.unlogged", Constants.OFF),
 
@@ -470,6 +557,12 @@ public enum ConfigurationKey {
   /** AppHub api URL. (default: https://apps.dhis2.org/api). */
   APPHUB_API_URL("apphub.api.url", "https://apps.dhis2.org/api", false),
 
+  /**
+   * Maximum memory in megabytes used to hold files of installed apps and their compressed variants
+   * for serving, 0 disables the cache. (default: 64).
+   */
+  APP_ASSET_CACHE_SIZE("apps.asset_cache.size", "64", false),
+
   /**
    * Enable/disable changelog/history log of aggregate data values. <br>
    * (default: on)
@@ -624,6 +717,60 @@ public enum ConfigurationKey {
   /** Event hooks for system events. Enable or disable the feature. */
   EVENT_HOOKS_ENABLED("event_hooks.enabled", Constants.OFF, false),
 
+  /**
+   * Number of sequential values leased per text pattern and key by each node when reserving
+   * values. A value of 1 increments the counter in the database for every reservation. Larger
+   * values leave gaps in sequences, as leased values are skipped after a rollback or a node
+   * restart. (default: 1)
+   */
+  RESERVED_VALUE_SEQUENTIAL_BLOCK_SIZE("reservedvalue.sequential.block_size", "1", false),
+
+  /** Maximum number of concurrent SMTP connections used for sending email. (default: 4) */
+  EMAIL_SMTP_CONNECTIONS("email.smtp.connections", "4", false),
+
+  /**
+   * Maximum number of messages sent over a single SMTP connection before it is reopened. (default:
+   * 100)
+   */
+  EMAIL_SMTP_MESSAGES_PER_CONNECTION("email.smtp.messages_per_connection", "100", false),
+
+  /** Maximum number of email messages sent per second, 0 means no limit. (default: 0) */
+  EMAIL_SMTP_RATE_LIMIT("email.smtp.rate_limit", "0", false),
+
+  /** Number of threads processing incoming SMS on this node. (default: 4) */
+  SMS_INCOMING_WORKERS("sms.incoming.workers", "4", false),
+
+  /** Maximum number of incoming SMS claimed for processing at once by a node. (default: 100) */
+  SMS_INCOMING_BATCH_SIZE("sms.incoming.batch_size", "100", false),
+
+  /**
+   * Minutes after which incoming SMS claimed by a node but not yet processed, for instance because
+   * the node went down, may be claimed again. (default: 10)
+   */
+  SMS_INCOMING_CLAIM_TIMEOUT("sms.incoming.claim_timeout", "10", false),
+
+  /**
+   * Number of data statistics (usage analytics) events held in memory before being written to the
+   * database, 0 to write each event when it is recorded. (default: 10000)
+   */
+  DATA_STATISTICS_EVENT_BUFFER_SIZE("data_statistics.event_buffer.size", "10000", false),
+
+  /** Number of buffered data statistics events which triggers a write. (default: 500) */
+  DATA_STATISTICS_EVENT_FLUSH_SIZE("data_statistics.event_buffer.flush_size", "500", false),
+
+  /** Seconds after which buffered data statistics events are written. (default: 10) */
+  DATA_STATISTICS_EVENT_FLUSH_INTERVAL(
+      "data_statistics.event_buffer.flush_interval", "10", false),
+
+  /** Number of data integrity checks run in parallel. (default: 4) */
+  DATA_INTEGRITY_THREADS("data_integrity.threads", "4", false),
+
+  /**
+   * Maximum time in seconds a single data integrity check query may run, 0 for no limit. (default:
+   * 1800)
+   */
+  DATA_INTEGRITY_STATEMENT_TIMEOUT("data_integrity.statement_timeout", "1800", false),
+
   /** Linked accounts via OpenID mapping. Enable or disable the feature. */
   LINKED_ACCOUNTS_ENABLED("linked_accounts.enabled", Constants.OFF, false),
 
@@ -133,6 +133,9 @@ public class AnalyticsDataSourceConfig {
     JdbcTemplate jdbcTemplate =
         new JdbcTemplate(MoreObjects.firstNonNull(manager.getReadOnlyDataSource(), dataSource));
     jdbcTemplate.setFetchSize(1000);
+    // The driver asks the database to cancel queries running longer than the timeout
+    jdbcTemplate.setQueryTimeout(
+        Integer.parseInt(dhisConfig.getProperty(ConfigurationKey.ANALYTICS_QUERY_TIMEOUT)));
 
     return jdbcTemplate;
   }
@@ -27,6 +27,7 @@
  */
 package org.hisp.dhis.config;
 
+import static org.hisp.dhis.external.conf.ConfigurationKey.HIBERNATE_JDBC_BATCH_SIZE;
 import static org.hisp.dhis.external.conf.ConfigurationKey.USE_QUERY_CACHE;
 import static org.hisp.dhis.external.conf.ConfigurationKey.USE_SECOND_LEVEL_CACHE;
 
@@ -155,6 +156,13 @@ public class HibernateConfig {
       properties.put(AvailableSettings.USE_QUERY_CACHE, dhisConfig.getProperty(USE_QUERY_CACHE));
     }
 
+    // Batch inserts and updates, grouped by entity so that consecutive statements can share a batch
+    properties.put(
+        AvailableSettings.STATEMENT_BATCH_SIZE, dhisConfig.getProperty(HIBERNATE_JDBC_BATCH_SIZE));
+    properties.put(AvailableSettings.ORDER_INSERTS, "true");
+    properties.put(AvailableSettings.ORDER_UPDATES, "true");
+    properties.put(AvailableSettings.BATCH_VERSIONED_DATA, "true");
+
     // TODO: this is anti-pattern and should be turn off
     properties.put("hibernate.allow_update_outside_transaction", "true");
 
@@ -84,6 +84,8 @@ public class HibernateDbmsManager implements DbmsManager {
     emptyTable("smscommands");
     emptyTable("incomingsms");
 
+    emptyTable("dataintegrityresult");
+
     emptyTable("datavalueaudit");
     emptyTable("datavalue");
     emptyTable("completedatasetregistration");
@@ -27,6 +27,7 @@
  */
 package org.hisp.dhis.cache;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -44,9 +45,14 @@ public class DefaultCacheBuilderProvider implements CacheBuilderProvider {
 
   private RedisTemplate<String, ?> redisTemplate;
 
+  private RedisNearCacheBroker nearCacheBroker;
+
+  private MeterRegistry meterRegistry;
+
   @Override
   public <V> CacheBuilder<V> newCacheBuilder() {
-    return new ExtendedCacheBuilder<>(redisTemplate, configurationProvider);
+    return new ExtendedCacheBuilder<>(
+        redisTemplate, configurationProvider, nearCacheBroker, meterRegistry);
   }
 
   @Autowired
@@ -59,4 +65,14 @@ public class DefaultCacheBuilderProvider implements CacheBuilderProvider {
   public void setRedisTemplate(RedisTemplate<String, ?> redisTemplate) {
     this.redisTemplate = redisTemplate;
   }
+
+  @Autowired(required = false)
+  public void setNearCacheBroker(RedisNearCacheBroker nearCacheBroker) {
+    this.nearCacheBroker = nearCacheBroker;
+  }
+
+  @Autowired(required = false)
+  public void setMeterRegistry(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
 }
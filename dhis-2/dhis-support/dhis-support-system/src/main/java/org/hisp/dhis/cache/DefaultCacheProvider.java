@@ -27,7 +27,6 @@
  */
 package org.hisp.dhis.cache;
 
-import static java.util.concurrent.TimeUnit.HOURS;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.MINUTES;
 import static org.hisp.dhis.commons.util.SystemUtils.isEnableCacheInTest;
@@ -85,9 +84,12 @@ public class DefaultCacheProvider implements CacheProvider {
   @SuppressWarnings("squid:S115") // allow non enum-ish names
   private enum Region {
     analyticsResponse,
+    analyticsTile,
+    analyticsLease,
     defaultObjectCache,
     isDataApproved,
     allConstantsCache,
+    compiledExpressionCache,
     inUserOuHierarchy,
     isUserViewOuHierHierarchy,
     inUserSearchOuHierarchy,
@@ -127,8 +129,7 @@ public class DefaultCacheProvider implements CacheProvider {
     securityCache,
     runningJobsInfo,
     jobCancelRequested,
-    dataIntegritySummaryCache,
-    dataIntegrityDetailsCache
+    httpBasicCredentialCache
   }
 
   private final Map<String, Cache<?>> allCaches = new ConcurrentHashMap<>();
@@ -176,6 +177,16 @@ public class DefaultCacheProvider implements CacheProvider {
             .withMaximumSize(orZeroInTestRun(getActualSize(SIZE_10K))));
   }
 
+  /** Vector tiles of analytics queries, cached like analytics responses. */
+  @Override
+  public <V> Cache<V> createAnalyticsTileCache() {
+    return registerCache(
+        this.<V>newBuilder()
+            .forRegion(Region.analyticsTile.name())
+            .expireAfterWrite(12, TimeUnit.HOURS)
+            .withMaximumSize(orZeroInTestRun(getActualSize(SIZE_10K))));
+  }
+
   @Override
   public <V> Cache<V> createOutliersCache() {
     return registerCache(
@@ -185,6 +196,19 @@ public class DefaultCacheProvider implements CacheProvider {
             .withMaximumSize(orZeroInTestRun(getActualSize(SIZE_10K))));
   }
 
+  /**
+   * Leases electing the server which runs an analytics query missing from the shared analytics
+   * cache. They expire on their own should the server fail to release them.
+   */
+  @Override
+  public <V> Cache<V> createAnalyticsLeaseCache(Duration leaseTime) {
+    return registerCache(
+        this.<V>newBuilder()
+            .forRegion(Region.analyticsLease.name())
+            .expireAfterWrite(leaseTime.toMillis(), MILLISECONDS)
+            .withMaximumSize(orZeroInTestRun(getActualSize(SIZE_1K))));
+  }
+
   /**
    * Cache for default objects such as default category combination and default category option
    * combination which are permanent and will never change.
@@ -220,6 +244,21 @@ public class DefaultCacheProvider implements CacheProvider {
             .withMaximumSize(orZeroInTestRun(getActualSize(SIZE_1))));
   }
 
+  /**
+   * Cache for compiled expressions. These hold code rather than data, so they are always kept in
+   * memory.
+   */
+  @Override
+  public <V> Cache<V> createCompiledExpressionCache() {
+    return registerCache(
+        this.<V>newBuilder()
+            .forRegion(Region.compiledExpressionCache.name())
+            .expireAfterAccess(12, TimeUnit.HOURS)
+            .withInitialCapacity((int) getActualSize(SIZE_1K))
+            .forceInMemory()
+            .withMaximumSize(orZeroInTestRun(getActualSize(SIZE_10K))));
+  }
+
   @Override
   public <V> Cache<V> createInUserOrgUnitHierarchyCache() {
     return registerCache(
@@ -611,19 +650,17 @@ public class DefaultCacheProvider implements CacheProvider {
             .withMaximumSize(orZeroInTestRun(getActualSize(SIZE_1K))));
   }
 
+  /**
+   * Verified credentials are kept in memory only and never shared through a distributed cache;
+   * other servers are notified of changes through cache invalidation instead.
+   */
   @Override
-  public <V> Cache<V> createDataIntegritySummaryCache() {
-    return registerCache(
-        this.<V>newBuilder()
-            .forRegion(Region.dataIntegritySummaryCache.name())
-            .expireAfterWrite(1, HOURS));
-  }
-
-  @Override
-  public <V> Cache<V> createDataIntegrityDetailsCache() {
+  public <V> Cache<V> createHttpBasicCredentialCache(Duration expirationTime) {
     return registerCache(
         this.<V>newBuilder()
-            .forRegion(Region.dataIntegrityDetailsCache.name())
-            .expireAfterWrite(1, HOURS));
+            .forRegion(Region.httpBasicCredentialCache.name())
+            .expireAfterWrite(expirationTime.toMillis(), MILLISECONDS)
+            .forceInMemory()
+            .withMaximumSize(orZeroInTestRun(getActualSize(SIZE_10K))));
   }
 }
@@ -27,6 +27,7 @@
  */
 package org.hisp.dhis.cache;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.hisp.dhis.external.conf.ConfigurationKey;
 import org.hisp.dhis.external.conf.DhisConfigurationProvider;
@@ -45,12 +46,26 @@ public class ExtendedCacheBuilder<V> extends SimpleCacheBuilder<V> {
 
   private final RedisTemplate<String, ?> redisTemplate;
 
+  private final RedisNearCacheBroker nearCacheBroker;
+
+  private final MeterRegistry meterRegistry;
+
   private boolean forceInMemory;
 
   public ExtendedCacheBuilder(
       RedisTemplate<String, ?> redisTemplate, DhisConfigurationProvider configuration) {
+    this(redisTemplate, configuration, null, null);
+  }
+
+  public ExtendedCacheBuilder(
+      RedisTemplate<String, ?> redisTemplate,
+      DhisConfigurationProvider configuration,
+      RedisNearCacheBroker nearCacheBroker,
+      MeterRegistry meterRegistry) {
     this.configuration = configuration;
     this.redisTemplate = redisTemplate;
+    this.nearCacheBroker = nearCacheBroker;
+    this.meterRegistry = meterRegistry;
     this.forceInMemory = false;
   }
 
@@ -103,4 +118,27 @@ public class ExtendedCacheBuilder<V> extends SimpleCacheBuilder<V> {
   public RedisTemplate<String, ?> getRedisTemplate() {
     return redisTemplate;
   }
+
+  /**
+   * @return the broker keeping near caches coherent, or null if {@link RedisCache} instances
+   *     should not keep an in-process near cache.
+   */
+  public RedisNearCacheBroker getNearCacheBroker() {
+    return configuration.isEnabled(ConfigurationKey.REDIS_NEAR_CACHE_ENABLED)
+            && getNearCacheTtlInSeconds() > 0
+        ? nearCacheBroker
+        : null;
+  }
+
+  public long getNearCacheTtlInSeconds() {
+    return Long.parseLong(configuration.getProperty(ConfigurationKey.REDIS_NEAR_CACHE_TTL));
+  }
+
+  public long getNearCacheMaximumSize() {
+    return Long.parseLong(configuration.getProperty(ConfigurationKey.REDIS_NEAR_CACHE_MAX_SIZE));
+  }
+
+  public MeterRegistry getMeterRegistry() {
+    return meterRegistry;
+  }
 }
@@ -27,27 +27,61 @@
  */
 package org.hisp.dhis.cache;
 
-import static java.util.Collections.emptySet;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static java.util.stream.Collectors.toSet;
+import static org.hisp.dhis.monitoring.prometheus.config.PrometheusMonitoringConfig.REGION_TAG;
+import static org.hisp.dhis.monitoring.prometheus.config.PrometheusMonitoringConfig.STATUS_TAG;
 import static org.springframework.util.Assert.hasText;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Stream;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
 
 /**
  * A redis backed implementation of {@link Cache}. This implementation uses a shared redis cache
  * server for any number of instances.
  *
+ * <p>Values read from or written to redis are also kept in an in-process near cache for a short
+ * time, which is kept coherent across servers through {@link RedisNearCacheBroker}. The near cache
+ * holds the serialized values, so every read returns its own copy just like a read from redis.
+ * Caches which refresh the expiry on access have no near cache, as a near cache hit would not
+ * refresh the expiry in redis. Keys are prefixed with a per region generation counter so that
+ * invalidating a region only requires incrementing the counter instead of looking up all of its
+ * keys.
+ *
  * @author Ameen Mohamed
  */
 public class RedisCache<V> implements Cache<V> {
   private static final String VALUE_CANNOT_BE_NULL = "Value cannot be null";
 
+  /** Interval after which the region generation is re-read, should a message have been lost. */
+  private static final long GENERATION_REFRESH_MILLIS = 30_000;
+
+  private static final int SCAN_BATCH_SIZE = 1000;
+
+  /** Deletes a key only if it holds the given value, so that a lease is released by its owner. */
+  private static final String COMPARE_AND_DELETE =
+      "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) "
+          + "else return 0 end";
+
+  private static final RedisScript<Long> COMPARE_AND_DELETE_SCRIPT =
+      RedisScript.of(COMPARE_AND_DELETE, Long.class);
+
   private RedisTemplate<String, V> redisTemplate;
 
   private boolean refreshExpriryOnAccess;
@@ -60,6 +94,24 @@ public class RedisCache<V> implements Cache<V> {
 
   private boolean expiryEnabled;
 
+  private final byte[] generationKey;
+
+  private volatile long generation = -1;
+
+  private volatile long generationReadAt;
+
+  private final RedisSerializer<V> valueSerializer;
+
+  private final LocalCache<byte[]> nearCache;
+
+  private final RedisNearCacheBroker broker;
+
+  private final Counter nearHits;
+
+  private final Counter redisHits;
+
+  private final Counter misses;
+
   /**
    * Constructor for instantiating RedisCache.
    *
@@ -73,25 +125,54 @@ public class RedisCache<V> implements Cache<V> {
     this.cacheRegion = cacheBuilder.getRegion();
     this.defaultValue = cacheBuilder.getDefaultValue();
     this.expiryEnabled = cacheBuilder.isExpiryEnabled();
+    this.generationKey = (cacheRegion + "#generation").getBytes(UTF_8);
+    this.broker = cacheBuilder.getNearCacheBroker();
+    this.valueSerializer = (RedisSerializer<V>) redisTemplate.getValueSerializer();
+    this.nearCache =
+        broker == null || valueSerializer == null || expiryEnabled && refreshExpriryOnAccess
+            ? null
+            : createNearCache(cacheBuilder);
+
+    if (broker != null) {
+      broker.register(this);
+    }
+
+    MeterRegistry registry = cacheBuilder.getMeterRegistry();
+    this.nearHits = registry == null ? null : counter(registry, "near_hit");
+    this.redisHits = registry == null ? null : counter(registry, "redis_hit");
+    this.misses = registry == null ? null : counter(registry, "miss");
+  }
+
+  private LocalCache<byte[]> createNearCache(ExtendedCacheBuilder<V> cacheBuilder) {
+    long ttl = cacheBuilder.getNearCacheTtlInSeconds();
+
+    if (expiryEnabled) {
+      ttl = Math.min(ttl, expiryInSeconds);
+    }
+
+    return new LocalCache<>(
+        new SimpleCacheBuilder<byte[]>()
+            .forRegion(cacheRegion)
+            .expireAfterWrite(ttl, SECONDS)
+            .withMaximumSize(cacheBuilder.getNearCacheMaximumSize()));
+  }
+
+  private Counter counter(MeterRegistry registry, String result) {
+    return Counter.builder("dhis2.cache.redis.gets")
+        .description("Redis cache lookups by region and the tier which answered them")
+        .tag(REGION_TAG, cacheRegion)
+        .tag(STATUS_TAG, result)
+        .register(registry);
   }
 
   @Override
   public Optional<V> getIfPresent(String key) {
-    String redisKey = generateKey(key);
-    if (expiryEnabled && refreshExpriryOnAccess) {
-      redisTemplate.expire(redisKey, expiryInSeconds, SECONDS);
-    }
-    return Optional.ofNullable(redisTemplate.boundValueOps(redisKey).get());
+    return Optional.ofNullable(lookup(generateKey(key)));
   }
 
   @Override
   public Optional<V> get(String key) {
-    String redisKey = generateKey(key);
-    if (expiryEnabled && refreshExpriryOnAccess) {
-      redisTemplate.expire(redisKey, expiryInSeconds, SECONDS);
-    }
-    return Optional.ofNullable(
-        Optional.ofNullable(redisTemplate.boundValueOps(redisKey).get()).orElse(defaultValue));
+    return Optional.ofNullable(Optional.ofNullable(lookup(generateKey(key))).orElse(defaultValue));
   }
 
   @Override
@@ -100,33 +181,21 @@ public class RedisCache<V> implements Cache<V> {
       throw new IllegalArgumentException("MappingFunction cannot be null");
     }
 
-    String redisKey = generateKey(key);
+    V value = lookup(generateKey(key));
 
-    if (expiryEnabled && refreshExpriryOnAccess) {
-      redisTemplate.expire(redisKey, expiryInSeconds, SECONDS);
+    if (null != value) {
+      return value;
     }
 
-    V value = redisTemplate.boundValueOps(redisKey).get();
-
-    if (null == value) {
-      value = mappingFunction.apply(key);
-
-      if (null != value) {
-        if (expiryEnabled) {
-          redisTemplate.boundValueOps(redisKey).set(value, expiryInSeconds, SECONDS);
-        } else {
-          redisTemplate.boundValueOps(redisKey).set(value);
-        }
-      }
-    }
+    value = compute(key, mappingFunction);
 
     return Optional.ofNullable(value).orElse(defaultValue);
   }
 
   @Override
   public Stream<V> getAll() {
-    Set<String> keySet = redisTemplate.keys(getAllKeysInRegionPattern());
-    if (keySet == null) {
+    Set<String> keySet = scanKeys(generateKey("*"));
+    if (keySet.isEmpty()) {
       return Stream.empty();
     }
     List<V> values = redisTemplate.opsForValue().multiGet(keySet);
@@ -135,10 +204,10 @@ public class RedisCache<V> implements Cache<V> {
 
   @Override
   public Set<String> keys() {
-    var keys = redisTemplate.keys(getAllKeysInRegionPattern());
-    return keys == null
-        ? emptySet()
-        : keys.stream().map(key -> key.substring(key.indexOf(':') + 1)).collect(toSet());
+    int prefixLength = generateKey("").length();
+    return scanKeys(generateKey("*")).stream()
+        .map(key -> key.substring(prefixLength))
+        .collect(toSet());
   }
 
   @Override
@@ -153,6 +222,8 @@ public class RedisCache<V> implements Cache<V> {
     } else {
       redisTemplate.boundValueOps(redisKey).set(value);
     }
+    putNear(redisKey, value);
+    publishInvalidation(key);
   }
 
   @Override
@@ -162,6 +233,10 @@ public class RedisCache<V> implements Cache<V> {
     String redisKey = generateKey(key);
 
     redisTemplate.boundValueOps(redisKey).set(value, ttlInSeconds, SECONDS);
+
+    // The entry may expire before the near cache would drop it, so it is read from redis
+    evictNear(redisKey);
+    publishInvalidation(key);
   }
 
   @Override
@@ -172,34 +247,271 @@ public class RedisCache<V> implements Cache<V> {
     String redisKey = generateKey(key);
 
     var ops = redisTemplate.boundValueOps(redisKey);
+    boolean absent;
     if (expiryEnabled) {
-      return ops.setIfAbsent(value, expiryInSeconds, SECONDS) == Boolean.TRUE;
+      absent = ops.setIfAbsent(value, expiryInSeconds, SECONDS) == Boolean.TRUE;
     } else {
-      return ops.setIfAbsent(value) == Boolean.TRUE;
+      absent = ops.setIfAbsent(value) == Boolean.TRUE;
+    }
+    if (absent) {
+      putNear(redisKey, value);
+      publishInvalidation(key);
     }
+    return absent;
   }
 
   @Override
   public void invalidate(String key) {
-    redisTemplate.delete(generateKey(key));
+    String redisKey = generateKey(key);
+    redisTemplate.delete(redisKey);
+    evictNear(redisKey);
+    publishInvalidation(key);
   }
 
-  private String generateKey(String key) {
-    return cacheRegion.concat(":").concat(key);
-  }
+  @Override
+  public boolean invalidateIfEquals(String key, V value) {
+    String redisKey = generateKey(key);
+    Long deleted = redisTemplate.execute(COMPARE_AND_DELETE_SCRIPT, List.of(redisKey), value);
+
+    if (deleted == null || deleted == 0) {
+      return false;
+    }
 
-  private String getAllKeysInRegionPattern() {
-    return generateKey("*");
+    evictNear(redisKey);
+    publishInvalidation(key);
+    return true;
   }
 
+  /**
+   * Moves the region to a new generation, which makes all existing keys unreachable for every
+   * server at once. The keys of the previous generation are then removed incrementally using
+   * {@code SCAN} rather than a blocking {@code KEYS}.
+   */
   @Override
   public void invalidateAll() {
-    Set<String> keysToDelete = redisTemplate.keys(getAllKeysInRegionPattern());
-    redisTemplate.delete(keysToDelete);
+    String previousKeys = generateKey("*");
+    Long next =
+        redisTemplate.execute(
+            (RedisCallback<Long>) connection -> connection.stringCommands().incr(generationKey));
+
+    if (next == null) {
+      return;
+    }
+
+    // the incremented value is authoritative, it is lower than the known generation if the
+    // generation key was evicted or flushed in the meantime
+    setGeneration(next);
+
+    if (broker != null) {
+      broker.publishInvalidateAll(this, next);
+    }
+
+    scanKeys(previousKeys, batch -> redisTemplate.unlink(batch));
   }
 
   @Override
   public CacheType getCacheType() {
     return CacheType.REDIS;
   }
+
+  public String getRegion() {
+    return cacheRegion;
+  }
+
+  /**
+   * Drops the given key from the near cache. Called when another server, or another cache instance
+   * of the same region in this server, changed the key.
+   *
+   * @param key the cache key.
+   */
+  void evictNearCache(String key) {
+    evictNear(generateKey(key));
+  }
+
+  /**
+   * Switches to the given region generation, unless a later generation is already known, as the
+   * messages of concurrent invalidations may arrive out of order. Called when another server, or
+   * another cache instance of the same region in this server, invalidated the region. A lower
+   * generation after the generation key was reset is picked up by the next read from redis.
+   *
+   * @param next the new generation.
+   */
+  synchronized void updateGeneration(long next) {
+    if (next > generation) {
+      setGeneration(next);
+    }
+  }
+
+  /**
+   * Switches to the given region generation as read from redis. Any change of the value is a new
+   * generation, including a lower value after the generation key was evicted or flushed, so that
+   * all servers agree on the generation again once they have read it.
+   *
+   * @param current the generation held by redis.
+   */
+  private synchronized void setGeneration(long current) {
+    if (current != generation) {
+      generation = current;
+
+      if (nearCache != null) {
+        nearCache.invalidateAll();
+      }
+    }
+
+    generationReadAt = System.currentTimeMillis();
+  }
+
+  // -------------------------------------------------------------------------
+  // Supportive methods
+  // -------------------------------------------------------------------------
+
+  private V lookup(String redisKey) {
+    if (nearCache != null) {
+      Optional<byte[]> near = nearCache.getIfPresent(redisKey);
+
+      if (near.isPresent()) {
+        increment(nearHits);
+        return valueSerializer.deserialize(near.get());
+      }
+    }
+
+    V value = expiryEnabled && refreshExpriryOnAccess ? getAndExpire(redisKey) : getValue(redisKey);
+
+    if (value == null) {
+      increment(misses);
+    } else {
+      increment(redisHits);
+      putNear(redisKey, value);
+    }
+
+    return value;
+  }
+
+  /** Computes and stores the value of a key. */
+  private V compute(String key, Function<String, V> mappingFunction) {
+    String redisKey = generateKey(key);
+    V value = mappingFunction.apply(key);
+
+    if (null != value) {
+      if (expiryEnabled) {
+        redisTemplate.boundValueOps(redisKey).set(value, expiryInSeconds, SECONDS);
+      } else {
+        redisTemplate.boundValueOps(redisKey).set(value);
+      }
+
+      putNear(redisKey, value);
+    }
+
+    return value;
+  }
+
+  private V getValue(String redisKey) {
+    return redisTemplate.boundValueOps(redisKey).get();
+  }
+
+  /** Refreshes the expiry and reads the value in a single round trip. */
+  @SuppressWarnings("unchecked")
+  private V getAndExpire(String redisKey) {
+    byte[] rawKey = redisKey.getBytes(UTF_8);
+    List<Object> results =
+        redisTemplate.executePipelined(
+            (RedisCallback<Object>)
+                connection -> {
+                  connection.keyCommands().expire(rawKey, expiryInSeconds);
+                  connection.stringCommands().get(rawKey);
+                  return null;
+                });
+    return results.size() < 2 ? null : (V) results.get(1);
+  }
+
+  private void putNear(String redisKey, V value) {
+    if (nearCache != null) {
+      nearCache.put(redisKey, valueSerializer.serialize(value));
+    }
+  }
+
+  private void evictNear(String redisKey) {
+    if (nearCache != null) {
+      nearCache.invalidate(redisKey);
+    }
+  }
+
+  private void publishInvalidation(String key) {
+    if (broker != null) {
+      broker.publishInvalidation(this, key);
+    }
+  }
+
+  private static void increment(Counter counter) {
+    if (counter != null) {
+      counter.increment();
+    }
+  }
+
+  private long getGeneration() {
+    long now = System.currentTimeMillis();
+    if (generation < 0 || now - generationReadAt > GENERATION_REFRESH_MILLIS) {
+      Long current = redisTemplate.execute((RedisCallback<Long>) this::readGeneration);
+
+      if (current != null) {
+        setGeneration(current);
+      }
+    }
+    return generation;
+  }
+
+  /**
+   * Reads the region generation from redis. A missing generation key, as on first use or after it
+   * was evicted or flushed, is seeded with the generation following the known one, so that the
+   * keys of earlier generations stay unreachable, unless another server seeded it first.
+   */
+  private long readGeneration(RedisConnection connection) {
+    byte[] value = connection.stringCommands().get(generationKey);
+
+    if (value == null) {
+      byte[] seed = String.valueOf(generation + 1).getBytes(UTF_8);
+
+      if (!Boolean.TRUE.equals(connection.stringCommands().setNX(generationKey, seed))) {
+        value = connection.stringCommands().get(generationKey);
+      }
+
+      if (value == null) {
+        value = seed;
+      }
+    }
+
+    return Long.parseLong(new String(value, UTF_8));
+  }
+
+  private String generateKey(String key) {
+    return cacheRegion + ":" + getGeneration() + ":" + key;
+  }
+
+  private Set<String> scanKeys(String pattern) {
+    Set<String> keys = new HashSet<>();
+    scanKeys(pattern, keys::addAll);
+    return keys;
+  }
+
+  private void scanKeys(String pattern, Consumer<List<String>> consumer) {
+    ScanOptions options = ScanOptions.scanOptions().match(pattern).count(SCAN_BATCH_SIZE).build();
+    redisTemplate.execute(
+        (RedisCallback<Void>)
+            connection -> {
+              try (Cursor<byte[]> cursor = connection.keyCommands().scan(options)) {
+                List<String> batch = new ArrayList<>();
+                while (cursor.hasNext()) {
+                  batch.add(new String(cursor.next(), UTF_8));
+                  if (batch.size() == SCAN_BATCH_SIZE) {
+                    consumer.accept(batch);
+                    batch = new ArrayList<>();
+                  }
+                }
+                if (!batch.isEmpty()) {
+                  consumer.accept(batch);
+                }
+              }
+              return null;
+            });
+  }
 }
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.cache;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.hisp.dhis.common.CodeGenerator;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * Keeps the in-process near caches of {@link RedisCache} instances coherent across servers. Writes
+ * and invalidations are published on a Redis channel, and every other server drops the affected
+ * entries from its near cache when it receives the message.
+ *
+ * <p>Messages have the form {@code node|region|K|key} for a single key and {@code
+ * node|region|G|generation} when a whole region was invalidated. Messages published by this
+ * server are ignored, as the other cache instances of the region in this server are updated
+ * directly when publishing, and the publishing instance updates its own near cache.
+ */
+@Slf4j
+public class RedisNearCacheBroker implements MessageListener {
+  public static final String CHANNEL = "dhis2_near_cache";
+
+  private static final String SEPARATOR = "|";
+
+  private static final String KEY = "K";
+
+  private static final String GENERATION = "G";
+
+  private final String nodeId = CodeGenerator.generateUid();
+
+  private final Map<String, Set<RedisCache<?>>> caches = new ConcurrentHashMap<>();
+
+  private final StringRedisTemplate redisTemplate;
+
+  public RedisNearCacheBroker(StringRedisTemplate redisTemplate) {
+    this.redisTemplate = redisTemplate;
+  }
+
+  /**
+   * Registers a cache to receive invalidations for its region. Several cache instances may share a
+   * region, e.g. when a service builds the same cache more than once.
+   *
+   * @param cache the cache.
+   */
+  public void register(RedisCache<?> cache) {
+    caches.computeIfAbsent(cache.getRegion(), r -> new CopyOnWriteArraySet<>()).add(cache);
+  }
+
+  /**
+   * Publishes that the given key of the region of the cache was written or removed, and evicts the
+   * key from the other cache instances of the region in this server.
+   *
+   * @param source the cache which changed the key.
+   * @param key the cache key.
+   */
+  public void publishInvalidation(RedisCache<?> source, String key) {
+    siblings(source).forEach(cache -> cache.evictNearCache(key));
+    publish(String.join(SEPARATOR, nodeId, source.getRegion(), KEY, key));
+  }
+
+  /**
+   * Publishes that all keys of the region of the cache were invalidated by moving to the given
+   * generation, and moves the other cache instances of the region in this server to it.
+   *
+   * @param source the cache which invalidated the region.
+   * @param generation the new generation of the region.
+   */
+  public void publishInvalidateAll(RedisCache<?> source, long generation) {
+    siblings(source).forEach(cache -> cache.updateGeneration(generation));
+    publish(
+        String.join(
+            SEPARATOR, nodeId, source.getRegion(), GENERATION, String.valueOf(generation)));
+  }
+
+  @Override
+  public void onMessage(Message message, byte[] pattern) {
+    String[] parts = new String(message.getBody(), UTF_8).split("\\|", 4);
+
+    if (parts.length != 4 || nodeId.equals(parts[0])) {
+      return;
+    }
+
+    Set<RedisCache<?>> regionCaches = caches.get(parts[1]);
+
+    if (regionCaches == null) {
+      return;
+    }
+
+    if (KEY.equals(parts[2])) {
+      regionCaches.forEach(cache -> cache.evictNearCache(parts[3]));
+    } else if (GENERATION.equals(parts[2])) {
+      long generation = Long.parseLong(parts[3]);
+      regionCaches.forEach(cache -> cache.updateGeneration(generation));
+    }
+  }
+
+  /** Returns the other cache instances registered for the region of the given cache. */
+  private Stream<RedisCache<?>> siblings(RedisCache<?> source) {
+    return caches.getOrDefault(source.getRegion(), Set.of()).stream()
+        .filter(cache -> cache != source);
+  }
+
+  private void publish(String message) {
+    try {
+      redisTemplate.convertAndSend(CHANNEL, message);
+    } catch (RuntimeException ex) {
+      // Near caches elsewhere expire on their own, losing a message only delays coherence
+      log.warn("Failed to publish near cache invalidation: {}", ex.getMessage());
+    }
+  }
+}
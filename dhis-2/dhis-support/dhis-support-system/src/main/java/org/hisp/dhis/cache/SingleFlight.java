@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.cache;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import io.micrometer.core.instrument.Counter;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.hisp.dhis.common.CodeGenerator;
+
+/**
+ * Collapses concurrent computations of the same value, typically on a cache miss, so that only one
+ * computation runs per key while the other callers wait for its result.
+ *
+ * <p>Within the JVM callers share a future per key. Across servers a {@link Lease} stored in the
+ * shared cache elects the server which computes the value, and the other servers poll the shared
+ * cache until the value appears. Callers which do not get a result within the timeout, or whose
+ * leader failed, compute the value themselves.
+ *
+ * @param <V> the value type.
+ */
+@Slf4j
+public class SingleFlight<V> {
+  private static final long MIN_POLL_MILLIS = 50;
+
+  private static final long MAX_POLL_MILLIS = 1_000;
+
+  private static final String NODE_ID = CodeGenerator.generateUid();
+
+  private final ConcurrentMap<String, CompletableFuture<V>> flights = new ConcurrentHashMap<>();
+
+  private final long timeoutMillis;
+
+  private final Counter collapsed;
+
+  /**
+   * @param timeoutMillis the maximum time to wait for a computation by another caller.
+   * @param collapsed counter of requests served by another caller's computation, may be null.
+   */
+  public SingleFlight(long timeoutMillis, Counter collapsed) {
+    this.timeoutMillis = timeoutMillis;
+    this.collapsed = collapsed;
+  }
+
+  /**
+   * Returns the value computed by the loader, running it only if no other thread of this JVM is
+   * computing the value for the same key already.
+   *
+   * @param key the key of the value.
+   * @param loader computes the value.
+   * @return the value.
+   */
+  public V execute(String key, Supplier<V> loader) {
+    CompletableFuture<V> flight = new CompletableFuture<>();
+    CompletableFuture<V> leader = flights.putIfAbsent(key, flight);
+
+    if (leader == null) {
+      try {
+        V value = loader.get();
+        flight.complete(value);
+        return value;
+      } catch (RuntimeException | Error ex) {
+        flight.completeExceptionally(ex);
+        throw ex;
+      } finally {
+        flights.remove(key, flight);
+      }
+    }
+
+    try {
+      V value = leader.get(timeoutMillis, MILLISECONDS);
+      increment();
+      return value;
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new CancellationException("Interrupted while waiting for: " + key);
+    } catch (ExecutionException | TimeoutException ex) {
+      log.debug("Computing '{}' after waiting for another request failed: {}", key, ex.toString());
+      return loader.get();
+    }
+  }
+
+  /**
+   * Like {@link #execute(String, Supplier)}, but also collapses computations across servers. The
+   * server which acquires the lease runs the loader, which must put the value into the shared
+   * cache, the others poll the shared cache until the value appears or the lease is released.
+   *
+   * @param key the key of the value.
+   * @param lease the lease shared between servers.
+   * @param lookup reads the value from the shared cache.
+   * @param loader computes the value and puts it into the shared cache.
+   * @return the value.
+   */
+  public V execute(
+      String key, Lease lease, Function<String, Optional<V>> lookup, Supplier<V> loader) {
+    return execute(
+        key,
+        () -> {
+          if (lease.tryAcquire(key)) {
+            try {
+              return loader.get();
+            } finally {
+              lease.release(key);
+            }
+          }
+
+          Optional<V> value = awaitRemote(key, lease, lookup);
+
+          if (value.isPresent()) {
+            increment();
+            return value.get();
+          }
+
+          return loader.get();
+        });
+  }
+
+  private Optional<V> awaitRemote(String key, Lease lease, Function<String, Optional<V>> lookup) {
+    long deadline = System.currentTimeMillis() + timeoutMillis;
+    long pollMillis = MIN_POLL_MILLIS;
+
+    try {
+      while (System.currentTimeMillis() < deadline) {
+        Thread.sleep(pollMillis);
+
+        Optional<V> value = lookup.apply(key);
+
+        if (value.isPresent() || !lease.isHeld(key)) {
+          return value.isPresent() ? value : lookup.apply(key);
+        }
+
+        pollMillis = Math.min(pollMillis * 2, MAX_POLL_MILLIS);
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new CancellationException("Interrupted while waiting for: " + key);
+    }
+
+    log.debug("Computing '{}' after waiting {} ms for another server", key, timeoutMillis);
+    return Optional.empty();
+  }
+
+  /**
+   * Returns a new token identifying a single acquisition of a {@link Lease}, made of an identifier
+   * of this JVM and a random UUID.
+   *
+   * @return the lease token.
+   */
+  public static String newLeaseToken() {
+    return NODE_ID + ":" + UUID.randomUUID();
+  }
+
+  private void increment() {
+    if (collapsed != null) {
+      collapsed.increment();
+    }
+  }
+
+  /** A lease held by at most one server at a time, which expires on its own. */
+  public interface Lease {
+    /**
+     * @param key the key of the value.
+     * @return true if the lease was acquired, false if another server holds it.
+     */
+    boolean tryAcquire(String key);
+
+    /**
+     * @param key the key of the value.
+     * @return true if any server holds the lease.
+     */
+    boolean isHeld(String key);
+
+    /**
+     * Releases the lease if it is still held by this acquirer, leaving a lease acquired by another
+     * server after this one expired untouched.
+     *
+     * @param key the key of the value.
+     */
+    void release(String key);
+  }
+}
@@ -27,6 +27,7 @@
  */
 package org.hisp.dhis.configuration;
 
+import org.hisp.dhis.cache.RedisNearCacheBroker;
 import org.hisp.dhis.condition.RedisEnabledCondition;
 import org.hisp.dhis.external.conf.ConfigurationKey;
 import org.hisp.dhis.external.conf.ConfigurationPropertyFactoryBean;
@@ -41,6 +42,8 @@ import org.springframework.data.redis.connection.lettuce.LettuceClientConfigurat
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 /**
@@ -101,4 +104,18 @@ public class RedisConfiguration {
     stringRedisTemplate.setConnectionFactory(lettuceConnectionFactory());
     return stringRedisTemplate;
   }
+
+  @Bean
+  public RedisNearCacheBroker redisNearCacheBroker() {
+    return new RedisNearCacheBroker(stringRedisTemplate());
+  }
+
+  @Bean
+  public RedisMessageListenerContainer redisNearCacheListenerContainer() {
+    RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+    container.setConnectionFactory(lettuceConnectionFactory());
+    container.addMessageListener(
+        redisNearCacheBroker(), new ChannelTopic(RedisNearCacheBroker.CHANNEL));
+    return container;
+  }
 }
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.monitoring.metrics;
+
+import static org.hisp.dhis.monitoring.prometheus.config.PrometheusMonitoringConfig.PHASE_TAG;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.function.Supplier;
+import org.hisp.dhis.monitoring.prometheus.config.PrometheusMonitoringConfig;
+
+/**
+ * Records the duration of the phases of an operation, such as the stages of an import, in a single
+ * timer metric with one time series per phase. Phase names must be constants so that the number of
+ * time series stays bounded; the tags of application meters are additionally capped by the meter
+ * filters of {@link PrometheusMonitoringConfig}.
+ *
+ * <p>Instances are cheap and can be created per operation, the meters are registered once by the
+ * registry.
+ */
+public class PhaseTimer {
+  private final MeterRegistry registry;
+
+  private final String name;
+
+  /**
+   * @param registry the meter registry.
+   * @param name the name of the timer, starting with {@link
+   *     PrometheusMonitoringConfig#APP_METER_PREFIX}.
+   */
+  public PhaseTimer(MeterRegistry registry, String name) {
+    this.registry = registry;
+    this.name = name;
+  }
+
+  /**
+   * Runs the given supplier and records its duration for the given phase.
+   *
+   * @param phase the phase name.
+   * @param supplier the phase to run.
+   * @return the result of the supplier.
+   */
+  public <T> T record(String phase, Supplier<T> supplier) {
+    return timer(phase).record(supplier);
+  }
+
+  /**
+   * Runs the given runnable and records its duration for the given phase.
+   *
+   * @param phase the phase name.
+   * @param runnable the phase to run.
+   */
+  public void record(String phase, Runnable runnable) {
+    timer(phase).record(runnable);
+  }
+
+  /**
+   * Returns the timer of the given phase.
+   *
+   * @param phase the phase name.
+   * @return the {@link Timer}.
+   */
+  public Timer timer(String phase) {
+    return Timer.builder(name).tag(PHASE_TAG, phase).register(registry);
+  }
+}
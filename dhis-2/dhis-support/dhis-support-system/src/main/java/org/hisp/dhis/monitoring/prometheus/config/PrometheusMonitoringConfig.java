@@ -28,9 +28,15 @@
 package org.hisp.dhis.monitoring.prometheus.config;
 
 import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
 import io.micrometer.prometheus.PrometheusConfig;
 import io.micrometer.prometheus.PrometheusMeterRegistry;
 import io.prometheus.client.CollectorRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -39,6 +45,30 @@ import org.springframework.context.annotation.Configuration;
  */
 @Configuration
 public class PrometheusMonitoringConfig {
+  /** Prefix of the meters recording application hot paths, such as import and analytics stages. */
+  public static final String APP_METER_PREFIX = "dhis2.";
+
+  /** Tag of application timers holding the phase or stage of an operation. */
+  public static final String PHASE_TAG = "phase";
+
+  /** Tag of application meters holding the type of object or table involved. */
+  public static final String TYPE_TAG = "type";
+
+  /** Tag of application meters holding the outcome of an operation. */
+  public static final String STATUS_TAG = "status";
+
+  /** Tag of application meters holding the cache region involved. */
+  public static final String REGION_TAG = "region";
+
+  /** Tag of application meters holding the priority of a query. */
+  public static final String PRIORITY_TAG = "priority";
+
+  /**
+   * Maximum number of distinct values of each tag of the application meters. Meters with further
+   * values are not recorded, so a tag fed with unexpected values cannot create unbounded series.
+   */
+  static final int MAX_TAG_VALUES = 256;
+
   @Bean
   public Clock micrometerClock() {
     return Clock.SYSTEM;
@@ -57,11 +87,51 @@ public class PrometheusMonitoringConfig {
   @Bean
   public PrometheusMeterRegistry prometheusMeterRegistry(
       PrometheusConfig prometheusConfig, CollectorRegistry collectorRegistry, Clock clock) {
-    return new PrometheusMeterRegistry(prometheusConfig, collectorRegistry, clock);
+    PrometheusMeterRegistry registry =
+        new PrometheusMeterRegistry(prometheusConfig, collectorRegistry, clock);
+    appMeterFilters().forEach(registry.config()::meterFilter);
+    return registry;
   }
 
   @Bean
   public CollectorRegistry collectorRegistry() {
     return new CollectorRegistry(true);
   }
+
+  /**
+   * Returns the meter filters of the application meters. Each of the known tags is capped at {@link
+   * #MAX_TAG_VALUES} values, and timers publish a histogram so that percentiles can be aggregated
+   * across servers.
+   *
+   * @return the list of {@link MeterFilter}.
+   */
+  static List<MeterFilter> appMeterFilters() {
+    List<MeterFilter> filters = new ArrayList<>();
+
+    for (String tag : List.of(PHASE_TAG, TYPE_TAG, STATUS_TAG, REGION_TAG, PRIORITY_TAG)) {
+      filters.add(
+          MeterFilter.maximumAllowableTags(
+              APP_METER_PREFIX, tag, MAX_TAG_VALUES, MeterFilter.deny()));
+    }
+
+    filters.add(
+        new MeterFilter() {
+          @Override
+          public DistributionStatisticConfig configure(
+              Meter.Id id, DistributionStatisticConfig config) {
+            if (id.getType() != Meter.Type.TIMER || !id.getName().startsWith(APP_METER_PREFIX)) {
+              return config;
+            }
+
+            return DistributionStatisticConfig.builder()
+                .percentilesHistogram(true)
+                .minimumExpectedValue((double) Duration.ofMillis(1).toNanos())
+                .maximumExpectedValue((double) Duration.ofMinutes(10).toNanos())
+                .build()
+                .merge(config);
+          }
+        });
+
+    return filters;
+  }
 }
@@ -52,6 +52,18 @@ public abstract class AbstractStartupRoutine implements StartupRoutine {
     this.skipInTests = skipInTests;
   }
 
+  private boolean runConcurrently = false;
+
+  public void setRunConcurrently(boolean runConcurrently) {
+    this.runConcurrently = runConcurrently;
+  }
+
+  private boolean runOncePerCluster = false;
+
+  public void setRunOncePerCluster(boolean runOncePerCluster) {
+    this.runOncePerCluster = runOncePerCluster;
+  }
+
   // -------------------------------------------------------------------------
   // StartupRoutine implementation
   // -------------------------------------------------------------------------
@@ -70,4 +82,14 @@ public abstract class AbstractStartupRoutine implements StartupRoutine {
   public boolean skipInTests() {
     return skipInTests;
   }
+
+  @Override
+  public boolean runConcurrently() {
+    return runConcurrently;
+  }
+
+  @Override
+  public boolean runOncePerCluster() {
+    return runOncePerCluster;
+  }
 }
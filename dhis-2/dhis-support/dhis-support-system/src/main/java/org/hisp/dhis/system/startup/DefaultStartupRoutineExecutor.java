@@ -27,10 +27,31 @@
  */
 package org.hisp.dhis.system.startup;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import lombok.extern.slf4j.Slf4j;
 import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.hisp.dhis.system.startup.StartupRoutineTiming.Outcome;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 
 /**
@@ -38,6 +59,12 @@ import org.springframework.stereotype.Component;
  * StartupRoutines ordered by their run levels. Startup routines can be ignored from the command
  * line by appending the below. <code>-Ddhis.skip.startup=true</code>
  *
+ * <p>Routines of the same runlevel which declare {@link StartupRoutine#runConcurrently()} are
+ * executed in parallel once the sequential routines of that runlevel are done. Routines which
+ * declare {@link StartupRoutine#runOncePerCluster()} are executed under a Postgres advisory lock,
+ * waiting for the lock if another node holds it and skipping the routine if that node completed it
+ * for the same build. Without build information, such routines are always executed under the lock.
+ *
  * @author <a href="mailto:torgeilo@gmail.com">Torgeir Lorange Ostby</a>
  */
 @Slf4j
@@ -47,11 +74,26 @@ public class DefaultStartupRoutineExecutor implements StartupRoutineExecutor {
 
   private static final String SKIP_PROP = "dhis.skip.startup";
 
+  /** Advisory lock class identifier, combined with the routine name hash to form the lock key. */
+  private static final int LOCK_CLASS_ID = 730121;
+
+  private static final int MAX_THREADS = 4;
+
   @Autowired private DhisConfigurationProvider config;
 
+  @Autowired private JdbcTemplate jdbcTemplate;
+
   @Autowired(required = false)
   private List<StartupRoutine> startupRoutines;
 
+  private final List<StartupRoutineTiming> timings = new CopyOnWriteArrayList<>();
+
+  /**
+   * Build for which the completion of once-per-cluster routines is recorded, or null if the build
+   * is not known, in which case completions are neither recorded nor looked up.
+   */
+  private final String revision = loadBuildRevision();
+
   // -------------------------------------------------------------------------
   // Execute
   // -------------------------------------------------------------------------
@@ -66,6 +108,11 @@ public class DefaultStartupRoutineExecutor implements StartupRoutineExecutor {
     execute(true);
   }
 
+  @Override
+  public List<StartupRoutineTiming> getStartupTimings() {
+    return List.copyOf(timings);
+  }
+
   private void execute(boolean testing) throws Exception {
     if (startupRoutines == null || startupRoutines.isEmpty()) {
       log.debug("No startup routines found");
@@ -82,29 +129,221 @@ public class DefaultStartupRoutineExecutor implements StartupRoutineExecutor {
       return;
     }
 
-    startupRoutines.sort(new StartupRoutineComparator());
-
-    int total = startupRoutines.size();
-    int index = 1;
+    Map<Integer, List<StartupRoutine>> runlevels = new TreeMap<>();
 
     for (StartupRoutine routine : startupRoutines) {
       if (!(testing && routine.skipInTests())) {
-        log.info(
-            "Executing startup routine ["
-                + index
-                + " of "
-                + total
-                + ", runlevel "
-                + routine.getRunlevel()
-                + "]: "
-                + routine.getName());
+        runlevels.computeIfAbsent(routine.getRunlevel(), k -> new ArrayList<>()).add(routine);
+      }
+    }
+
+    int total = runlevels.values().stream().mapToInt(List::size).sum();
+    AtomicInteger index = new AtomicInteger(1);
+    long start = System.currentTimeMillis();
+
+    for (List<StartupRoutine> routines : runlevels.values()) {
+      List<StartupRoutine> concurrent = new ArrayList<>();
+
+      for (StartupRoutine routine : routines) {
+        if (routine.runConcurrently()) {
+          concurrent.add(routine);
+        } else {
+          execute(routine, index.getAndIncrement(), total, testing);
+        }
+      }
+
+      executeConcurrently(concurrent, index, total, testing);
+    }
+
+    log.info("All startup routines done in " + (System.currentTimeMillis() - start) + " ms");
+  }
+
+  /**
+   * Executes the given routines in parallel on a bounded thread pool, and waits for all of them to
+   * complete. The first failure is rethrown.
+   */
+  private void executeConcurrently(
+      List<StartupRoutine> routines, AtomicInteger index, int total, boolean testing)
+      throws Exception {
+    if (routines.size() <= 1) {
+      for (StartupRoutine routine : routines) {
+        execute(routine, index.getAndIncrement(), total, testing);
+      }
+      return;
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(Math.min(routines.size(), MAX_THREADS));
+
+    try {
+      List<Future<Void>> futures = new ArrayList<>();
+
+      for (StartupRoutine routine : routines) {
+        int position = index.getAndIncrement();
+        futures.add(
+            executor.submit(
+                () -> {
+                  execute(routine, position, total, testing);
+                  return null;
+                }));
+      }
+
+      for (Future<Void> future : futures) {
+        future.get();
+      }
+    } catch (ExecutionException ex) {
+      throw ex.getCause() instanceof Exception cause ? cause : ex;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
 
+  private void execute(StartupRoutine routine, int index, int total, boolean testing)
+      throws Exception {
+    log.info(
+        "Executing startup routine ["
+            + index
+            + " of "
+            + total
+            + ", runlevel "
+            + routine.getRunlevel()
+            + "]: "
+            + routine.getName());
+
+    Date started = new Date();
+    Outcome outcome = Outcome.FAILED;
+
+    try {
+      if (routine.runOncePerCluster() && !testing) {
+        outcome = executeWithClusterLock(routine);
+      } else {
         routine.execute();
+        outcome = Outcome.EXECUTED;
+      }
+    } finally {
+      long duration = System.currentTimeMillis() - started.getTime();
+
+      timings.add(
+          StartupRoutineTiming.builder()
+              .name(routine.getName())
+              .runlevel(routine.getRunlevel())
+              .concurrent(routine.runConcurrently())
+              .outcome(outcome)
+              .started(started)
+              .durationMillis(duration)
+              .build());
+
+      log.info("Startup routine " + routine.getName() + " " + outcome + " in " + duration + " ms");
+    }
+  }
+
+  /**
+   * Executes the given routine while holding a session level advisory lock on a single
+   * connection. If another node holds the lock, this node blocks until the lock is released, so
+   * that startup never proceeds before the routine has completed. The waiting node then skips the
+   * routine if its completion for the current build has been recorded, and executes it otherwise,
+   * for instance when the other node failed or when the build is not known.
+   */
+  private Outcome executeWithClusterLock(StartupRoutine routine) {
+    String name = routine.getName() != null ? routine.getName() : routine.getClass().getName();
+    int key = name.hashCode();
+
+    return jdbcTemplate.execute(
+        (ConnectionCallback<Outcome>)
+            connection -> {
+              Outcome outcome = Outcome.EXECUTED;
+
+              if (!advisoryLock(connection, "select pg_try_advisory_lock(?, ?)", key)) {
+                log.info("Waiting for startup routine " + name + " to be executed by another node");
+                advisoryLock(connection, "select pg_advisory_lock(?, ?)", key);
+                outcome = Outcome.WAITED_CLUSTER;
+              }
+
+              try {
+                if (revision != null
+                    && outcome == Outcome.WAITED_CLUSTER
+                    && isCompleted(connection, name)) {
+                  return Outcome.SKIPPED_CLUSTER;
+                }
+
+                routine.execute();
+
+                if (revision != null) {
+                  recordCompletion(connection, name);
+                }
+
+                return outcome;
+              } catch (RuntimeException ex) {
+                throw ex;
+              } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+              } finally {
+                advisoryLock(connection, "select pg_advisory_unlock(?, ?)", key);
+              }
+            });
+  }
+
+  private boolean isCompleted(Connection connection, String name) throws SQLException {
+    String sql = "select 1 from startuproutineexecution where name = ? and revision = ?";
+
+    try (PreparedStatement statement = connection.prepareStatement(sql)) {
+      statement.setString(1, name);
+      statement.setString(2, revision);
+
+      try (ResultSet rs = statement.executeQuery()) {
+        return rs.next();
+      }
+    }
+  }
+
+  private void recordCompletion(Connection connection, String name) throws SQLException {
+    String sql =
+        "insert into startuproutineexecution (name, revision, executed) values (?, ?, now()) "
+            + "on conflict (name, revision) do update set executed = excluded.executed";
+
+    try (PreparedStatement statement = connection.prepareStatement(sql)) {
+      statement.setString(1, name);
+      statement.setString(2, revision);
+      statement.executeUpdate();
+    }
+  }
+
+  private boolean advisoryLock(Connection connection, String sql, int key) throws SQLException {
+    try (PreparedStatement statement = connection.prepareStatement(sql)) {
+      statement.setInt(1, LOCK_CLASS_ID);
+      statement.setInt(2, key);
+
+      try (ResultSet rs = statement.executeQuery()) {
+        return rs.next() && rs.getObject(1) instanceof Boolean result && result;
+      }
+    }
+  }
+
+  /**
+   * Identifies the build by its version, revision and build time, so that every build records its
+   * own completions even if the revision could not be determined when it was built.
+   *
+   * @return the build identifier, or null if build.properties is not available.
+   */
+  private static String loadBuildRevision() {
+    ClassPathResource resource = new ClassPathResource("build.properties");
+
+    if (resource.isReadable()) {
+      try (InputStream in = resource.getInputStream()) {
+        Properties properties = new Properties();
+        properties.load(in);
+        String version = properties.getProperty("build.version");
+        String buildTime = properties.getProperty("build.time");
 
-        ++index;
+        if (version != null && buildTime != null) {
+          return version + "-" + properties.getProperty("build.revision", "") + "-" + buildTime;
+        }
+      } catch (IOException ex) {
+        log.warn("Failed to read build.properties", ex);
       }
     }
 
-    log.info("All startup routines done");
+    log.warn(
+        "Build is not known, startup routines executed once per cluster will not be skipped");
+    return null;
   }
 }
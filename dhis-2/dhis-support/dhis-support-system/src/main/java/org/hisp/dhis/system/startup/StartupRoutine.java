@@ -65,4 +65,26 @@ public interface StartupRoutine {
    * @return true if this StartupRoutine is skipped in tests, false otherwise.
    */
   boolean skipInTests();
+
+  /**
+   * Returns whether this StartupRoutine declares no conflict with other concurrent
+   * StartupRoutines of the same runlevel, and hence can be executed in parallel with them.
+   *
+   * @return true if this StartupRoutine can run concurrently, false otherwise.
+   */
+  default boolean runConcurrently() {
+    return false;
+  }
+
+  /**
+   * Returns whether this StartupRoutine must not be executed by several nodes of the cluster at
+   * the same time. Such routines are executed under a database advisory lock, and nodes which fail
+   * to obtain the lock wait for it before executing the routine, so that no node proceeds before
+   * the routine has completed. The routine must hence be idempotent.
+   *
+   * @return true if this StartupRoutine is serialized across the cluster, false otherwise.
+   */
+  default boolean runOncePerCluster() {
+    return false;
+  }
 }
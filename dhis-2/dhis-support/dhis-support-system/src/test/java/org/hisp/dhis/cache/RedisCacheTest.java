@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.cache;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hisp.dhis.monitoring.prometheus.config.PrometheusMonitoringConfig.REGION_TAG;
+import static org.hisp.dhis.monitoring.prometheus.config.PrometheusMonitoringConfig.STATUS_TAG;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisKeyCommands;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.BoundValueOperations;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class RedisCacheTest {
+  @Mock private RedisTemplate<String, String> redisTemplate;
+
+  @Mock private StringRedisTemplate stringRedisTemplate;
+
+  @Mock private DhisConfigurationProvider configuration;
+
+  @Mock private RedisConnection connection;
+
+  @Mock private RedisStringCommands stringCommands;
+
+  @Mock private BoundValueOperations<String, String> valueOps;
+
+  private final MeterRegistry registry = new SimpleMeterRegistry();
+
+  private RedisNearCacheBroker broker;
+
+  private RedisCache<String> cache;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    when(configuration.isEnabled(ConfigurationKey.REDIS_NEAR_CACHE_ENABLED)).thenReturn(true);
+    when(configuration.getProperty(ConfigurationKey.REDIS_NEAR_CACHE_TTL)).thenReturn("60");
+    when(configuration.getProperty(ConfigurationKey.REDIS_NEAR_CACHE_MAX_SIZE)).thenReturn("100");
+    when(redisTemplate.execute(any(RedisCallback.class)))
+        .thenAnswer(
+            invocation -> invocation.<RedisCallback<?>>getArgument(0).doInRedis(connection));
+    when(connection.stringCommands()).thenReturn(stringCommands);
+    doReturn(RedisSerializer.string()).when(redisTemplate).getValueSerializer();
+    lenient().when(redisTemplate.boundValueOps("test:0:a")).thenReturn(valueOps);
+    lenient().when(valueOps.get()).thenReturn("value");
+
+    broker = new RedisNearCacheBroker(stringRedisTemplate);
+
+    cache = createCache();
+  }
+
+  private RedisCache<String> createCache() {
+    return new RedisCache<>(createBuilder());
+  }
+
+  private ExtendedCacheBuilder<String> createBuilder() {
+    ExtendedCacheBuilder<String> builder =
+        new ExtendedCacheBuilder<>(redisTemplate, configuration, broker, registry);
+    builder.forRegion("test");
+    return builder;
+  }
+
+  @Test
+  void testRepeatedGetIsServedFromNearCache() {
+    assertEquals("value", cache.get("a").orElse(null));
+    assertEquals("value", cache.get("a").orElse(null));
+
+    verify(valueOps, times(1)).get();
+    assertEquals(1, count("redis_hit"));
+    assertEquals(1, count("near_hit"));
+  }
+
+  @Test
+  void testNearCacheReturnsCopies() {
+    assertNotSame(cache.get("a").orElse(null), cache.get("a").orElse(null));
+
+    verify(valueOps, times(1)).get();
+  }
+
+  @Test
+  void testWriteEvictsNearCacheOfOtherInstanceOfRegion() {
+    RedisCache<String> other = createCache();
+
+    other.get("a");
+    cache.put("a", "changed");
+    other.get("a");
+
+    verify(valueOps, times(2)).get();
+  }
+
+  @Test
+  void testInvalidationFromOtherServerEvictsNearCache() {
+    cache.get("a");
+    broker.onMessage(new DefaultMessage(new byte[0], "other|test|K|a".getBytes(UTF_8)), null);
+    cache.get("a");
+
+    verify(valueOps, times(2)).get();
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testInvalidateIfEqualsKeepsNearCacheWhenValueDiffers() {
+    when(redisTemplate.execute(any(RedisScript.class), eq(List.of("test:0:a")), eq("value")))
+        .thenReturn(0L, 1L);
+
+    cache.get("a");
+    assertFalse(cache.invalidateIfEquals("a", "value"));
+    cache.get("a");
+    assertTrue(cache.invalidateIfEquals("a", "value"));
+    cache.get("a");
+
+    verify(valueOps, times(2)).get();
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testMissIsComputedAndStored() {
+    BoundValueOperations<String, String> missingOps = mock(BoundValueOperations.class);
+    when(redisTemplate.boundValueOps("test:0:b")).thenReturn(missingOps);
+
+    assertEquals("loaded", cache.get("b", key -> "loaded"));
+    assertEquals("loaded", cache.get("b", key -> "computed again"));
+
+    verify(missingOps).set("loaded");
+    verify(missingOps, times(1)).get();
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testInvalidateAllMovesToNextGeneration() {
+    RedisKeyCommands keyCommands = mock(RedisKeyCommands.class);
+    Cursor<byte[]> cursor = mock(Cursor.class);
+    when(connection.keyCommands()).thenReturn(keyCommands);
+    when(keyCommands.scan(any(ScanOptions.class))).thenReturn(cursor);
+    when(stringCommands.incr("test#generation".getBytes(UTF_8))).thenReturn(1L);
+    when(redisTemplate.boundValueOps("test:1:a")).thenReturn(valueOps);
+
+    cache.get("a");
+    cache.invalidateAll();
+
+    assertEquals("value", cache.get("a").orElse(null));
+    verify(redisTemplate).boundValueOps("test:1:a");
+    verify(redisTemplate, never()).keys(any());
+  }
+
+  @Test
+  void testInvalidateAllFollowsGenerationLowerThanKnownOne() {
+    RedisKeyCommands keyCommands = mock(RedisKeyCommands.class);
+    Cursor<byte[]> cursor = mock(Cursor.class);
+    when(connection.keyCommands()).thenReturn(keyCommands);
+    when(keyCommands.scan(any(ScanOptions.class))).thenReturn(cursor);
+    when(stringCommands.get("test#generation".getBytes(UTF_8))).thenReturn("5".getBytes(UTF_8));
+    when(stringCommands.incr("test#generation".getBytes(UTF_8))).thenReturn(1L);
+    when(redisTemplate.boundValueOps("test:5:a")).thenReturn(valueOps);
+    when(redisTemplate.boundValueOps("test:1:a")).thenReturn(valueOps);
+
+    cache.get("a");
+    cache.invalidateAll();
+
+    assertEquals("value", cache.get("a").orElse(null));
+    verify(redisTemplate).boundValueOps("test:1:a");
+  }
+
+  @Test
+  void testMissingGenerationIsSeededPastKnownOne() {
+    byte[] generationKey = "test#generation".getBytes(UTF_8);
+    when(stringCommands.get(generationKey)).thenReturn("5".getBytes(UTF_8), (byte[]) null);
+    when(stringCommands.setNX(generationKey, "6".getBytes(UTF_8))).thenReturn(true);
+    when(redisTemplate.boundValueOps("test:5:a")).thenReturn(valueOps);
+    when(redisTemplate.boundValueOps("test:6:a")).thenReturn(valueOps);
+
+    cache.get("a");
+    ReflectionTestUtils.setField(cache, "generationReadAt", 0L);
+
+    assertEquals("value", cache.get("a").orElse(null));
+    verify(redisTemplate).boundValueOps("test:6:a");
+    verify(valueOps, times(2)).get();
+  }
+
+  private double count(String result) {
+    return registry
+        .get("dhis2.cache.redis.gets")
+        .tag(REGION_TAG, "test")
+        .tag(STATUS_TAG, result)
+        .counter()
+        .count();
+  }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTest {
+  private final Counter collapsed = Counter.builder("test").register(new SimpleMeterRegistry());
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+  private final AtomicInteger loads = new AtomicInteger();
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void testConcurrentCallersShareOneComputation() throws Exception {
+    SingleFlight<String> singleFlight = new SingleFlight<>(10_000, collapsed);
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+
+    Future<String> leader =
+        executor.submit(() -> singleFlight.execute("key", () -> load(started, release)));
+    started.await();
+
+    List<Future<String>> followers = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      followers.add(executor.submit(() -> singleFlight.execute("key", () -> load(null, null))));
+    }
+    Thread.sleep(200);
+    release.countDown();
+
+    assertEquals("value", leader.get(5, TimeUnit.SECONDS));
+    for (Future<String> follower : followers) {
+      assertEquals("value", follower.get(5, TimeUnit.SECONDS));
+    }
+    assertEquals(1, loads.get());
+    assertEquals(3, collapsed.count());
+  }
+
+  @Test
+  void testWaitingCallerComputesAfterTimeout() throws Exception {
+    SingleFlight<String> singleFlight = new SingleFlight<>(50, collapsed);
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+
+    Future<String> leader =
+        executor.submit(() -> singleFlight.execute("key", () -> load(started, release)));
+    started.await();
+
+    assertEquals("value", singleFlight.execute("key", () -> load(null, null)));
+    release.countDown();
+    assertEquals("value", leader.get(5, TimeUnit.SECONDS));
+    assertEquals(2, loads.get());
+    assertEquals(0, collapsed.count());
+  }
+
+  @Test
+  void testValueComputedByOtherServerIsUsed() {
+    SingleFlight<String> singleFlight = new SingleFlight<>(10_000, collapsed);
+    AtomicInteger lookups = new AtomicInteger();
+
+    SingleFlight.Lease lease =
+        new SingleFlight.Lease() {
+          @Override
+          public boolean tryAcquire(String key) {
+            return false;
+          }
+
+          @Override
+          public boolean isHeld(String key) {
+            return true;
+          }
+
+          @Override
+          public void release(String key) {}
+        };
+
+    String value =
+        singleFlight.execute(
+            "key",
+            lease,
+            key -> lookups.incrementAndGet() < 3 ? Optional.empty() : Optional.of("remote"),
+            () -> load(null, null));
+
+    assertEquals("remote", value);
+    assertEquals(0, loads.get());
+    assertEquals(1, collapsed.count());
+  }
+
+  private String load(CountDownLatch started, CountDownLatch release) {
+    loads.incrementAndGet();
+    if (started != null) {
+      started.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    return "value";
+  }
+}
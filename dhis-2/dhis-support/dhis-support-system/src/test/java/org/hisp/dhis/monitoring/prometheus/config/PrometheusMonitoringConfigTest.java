@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.monitoring.prometheus.config;
+
+import static org.hisp.dhis.monitoring.prometheus.config.PrometheusMonitoringConfig.MAX_TAG_VALUES;
+import static org.hisp.dhis.monitoring.prometheus.config.PrometheusMonitoringConfig.PHASE_TAG;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hisp.dhis.monitoring.metrics.PhaseTimer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PrometheusMonitoringConfigTest {
+  private SimpleMeterRegistry registry;
+
+  @BeforeEach
+  void setUp() {
+    registry = new SimpleMeterRegistry();
+    PrometheusMonitoringConfig.appMeterFilters().forEach(registry.config()::meterFilter);
+  }
+
+  @Test
+  void testPhaseTimerRecordsPerPhase() {
+    PhaseTimer timer = new PhaseTimer(registry, "dhis2.test.import");
+
+    assertEquals("result", timer.record("preheat", () -> "result"));
+    timer.record("commit", () -> {});
+    timer.record("commit", () -> {});
+
+    assertEquals(1, registry.get("dhis2.test.import").tag(PHASE_TAG, "preheat").timer().count());
+    assertEquals(2, registry.get("dhis2.test.import").tag(PHASE_TAG, "commit").timer().count());
+  }
+
+  @Test
+  void testTagValuesAreCapped() {
+    for (int i = 0; i < MAX_TAG_VALUES + 10; i++) {
+      Counter.builder("dhis2.test.objects").tag(PHASE_TAG, "phase" + i).register(registry);
+    }
+
+    assertEquals(MAX_TAG_VALUES, registry.find("dhis2.test.objects").counters().size());
+  }
+
+  @Test
+  void testOtherMetersAreNotCapped() {
+    for (int i = 0; i < MAX_TAG_VALUES + 10; i++) {
+      Counter.builder("jvm.test.objects").tag(PHASE_TAG, "phase" + i).register(registry);
+    }
+
+    assertTrue(registry.find("jvm.test.objects").counters().size() > MAX_TAG_VALUES);
+  }
+}
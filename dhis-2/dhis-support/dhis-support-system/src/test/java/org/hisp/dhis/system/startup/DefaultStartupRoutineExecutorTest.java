@@ -0,0 +1,268 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.system.startup;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.hisp.dhis.system.startup.StartupRoutineTiming.Outcome;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/** Unit tests for {@link DefaultStartupRoutineExecutor}. */
+@ExtendWith(MockitoExtension.class)
+class DefaultStartupRoutineExecutorTest {
+
+  @Mock private DhisConfigurationProvider config;
+
+  @Mock private JdbcTemplate jdbcTemplate;
+
+  @Mock private Connection connection;
+
+  @Mock private PreparedStatement statement;
+
+  @Mock private ResultSet resultSet;
+
+  @InjectMocks private DefaultStartupRoutineExecutor executor;
+
+  private final List<String> executed = new ArrayList<>();
+
+  @Test
+  void testExecuteInRunlevelOrder() throws Exception {
+    setRoutines(routine("C", 3, false), routine("A", 1, false), routine("B", 2, false));
+
+    executor.executeForTesting();
+
+    assertEquals(List.of("A", "B", "C"), executed);
+    assertEquals(3, executor.getStartupTimings().size());
+    assertTrue(
+        executor.getStartupTimings().stream().allMatch(t -> t.getOutcome() == Outcome.EXECUTED));
+  }
+
+  @Test
+  void testExecuteConcurrentRoutinesInParallel() throws Exception {
+    CountDownLatch latch = new CountDownLatch(2);
+
+    setRoutines(
+        routine("A", 1, false),
+        latchRoutine("B", latch),
+        latchRoutine("C", latch),
+        routine("D", 3, false));
+
+    executor.executeForTesting();
+
+    assertEquals("A", executed.get(0));
+    assertEquals("D", executed.get(3));
+    assertEquals(4, executor.getStartupTimings().size());
+  }
+
+  @Test
+  void testExecuteConcurrentRoutineFailure() {
+    AbstractStartupRoutine failing =
+        new AbstractStartupRoutine() {
+          @Override
+          public void execute() {
+            throw new IllegalStateException("Failed");
+          }
+        };
+    failing.setRunlevel(1);
+    failing.setRunConcurrently(true);
+
+    setRoutines(failing, routine("B", 1, true));
+
+    assertThrows(IllegalStateException.class, () -> executor.executeForTesting());
+    assertTrue(
+        executor.getStartupTimings().stream().anyMatch(t -> t.getOutcome() == Outcome.FAILED));
+  }
+
+  @Test
+  void testExecuteOncePerClusterWaitsForLock() throws Exception {
+    mockConnection(false, false);
+    AbstractStartupRoutine routine = routine("A", 1, false);
+    routine.setRunOncePerCluster(true);
+    setRoutines(routine);
+
+    executor.execute();
+
+    assertEquals(List.of("A"), executed);
+    assertEquals(Outcome.WAITED_CLUSTER, executor.getStartupTimings().get(0).getOutcome());
+    InOrder inOrder = inOrder(connection);
+    inOrder.verify(connection).prepareStatement("select pg_try_advisory_lock(?, ?)");
+    inOrder.verify(connection).prepareStatement("select pg_advisory_lock(?, ?)");
+    inOrder.verify(connection).prepareStatement(startsWith("select 1 from"));
+    inOrder.verify(connection).prepareStatement(startsWith("insert into startuproutineexecution"));
+    inOrder.verify(connection).prepareStatement("select pg_advisory_unlock(?, ?)");
+  }
+
+  @Test
+  void testExecuteOncePerClusterSkipsRoutineCompletedByOtherNode() throws Exception {
+    mockConnection(false, true);
+    AbstractStartupRoutine routine = routine("A", 1, false);
+    routine.setRunOncePerCluster(true);
+    setRoutines(routine);
+
+    executor.execute();
+
+    assertTrue(executed.isEmpty());
+    assertEquals(Outcome.SKIPPED_CLUSTER, executor.getStartupTimings().get(0).getOutcome());
+    verify(connection, never()).prepareStatement(startsWith("insert into"));
+    verify(connection).prepareStatement("select pg_advisory_unlock(?, ?)");
+  }
+
+  @Test
+  void testExecuteOncePerClusterWithoutName() throws Exception {
+    mockConnection(true, false);
+    AbstractStartupRoutine routine = routine("A", 1, false);
+    routine.setName(null);
+    routine.setRunOncePerCluster(true);
+    setRoutines(routine);
+
+    executor.execute();
+
+    assertEquals(List.of("A"), executed);
+    verify(statement).setString(1, routine.getClass().getName());
+    verify(statement, atLeastOnce()).setInt(2, routine.getClass().getName().hashCode());
+  }
+
+  @Test
+  void testExecuteOncePerClusterWithFreeLock() throws Exception {
+    mockConnection(true, false);
+    AbstractStartupRoutine routine = routine("A", 1, false);
+    routine.setRunOncePerCluster(true);
+    setRoutines(routine);
+
+    executor.execute();
+
+    assertEquals(List.of("A"), executed);
+    assertEquals(Outcome.EXECUTED, executor.getStartupTimings().get(0).getOutcome());
+    verify(connection, never()).prepareStatement("select pg_advisory_lock(?, ?)");
+    verify(connection, never()).prepareStatement(startsWith("select 1 from"));
+    verify(connection).prepareStatement(startsWith("insert into startuproutineexecution"));
+    verify(connection).prepareStatement("select pg_advisory_unlock(?, ?)");
+  }
+
+  @Test
+  void testExecuteOncePerClusterWithoutBuildAlwaysExecutes() throws Exception {
+    mockConnection(false, true);
+    ReflectionTestUtils.setField(executor, "revision", null);
+    AbstractStartupRoutine routine = routine("A", 1, false);
+    routine.setRunOncePerCluster(true);
+    setRoutines(routine);
+
+    executor.execute();
+
+    assertEquals(List.of("A"), executed);
+    assertEquals(Outcome.WAITED_CLUSTER, executor.getStartupTimings().get(0).getOutcome());
+    verify(connection).prepareStatement("select pg_advisory_lock(?, ?)");
+    verify(connection, never()).prepareStatement(startsWith("select 1 from"));
+    verify(connection, never()).prepareStatement(startsWith("insert into"));
+    verify(connection).prepareStatement("select pg_advisory_unlock(?, ?)");
+  }
+
+  /**
+   * Mocks a connection on which the advisory try lock returns the given result, and on which the
+   * completion of the routine by another node is recorded or not, for a known build.
+   */
+  private void mockConnection(boolean lockAvailable, boolean completed) throws SQLException {
+    ReflectionTestUtils.setField(executor, "revision", "2.41-abc1234-2026-10-19 08:00:00");
+    when(jdbcTemplate.execute(any(ConnectionCallback.class)))
+        .thenAnswer(
+            invocation ->
+                invocation.getArgument(0, ConnectionCallback.class).doInConnection(connection));
+    when(connection.prepareStatement(anyString())).thenReturn(statement);
+    when(statement.executeQuery()).thenReturn(resultSet);
+    // Lock results in between the completion lookup of a waiting node
+    when(resultSet.next()).thenReturn(true, true, completed, true);
+    when(resultSet.getObject(1)).thenReturn(lockAvailable, true);
+  }
+
+  private void setRoutines(StartupRoutine... routines) {
+    when(config.isReadOnlyMode()).thenReturn(false);
+    ReflectionTestUtils.setField(executor, "startupRoutines", new ArrayList<>(List.of(routines)));
+  }
+
+  private AbstractStartupRoutine routine(String name, int runlevel, boolean concurrent) {
+    AbstractStartupRoutine routine =
+        new AbstractStartupRoutine() {
+          @Override
+          public void execute() {
+            synchronized (executed) {
+              executed.add(name);
+            }
+          }
+        };
+    routine.setName(name);
+    routine.setRunlevel(runlevel);
+    routine.setRunConcurrently(concurrent);
+    return routine;
+  }
+
+  /** Routine which only completes once all routines sharing the latch are running. */
+  private AbstractStartupRoutine latchRoutine(String name, CountDownLatch latch) {
+    AbstractStartupRoutine routine =
+        new AbstractStartupRoutine() {
+          @Override
+          public void execute() throws Exception {
+            latch.countDown();
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+            synchronized (executed) {
+              executed.add(name);
+            }
+          }
+        };
+    routine.setName(name);
+    routine.setRunlevel(2);
+    routine.setRunConcurrently(true);
+    return routine;
+  }
+}
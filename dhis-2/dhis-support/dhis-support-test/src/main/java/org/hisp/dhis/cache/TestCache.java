@@ -91,6 +91,11 @@ public class TestCache<V> implements Cache<V> {
     mapCache.remove(key);
   }
 
+  @Override
+  public boolean invalidateIfEquals(String key, V value) {
+    return mapCache.remove(key, value);
+  }
+
   @Override
   public void invalidateAll() {
     mapCache = new HashMap<>();
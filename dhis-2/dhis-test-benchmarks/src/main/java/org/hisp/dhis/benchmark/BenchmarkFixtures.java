@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.benchmark;
+
+import static org.mockito.Mockito.mock;
+
+import java.util.HashSet;
+import java.util.Set;
+import javax.persistence.EntityManagerFactory;
+import org.hisp.dhis.common.CodeGenerator;
+import org.hisp.dhis.schema.DefaultPropertyIntrospectorService;
+import org.hisp.dhis.schema.DefaultSchemaService;
+import org.hisp.dhis.schema.SchemaService;
+import org.hisp.dhis.schema.introspection.JacksonPropertyIntrospector;
+import org.hisp.dhis.user.User;
+import org.hisp.dhis.user.UserGroup;
+import org.hisp.dhis.user.UserRole;
+
+/**
+ * Synthetic fixtures shared by the benchmarks. Services are wired the way the unit tests wire them,
+ * without a database or Spring context.
+ */
+public final class BenchmarkFixtures {
+  private BenchmarkFixtures() {}
+
+  /**
+   * Creates a schema service which introspects the metadata classes. The entity manager factory is
+   * only used for persisted properties, which the benchmarks do not depend on.
+   */
+  public static SchemaService schemaService() {
+    return new DefaultSchemaService(
+        new DefaultPropertyIntrospectorService(new JacksonPropertyIntrospector()),
+        mock(EntityManagerFactory.class));
+  }
+
+  /**
+   * Creates a user with a single role granting the given authorities, and member of the given
+   * number of user groups.
+   *
+   * @param groupCount the number of user groups.
+   * @param authorities the authorities of the user role.
+   * @return the user.
+   */
+  public static User user(int groupCount, String... authorities) {
+    UserRole role = new UserRole();
+    role.setAutoFields();
+    role.setName("Benchmark role");
+    role.setAuthorities(Set.of(authorities));
+
+    Set<UserGroup> groups = new HashSet<>();
+
+    for (int i = 0; i < groupCount; i++) {
+      UserGroup group = new UserGroup("Benchmark group " + i);
+      group.setAutoFields();
+      groups.add(group);
+    }
+
+    User user = new User();
+    user.setAutoFields();
+    user.setUsername("benchmark");
+    user.setUserRoles(Set.of(role));
+    user.setGroups(groups);
+    return user;
+  }
+
+  /** Returns a new random UID. */
+  public static String uid() {
+    return CodeGenerator.generateUid();
+  }
+}
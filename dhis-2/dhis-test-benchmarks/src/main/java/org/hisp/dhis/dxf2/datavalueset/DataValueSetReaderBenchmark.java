@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.dxf2.datavalueset;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+import org.hisp.dhis.benchmark.BenchmarkFixtures;
+import org.hisp.dhis.commons.jackson.config.JacksonObjectMapperConfig;
+import org.hisp.staxwax.factory.XMLFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures parsing a data value set payload with {@link JsonDataValueSetReader} and {@link
+ * XmlDataValueSetReader}, reading the fields the import reads for every data value.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataValueSetReaderBenchmark {
+  @Param({"1000", "50000"})
+  public int dataValues;
+
+  private final ObjectMapper jsonMapper = JacksonObjectMapperConfig.jsonMapper;
+
+  private byte[] json;
+
+  private byte[] xml;
+
+  @Setup
+  public void setUp() {
+    String dataSet = BenchmarkFixtures.uid();
+    String[] dataElements = uids(50);
+    String[] orgUnits = uids(200);
+    String optionCombo = BenchmarkFixtures.uid();
+
+    StringBuilder jsonValues = new StringBuilder();
+    StringBuilder xmlValues = new StringBuilder();
+
+    for (int i = 0; i < dataValues; i++) {
+      String dataElement = dataElements[i % dataElements.length];
+      String orgUnit = orgUnits[i / dataElements.length % orgUnits.length];
+      String period = "2023" + String.format("%02d", i % 12 + 1);
+
+      jsonValues
+          .append(i == 0 ? "" : ",")
+          .append(
+              String.format(
+                  "{\"dataElement\":\"%s\",\"period\":\"%s\",\"orgUnit\":\"%s\","
+                      + "\"categoryOptionCombo\":\"%s\",\"value\":\"%d\","
+                      + "\"storedBy\":\"admin\",\"followup\":false}",
+                  dataElement, period, orgUnit, optionCombo, i));
+      xmlValues.append(
+          String.format(
+              "<dataValue dataElement=\"%s\" period=\"%s\" orgUnit=\"%s\""
+                  + " categoryOptionCombo=\"%s\" value=\"%d\" storedBy=\"admin\"/>",
+              dataElement, period, orgUnit, optionCombo, i));
+    }
+
+    json =
+        ("{\"dataSet\":\"" + dataSet + "\",\"dataValues\":[" + jsonValues + "]}").getBytes(UTF_8);
+    xml =
+        ("<dataValueSet xmlns=\"http://dhis2.org/schema/dxf/2.0\" dataSet=\""
+                + dataSet
+                + "\">"
+                + xmlValues
+                + "</dataValueSet>")
+            .getBytes(UTF_8);
+  }
+
+  @Benchmark
+  public void json(Blackhole blackhole) {
+    try (DataValueSetReader reader =
+        new JsonDataValueSetReader(new ByteArrayInputStream(json), jsonMapper)) {
+      DataValueSet dataValueSet = reader.readHeader();
+      blackhole.consume(dataValueSet.getDataSet());
+
+      for (DataValueEntry entry : dataValueSet.getDataValues()) {
+        consume(entry, blackhole);
+      }
+    }
+  }
+
+  @Benchmark
+  public void xml(Blackhole blackhole) {
+    try (DataValueSetReader reader =
+        new XmlDataValueSetReader(XMLFactory.getXMLReader(new ByteArrayInputStream(xml)))) {
+      blackhole.consume(reader.readHeader().getDataSet());
+
+      for (DataValueEntry entry = reader.readNext(); entry != null; entry = reader.readNext()) {
+        consume(entry, blackhole);
+      }
+    }
+  }
+
+  private static void consume(DataValueEntry entry, Blackhole blackhole) {
+    blackhole.consume(entry.getDataElement());
+    blackhole.consume(entry.getPeriod());
+    blackhole.consume(entry.getOrgUnit());
+    blackhole.consume(entry.getCategoryOptionCombo());
+    blackhole.consume(entry.getValue());
+    blackhole.consume(entry.getStoredBy());
+  }
+
+  private static String[] uids(int count) {
+    String[] uids = new String[count];
+
+    for (int i = 0; i < count; i++) {
+      uids[i] = BenchmarkFixtures.uid();
+    }
+
+    return uids;
+  }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.expression;
+
+import static org.hisp.dhis.common.DimensionItemType.DATA_ELEMENT;
+import static org.hisp.dhis.expression.MissingValueStrategy.NEVER_SKIP;
+import static org.hisp.dhis.expression.ParseType.INDICATOR_EXPRESSION;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.hisp.dhis.cache.Cache;
+import org.hisp.dhis.cache.CacheProvider;
+import org.hisp.dhis.cache.NoOpCache;
+import org.hisp.dhis.cache.SimpleCacheBuilder;
+import org.hisp.dhis.common.DimensionService;
+import org.hisp.dhis.common.DimensionalItemId;
+import org.hisp.dhis.common.DimensionalItemObject;
+import org.hisp.dhis.common.IdentifiableObjectManager;
+import org.hisp.dhis.constant.Constant;
+import org.hisp.dhis.constant.ConstantService;
+import org.hisp.dhis.dataelement.DataElement;
+import org.hisp.dhis.hibernate.HibernateGenericStore;
+import org.hisp.dhis.i18n.I18nManager;
+import org.hisp.dhis.jdbc.StatementBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link DefaultExpressionService#getExpressionValue(ExpressionParams)} for indicator
+ * expressions, with the compiled expression cache enabled and disabled.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExpressionServiceBenchmark {
+  @Param({
+    "#{dataElemenA} + #{dataElemenB} * 2 - #{dataElemenC}",
+    "if(#{dataElemenA} > #{dataElemenB}, #{dataElemenA} - #{dataElemenB}, 0) * [days]",
+    "firstNonNull(#{dataElemenA}, #{dataElemenB}, 0) / (#{dataElemenC} + C{xxxxxxxxx05})"
+  })
+  public String expression;
+
+  @Param({"true", "false"})
+  public boolean cached;
+
+  private ExpressionService expressionService;
+
+  private ExpressionParams params;
+
+  @Setup
+  @SuppressWarnings("unchecked")
+  public void setUp() {
+    ConstantService constantService = mock(ConstantService.class);
+    when(constantService.getConstantMap())
+        .thenReturn(Map.of("xxxxxxxxx05", new Constant("Five", 5d)));
+
+    CacheProvider cacheProvider = mock(CacheProvider.class);
+    when(cacheProvider.createAllConstantsCache()).thenReturn(cache("allConstantsCache"));
+    when(cacheProvider.createCompiledExpressionCache())
+        .thenReturn(cache("compiledExpressionCache"));
+
+    expressionService =
+        new DefaultExpressionService(
+            mock(HibernateGenericStore.class),
+            constantService,
+            mock(DimensionService.class),
+            mock(IdentifiableObjectManager.class),
+            mock(StatementBuilder.class),
+            mock(I18nManager.class),
+            cacheProvider);
+
+    Map<DimensionalItemId, DimensionalItemObject> itemMap = new HashMap<>();
+    Map<DimensionalItemObject, Object> valueMap = new HashMap<>();
+
+    double value = 1;
+
+    for (String uid : new String[] {"dataElemenA", "dataElemenB", "dataElemenC"}) {
+      DataElement dataElement = new DataElement(uid);
+      dataElement.setUid(uid);
+
+      itemMap.put(new DimensionalItemId(DATA_ELEMENT, uid), dataElement);
+      valueMap.put(dataElement, value++);
+    }
+
+    params =
+        ExpressionParams.builder()
+            .expression(expression)
+            .parseType(INDICATOR_EXPRESSION)
+            .itemMap(itemMap)
+            .valueMap(valueMap)
+            .days(31)
+            .missingValueStrategy(NEVER_SKIP)
+            .build();
+  }
+
+  @Benchmark
+  public Object getExpressionValue() {
+    return expressionService.getExpressionValue(params);
+  }
+
+  private <V> Cache<V> cache(String region) {
+    return cached
+        ? new SimpleCacheBuilder<V>().forRegion(region).withMaximumSize(1000).build()
+        : new NoOpCache<>();
+  }
+}
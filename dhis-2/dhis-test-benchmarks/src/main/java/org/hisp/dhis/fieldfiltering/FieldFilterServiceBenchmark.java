@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.fieldfiltering;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.hisp.dhis.attribute.AttributeService;
+import org.hisp.dhis.benchmark.BenchmarkFixtures;
+import org.hisp.dhis.category.CategoryCombo;
+import org.hisp.dhis.common.DataDimensionType;
+import org.hisp.dhis.common.ValueType;
+import org.hisp.dhis.commons.jackson.config.JacksonObjectMapperConfig;
+import org.hisp.dhis.dataelement.DataElement;
+import org.hisp.dhis.schema.SchemaService;
+import org.hisp.dhis.security.acl.AccessStringHelper;
+import org.hisp.dhis.security.acl.DefaultAclService;
+import org.hisp.dhis.user.User;
+import org.hisp.dhis.user.UserGroupService;
+import org.hisp.dhis.user.UserService;
+import org.hisp.dhis.user.sharing.Sharing;
+import org.hisp.dhis.user.sharing.UserGroupAccess;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link FieldFilterService} filtering and serializing data elements for the metadata API,
+ * both to object nodes and streamed to a JSON generator.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FieldFilterServiceBenchmark {
+  private static final int OBJECTS = 500;
+
+  @Param({"id,name", "id,name,code,valueType,categoryCombo[id,name]", "*"})
+  public String fields;
+
+  private final ObjectMapper jsonMapper = JacksonObjectMapperConfig.jsonMapper;
+
+  private FieldFilterService fieldFilterService;
+
+  private User user;
+
+  private List<DataElement> dataElements;
+
+  @Setup
+  public void setUp() {
+    SchemaService schemaService = BenchmarkFixtures.schemaService();
+
+    UserGroupService userGroupService = mock(UserGroupService.class);
+    when(userGroupService.getDisplayName(anyString())).thenReturn("Benchmark group");
+    UserService userService = mock(UserService.class);
+    when(userService.getDisplayName(anyString())).thenReturn("Benchmark user");
+
+    fieldFilterService =
+        new FieldFilterService(
+            new FieldPathHelper(schemaService),
+            jsonMapper,
+            schemaService,
+            new DefaultAclService(schemaService),
+            userGroupService,
+            userService,
+            mock(AttributeService.class),
+            new SimpleMeterRegistry());
+
+    user = BenchmarkFixtures.user(1, "F_DATAELEMENT_PUBLIC_ADD");
+
+    CategoryCombo categoryCombo = new CategoryCombo("Default", DataDimensionType.DISAGGREGATION);
+    categoryCombo.setAutoFields();
+
+    dataElements = new ArrayList<>(OBJECTS);
+
+    for (int i = 0; i < OBJECTS; i++) {
+      Sharing sharing = new Sharing();
+      sharing.setPublicAccess(AccessStringHelper.READ);
+      sharing.setOwner(user.getUid());
+      sharing.addUserGroupAccess(
+          new UserGroupAccess(AccessStringHelper.READ_WRITE, BenchmarkFixtures.uid()));
+
+      DataElement dataElement = new DataElement("Data element " + i);
+      dataElement.setAutoFields();
+      dataElement.setCode("DE_" + i);
+      dataElement.setShortName("DE " + i);
+      dataElement.setValueType(ValueType.NUMBER);
+      dataElement.setCategoryCombo(categoryCombo);
+      dataElement.setSharing(sharing);
+      dataElements.add(dataElement);
+    }
+  }
+
+  @Benchmark
+  public List<ObjectNode> toObjectNodes() {
+    return fieldFilterService.toObjectNodes(params());
+  }
+
+  @Benchmark
+  public void toObjectNodesStream() throws IOException {
+    try (JsonGenerator generator =
+        jsonMapper.getFactory().createGenerator(OutputStream.nullOutputStream())) {
+      generator.writeStartArray();
+      fieldFilterService.toObjectNodesStream(params(), generator);
+      generator.writeEndArray();
+    }
+  }
+
+  private FieldFilterParams<DataElement> params() {
+    return FieldFilterParams.<DataElement>builder()
+        .objects(dataElements)
+        .filters(fields)
+        .user(user)
+        .build();
+  }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.parser.expression;
+
+import static org.hisp.dhis.common.DimensionItemType.DATA_ELEMENT;
+import static org.hisp.dhis.parser.expression.ExpressionItem.ITEM_EVALUATE;
+import static org.hisp.dhis.parser.expression.ParserUtils.COMMON_EXPRESSION_ITEMS;
+import static org.hisp.dhis.parser.expression.antlr.ExpressionParser.HASH_BRACE;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.hisp.dhis.antlr.Parser;
+import org.hisp.dhis.common.DimensionalItemId;
+import org.hisp.dhis.common.DimensionalItemObject;
+import org.hisp.dhis.common.ValueType;
+import org.hisp.dhis.constant.Constant;
+import org.hisp.dhis.dataelement.DataElement;
+import org.hisp.dhis.expression.ExpressionParams;
+import org.hisp.dhis.parser.expression.antlr.ExpressionParser.ExprContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares evaluating an expression by visiting its parse tree with evaluating its {@link
+ * CompiledExpression}, in the way validation rules and predictors evaluate the same expression for
+ * many org units and periods.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExpressionEvaluationBenchmark {
+  /** The common expression items, plus numeric data elements. */
+  private static final Map<Integer, ExpressionItem> ITEMS =
+      ImmutableMap.<Integer, ExpressionItem>builder()
+          .putAll(COMMON_EXPRESSION_ITEMS)
+          .put(HASH_BRACE, new DataElementItem())
+          .build();
+
+  @Param({
+    "#{dataElemenA} + #{dataElemenB} * 2 - #{dataElemenC}",
+    "if(#{dataElemenA} > #{dataElemenB}, #{dataElemenA} - #{dataElemenB}, 0)",
+    "firstNonNull(#{dataElemenA}, #{dataElemenB}, 0) / (#{dataElemenC} + C{xxxxxxxxx05})",
+    "greatest(#{dataElemenA}, #{dataElemenB}, #{dataElemenC}) >= #{dataElemenA} * 0.9"
+  })
+  public String expression;
+
+  private final Map<String, Constant> constantMap =
+      Map.of("xxxxxxxxx05", new Constant("Five", 5d));
+
+  private ExpressionParams params;
+
+  private CompiledExpression compiled;
+
+  @Setup
+  public void setUp() {
+    Map<DimensionalItemId, DimensionalItemObject> itemMap = new HashMap<>();
+    Map<DimensionalItemObject, Object> valueMap = new HashMap<>();
+
+    double value = 1;
+
+    for (String uid : new String[] {"dataElemenA", "dataElemenB", "dataElemenC"}) {
+      DataElement dataElement = new DataElement(uid);
+      dataElement.setUid(uid);
+
+      itemMap.put(new DimensionalItemId(DATA_ELEMENT, uid), dataElement);
+      valueMap.put(dataElement, value++);
+    }
+
+    params = ExpressionParams.builder().itemMap(itemMap).valueMap(valueMap).build();
+
+    compiled = ExpressionCompiler.compile(expression, visitor(new ExpressionState()));
+
+    if (compiled == null) {
+      throw new IllegalStateException("Expression not compiled: " + expression);
+    }
+  }
+
+  @Benchmark
+  public Object visitor() {
+    return Parser.visit(expression, visitor(new ExpressionState()));
+  }
+
+  @Benchmark
+  public Object compiled() {
+    ExpressionState state = new ExpressionState();
+
+    List<Object> itemKeys = compiled.getItemKeys();
+
+    Object[] values = new Object[itemKeys.size()];
+    ValueType[] valueTypes = new ValueType[itemKeys.size()];
+
+    for (int i = 0; i < values.length; i++) {
+      values[i] = params.getValueMap().get(params.getItemMap().get(itemKeys.get(i)));
+      valueTypes[i] = ValueType.NUMBER;
+    }
+
+    return compiled.evaluate(values, valueTypes, constantMap, state);
+  }
+
+  private CommonExpressionVisitor visitor(ExpressionState state) {
+    return CommonExpressionVisitor.builder()
+        .constantMap(constantMap)
+        .itemMap(ITEMS)
+        .itemMethod(ITEM_EVALUATE)
+        .params(params)
+        .state(state)
+        .build();
+  }
+
+  /** Numeric data element item, evaluated the way the expression service evaluates it. */
+  private static class DataElementItem implements CompilableExpressionItem {
+    @Override
+    public Object getCompiledItemKey(ExprContext ctx, CommonExpressionVisitor visitor) {
+      return new DimensionalItemId(DATA_ELEMENT, ctx.uid0.getText());
+    }
+
+    @Override
+    public Object evaluate(ExprContext ctx, CommonExpressionVisitor visitor) {
+      DimensionalItemObject item =
+          visitor.getParams().getItemMap().get(getCompiledItemKey(ctx, visitor));
+
+      Object value = (item != null) ? visitor.getParams().getValueMap().get(item) : null;
+
+      return visitor.getState().handleNulls(value, ValueType.NUMBER);
+    }
+  }
+}
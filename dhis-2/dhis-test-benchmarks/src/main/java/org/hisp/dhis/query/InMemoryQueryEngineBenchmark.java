@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.hisp.dhis.benchmark.BenchmarkFixtures;
+import org.hisp.dhis.common.ValueType;
+import org.hisp.dhis.dataelement.DataElement;
+import org.hisp.dhis.query.operators.MatchMode;
+import org.hisp.dhis.schema.Schema;
+import org.hisp.dhis.schema.SchemaService;
+import org.hisp.dhis.security.acl.DefaultAclService;
+import org.hisp.dhis.user.UserDetails;
+import org.hisp.dhis.user.UserRole;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures filtering and ordering a list of data elements with the {@link InMemoryQueryEngine}, as
+ * done for metadata filters which cannot be applied in the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InMemoryQueryEngineBenchmark {
+  @Param({"1000", "20000"})
+  public int objects;
+
+  private InMemoryQueryEngine<DataElement> queryEngine;
+
+  private Schema schema;
+
+  private UserDetails userDetails;
+
+  private List<DataElement> dataElements;
+
+  @Setup
+  public void setUp() {
+    SchemaService schemaService = BenchmarkFixtures.schemaService();
+
+    queryEngine = new InMemoryQueryEngine<>(schemaService, new DefaultAclService(schemaService));
+    schema = schemaService.getDynamicSchema(DataElement.class);
+    userDetails = UserDetails.fromUser(BenchmarkFixtures.user(1, UserRole.AUTHORITY_ALL));
+
+    ValueType[] valueTypes = {ValueType.NUMBER, ValueType.INTEGER, ValueType.TEXT};
+    dataElements = new ArrayList<>(objects);
+
+    for (int i = 0; i < objects; i++) {
+      DataElement dataElement = new DataElement("Data element " + i);
+      dataElement.setAutoFields();
+      dataElement.setCode("DE_" + i);
+      dataElement.setValueType(valueTypes[i % valueTypes.length]);
+      dataElements.add(dataElement);
+    }
+  }
+
+  @Benchmark
+  public List<DataElement> eq() {
+    Query query = query();
+    query.add(Restrictions.eq("valueType", ValueType.INTEGER));
+    return queryEngine.query(query);
+  }
+
+  @Benchmark
+  public List<DataElement> likeOrderedPaged() {
+    Query query = query();
+    query.add(Restrictions.like("name", "element 1", MatchMode.ANYWHERE));
+    query.addOrder(Order.iasc(schema.getProperty("name")));
+    query.setMaxResults(50);
+    return queryEngine.query(query);
+  }
+
+  @Benchmark
+  public List<DataElement> disjunction() {
+    Query query = query();
+    Disjunction disjunction = query.addDisjunction();
+    disjunction.add(Restrictions.eq("code", "DE_10"));
+    disjunction.add(Restrictions.in("valueType", List.of(ValueType.TEXT)));
+    return queryEngine.query(query);
+  }
+
+  private Query query() {
+    Query query = Query.from(schema);
+    query.setCurrentUserDetails(userDetails);
+    query.setObjects(dataElements);
+    return query;
+  }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.reservedvalue;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures {@link SequentialNumberBlockAllocator#getNextValues(String, String, int)} with values
+ * incremented one by one (block size 1) and leased in blocks, from concurrent threads. The counter
+ * store serializes increments and spends a fixed amount of work on each, standing in for the row
+ * lock and round trip of the database counter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class SequentialNumberBlockAllocatorBenchmark {
+  @Param({"1", "100", "1000"})
+  public String blockSize;
+
+  /** Work spent on each increment of the counter, in {@link Blackhole#consumeCPU} tokens. */
+  @Param({"10000"})
+  public long incrementCost;
+
+  private SequentialNumberBlockAllocator allocator;
+
+  @Setup
+  public void setUp() {
+    DhisConfigurationProvider config = mock(DhisConfigurationProvider.class);
+    when(config.getProperty(ConfigurationKey.RESERVED_VALUE_SEQUENTIAL_BLOCK_SIZE))
+        .thenReturn(blockSize);
+
+    allocator = new SequentialNumberBlockAllocator(new CounterStore(incrementCost), config);
+  }
+
+  @Benchmark
+  public List<Integer> getNextValue() {
+    return allocator.getNextValues("attributeA", "key", 1);
+  }
+
+  @Benchmark
+  public List<Integer> getNextValues() {
+    return allocator.getNextValues("attributeA", "key", 10);
+  }
+
+  /** Counter store holding a single counter, incremented under a lock. */
+  private static final class CounterStore implements SequentialNumberCounterStore {
+    private final long incrementCost;
+
+    private int counter = 1;
+
+    CounterStore(long incrementCost) {
+      this.incrementCost = incrementCost;
+    }
+
+    @Override
+    public synchronized List<Integer> getNextValues(String uid, String key, int length) {
+      int first = leaseBlock(uid, key, length);
+      List<Integer> values = new ArrayList<>(length);
+
+      for (int i = 0; i < length; i++) {
+        values.add(first + i);
+      }
+
+      return values;
+    }
+
+    @Override
+    public synchronized int leaseBlock(String uid, String key, int size) {
+      Blackhole.consumeCPU(incrementCost);
+      int first = counter;
+      counter += size;
+      return first;
+    }
+
+    @Override
+    public synchronized boolean returnBlock(String uid, String key, int from, int to) {
+      if (counter != to) {
+        return false;
+      }
+
+      counter = from;
+      return true;
+    }
+
+    @Override
+    public void deleteCounter(String uid) {
+      // Not used
+    }
+  }
+}
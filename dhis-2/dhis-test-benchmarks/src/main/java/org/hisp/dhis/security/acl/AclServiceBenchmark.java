@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.security.acl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.hisp.dhis.benchmark.BenchmarkFixtures;
+import org.hisp.dhis.dataset.DataSet;
+import org.hisp.dhis.user.User;
+import org.hisp.dhis.user.UserDetails;
+import org.hisp.dhis.user.UserGroup;
+import org.hisp.dhis.user.sharing.Sharing;
+import org.hisp.dhis.user.sharing.UserGroupAccess;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures {@link DefaultAclService} read, write and data write checks of a user without override
+ * authority. The data sets are shared with a number of user groups, the user being a member of the
+ * last one only.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AclServiceBenchmark {
+  private static final int OBJECTS = 1000;
+
+  @Param({"1", "20"})
+  public int sharedGroups;
+
+  private AclService aclService;
+
+  private UserDetails userDetails;
+
+  private List<DataSet> dataSets;
+
+  @Setup
+  public void setUp() {
+    aclService = new DefaultAclService(BenchmarkFixtures.schemaService());
+
+    User user = BenchmarkFixtures.user(5, "F_DATASET_PUBLIC_ADD", "F_DATASET_PRIVATE_ADD");
+    userDetails = UserDetails.fromUser(user);
+
+    UserGroup memberGroup = user.getGroups().iterator().next();
+    dataSets = new ArrayList<>(OBJECTS);
+
+    for (int i = 0; i < OBJECTS; i++) {
+      Sharing sharing = new Sharing();
+      sharing.setPublicAccess(AccessStringHelper.DEFAULT);
+      sharing.setOwner(BenchmarkFixtures.uid());
+
+      for (int j = 1; j < sharedGroups; j++) {
+        sharing.addUserGroupAccess(
+            new UserGroupAccess(AccessStringHelper.READ, BenchmarkFixtures.uid()));
+      }
+
+      sharing.addUserGroupAccess(
+          new UserGroupAccess(AccessStringHelper.FULL, memberGroup.getUid()));
+
+      DataSet dataSet = new DataSet("Data set " + i);
+      dataSet.setAutoFields();
+      dataSet.setSharing(sharing);
+      dataSets.add(dataSet);
+    }
+  }
+
+  @Benchmark
+  public void canRead(Blackhole blackhole) {
+    for (DataSet dataSet : dataSets) {
+      blackhole.consume(aclService.canRead(userDetails, dataSet));
+    }
+  }
+
+  @Benchmark
+  public void canWrite(Blackhole blackhole) {
+    for (DataSet dataSet : dataSets) {
+      blackhole.consume(aclService.canWrite(userDetails, dataSet));
+    }
+  }
+
+  @Benchmark
+  public void canDataWrite(Blackhole blackhole) {
+    for (DataSet dataSet : dataSets) {
+      blackhole.consume(aclService.canDataWrite(userDetails, dataSet));
+    }
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.system.grid;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+import org.hisp.dhis.benchmark.BenchmarkFixtures;
+import org.hisp.dhis.common.Grid;
+import org.hisp.dhis.common.GridHeader;
+import org.hisp.dhis.common.ValueType;
+import org.hisp.dhis.commons.jackson.config.JacksonObjectMapperConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures rendering an analytics style {@link ListGrid} as JSON and CSV. Output is discarded so
+ * that only the rendering is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ListGridBenchmark {
+  @Param({"1000", "50000"})
+  public int rows;
+
+  private final ObjectMapper jsonMapper = JacksonObjectMapperConfig.jsonMapper;
+
+  private Grid grid;
+
+  @Setup
+  public void setUp() {
+    grid = new ListGrid();
+    grid.addHeader(new GridHeader("dx", "Data", ValueType.TEXT, false, true));
+    grid.addHeader(new GridHeader("pe", "Period", ValueType.TEXT, false, true));
+    grid.addHeader(new GridHeader("ou", "Organisation unit", ValueType.TEXT, false, true));
+    grid.addHeader(new GridHeader("co", "Category option combo", ValueType.TEXT, false, true));
+    grid.addHeader(new GridHeader("value", "Value", ValueType.NUMBER, false, false));
+
+    String[] dataElements = uids(20);
+    String[] orgUnits = uids(500);
+    String[] optionCombos = uids(4);
+
+    for (int i = 0; i < rows; i++) {
+      grid.addRow()
+          .addValue(dataElements[i % dataElements.length])
+          .addValue("2023" + String.format("%02d", i % 12 + 1))
+          .addValue(orgUnits[i % orgUnits.length])
+          .addValue(optionCombos[i % optionCombos.length])
+          .addValue(i * 1.5d);
+    }
+  }
+
+  @Benchmark
+  public void json() throws IOException {
+    jsonMapper.writeValue(OutputStream.nullOutputStream(), grid);
+  }
+
+  @Benchmark
+  public void csv() throws IOException {
+    GridUtils.toCsv(grid, Writer.nullWriter());
+  }
+
+  private static String[] uids(int count) {
+    String[] uids = new String[count];
+
+    for (int i = 0; i < count; i++) {
+      uids[i] = BenchmarkFixtures.uid();
+    }
+
+    return uids;
+  }
+}
@@ -33,6 +33,7 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 
 import java.util.Date;
+import java.util.List;
 import org.hisp.dhis.category.CategoryOptionCombo;
 import org.hisp.dhis.category.CategoryService;
 import org.hisp.dhis.organisationunit.OrganisationUnit;
@@ -45,6 +46,8 @@ import org.hisp.dhis.user.User;
 import org.hisp.dhis.user.UserService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
 
 /**
  * @author Jim Grace
@@ -65,6 +68,8 @@ class DataApprovalStoreTest extends SingleSetupIntegrationTestBase {
 
   @Autowired private OrganisationUnitService organisationUnitService;
 
+  @Autowired private JdbcTemplate jdbcTemplate;
+
   // -------------------------------------------------------------------------
   // Supporting data
   // -------------------------------------------------------------------------
@@ -243,4 +248,72 @@ class DataApprovalStoreTest extends SingleSetupIntegrationTestBase {
             level2, workflowB12, periodB, sourceB, categoryOptionCombo);
     assertNull(dataApprovalB);
   }
+
+  @Test
+  void testDataApprovalStateFollowsApprovals() {
+    Date date = new Date();
+    DataApproval dataApprovalA =
+        new DataApproval(
+            level2, workflowA12, periodA, sourceA, categoryOptionCombo, false, date, userA);
+    DataApproval dataApprovalB =
+        new DataApproval(
+            level1, workflowA12, periodA, sourceA, categoryOptionCombo, false, date, userA);
+    dataApprovalStore.addDataApproval(dataApprovalA);
+    assertEquals(List.of(), getApprovalStateLevelIds(sourceA));
+    triggerBeforeCommit();
+    assertEquals(List.of(level2.getId()), getApprovalStateLevelIds(sourceA));
+    dataApprovalStore.addDataApproval(dataApprovalB);
+    triggerBeforeCommit();
+    assertEquals(List.of(level1.getId()), getApprovalStateLevelIds(sourceA));
+    dataApprovalB.setAccepted(true);
+    dataApprovalStore.updateDataApproval(dataApprovalB);
+    triggerBeforeCommit();
+    assertEquals(
+        Boolean.TRUE,
+        jdbcTemplate.queryForObject(
+            "select accepted from dataapprovalstate where organisationunitid = ?",
+            Boolean.class,
+            sourceA.getId()));
+    dataApprovalStore.deleteDataApproval(dataApprovalB);
+    triggerBeforeCommit();
+    assertEquals(List.of(level2.getId()), getApprovalStateLevelIds(sourceA));
+    dataApprovalStore.deleteDataApproval(dataApprovalA);
+    triggerBeforeCommit();
+    assertEquals(List.of(), getApprovalStateLevelIds(sourceA));
+  }
+
+  @Test
+  void testDataApprovalStateIsUpdatedOncePerTransaction() {
+    Date date = new Date();
+    DataApproval dataApprovalA =
+        new DataApproval(
+            level2, workflowA12, periodA, sourceA, categoryOptionCombo, false, date, userA);
+    DataApproval dataApprovalB =
+        new DataApproval(
+            level1, workflowA12, periodA, sourceA, categoryOptionCombo, false, date, userA);
+    dataApprovalStore.addDataApproval(dataApprovalA);
+    dataApprovalStore.addDataApproval(dataApprovalB);
+    dataApprovalStore.deleteDataApproval(dataApprovalB);
+    assertEquals(List.of(), getApprovalStateLevelIds(sourceA));
+    triggerBeforeCommit();
+    assertEquals(List.of(level2.getId()), getApprovalStateLevelIds(sourceA));
+    dataApprovalStore.deleteDataApproval(dataApprovalA);
+    triggerBeforeCommit();
+    assertEquals(List.of(), getApprovalStateLevelIds(sourceA));
+  }
+
+  /**
+   * The test transaction is rolled back, so the state maintenance which runs before commit is
+   * triggered explicitly.
+   */
+  private void triggerBeforeCommit() {
+    TransactionSynchronizationUtils.triggerBeforeCommit(false);
+  }
+
+  private List<Long> getApprovalStateLevelIds(OrganisationUnit orgUnit) {
+    return jdbcTemplate.queryForList(
+        "select dataapprovallevelid from dataapprovalstate where organisationunitid = ?",
+        Long.class,
+        orgUnit.getId());
+  }
 }
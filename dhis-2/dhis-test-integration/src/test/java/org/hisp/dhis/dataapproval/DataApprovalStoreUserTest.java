@@ -31,6 +31,7 @@ import static com.google.common.collect.Sets.newHashSet;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import com.google.common.collect.Lists;
+import java.util.Date;
 import java.util.List;
 import org.hisp.dhis.category.CategoryCombo;
 import org.hisp.dhis.category.CategoryOption;
@@ -42,11 +43,14 @@ import org.hisp.dhis.organisationunit.OrganisationUnitService;
 import org.hisp.dhis.period.Period;
 import org.hisp.dhis.period.PeriodService;
 import org.hisp.dhis.period.PeriodType;
+import org.hisp.dhis.setting.SettingKey;
+import org.hisp.dhis.setting.SystemSettingManager;
 import org.hisp.dhis.test.integration.IntegrationTestBase;
 import org.hisp.dhis.user.User;
 import org.hisp.dhis.user.UserService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 /**
  * @author Jim Grace
@@ -67,6 +71,10 @@ class DataApprovalStoreUserTest extends IntegrationTestBase {
 
   @Autowired private OrganisationUnitService organisationUnitService;
 
+  @Autowired private SystemSettingManager systemSettingManager;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
   // -------------------------------------------------------------------------
   // Supporting data
   // -------------------------------------------------------------------------
@@ -134,6 +142,11 @@ class DataApprovalStoreUserTest extends IntegrationTestBase {
     injectSecurityContextUser(currentUser);
   }
 
+  @Override
+  public void tearDownTest() {
+    systemSettingManager.saveSystemSetting(SettingKey.ACCEPTANCE_REQUIRED_FOR_APPROVAL, false);
+  }
+
   // -------------------------------------------------------------------------
   // Tests
   // -------------------------------------------------------------------------
@@ -212,4 +225,101 @@ class DataApprovalStoreUserTest extends IntegrationTestBase {
             null);
     assertEquals(0, statuses.size());
   }
+
+  @Test
+  void testReadyBelowRequiresAcceptedApprovalAtLevelBelow() {
+    systemSettingManager.saveSystemSetting(SettingKey.ACCEPTANCE_REQUIRED_FOR_APPROVAL, true);
+    CategoryOption catOptionA = new CategoryOption("CategoryOptionA");
+    catOptionA.addOrganisationUnit(orgUnitB);
+    categoryService.addCategoryOption(catOptionA);
+    org.hisp.dhis.category.Category catA = createCategory('A', catOptionA);
+    categoryService.addCategory(catA);
+    CategoryCombo catComboA = createCategoryCombo('A', catA);
+    categoryService.addCategoryCombo(catComboA);
+    CategoryOptionCombo catOptionComboA = createCategoryOptionCombo(catComboA, catOptionA);
+    categoryService.addCategoryOptionCombo(catOptionComboA);
+    Date date = new Date();
+    DataApproval level1Approval =
+        new DataApproval(
+            level1, workflowA, periodA, orgUnitB, catOptionComboA, false, date, currentUser);
+    DataApproval level2Approval =
+        new DataApproval(
+            level2, workflowA, periodA, orgUnitB, catOptionComboA, true, date, currentUser);
+    // Accepted at the level below
+    dataApprovalStore.addDataApproval(level2Approval);
+    assertReadyBelowMatchesApprovals(catComboA, catOptionComboA);
+    assertEquals(DataApprovalState.UNAPPROVED_READY, getOrgUnitAState(catComboA));
+    // A higher level approved but not accepted on the same org unit
+    dataApprovalStore.addDataApproval(level1Approval);
+    assertReadyBelowMatchesApprovals(catComboA, catOptionComboA);
+    assertEquals(DataApprovalState.UNAPPROVED_READY, getOrgUnitAState(catComboA));
+    // Only the higher level, now accepted, on the same org unit
+    dataApprovalStore.deleteDataApproval(level2Approval);
+    level1Approval.setAccepted(true);
+    dataApprovalStore.updateDataApproval(level1Approval);
+    assertReadyBelowMatchesApprovals(catComboA, catOptionComboA);
+    assertEquals(DataApprovalState.UNAPPROVED_WAITING, getOrgUnitAState(catComboA));
+  }
+
+  @Test
+  void testApprovalStateUsesRemainingWorkflowLevels() {
+    CategoryOptionCombo catOptionCombo = categoryService.getDefaultCategoryOptionCombo();
+    Date date = new Date();
+    dataApprovalStore.addDataApproval(
+        new DataApproval(
+            level1, workflowA, periodA, orgUnitB, catOptionCombo, false, date, currentUser));
+    dataApprovalStore.addDataApproval(
+        new DataApproval(
+            level2, workflowA, periodA, orgUnitB, catOptionCombo, false, date, currentUser));
+    assertEquals(List.of(level1.getId()), getApprovalStateLevelIds(orgUnitB));
+    // The highest approved level is removed from the workflow
+    workflowA.getLevels().remove(level1);
+    dataApprovalService.updateWorkflow(workflowA);
+    assertEquals(List.of(level2.getId()), getApprovalStateLevelIds(orgUnitB));
+    // The level is added back
+    workflowA.getLevels().add(level1);
+    dataApprovalService.updateWorkflow(workflowA);
+    assertEquals(List.of(level1.getId()), getApprovalStateLevelIds(orgUnitB));
+  }
+
+  private List<Long> getApprovalStateLevelIds(OrganisationUnit orgUnit) {
+    return jdbcTemplate.queryForList(
+        "select dataapprovallevelid from dataapprovalstate "
+            + "where workflowid = ? and periodid = ? and organisationunitid = ?",
+        Long.class,
+        workflowA.getId(),
+        periodA.getId(),
+        orgUnit.getId());
+  }
+
+  /**
+   * Asserts that org unit A is ready exactly when its child B has an accepted approval at the
+   * approval level below A, which is how readiness is defined by the data approvals.
+   */
+  private void assertReadyBelowMatchesApprovals(
+      CategoryCombo catCombo, CategoryOptionCombo catOptionCombo) {
+    DataApproval below =
+        dataApprovalStore.getDataApproval(level2, workflowA, periodA, orgUnitB, catOptionCombo);
+    DataApprovalState expected =
+        below != null && below.isAccepted()
+            ? DataApprovalState.UNAPPROVED_READY
+            : DataApprovalState.UNAPPROVED_WAITING;
+    assertEquals(expected, getOrgUnitAState(catCombo));
+  }
+
+  private DataApprovalState getOrgUnitAState(CategoryCombo catCombo) {
+    List<DataApprovalStatus> statuses =
+        dataApprovalStore.getDataApprovalStatuses(
+            workflowA,
+            periodA,
+            Lists.newArrayList(orgUnitA),
+            orgUnitA.getHierarchyLevel(),
+            null,
+            catCombo,
+            null,
+            dataApprovalLevelService.getUserDataApprovalLevelsOrLowestLevel(currentUser, workflowA),
+            dataApprovalLevelService.getDataApprovalLevelMap());
+    assertEquals(1, statuses.size());
+    return statuses.get(0).getState();
+  }
 }
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.dataintegrity;
+
+import static java.lang.System.currentTimeMillis;
+import static java.util.concurrent.TimeUnit.HOURS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.hisp.dhis.dataintegrity.DataIntegrityDetails.DataIntegrityIssue;
+import org.hisp.dhis.scheduling.parameters.DataIntegrityJobParameters.DataIntegrityReportType;
+import org.hisp.dhis.test.integration.IntegrationTestBase;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Tests the persistence of data integrity results in the {@code dataintegrityresult} table by the
+ * {@link DataIntegrityStore}.
+ */
+class DataIntegrityStoreTest extends IntegrationTestBase {
+  @Autowired private DataIntegrityStore store;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  private final DataIntegrityCheck checkA = createCheck("check_a");
+
+  private final DataIntegrityCheck checkB = createCheck("check_b");
+
+  @Override
+  protected void tearDownTest() {
+    jdbcTemplate.update("delete from dataintegrityresult");
+  }
+
+  @Test
+  void testSaveSummary() {
+    store.saveSummary(new DataIntegritySummary(checkA, new Date(), new Date(), null, 7, 12.5d));
+
+    Map<String, DataIntegritySummary> summaries = store.getSummaries(List.of(checkA, checkB));
+    assertEquals(Set.of("check_a"), summaries.keySet());
+    DataIntegritySummary summary = summaries.get("check_a");
+    assertEquals(7, summary.getCount());
+    assertEquals(12.5d, summary.getPercentage());
+    assertNull(summary.getError());
+    assertEquals(Set.of("check_a"), store.getCompletedChecks(DataIntegrityReportType.SUMMARY));
+    assertTrue(store.getCompletedChecks(DataIntegrityReportType.DETAILS).isEmpty());
+  }
+
+  @Test
+  void testSaveDetails() {
+    DataIntegrityIssue issue = new DataIntegrityIssue("uid", "name", "comment", List.of("ref"));
+    store.saveDetails(
+        new DataIntegrityDetails(checkA, new Date(), new Date(), null, List.of(issue)));
+
+    DataIntegrityDetails details = store.getDetails(List.of(checkA)).get("check_a");
+    assertEquals(1, details.getIssues().size());
+    DataIntegrityIssue actual = details.getIssues().get(0);
+    assertEquals("uid", actual.getId());
+    assertEquals("name", actual.getName());
+    assertEquals("comment", actual.getComment());
+    assertEquals(List.of("ref"), actual.getRefs());
+    assertEquals(Set.of("check_a"), store.getCompletedChecks(DataIntegrityReportType.DETAILS));
+  }
+
+  @Test
+  void testSaveSummary_ReplacesPreviousResult() {
+    store.saveSummary(new DataIntegritySummary(checkA, new Date(), new Date(), null, 7, null));
+    store.saveSummary(new DataIntegritySummary(checkA, new Date(), new Date(), "failed", -1, null));
+
+    DataIntegritySummary summary = store.getSummaries(List.of(checkA)).get("check_a");
+    assertEquals(-1, summary.getCount());
+    assertEquals("failed", summary.getError());
+  }
+
+  @Test
+  void testGetSummaries_ExpiredResultIsMissing() {
+    Date twoHoursAgo = new Date(currentTimeMillis() - HOURS.toMillis(2));
+    store.saveSummary(new DataIntegritySummary(checkA, twoHoursAgo, twoHoursAgo, null, 7, null));
+    store.saveSummary(new DataIntegritySummary(checkB, new Date(), new Date(), null, 3, null));
+
+    assertEquals(Set.of("check_b"), store.getSummaries(List.of(checkA, checkB)).keySet());
+    assertEquals(Set.of("check_b"), store.getCompletedChecks(DataIntegrityReportType.SUMMARY));
+  }
+
+  @Test
+  void testSetRunning() {
+    store.setRunning(DataIntegrityReportType.SUMMARY, List.of("check_a", "check_b"), true);
+
+    assertEquals(
+        Set.of("check_a", "check_b"), store.getRunningChecks(DataIntegrityReportType.SUMMARY));
+    assertTrue(store.getRunningChecks(DataIntegrityReportType.DETAILS).isEmpty());
+    assertTrue(store.getSummaries(List.of(checkA, checkB)).isEmpty());
+
+    store.saveSummary(new DataIntegritySummary(checkA, new Date(), new Date(), null, 7, null));
+    assertEquals(Set.of("check_b"), store.getRunningChecks(DataIntegrityReportType.SUMMARY));
+
+    store.setRunning(DataIntegrityReportType.SUMMARY, List.of("check_b"), false);
+    assertTrue(store.getRunningChecks(DataIntegrityReportType.SUMMARY).isEmpty());
+  }
+
+  private static DataIntegrityCheck createCheck(String name) {
+    return DataIntegrityCheck.builder().name(name).severity(DataIntegritySeverity.WARNING).build();
+  }
+}
@@ -36,18 +36,25 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 import org.apache.commons.lang3.time.DateUtils;
 import org.hisp.dhis.common.IdentifiableObjectManager;
 import org.hisp.dhis.dataelement.DataElement;
 import org.hisp.dhis.datastore.DatastoreEntry;
 import org.hisp.dhis.datastore.MetadataDatastoreService;
+import org.hisp.dhis.deletedobject.DeletedObject;
 import org.hisp.dhis.dxf2.metadata.systemsettings.MetadataSystemSettingService;
 import org.hisp.dhis.dxf2.metadata.version.exception.MetadataVersionServiceException;
 import org.hisp.dhis.metadata.version.MetadataVersion;
 import org.hisp.dhis.metadata.version.MetadataVersionService;
 import org.hisp.dhis.metadata.version.VersionType;
+import org.hisp.dhis.render.RenderService;
 import org.hisp.dhis.test.integration.TransactionalIntegrationTest;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -64,6 +71,8 @@ class DefaultMetadataVersionServiceTest extends TransactionalIntegrationTest {
 
   @Autowired private MetadataSystemSettingService metadataSystemSettingService;
 
+  @Autowired private RenderService renderService;
+
   private MetadataVersion versionA;
 
   private MetadataVersion versionB;
@@ -202,12 +211,14 @@ class DefaultMetadataVersionServiceTest extends TransactionalIntegrationTest {
     dbmsManager.clearSession();
 
     versionService.saveVersion(VersionType.BEST_EFFORT);
-    DatastoreEntry expectedJson = metaDataDatastoreService.getMetaDataVersion("Version_3");
+    String expectedJson = versionService.getVersionData("Version_3");
     List<String> allVersions = metaDataDatastoreService.getAllVersions();
 
     assertEquals(2, allVersions.size());
     assertEquals("Version_3", allVersions.get(1));
-    assertTrue(expectedJson.getJbPlainValue().contains("DataElementA"));
+    assertTrue(expectedJson.contains("DataElementA"));
+    assertTrue(versionService.getVersionByName("Version_2").isCheckpoint());
+    assertFalse(versionService.getVersionByName("Version_3").isCheckpoint());
   }
 
   @Test
@@ -222,10 +233,63 @@ class DefaultMetadataVersionServiceTest extends TransactionalIntegrationTest {
     dbmsManager.clearSession();
     versionService.saveVersion(VersionType.BEST_EFFORT);
 
-    DatastoreEntry expectedJson = metaDataDatastoreService.getMetaDataVersion("Version_3");
+    String expectedJson = versionService.getVersionData("Version_3");
+
+    assertFalse(expectedJson.contains("DataElementA"));
+    assertTrue(expectedJson.contains("DataElementB"));
+  }
+
+  @Test
+  void testShouldCreateASnapshotThatContainsDeletedObjects() {
+    versionService.addVersion(versionA);
+    DataElement de1 = createDataElement('A');
+    manager.save(de1);
+    dbmsManager.clearSession();
+    versionService.saveVersion(VersionType.BEST_EFFORT);
+    manager.delete(manager.get(DataElement.class, de1.getUid()));
+    dbmsManager.clearSession();
+    versionService.saveVersion(VersionType.BEST_EFFORT);
+
+    String expectedJson = versionService.getVersionData("Version_3");
+
+    assertTrue(expectedJson.contains(MetadataVersionDeletions.PROPERTY));
+    assertTrue(expectedJson.contains(de1.getUid()));
+  }
+
+  @Test
+  void testShouldCreateACheckpointThatContainsDeletedObjects() throws IOException {
+    versionService.addVersion(versionA);
+    DataElement de1 = createDataElement('A');
+    manager.save(de1);
+    dbmsManager.clearSession();
+    manager.delete(manager.get(DataElement.class, de1.getUid()));
+    dbmsManager.clearSession();
+    versionService.saveVersion(VersionType.BEST_EFFORT);
+
+    assertTrue(versionService.getVersionByName("Version_2").isCheckpoint());
 
-    assertFalse(expectedJson.getJbPlainValue().contains("DataElementA"));
-    assertTrue(expectedJson.getJbPlainValue().contains("DataElementB"));
+    // The deletions are read from the snapshot as on metadata sync
+    MetadataVersionDeletions deletions =
+        renderService.fromJson(
+            versionService.getVersionData("Version_2"), MetadataVersionDeletions.class);
+    DeletedObject deletedObject = deletions.getDeletedObjects().get(0);
+
+    assertEquals(1, deletions.getDeletedObjects().size());
+    assertEquals("DataElement", deletedObject.getKlass());
+    assertEquals(de1.getUid(), deletedObject.getUid());
+  }
+
+  @Test
+  void testShouldStoreSnapshotCompressed() throws IOException {
+    versionService.createMetadataVersionInDataStore("myVersion", "mySnapshot");
+
+    DatastoreEntry entry = metaDataDatastoreService.getMetaDataVersion("myVersion");
+    byte[] compressed = versionService.getCompressedVersionData("myVersion");
+
+    assertFalse(entry.getJbPlainValue().contains("mySnapshot"));
+    try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+      assertEquals("mySnapshot", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+    }
   }
 
   @Test
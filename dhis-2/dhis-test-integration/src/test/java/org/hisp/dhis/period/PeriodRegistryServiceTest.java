@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.period;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.hisp.dhis.test.integration.TransactionalIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Tests {@link DefaultPeriodService} with the period registry enabled, which is otherwise disabled
+ * in test runs.
+ */
+class PeriodRegistryServiceTest extends TransactionalIntegrationTest {
+  @Autowired private PeriodStore periodStore;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Autowired private ApplicationEventPublisher eventPublisher;
+
+  @PersistenceContext private EntityManager entityManager;
+
+  private PeriodService periodService;
+
+  @BeforeEach
+  void setUp() {
+    periodStore.addPeriod(PeriodType.getPeriodFromIsoString("202401"));
+    entityManager.flush();
+    entityManager.clear();
+
+    periodService =
+        new DefaultPeriodService(
+            periodStore, new PeriodRegistry(jdbcTemplate, true), eventPublisher);
+  }
+
+  @Test
+  void testGetPeriodReturnsSessionBoundPeriod() {
+    Period period = periodService.getPeriod("202401");
+
+    assertTrue(entityManager.contains(period));
+    assertEquals("202401", period.getIsoDate());
+  }
+
+  @Test
+  void testSaveGetPeriodDoesNotInsertPeriod() {
+    Period period = periodService.getPeriod("202401");
+    long id = period.getId();
+
+    entityManager.unwrap(Session.class).save(period);
+    entityManager.flush();
+
+    assertEquals(id, period.getId());
+    assertEquals(1, countPeriods("202401"));
+  }
+
+  @Test
+  void testGetRegisteredPeriodReturnsDetachedPeriod() {
+    Period period = periodService.getRegisteredPeriod("202401");
+
+    assertFalse(entityManager.contains(period));
+    assertEquals(periodService.getPeriod("202401").getId(), period.getId());
+  }
+
+  private int countPeriods(String isoPeriod) {
+    Period period = PeriodType.getPeriodFromIsoString(isoPeriod);
+
+    return jdbcTemplate.queryForObject(
+        "select count(*) from period where startdate = ? and enddate = ?",
+        Integer.class,
+        period.getStartDate(),
+        period.getEndDate());
+  }
+}
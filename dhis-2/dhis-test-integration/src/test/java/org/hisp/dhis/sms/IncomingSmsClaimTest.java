@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.sms;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.hisp.dhis.sms.incoming.IncomingSms;
+import org.hisp.dhis.sms.incoming.IncomingSmsStore;
+import org.hisp.dhis.test.integration.IntegrationTestBase;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Tests claims of incoming messages by {@link IncomingSmsStore} from concurrent transactions, which
+ * stand in for the claims of different nodes.
+ */
+class IncomingSmsClaimTest extends IntegrationTestBase {
+  @Autowired private IncomingSmsStore incomingSmsStore;
+
+  @Autowired private TransactionTemplate transactionTemplate;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Override
+  protected void tearDownTest() {
+    jdbcTemplate.update("delete from incomingsms");
+  }
+
+  @Test
+  void testConcurrentClaimSkipsOriginatorOfUncommittedClaim() throws Exception {
+    IncomingSms smsA1 = save("4740000001", 1);
+    IncomingSms smsA2 = save("4740000001", 2);
+    IncomingSms smsB = save("4740000002", 3);
+
+    List<IncomingSms> concurrentClaim =
+        transactionTemplate.execute(
+            status -> {
+              List<IncomingSms> claim = claim(1);
+              assertEquals(List.of(smsA1.getUid()), getUids(claim));
+
+              // The first claim is not committed, so its message in progress is not visible
+              return claimInOtherThread(10);
+            });
+
+    assertEquals(List.of(smsB.getUid()), getUids(concurrentClaim));
+    assertTrue(transactionTemplate.execute(status -> claim(10)).isEmpty());
+
+    jdbcTemplate.update("update incomingsms set parsed = true where uid = ?", smsA1.getUid());
+
+    assertEquals(
+        List.of(smsA2.getUid()), getUids(transactionTemplate.execute(status -> claim(10))));
+  }
+
+  @Test
+  void testClaimKeepsOriginatorMessagesInReceivedOrder() {
+    IncomingSms smsA1 = save("4740000001", 1);
+    IncomingSms smsB = save("4740000002", 2);
+    IncomingSms smsA2 = save("4740000001", 3);
+
+    List<IncomingSms> claim = transactionTemplate.execute(status -> claim(10));
+
+    assertEquals(List.of(smsA1.getUid(), smsB.getUid(), smsA2.getUid()), getUids(claim));
+  }
+
+  private List<IncomingSms> claim(int limit) {
+    return incomingSmsStore.claimUnparsedMessages(limit, 10);
+  }
+
+  private List<IncomingSms> claimInOtherThread(int limit) {
+    SecurityContext context = SecurityContextHolder.getContext();
+
+    return CompletableFuture.supplyAsync(
+            () -> {
+              SecurityContextHolder.setContext(context);
+
+              try {
+                return transactionTemplate.execute(status -> claim(limit));
+              } finally {
+                SecurityContextHolder.clearContext();
+              }
+            })
+        .join();
+  }
+
+  /** Saves a message received at the given minute of the last hour. */
+  private IncomingSms save(String originator, int minute) {
+    Date received =
+        new Date(System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(60L - minute));
+
+    IncomingSms sms = new IncomingSms();
+    sms.setText("message");
+    sms.setOriginator(originator);
+    sms.setGatewayId("testGateway");
+    sms.setSentDate(received);
+    sms.setReceivedDate(received);
+
+    transactionTemplate.executeWithoutResult(status -> incomingSmsStore.save(sms));
+
+    return sms;
+  }
+
+  private static List<String> getUids(List<IncomingSms> messages) {
+    return messages.stream().map(IncomingSms::getUid).toList();
+  }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.tracker.imports.bundle;
+
+import static org.hisp.dhis.tracker.Assertions.assertNoErrors;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.hisp.dhis.common.CodeGenerator;
+import org.hisp.dhis.tracker.TrackerTest;
+import org.hisp.dhis.tracker.imports.FlushMode;
+import org.hisp.dhis.tracker.imports.TrackerImportParams;
+import org.hisp.dhis.tracker.imports.TrackerImportService;
+import org.hisp.dhis.tracker.imports.domain.Enrollment;
+import org.hisp.dhis.tracker.imports.domain.Event;
+import org.hisp.dhis.tracker.imports.domain.TrackedEntity;
+import org.hisp.dhis.tracker.imports.domain.TrackerObjects;
+import org.hisp.dhis.tracker.imports.report.ImportReport;
+import org.hisp.dhis.user.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Reports the JDBC statements prepared per imported tracker entity when every object is flushed on
+ * its own compared to the default flush per bundle, which lets inserts and updates be sent in
+ * batches.
+ */
+@Slf4j
+class TrackerImportStatementsTest extends TrackerTest {
+  private static final int COPIES = 20;
+
+  @Autowired private TrackerImportService trackerImportService;
+
+  @Autowired private EntityManagerFactory entityManagerFactory;
+
+  @Autowired protected UserService _userService;
+
+  private Statistics statistics;
+
+  @Override
+  protected void initTest() throws IOException {
+    userService = _userService;
+    setUpMetadata("tracker/event_metadata.json");
+    injectAdminUser();
+
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+  }
+
+  @AfterEach
+  void disableStatistics() {
+    statistics.setStatisticsEnabled(false);
+  }
+
+  @Test
+  void shouldPrepareFewerStatementsPerEntityWhenFlushingPerBundle() throws IOException {
+    statistics.setStatisticsEnabled(true);
+
+    double perObject = importAndCountStatementsPerEntity(FlushMode.OBJECT);
+    double perBundle = importAndCountStatementsPerEntity(FlushMode.AUTO);
+
+    log.info(
+        "Statements per imported tracker entity: {} flushing per object, {} flushing per bundle",
+        String.format("%.2f", perObject),
+        String.format("%.2f", perBundle));
+
+    assertTrue(
+        perBundle < perObject,
+        () ->
+            String.format(
+                "expected fewer statements per bundle (%.2f) than per object (%.2f)",
+                perBundle, perObject));
+  }
+
+  private double importAndCountStatementsPerEntity(FlushMode flushMode) throws IOException {
+    TrackerObjects trackerObjects = copies();
+    int entities =
+        trackerObjects.getTrackedEntities().size()
+            + trackerObjects.getEnrollments().size()
+            + trackerObjects.getEvents().size();
+
+    statistics.clear();
+
+    ImportReport importReport =
+        trackerImportService.importTracker(
+            TrackerImportParams.builder().flushMode(flushMode).build(), trackerObjects);
+
+    assertNoErrors(importReport);
+
+    return (double) statistics.getPrepareStatementCount() / entities;
+  }
+
+  /** Copies tracked entities, enrollments and events with new UIDs so that all are created. */
+  private TrackerObjects copies() throws IOException {
+    List<TrackedEntity> trackedEntities = new ArrayList<>();
+    List<Enrollment> enrollments = new ArrayList<>();
+    List<Event> events = new ArrayList<>();
+
+    for (int i = 0; i < COPIES; i++) {
+      TrackerObjects trackerObjects = fromJson("tracker/event_events_and_enrollment.json");
+      Map<String, String> uids = new HashMap<>();
+
+      for (TrackedEntity trackedEntity : trackerObjects.getTrackedEntities()) {
+        trackedEntity.setTrackedEntity(newUid(uids, trackedEntity.getTrackedEntity()));
+        trackedEntities.add(trackedEntity);
+      }
+
+      for (Enrollment enrollment : trackerObjects.getEnrollments()) {
+        enrollment.setEnrollment(newUid(uids, enrollment.getEnrollment()));
+        enrollment.setTrackedEntity(newUid(uids, enrollment.getTrackedEntity()));
+        enrollments.add(enrollment);
+      }
+
+      for (Event event : trackerObjects.getEvents()) {
+        event.setEvent(newUid(uids, event.getEvent()));
+        event.setEnrollment(newUid(uids, event.getEnrollment()));
+        events.add(event);
+      }
+    }
+
+    return TrackerObjects.builder()
+        .trackedEntities(trackedEntities)
+        .enrollments(enrollments)
+        .events(events)
+        .build();
+  }
+
+  private static String newUid(Map<String, String> uids, String uid) {
+    return uid == null ? null : uids.computeIfAbsent(uid, k -> CodeGenerator.generateUid());
+  }
+}
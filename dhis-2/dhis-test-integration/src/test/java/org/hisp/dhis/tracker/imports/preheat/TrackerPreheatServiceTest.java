@@ -34,6 +34,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.google.common.collect.Lists;
 import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import org.hisp.dhis.category.CategoryOption;
@@ -155,4 +156,19 @@ class TrackerPreheatServiceTest extends TrackerTest {
     assertNotNull(preheat.get(CategoryOptionCombo.class, "XXXvX50cXC0"));
     assertNotNull(preheat.get(CategoryOption.class, "XXXrKDKCefk"));
   }
+
+  @Test
+  void testPreheatProgramOrgUnitsOnPreheatExecutor() throws IOException {
+    setUpMetadata("tracker/event_metadata.json");
+    TrackerObjects trackerObjects = fromJson("tracker/event_events.json");
+
+    // ProgramOrgUnitsSupplier runs on the preheat executor, where the primary jdbcTemplate takes a
+    // connection of its own outside the import transaction
+    TrackerPreheat preheat =
+        trackerPreheatService.preheat(
+            trackerObjects, new TrackerIdSchemeParams(), userService.getUser(ADMIN_USER_UID));
+
+    assertEquals(
+        List.of("PlKwabX2xRW"), preheat.getProgramWithOrgUnitsMap().get("BFcipDERJne"));
+  }
 }
@@ -29,11 +29,15 @@ package org.hisp.dhis.webapi.controller;
 
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.NoSuchElementException;
 import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.feedback.ForbiddenException;
+import org.hisp.dhis.feedback.NotFoundException;
 import org.hisp.dhis.fileresource.FileResource;
 import org.hisp.dhis.fileresource.FileResourceDomain;
 import org.hisp.dhis.fileresource.FileResourceService;
@@ -45,6 +49,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
 
 @ExtendWith(MockitoExtension.class)
@@ -71,9 +76,35 @@ class FileResourceControllerMockTest {
     when(fileResourceService.getFileResource("id")).thenReturn(fileResource);
 
     User currentUser = userService.getUserByUsername(CurrentUserUtil.getCurrentUsername());
-    controller.getFileResourceData("id", new MockHttpServletResponse(), null, currentUser);
+    controller.getFileResourceData(
+        "id", new MockHttpServletRequest(), new MockHttpServletResponse(), null, currentUser);
 
-    verify(fileResourceService).copyFileResourceContent(any(), any());
+    verify(fileResourceUtils).writeFileResourceContent(any(), any(), any(), anyLong());
+  }
+
+  @Test
+  void testGetOrgUnitImageWithMissingContent() throws Exception {
+    controller = new FileResourceController(fileResourceService, fileResourceUtils, dhisConfig);
+    FileResource fileResource = new FileResource();
+    fileResource.setContentType("image/png");
+    fileResource.setDomain(FileResourceDomain.ORG_UNIT);
+    fileResource.setUid("id");
+
+    when(fileResourceService.getFileResource("id")).thenReturn(fileResource);
+    doThrow(new NoSuchElementException("key 'id' not found."))
+        .when(fileResourceUtils)
+        .writeFileResourceContent(any(), any(), any(), anyLong());
+
+    User currentUser = userService.getUserByUsername(CurrentUserUtil.getCurrentUsername());
+    assertThrows(
+        NotFoundException.class,
+        () ->
+            controller.getFileResourceData(
+                "id",
+                new MockHttpServletRequest(),
+                new MockHttpServletResponse(),
+                null,
+                currentUser));
   }
 
   @Test
@@ -90,6 +121,11 @@ class FileResourceControllerMockTest {
     assertThrows(
         ForbiddenException.class,
         () ->
-            controller.getFileResourceData("id", new MockHttpServletResponse(), null, currentUser));
+            controller.getFileResourceData(
+                "id",
+                new MockHttpServletRequest(),
+                new MockHttpServletResponse(),
+                null,
+                currentUser));
   }
 }
@@ -214,6 +214,26 @@ class TrackedEntitiesExportControllerTest extends DhisControllerConvenienceTest
     assertEquals(0, instances.size());
   }
 
+  @Test
+  void getTrackedEntitiesWithoutPagingWithFields() {
+    TrackedEntity te = trackedEntity();
+    this.switchContextToUser(user);
+
+    JsonList<JsonTrackedEntity> instances =
+        GET(
+                "/tracker/trackedEntities?trackedEntityType={type}&trackedEntities={id}"
+                    + "&skipPaging=true&fields=trackedEntity,orgUnit",
+                trackedEntityType.getUid(),
+                te.getUid())
+            .content(HttpStatus.OK)
+            .getList("instances", JsonTrackedEntity.class);
+
+    assertEquals(1, instances.size());
+    assertHasOnlyMembers(instances.get(0), "trackedEntity", "orgUnit");
+    assertEquals(te.getUid(), instances.get(0).getTrackedEntity());
+    assertEquals(orgUnit.getUid(), instances.get(0).getOrgUnit());
+  }
+
   @Test
   void getTrackedEntityById() {
     TrackedEntity te = trackedEntity();
@@ -33,6 +33,7 @@ import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.when;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -60,6 +61,8 @@ class TrackedEntitiesExportControllerUnitTest {
 
   @Mock private TrackedEntityFieldsParamMapper fieldsParamMapper;
 
+  @Mock private ObjectMapper objectMapper;
+
   @Test
   void shouldFailInstantiatingControllerIfAnyOrderableFieldIsUnsupported() {
     // pretend the service does not support 2 of the orderable fields the web advocates
@@ -82,7 +85,8 @@ class TrackedEntitiesExportControllerUnitTest {
                     requestParamsMapper,
                     csvService,
                     fieldFilterService,
-                    fieldsParamMapper));
+                    fieldsParamMapper,
+                    objectMapper));
 
     assertAll(
         () ->
@@ -44,6 +44,7 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.hisp.dhis.appmanager.App;
+import org.hisp.dhis.appmanager.AppAsset;
 import org.hisp.dhis.appmanager.AppManager;
 import org.hisp.dhis.appmanager.AppMenuManager;
 import org.hisp.dhis.appmanager.AppStatus;
@@ -61,6 +62,7 @@ import org.hisp.dhis.user.UserDetails;
 import org.hisp.dhis.util.DateUtils;
 import org.hisp.dhis.webapi.mvc.annotation.ApiVersion;
 import org.hisp.dhis.webapi.service.ContextService;
+import org.hisp.dhis.webapi.utils.AppAssetUtils;
 import org.hisp.dhis.webapi.utils.ContextUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.Resource;
@@ -250,6 +252,13 @@ public class AppController {
     }
     // Any other page
     else {
+      AppAsset asset = appManager.getAppAsset(application, pageName);
+
+      if (asset != null) {
+        AppAssetUtils.writeAppAsset(asset, request, response);
+        return;
+      }
+
       // Retrieve file
       Resource resource = appManager.getAppResource(application, pageName);
 
@@ -32,6 +32,8 @@ import static org.hisp.dhis.dxf2.webmessage.WebMessageUtils.notFound;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.NoSuchElementException;
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.IOUtils;
@@ -44,9 +46,9 @@ import org.hisp.dhis.external.conf.ConfigurationKey;
 import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.external.location.LocationManager;
 import org.hisp.dhis.fileresource.FileResource;
-import org.hisp.dhis.fileresource.FileResourceService;
 import org.hisp.dhis.schema.descriptors.DocumentSchemaDescriptor;
 import org.hisp.dhis.webapi.utils.ContextUtils;
+import org.hisp.dhis.webapi.utils.FileResourceUtils;
 import org.hisp.dhis.webapi.utils.HeaderUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
@@ -69,14 +71,15 @@ public class DocumentController extends AbstractCrudController<Document> {
 
   @Autowired private LocationManager locationManager;
 
-  @Autowired private FileResourceService fileResourceService;
+  @Autowired private FileResourceUtils fileResourceUtils;
 
   @Autowired private ContextUtils contextUtils;
 
   @Autowired private DhisConfigurationProvider dhisConfig;
 
   @GetMapping("/{uid}/data")
-  public void getDocumentContent(@PathVariable("uid") String uid, HttpServletResponse response)
+  public void getDocumentContent(
+      @PathVariable("uid") String uid, HttpServletRequest request, HttpServletResponse response)
       throws Exception {
     Document document = documentService.getDocument(uid);
 
@@ -90,13 +93,15 @@ public class DocumentController extends AbstractCrudController<Document> {
       FileResource fileResource = document.getFileResource();
 
       response.setContentType(fileResource.getContentType());
-      response.setContentLengthLong(fileResource.getContentLength());
       response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "filename=" + fileResource.getName());
       HeaderUtils.setSecurityHeaders(
           response, dhisConfig.getProperty(ConfigurationKey.CSP_HEADER_VALUE));
 
       try {
-        fileResourceService.copyFileResourceContent(fileResource, response.getOutputStream());
+        fileResourceUtils.writeFileResourceContent(
+            request, response, fileResource, fileResource.getContentLength());
+      } catch (NoSuchElementException e) {
+        throw new WebMessageException(notFound(e.getMessage()));
       } catch (IOException e) {
         throw new WebMessageException(
             error(
@@ -28,6 +28,7 @@
 package org.hisp.dhis.webapi.controller;
 
 import static org.hisp.dhis.common.RequestTypeAware.EndpointAction.AGGREGATE;
+import static org.hisp.dhis.common.RequestTypeAware.EndpointAction.OTHER;
 import static org.hisp.dhis.common.RequestTypeAware.EndpointAction.QUERY;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 
@@ -37,10 +38,12 @@ import javax.annotation.Nonnull;
 import javax.servlet.http.HttpServletResponse;
 import lombok.AllArgsConstructor;
 import lombok.SneakyThrows;
+import org.hisp.dhis.analytics.VectorTile;
 import org.hisp.dhis.analytics.analyze.ExecutionPlanStore;
 import org.hisp.dhis.analytics.dimensions.AnalyticsDimensionsPagingWrapper;
 import org.hisp.dhis.analytics.event.EnrollmentAnalyticsDimensionsService;
 import org.hisp.dhis.analytics.event.EnrollmentAnalyticsService;
+import org.hisp.dhis.analytics.event.EventAnalyticsService;
 import org.hisp.dhis.analytics.event.EventDataQueryService;
 import org.hisp.dhis.analytics.event.EventQueryParams;
 import org.hisp.dhis.common.DhisApiVersion;
@@ -95,6 +98,8 @@ public class EnrollmentAnalyticsController {
 
   @Nonnull private final SystemSettingManager systemSettingManager;
 
+  @Nonnull private final EventAnalyticsService eventAnalyticsService;
+
   @PreAuthorize("hasRole('ALL') or hasRole('F_PERFORM_ANALYTICS_EXPLAIN')")
   @GetMapping(
       value = "/aggregate/{program}/explain",
@@ -397,6 +402,23 @@ public class EnrollmentAnalyticsController {
         fields);
   }
 
+  @GetMapping(value = "/tile/{program}/{z}/{x}/{y}", produces = ContextUtils.CONTENT_TYPE_MVT)
+  public @ResponseBody byte[] getVectorTile(
+      @PathVariable String program,
+      @PathVariable int z,
+      @PathVariable int x,
+      @PathVariable int y,
+      EnrollmentAnalyticsQueryCriteria criteria,
+      DhisApiVersion apiVersion,
+      HttpServletResponse response) {
+    EventQueryParams params = getEventQueryParams(program, criteria, apiVersion, false, OTHER);
+
+    contextUtils.configureResponse(
+        response, ContextUtils.CONTENT_TYPE_MVT, CacheStrategy.RESPECT_SYSTEM_SETTING);
+
+    return eventAnalyticsService.getVectorTile(params, new VectorTile(z, x, y));
+  }
+
   private EventQueryParams getEventQueryParams(
       @PathVariable String program,
       EnrollmentAnalyticsQueryCriteria criteria,
@@ -40,6 +40,7 @@ import javax.servlet.http.HttpServletResponse;
 import lombok.AllArgsConstructor;
 import org.apache.commons.lang3.StringUtils;
 import org.hisp.dhis.analytics.Rectangle;
+import org.hisp.dhis.analytics.VectorTile;
 import org.hisp.dhis.analytics.analyze.ExecutionPlanStore;
 import org.hisp.dhis.analytics.dimensions.AnalyticsDimensionsPagingWrapper;
 import org.hisp.dhis.analytics.event.EventAnalyticsDimensionsService;
@@ -288,6 +289,29 @@ public class EventAnalyticsController {
     return analyticsService.getEventClusters(params);
   }
 
+  // -------------------------------------------------------------------------
+  // Vector tiles
+  // -------------------------------------------------------------------------
+
+  @GetMapping(
+      value = RESOURCE_PATH + "/tile/{program}/{z}/{x}/{y}",
+      produces = ContextUtils.CONTENT_TYPE_MVT)
+  public @ResponseBody byte[] getVectorTile(
+      @PathVariable String program,
+      @PathVariable int z,
+      @PathVariable int x,
+      @PathVariable int y,
+      EventsAnalyticsQueryCriteria criteria,
+      DhisApiVersion apiVersion,
+      HttpServletResponse response) {
+    EventQueryParams params = getEventQueryParams(program, criteria, apiVersion, false, OTHER);
+
+    contextUtils.configureResponse(
+        response, ContextUtils.CONTENT_TYPE_MVT, CacheStrategy.RESPECT_SYSTEM_SETTING);
+
+    return analyticsService.getVectorTile(params, new VectorTile(z, x, y));
+  }
+
   // -------------------------------------------------------------------------
   // Query
   // -------------------------------------------------------------------------
@@ -35,6 +35,7 @@ import com.google.common.base.MoreObjects;
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import lombok.AllArgsConstructor;
@@ -121,6 +122,7 @@ public class FileResourceController extends AbstractFullReadOnlyController<FileR
   @GetMapping(value = "/{uid}/data")
   public void getFileResourceData(
       @PathVariable String uid,
+      HttpServletRequest request,
       HttpServletResponse response,
       @RequestParam(required = false) ImageFileDimension dimension,
       @CurrentUser User currentUser)
@@ -142,15 +144,18 @@ public class FileResourceController extends AbstractFullReadOnlyController<FileR
     }
 
     response.setContentType(fileResource.getContentType());
-    response.setHeader(
-        HttpHeaders.CONTENT_LENGTH,
-        String.valueOf(fileResourceService.getFileResourceContentLength(fileResource)));
     response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "filename=" + fileResource.getName());
     HeaderUtils.setSecurityHeaders(
         response, dhisConfig.getProperty(ConfigurationKey.CSP_HEADER_VALUE));
 
     try {
-      fileResourceService.copyFileResourceContent(fileResource, response.getOutputStream());
+      fileResourceUtils.writeFileResourceContent(
+          request,
+          response,
+          fileResource,
+          fileResourceService.getFileResourceContentLength(fileResource));
+    } catch (NoSuchElementException e) {
+      throw new NotFoundException(e.getMessage());
     } catch (IOException e) {
       log.error("Could not retrieve file.", e);
       throw new WebMessageException(
@@ -51,6 +51,7 @@ import static org.springframework.util.MimeTypeUtils.IMAGE_PNG;
 import static org.springframework.util.MimeTypeUtils.parseMimeType;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
@@ -231,10 +232,10 @@ public class StaticContentController {
       throw new WebMessageException(badRequest("This key is not supported."));
     }
 
-    try {
+    try (InputStream content = file.getInputStream()) {
       String fileKey =
           contentStore.saveFileResourceContent(
-              build(key, file, DEFAULT_RESOURCE_DOMAIN), file.getBytes());
+              build(key, file, DEFAULT_RESOURCE_DOMAIN), content);
 
       if (fileKey == null) {
         throw new WebMessageException(badRequest("The resource was not saved"));
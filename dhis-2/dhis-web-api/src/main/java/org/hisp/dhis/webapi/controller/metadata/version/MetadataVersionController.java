@@ -30,12 +30,10 @@ package org.hisp.dhis.webapi.controller.metadata.version;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
-import java.util.zip.GZIPOutputStream;
 import javax.servlet.http.HttpServletResponse;
 import org.apache.commons.lang3.StringUtils;
 import org.hisp.dhis.common.DhisApiVersion;
@@ -145,7 +143,12 @@ public class MetadataVersionController {
       Date startDate;
 
       if (versionName == null || versionName.isEmpty()) {
-        MetadataVersion initialVersion = versionService.getInitialVersion();
+        // Without a baseline, the latest full snapshot is all a client needs to start from
+        MetadataVersion initialVersion = versionService.getLatestCheckpoint();
+
+        if (initialVersion == null) {
+          initialVersion = versionService.getInitialVersion();
+        }
 
         if (initialVersion == null) {
           return getMetadataVersionsAsNode(allVersionsInBetween);
@@ -285,16 +288,14 @@ public class MetadataVersionController {
           "metadata.json.gz",
           true);
       response.addHeader(ContextUtils.HEADER_CONTENT_TRANSFER_ENCODING, "binary");
-      String versionData = versionService.getVersionData(versionName);
+      byte[] versionData = versionService.getCompressedVersionData(versionName);
 
       if (versionData == null) {
         throw new MetadataVersionException(
             "No metadata version snapshot found for the given version " + versionName);
       }
 
-      GZIPOutputStream gos = new GZIPOutputStream(response.getOutputStream());
-      gos.write(versionData.getBytes(StandardCharsets.UTF_8));
-      gos.close();
+      response.getOutputStream().write(versionData);
     } catch (MetadataVersionServiceException ex) {
       throw new MetadataVersionException(
           "Unable to download version from system: " + versionName + ex.getMessage());
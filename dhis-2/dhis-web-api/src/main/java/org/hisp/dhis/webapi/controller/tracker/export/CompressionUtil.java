@@ -27,7 +27,6 @@
  */
 package org.hisp.dhis.webapi.controller.tracker.export;
 
-import com.fasterxml.jackson.databind.ObjectWriter;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.zip.GZIPOutputStream;
@@ -42,36 +41,29 @@ public class CompressionUtil {
   }
 
   /**
+   * Opens a zip stream containing a single entry, for exports written incrementally.
+   *
    * @param requestOutputStream Output stream from request
-   * @param toCompress Objects to compress
-   * @param objectWriter Object writer from a mapper
    * @param attachment Attachment file name
-   * @param <T>
+   * @return Stream to write the entry content to
    * @throws IOException
    */
-  public static <T> void writeZip(
-      OutputStream requestOutputStream, T toCompress, ObjectWriter objectWriter, String attachment)
+  public static OutputStream zip(OutputStream requestOutputStream, String attachment)
       throws IOException {
     ZipOutputStream outputStream = new ZipOutputStream(requestOutputStream);
     outputStream.putNextEntry(new ZipEntry(attachment));
-
-    objectWriter.writeValue(outputStream, toCompress);
-    outputStream.close();
+    return outputStream;
   }
 
   /**
+   * Opens a gzip stream for exports written incrementally. Flushing the stream flushes the data
+   * compressed so far to the response.
+   *
    * @param requestOutputStream Output stream from request
-   * @param toCompress Objects to compress
-   * @param objectWriter Object writer from a mapper
-   * @param <T>
+   * @return Stream to write the content to
    * @throws IOException
    */
-  public static <T> void writeGzip(
-      OutputStream requestOutputStream, T toCompress, ObjectWriter objectWriter)
-      throws IOException {
-    GZIPOutputStream outputStream = new GZIPOutputStream(requestOutputStream);
-
-    objectWriter.writeValue(outputStream, toCompress);
-    outputStream.close();
+  public static OutputStream gzip(OutputStream requestOutputStream) throws IOException {
+    return new GZIPOutputStream(requestOutputStream, true);
   }
 }
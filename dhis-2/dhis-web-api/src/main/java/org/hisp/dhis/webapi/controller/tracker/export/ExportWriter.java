@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.webapi.controller.tracker.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Writes exported items to the response one at a time as they are read, instead of serializing
+ * the complete result once it is loaded. Output is flushed every {@link #FLUSH_INTERVAL} items.
+ *
+ * <p>The underlying writer is only opened on the first write or on {@link #close()}. Errors raised
+ * before the first item is exported, like failed validations, therefore still result in a regular
+ * error response.
+ */
+public class ExportWriter<T> implements Closeable {
+  static final int FLUSH_INTERVAL = 500;
+
+  private final Opener opener;
+
+  private final Function<T, ? extends Collection<?>> mapper;
+
+  private Output output;
+
+  private int count;
+
+  private ExportWriter(Opener opener, Function<T, ? extends Collection<?>> mapper) {
+    this.opener = opener;
+    this.mapper = mapper;
+  }
+
+  /**
+   * Writes every item as an element of a JSON array.
+   *
+   * @param objectWriter writer used to serialize the items
+   * @param outputStream opens the stream to write to, like a compressing stream around the
+   *     response
+   */
+  public static <T> ExportWriter<T> jsonArray(
+      ObjectWriter objectWriter, OutputStreamOpener outputStream) {
+    ObjectWriter writer = objectWriter.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    return new ExportWriter<>(
+        () -> Output.of(writer.writeValuesAsArray(outputStream.open())), item -> List.of(item));
+  }
+
+  /**
+   * Writes every item as an element of a JSON array held by the given property of a JSON object,
+   * like the {@code instances} of an unpaged response.
+   *
+   * @param objectWriter writer used to serialize the items
+   * @param outputStream opens the stream to write to
+   * @param property name of the property holding the array
+   * @param mapper maps an item to the value to write, like a field filtered node
+   */
+  public static <T> ExportWriter<T> jsonObject(
+      ObjectWriter objectWriter,
+      OutputStreamOpener outputStream,
+      String property,
+      Function<T, ?> mapper) {
+    ObjectWriter writer = objectWriter.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    return new ExportWriter<>(
+        () -> {
+          JsonGenerator generator = writer.createGenerator(outputStream.open());
+          generator.writeStartObject();
+          generator.writeFieldName(property);
+
+          // The sequence only ends the array, the generator is closed with the object
+          return new Output(
+              writer.writeValuesAsArray(generator),
+              () -> {
+                generator.writeEndObject();
+                generator.close();
+              });
+        },
+        item -> List.of(mapper.apply(item)));
+  }
+
+  /**
+   * Writes every item as the sequence of values it is mapped to, like one CSV row per data value
+   * of an event.
+   *
+   * @param objectWriter writer used to serialize the values
+   * @param outputStream opens the stream to write to, like a compressing stream around the
+   *     response
+   * @param mapper maps an item to the values to write
+   */
+  public static <T> ExportWriter<T> values(
+      ObjectWriter objectWriter,
+      OutputStreamOpener outputStream,
+      Function<T, ? extends Collection<?>> mapper) {
+    ObjectWriter writer = objectWriter.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    return new ExportWriter<>(() -> Output.of(writer.writeValues(outputStream.open())), mapper);
+  }
+
+  public void write(T item) throws IOException {
+    if (output == null) {
+      output = opener.open();
+    }
+
+    output.values().writeAll(mapper.apply(item));
+
+    if (++count % FLUSH_INTERVAL == 0) {
+      output.values().flush();
+    }
+  }
+
+  /**
+   * Writes the item from callbacks which cannot throw checked exceptions. Failures are rethrown as
+   * {@link UncheckedIOException}.
+   */
+  public void writeUnchecked(T item) {
+    try {
+      write(item);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /** Completes the document and closes the underlying stream. */
+  @Override
+  public void close() throws IOException {
+    if (output == null) {
+      output = opener.open();
+    }
+
+    output.values().close();
+    output.end().close();
+  }
+
+  /** The values written and what completes the document once they are closed. */
+  private record Output(SequenceWriter values, Closeable end) {
+    static Output of(SequenceWriter values) {
+      return new Output(values, () -> {});
+    }
+  }
+
+  @FunctionalInterface
+  private interface Opener {
+    Output open() throws IOException;
+  }
+
+  @FunctionalInterface
+  public interface OutputStreamOpener {
+    OutputStream open() throws IOException;
+  }
+}
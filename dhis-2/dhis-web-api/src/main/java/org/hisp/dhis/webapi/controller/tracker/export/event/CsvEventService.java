@@ -44,8 +44,9 @@ import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.hisp.dhis.event.EventStatus;
 import org.hisp.dhis.util.DateUtils;
-import org.hisp.dhis.webapi.controller.tracker.export.CompressionUtil;
 import org.hisp.dhis.webapi.controller.tracker.export.CsvService;
+import org.hisp.dhis.webapi.controller.tracker.export.ExportWriter;
+import org.hisp.dhis.webapi.controller.tracker.export.ExportWriter.OutputStreamOpener;
 import org.hisp.dhis.webapi.controller.tracker.view.DataValue;
 import org.hisp.dhis.webapi.controller.tracker.view.Event;
 import org.hisp.dhis.webapi.controller.tracker.view.User;
@@ -72,18 +73,9 @@ class CsvEventService implements CsvService<Event> {
   }
 
   @Override
-  public void writeZip(
-      OutputStream outputStream, List<Event> toCompress, boolean withHeader, String file)
-      throws IOException {
-    CompressionUtil.writeZip(
-        outputStream, getCsvEventDataValues(toCompress), getObjectWriter(withHeader), file);
-  }
-
-  @Override
-  public void writeGzip(OutputStream outputStream, List<Event> toCompress, boolean withHeader)
-      throws IOException {
-    CompressionUtil.writeGzip(
-        outputStream, getCsvEventDataValues(toCompress), getObjectWriter(withHeader));
+  public ExportWriter<Event> writer(OutputStreamOpener outputStream, boolean withHeader) {
+    return ExportWriter.values(
+        getObjectWriter(withHeader), outputStream, event -> getCsvEventDataValues(List.of(event)));
   }
 
   private ObjectWriter getObjectWriter(boolean withHeader) {
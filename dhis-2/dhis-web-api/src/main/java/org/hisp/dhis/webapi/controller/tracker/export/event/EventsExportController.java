@@ -30,8 +30,8 @@ package org.hisp.dhis.webapi.controller.tracker.export.event;
 import static org.hisp.dhis.common.OpenApi.Response.Status;
 import static org.hisp.dhis.webapi.controller.tracker.ControllerSupport.RESOURCE_PATH;
 import static org.hisp.dhis.webapi.controller.tracker.ControllerSupport.assertUserOrderableFieldsAreSupported;
-import static org.hisp.dhis.webapi.controller.tracker.export.CompressionUtil.writeGzip;
-import static org.hisp.dhis.webapi.controller.tracker.export.CompressionUtil.writeZip;
+import static org.hisp.dhis.webapi.controller.tracker.export.CompressionUtil.gzip;
+import static org.hisp.dhis.webapi.controller.tracker.export.CompressionUtil.zip;
 import static org.hisp.dhis.webapi.controller.tracker.export.RequestParamsValidator.validatePaginationParameters;
 import static org.hisp.dhis.webapi.controller.tracker.export.event.EventRequestParams.DEFAULT_FIELDS_PARAM;
 import static org.hisp.dhis.webapi.utils.ContextUtils.CONTENT_TYPE_CSV;
@@ -40,11 +40,12 @@ import static org.hisp.dhis.webapi.utils.ContextUtils.CONTENT_TYPE_CSV_ZIP;
 import static org.hisp.dhis.webapi.utils.ContextUtils.CONTENT_TYPE_JSON_GZIP;
 import static org.hisp.dhis.webapi.utils.ContextUtils.CONTENT_TYPE_JSON_ZIP;
 import static org.hisp.dhis.webapi.utils.ContextUtils.CONTENT_TYPE_TEXT_CSV;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import java.io.IOException;
-import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Objects;
 import javax.servlet.http.HttpServletResponse;
@@ -65,6 +66,7 @@ import org.hisp.dhis.webapi.controller.event.webrequest.PagingWrapper;
 import org.hisp.dhis.webapi.controller.event.webrequest.PagingWrapper.Pager;
 import org.hisp.dhis.webapi.controller.event.webrequest.PagingWrapper.Pager.PagerBuilder;
 import org.hisp.dhis.webapi.controller.tracker.export.CsvService;
+import org.hisp.dhis.webapi.controller.tracker.export.ExportWriter;
 import org.hisp.dhis.webapi.controller.tracker.export.OpenApiExport;
 import org.hisp.dhis.webapi.controller.tracker.view.Event;
 import org.hisp.dhis.webapi.mvc.annotation.ApiVersion;
@@ -87,6 +89,9 @@ import org.springframework.web.bind.annotation.RestController;
 class EventsExportController {
   protected static final String EVENTS = "events";
 
+  /** Property holding the events of an unpaged response, as in {@link PagingWrapper}. */
+  private static final String INSTANCES = "instances";
+
   private static final EventMapper EVENTS_MAPPER = Mappers.getMapper(EventMapper.class);
 
   private final EventService eventService;
@@ -156,6 +161,7 @@ class EventsExportController {
       return pagingWrapper.withInstances(objectNodes);
     }
 
+    // skipPaging=true is streamed, other spellings of it are still collected here
     List<org.hisp.dhis.program.Event> events = eventService.getEvents(eventOperationParams);
     List<ObjectNode> objectNodes =
         fieldFilterService.toObjectNodes(
@@ -165,6 +171,26 @@ class EventsExportController {
     return pagingWrapper.withInstances(objectNodes);
   }
 
+  /** Writes unpaged events to the response as they are read instead of collecting them first. */
+  @GetMapping(produces = "application/json", params = "skipPaging=true")
+  void getEventsAsJsonStream(EventRequestParams eventRequestParams, HttpServletResponse response)
+      throws BadRequestException, ForbiddenException, IOException {
+    validatePaginationParameters(eventRequestParams);
+
+    EventOperationParams eventOperationParams = eventParamsMapper.map(eventRequestParams);
+
+    List<FieldPath> fields = eventRequestParams.getFields();
+    response.setContentType(APPLICATION_JSON_VALUE);
+
+    streamEvents(
+        eventOperationParams,
+        ExportWriter.jsonObject(
+            objectMapper.writer(),
+            response::getOutputStream,
+            INSTANCES,
+            event -> fieldFilterService.toObjectNode(event, fields)));
+  }
+
   @GetMapping(produces = CONTENT_TYPE_JSON_GZIP)
   void getEventsAsJsonGzip(EventRequestParams eventRequestParams, HttpServletResponse response)
       throws BadRequestException, IOException, ForbiddenException {
@@ -172,8 +198,6 @@ class EventsExportController {
 
     EventOperationParams eventOperationParams = eventParamsMapper.map(eventRequestParams);
 
-    List<org.hisp.dhis.program.Event> events = eventService.getEvents(eventOperationParams);
-
     String attachment = getAttachmentOrDefault(eventRequestParams.getAttachment(), "json", "gz");
 
     response.addHeader(
@@ -183,8 +207,9 @@ class EventsExportController {
         ContextUtils.BINARY_HEADER_CONTENT_TRANSFER_ENCODING);
     response.setContentType(CONTENT_TYPE_JSON_GZIP);
 
-    writeGzip(
-        response.getOutputStream(), EVENTS_MAPPER.fromCollection(events), objectMapper.writer());
+    streamEvents(
+        eventOperationParams,
+        ExportWriter.jsonArray(objectMapper.writer(), () -> gzip(response.getOutputStream())));
   }
 
   @GetMapping(produces = CONTENT_TYPE_JSON_ZIP)
@@ -194,8 +219,6 @@ class EventsExportController {
 
     EventOperationParams eventOperationParams = eventParamsMapper.map(eventRequestParams);
 
-    List<org.hisp.dhis.program.Event> events = eventService.getEvents(eventOperationParams);
-
     String attachment = getAttachmentOrDefault(eventRequestParams.getAttachment(), "json", "zip");
 
     response.addHeader(
@@ -205,11 +228,10 @@ class EventsExportController {
         ContextUtils.BINARY_HEADER_CONTENT_TRANSFER_ENCODING);
     response.setContentType(CONTENT_TYPE_JSON_ZIP);
 
-    writeZip(
-        response.getOutputStream(),
-        EVENTS_MAPPER.fromCollection(events),
-        objectMapper.writer(),
-        attachment);
+    streamEvents(
+        eventOperationParams,
+        ExportWriter.jsonArray(
+            objectMapper.writer(), () -> zip(response.getOutputStream(), attachment)));
   }
 
   @GetMapping(produces = {CONTENT_TYPE_CSV, CONTENT_TYPE_TEXT_CSV})
@@ -220,16 +242,14 @@ class EventsExportController {
       throws IOException, BadRequestException, ForbiddenException {
     EventOperationParams eventOperationParams = eventParamsMapper.map(eventRequestParams);
 
-    List<org.hisp.dhis.program.Event> events = eventService.getEvents(eventOperationParams);
-
     String attachment = getAttachmentOrDefault(eventRequestParams.getAttachment(), "csv");
 
-    OutputStream outputStream = response.getOutputStream();
     response.setContentType(CONTENT_TYPE_CSV);
     response.setHeader(
         HttpHeaders.CONTENT_DISPOSITION, getContentDispositionHeaderValue(attachment));
 
-    csvEventService.write(outputStream, EVENTS_MAPPER.fromCollection(events), !skipHeader);
+    streamEvents(
+        eventOperationParams, csvEventService.writer(response::getOutputStream, !skipHeader));
   }
 
   @GetMapping(produces = {CONTENT_TYPE_CSV_GZIP})
@@ -240,8 +260,6 @@ class EventsExportController {
       throws IOException, BadRequestException, ForbiddenException {
     EventOperationParams eventOperationParams = eventParamsMapper.map(eventRequestParams);
 
-    List<org.hisp.dhis.program.Event> events = eventService.getEvents(eventOperationParams);
-
     String attachment = getAttachmentOrDefault(eventRequestParams.getAttachment(), "csv", "gz");
 
     response.addHeader(
@@ -251,8 +269,9 @@ class EventsExportController {
     response.addHeader(
         ContextUtils.HEADER_CONTENT_DISPOSITION, getContentDispositionHeaderValue(attachment));
 
-    csvEventService.writeGzip(
-        response.getOutputStream(), EVENTS_MAPPER.fromCollection(events), !skipHeader);
+    streamEvents(
+        eventOperationParams,
+        csvEventService.writer(() -> gzip(response.getOutputStream()), !skipHeader));
   }
 
   @GetMapping(produces = {CONTENT_TYPE_CSV_ZIP})
@@ -263,8 +282,6 @@ class EventsExportController {
       throws IOException, BadRequestException, ForbiddenException {
     EventOperationParams eventOperationParams = eventParamsMapper.map(eventRequestParams);
 
-    List<org.hisp.dhis.program.Event> events = eventService.getEvents(eventOperationParams);
-
     String attachment = getAttachmentOrDefault(eventRequestParams.getAttachment(), "csv", "zip");
 
     response.addHeader(
@@ -274,8 +291,25 @@ class EventsExportController {
     response.addHeader(
         ContextUtils.HEADER_CONTENT_DISPOSITION, getContentDispositionHeaderValue(attachment));
 
-    csvEventService.writeZip(
-        response.getOutputStream(), EVENTS_MAPPER.fromCollection(events), !skipHeader, attachment);
+    streamEvents(
+        eventOperationParams,
+        csvEventService.writer(() -> zip(response.getOutputStream(), attachment), !skipHeader));
+  }
+
+  /**
+   * Writes events to the response as they are read, so that exports of any size are written with
+   * bounded memory.
+   */
+  private void streamEvents(EventOperationParams eventOperationParams, ExportWriter<Event> writer)
+      throws IOException, BadRequestException, ForbiddenException {
+    try {
+      eventService.streamEvents(
+          eventOperationParams, event -> writer.writeUnchecked(EVENTS_MAPPER.from(event)));
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+
+    writer.close();
   }
 
   private String getAttachmentOrDefault(String filename, String type, String compression) {
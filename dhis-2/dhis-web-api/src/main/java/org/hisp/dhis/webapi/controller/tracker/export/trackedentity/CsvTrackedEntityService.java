@@ -38,8 +38,9 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import org.hisp.dhis.webapi.controller.tracker.export.CompressionUtil;
 import org.hisp.dhis.webapi.controller.tracker.export.CsvService;
+import org.hisp.dhis.webapi.controller.tracker.export.ExportWriter;
+import org.hisp.dhis.webapi.controller.tracker.export.ExportWriter.OutputStreamOpener;
 import org.hisp.dhis.webapi.controller.tracker.view.Attribute;
 import org.hisp.dhis.webapi.controller.tracker.view.TrackedEntity;
 import org.springframework.stereotype.Service;
@@ -59,19 +60,11 @@ class CsvTrackedEntityService implements CsvService<TrackedEntity> {
   }
 
   @Override
-  public void writeZip(
-      OutputStream outputStream, List<TrackedEntity> toCompress, boolean withHeader, String file)
-      throws IOException {
-    CompressionUtil.writeZip(
-        outputStream, getCsvTrackedEntities(toCompress), getObjectWriter(withHeader), file);
-  }
-
-  @Override
-  public void writeGzip(
-      OutputStream outputStream, List<TrackedEntity> toCompress, boolean withHeader)
-      throws IOException {
-    CompressionUtil.writeGzip(
-        outputStream, getCsvTrackedEntities(toCompress), getObjectWriter(withHeader));
+  public ExportWriter<TrackedEntity> writer(OutputStreamOpener outputStream, boolean withHeader) {
+    return ExportWriter.values(
+        getObjectWriter(withHeader),
+        outputStream,
+        trackedEntity -> getCsvTrackedEntities(List.of(trackedEntity)));
   }
 
   private ObjectWriter getObjectWriter(boolean withHeader) {
@@ -38,9 +38,11 @@ import static org.hisp.dhis.webapi.utils.ContextUtils.CONTENT_TYPE_CSV_ZIP;
 import static org.hisp.dhis.webapi.utils.ContextUtils.CONTENT_TYPE_TEXT_CSV;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Objects;
 import javax.servlet.http.HttpServletResponse;
@@ -62,7 +64,9 @@ import org.hisp.dhis.tracker.export.trackedentity.TrackedEntityService;
 import org.hisp.dhis.user.CurrentUser;
 import org.hisp.dhis.user.User;
 import org.hisp.dhis.webapi.controller.event.webrequest.PagingWrapper;
+import org.hisp.dhis.webapi.controller.tracker.export.CompressionUtil;
 import org.hisp.dhis.webapi.controller.tracker.export.CsvService;
+import org.hisp.dhis.webapi.controller.tracker.export.ExportWriter;
 import org.hisp.dhis.webapi.controller.tracker.export.OpenApiExport;
 import org.hisp.dhis.webapi.controller.tracker.view.TrackedEntity;
 import org.hisp.dhis.webapi.mvc.annotation.ApiVersion;
@@ -85,6 +89,9 @@ class TrackedEntitiesExportController {
 
   protected static final String TRACKED_ENTITIES = "trackedEntities";
 
+  /** Property holding the tracked entities of an unpaged response, as in {@link PagingWrapper}. */
+  private static final String INSTANCES = "instances";
+
   /**
    * Fields we need to fetch from the DB to fulfill requests for CSV. CSV cannot be filtered using
    * the {@link FieldFilterService} so <code>fields</code> query parameter is ignored when CSV is
@@ -108,17 +115,21 @@ class TrackedEntitiesExportController {
 
   private final TrackedEntityFieldsParamMapper fieldsMapper;
 
+  private final ObjectMapper objectMapper;
+
   public TrackedEntitiesExportController(
       TrackedEntityService trackedEntityService,
       TrackedEntityRequestParamsMapper paramsMapper,
       CsvService<TrackedEntity> csvEventService,
       FieldFilterService fieldFilterService,
-      TrackedEntityFieldsParamMapper fieldsMapper) {
+      TrackedEntityFieldsParamMapper fieldsMapper,
+      ObjectMapper objectMapper) {
     this.trackedEntityService = trackedEntityService;
     this.paramsMapper = paramsMapper;
     this.csvEventService = csvEventService;
     this.fieldFilterService = fieldFilterService;
     this.fieldsMapper = fieldsMapper;
+    this.objectMapper = objectMapper;
 
     assertUserOrderableFieldsAreSupported(
         "tracked entity",
@@ -164,6 +175,7 @@ class TrackedEntitiesExportController {
       return pagingWrapper.withInstances(objectNodes);
     }
 
+    // skipPaging=true is streamed, other spellings of it are still collected here
     List<org.hisp.dhis.trackedentity.TrackedEntity> trackedEntities =
         trackedEntityService.getTrackedEntities(operationParams);
     List<ObjectNode> objectNodes =
@@ -174,6 +186,32 @@ class TrackedEntitiesExportController {
     return pagingWrapper.withInstances(objectNodes);
   }
 
+  /**
+   * Writes unpaged tracked entities to the response as they are read instead of collecting them
+   * first.
+   */
+  @GetMapping(produces = APPLICATION_JSON_VALUE, params = "skipPaging=true")
+  void getTrackedEntitiesAsJsonStream(
+      TrackedEntityRequestParams trackedEntityRequestParams,
+      @CurrentUser User currentUser,
+      HttpServletResponse response)
+      throws BadRequestException, ForbiddenException, NotFoundException, IOException {
+    validatePaginationParameters(trackedEntityRequestParams);
+    TrackedEntityOperationParams operationParams =
+        paramsMapper.map(trackedEntityRequestParams, currentUser);
+
+    List<FieldPath> fields = trackedEntityRequestParams.getFields();
+    response.setContentType(APPLICATION_JSON_VALUE);
+
+    streamTrackedEntities(
+        operationParams,
+        ExportWriter.jsonObject(
+            objectMapper.writer(),
+            response::getOutputStream,
+            INSTANCES,
+            trackedEntity -> fieldFilterService.toObjectNode(trackedEntity, fields)));
+  }
+
   @GetMapping(produces = {CONTENT_TYPE_CSV, CONTENT_TYPE_TEXT_CSV})
   void getTrackedEntitiesAsCsv(
       TrackedEntityRequestParams trackedEntityRequestParams,
@@ -190,11 +228,8 @@ class TrackedEntitiesExportController {
     response.setHeader(
         HttpHeaders.CONTENT_DISPOSITION, getContentDispositionHeaderValue(attachment));
 
-    csvEventService.write(
-        response.getOutputStream(),
-        TRACKED_ENTITY_MAPPER.fromCollection(
-            trackedEntityService.getTrackedEntities(operationParams)),
-        !skipHeader);
+    streamTrackedEntities(
+        operationParams, csvEventService.writer(response::getOutputStream, !skipHeader));
   }
 
   @GetMapping(produces = {CONTENT_TYPE_CSV_ZIP})
@@ -207,8 +242,6 @@ class TrackedEntitiesExportController {
     TrackedEntityOperationParams operationParams =
         paramsMapper.map(trackedEntityRequestParams, user, CSV_FIELDS);
 
-    OutputStream outputStream = response.getOutputStream();
-
     String attachment =
         getAttachmentOrDefault(trackedEntityRequestParams.getAttachment(), "csv", "zip");
 
@@ -219,12 +252,10 @@ class TrackedEntitiesExportController {
     response.setHeader(
         HttpHeaders.CONTENT_DISPOSITION, getContentDispositionHeaderValue(attachment));
 
-    csvEventService.writeZip(
-        outputStream,
-        TRACKED_ENTITY_MAPPER.fromCollection(
-            trackedEntityService.getTrackedEntities(operationParams)),
-        !skipHeader,
-        attachment);
+    streamTrackedEntities(
+        operationParams,
+        csvEventService.writer(
+            () -> CompressionUtil.zip(response.getOutputStream(), attachment), !skipHeader));
   }
 
   @GetMapping(produces = {CONTENT_TYPE_CSV_GZIP})
@@ -247,11 +278,28 @@ class TrackedEntitiesExportController {
     response.setHeader(
         HttpHeaders.CONTENT_DISPOSITION, getContentDispositionHeaderValue(attachment));
 
-    csvEventService.writeGzip(
-        response.getOutputStream(),
-        TRACKED_ENTITY_MAPPER.fromCollection(
-            trackedEntityService.getTrackedEntities(operationParams)),
-        !skipHeader);
+    streamTrackedEntities(
+        operationParams,
+        csvEventService.writer(
+            () -> CompressionUtil.gzip(response.getOutputStream()), !skipHeader));
+  }
+
+  /**
+   * Writes tracked entities to the response as they are read, so that exports of any size are
+   * written with bounded memory.
+   */
+  private void streamTrackedEntities(
+      TrackedEntityOperationParams operationParams, ExportWriter<TrackedEntity> writer)
+      throws IOException, BadRequestException, ForbiddenException, NotFoundException {
+    try {
+      trackedEntityService.streamTrackedEntities(
+          operationParams,
+          trackedEntity -> writer.writeUnchecked(TRACKED_ENTITY_MAPPER.from(trackedEntity)));
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+
+    writer.close();
   }
 
   private String getAttachmentOrDefault(String filename, String type, String compression) {
@@ -40,10 +40,12 @@ import javax.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.hisp.dhis.appmanager.App;
+import org.hisp.dhis.appmanager.AppAsset;
 import org.hisp.dhis.appmanager.AppManager;
 import org.hisp.dhis.appmanager.AppStatus;
 import org.hisp.dhis.commons.util.StreamUtils;
 import org.hisp.dhis.system.util.CodecUtils;
+import org.hisp.dhis.webapi.utils.AppAssetUtils;
 import org.hisp.dhis.webapi.utils.ContextUtils;
 import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Component;
@@ -122,6 +124,12 @@ public class AppOverrideFilter extends OncePerRequestFilter {
     }
     // Any other resource
     else {
+      AppAsset asset = appManager.getAppAsset(app, resourcePath);
+      if (asset != null) {
+        AppAssetUtils.writeAppAsset(asset, request, response);
+        return;
+      }
+
       // Retrieve file
       Resource resource = appManager.getAppResource(app, resourcePath);
       if (resource == null) {
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.webapi.utils;
+
+import static org.springframework.http.HttpHeaders.ACCEPT_ENCODING;
+import static org.springframework.http.HttpHeaders.CACHE_CONTROL;
+import static org.springframework.http.HttpHeaders.CONTENT_ENCODING;
+import static org.springframework.http.HttpHeaders.VARY;
+
+import java.io.IOException;
+import javax.annotation.CheckForNull;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.hisp.dhis.appmanager.AppAsset;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * Writes cached app files to the response, negotiating the content encoding with the client.
+ *
+ * @see AppAsset
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class AppAssetUtils {
+  private static final String ENCODING_BROTLI = "br";
+
+  private static final String ENCODING_GZIP = "gzip";
+
+  /** Content behind hashed file names never changes, so clients may keep it for a year. */
+  private static final String CACHE_CONTROL_IMMUTABLE = "public, max-age=31536000, immutable";
+
+  /**
+   * Writes the given asset to the response, using the brotli or gzip variant if accepted by the
+   * client, or responds with 304 if the client holds the current version.
+   *
+   * @param asset the asset.
+   * @param request the request.
+   * @param response the response.
+   */
+  public static void writeAppAsset(
+      AppAsset asset, HttpServletRequest request, HttpServletResponse response)
+      throws IOException {
+    String acceptEncoding = request.getHeader(ACCEPT_ENCODING);
+    String encoding = null;
+    byte[] content = asset.content();
+
+    if (asset.brotliContent() != null && accepts(acceptEncoding, ENCODING_BROTLI)) {
+      encoding = ENCODING_BROTLI;
+      content = asset.brotliContent();
+    } else if (asset.gzipContent() != null && accepts(acceptEncoding, ENCODING_GZIP)) {
+      encoding = ENCODING_GZIP;
+      content = asset.gzipContent();
+    }
+
+    response.setHeader(VARY, ACCEPT_ENCODING);
+
+    if (asset.isImmutable()) {
+      response.setHeader(CACHE_CONTROL, CACHE_CONTROL_IMMUTABLE);
+    }
+
+    if (new ServletWebRequest(request, response).checkNotModified(asset.getETag(encoding))) {
+      return;
+    }
+
+    String mimeType = request.getServletContext().getMimeType(asset.filename());
+
+    if (mimeType != null) {
+      response.setContentType(mimeType);
+    }
+
+    if (encoding != null) {
+      response.setHeader(CONTENT_ENCODING, encoding);
+    }
+
+    if (asset.lastModified() > 0) {
+      response.setDateHeader("Last-Modified", asset.lastModified());
+    }
+
+    response.setContentLength(content.length);
+    response.getOutputStream().write(content);
+  }
+
+  /**
+   * Indicates whether the given Accept-Encoding header value accepts the given encoding with a
+   * non-zero quality.
+   */
+  static boolean accepts(@CheckForNull String acceptEncoding, String encoding) {
+    if (acceptEncoding == null) {
+      return false;
+    }
+
+    double wildcardQuality = 0;
+
+    for (String part : acceptEncoding.split(",")) {
+      String[] params = part.split(";");
+      String name = params[0].trim();
+
+      if (name.equalsIgnoreCase(encoding)) {
+        return getQuality(params) > 0;
+      } else if ("*".equals(name)) {
+        wildcardQuality = getQuality(params);
+      }
+    }
+
+    return wildcardQuality > 0;
+  }
+
+  private static double getQuality(String[] params) {
+    for (int i = 1; i < params.length; i++) {
+      String param = params[i].trim();
+
+      if (param.startsWith("q=")) {
+        try {
+          return Double.parseDouble(param.substring(2));
+        } catch (NumberFormatException ex) {
+          return 0;
+        }
+      }
+    }
+
+    return 1;
+  }
+}
@@ -34,6 +34,7 @@ import static org.hisp.dhis.external.conf.ConfigurationKey.CSP_HEADER_VALUE;
 import static org.imgscalr.Scalr.resize;
 
 import com.google.common.hash.Hashing;
+import com.google.common.hash.HashingInputStream;
 import com.google.common.io.ByteSource;
 import java.awt.image.BufferedImage;
 import java.io.File;
@@ -41,10 +42,13 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.List;
 import java.util.Objects;
 import javax.imageio.ImageIO;
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.fileupload.FileItem;
@@ -63,9 +67,11 @@ import org.hisp.dhis.fileresource.ImageFileDimension;
 import org.imgscalr.Scalr;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.stereotype.Component;
 import org.springframework.util.InvalidMimeTypeException;
 import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.multipart.commons.CommonsMultipartFile;
 
@@ -86,17 +92,20 @@ public class FileResourceUtils {
   private static final int CUSTOM_ICON_TARGET_WIDTH = 48;
 
   /**
-   * Transfers the given multipart file content to a local temporary file.
+   * Transfers the given multipart file content to a local temporary file, computing the MD5 hash
+   * of the content while it is being copied so that the upload is only read once.
    *
    * @param multipartFile the multipart file.
-   * @return a temporary local file.
+   * @param tmpFile the temporary file to write the content to.
+   * @return the hex encoded MD5 hash of the content.
    * @throws IOException if the file content could not be transferred.
    */
-  public static File toTempFile(MultipartFile multipartFile) throws IOException {
-    File tmpFile = Files.createTempFile("org.hisp.dhis", ".tmp").toFile();
-    tmpFile.deleteOnExit();
-    multipartFile.transferTo(tmpFile);
-    return tmpFile;
+  private static String toTempFile(MultipartFile multipartFile, File tmpFile) throws IOException {
+    try (HashingInputStream in =
+        new HashingInputStream(Hashing.md5(), multipartFile.getInputStream())) {
+      Files.copy(in, tmpFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      return in.hash().toString();
+    }
   }
 
   /**
@@ -132,7 +141,7 @@ public class FileResourceUtils {
         file.getName(),
         file.getContentType(),
         file.getSize(),
-        ByteSource.wrap(file.getBytes()).hash(Hashing.md5()).toString(),
+        new MultipartFileByteSource(file).hash(Hashing.md5()).toString(),
         domain);
   }
 
@@ -166,6 +175,96 @@ public class FileResourceUtils {
     }
   }
 
+  /**
+   * Writes the content of the given file resource to the response. Conditional requests are
+   * answered from the ETag and last updated time of the file resource, and a single byte range
+   * requested through the {@code Range} header is served as a partial response, so that clients
+   * can resume downloads and seek in media without fetching the whole file. Content type and
+   * disposition headers must be set by the caller.
+   *
+   * @param request the request.
+   * @param response the response.
+   * @param fileResource the file resource.
+   * @param contentLength the length of the stored content.
+   * @throws IOException if the content could not be copied from the file store.
+   */
+  public void writeFileResourceContent(
+      HttpServletRequest request,
+      HttpServletResponse response,
+      FileResource fileResource,
+      long contentLength)
+      throws IOException {
+    String etag = getETag(fileResource);
+    long lastModified =
+        fileResource.getLastUpdated() != null ? fileResource.getLastUpdated().getTime() : -1;
+
+    response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+    if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+      return;
+    }
+
+    HttpRange range = getRange(request, etag);
+
+    if (range == null) {
+      response.setContentLengthLong(contentLength);
+      fileResourceService.copyFileResourceContent(fileResource, response.getOutputStream());
+      return;
+    }
+
+    long start = range.getRangeStart(contentLength);
+
+    if (start >= contentLength) {
+      response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+      response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + contentLength);
+      return;
+    }
+
+    long end = range.getRangeEnd(contentLength);
+    long length = end - start + 1;
+
+    response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+    response.setHeader(
+        HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + contentLength);
+    response.setContentLengthLong(length);
+    fileResourceService.copyFileResourceContent(
+        fileResource, response.getOutputStream(), start, length);
+  }
+
+  /**
+   * Returns the single byte range requested by the given request, or null if the full content
+   * should be served. Multiple ranges, malformed headers and ranges whose {@code If-Range}
+   * validator does not match the current ETag are answered with the full content.
+   */
+  private static HttpRange getRange(HttpServletRequest request, String etag) {
+    String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+    String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+
+    if (rangeHeader == null || (ifRange != null && !ifRange.equals(etag))) {
+      return null;
+    }
+
+    try {
+      List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+      return ranges.size() == 1 ? ranges.get(0) : null;
+    } catch (IllegalArgumentException ex) {
+      return null;
+    }
+  }
+
+  /**
+   * Returns a strong ETag for the stored content of the file resource, derived from the storage
+   * key, which differs between image dimensions, and the content hash.
+   */
+  private static String getETag(FileResource fileResource) {
+    return "\""
+        + Hashing.sha256()
+            .hashString(
+                fileResource.getStorageKey() + ":" + fileResource.getContentMd5(),
+                StandardCharsets.UTF_8)
+        + "\"";
+  }
+
   public FileResource saveFileResource(MultipartFile file, FileResourceDomain domain)
       throws WebMessageException, IOException {
     return saveFileResource(null, file, domain);
@@ -196,20 +295,20 @@ public class FileResourceUtils {
       throw new WebMessageException(conflict("Could not read file or file is empty."));
     }
 
-    ByteSource bytes = new MultipartFileByteSource(file);
+    if (uid != null && fileResourceService.fileResourceExists(uid)) {
+      throw new WebMessageException(
+          conflict(ErrorCode.E1119, FileResource.class.getSimpleName(), uid));
+    }
+
+    File tmpFile = Files.createTempFile("org.hisp.dhis", ".tmp").toFile();
+    tmpFile.deleteOnExit();
 
-    String contentMd5 = bytes.hash(Hashing.md5()).toString();
+    String contentMd5 = toTempFile(file, tmpFile);
 
     FileResource fileResource =
         new FileResource(filename, contentType, contentLength, contentMd5, domain);
     fileResource.setUid(uid);
 
-    File tmpFile = toTempFile(file);
-
-    if (uid != null && fileResourceService.fileResourceExists(uid)) {
-      throw new WebMessageException(
-          conflict(ErrorCode.E1119, FileResource.class.getSimpleName(), uid));
-    }
     fileResourceService.asyncSaveFileResource(fileResource, tmpFile);
     return fileResource;
   }
@@ -218,7 +317,7 @@ public class FileResourceUtils {
   // Inner classes
   // -------------------------------------------------------------------------
 
-  private class MultipartFileByteSource extends ByteSource {
+  private static class MultipartFileByteSource extends ByteSource {
     private MultipartFile file;
 
     public MultipartFileByteSource(MultipartFile file) {
@@ -27,8 +27,8 @@
  */
 package org.hisp.dhis.webapi.controller.tracker.export;
 
-import static org.hisp.dhis.webapi.controller.tracker.export.CompressionUtil.writeGzip;
-import static org.hisp.dhis.webapi.controller.tracker.export.CompressionUtil.writeZip;
+import static org.hisp.dhis.webapi.controller.tracker.export.CompressionUtil.gzip;
+import static org.hisp.dhis.webapi.controller.tracker.export.CompressionUtil.zip;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
@@ -69,7 +69,7 @@ class CompressionUtilTest {
 
     List<Event> eventToZip = getEvents();
 
-    writeZip(outputStream, eventToZip, objectMapper.writer(), "file.json.zip");
+    objectMapper.writer().writeValue(zip(outputStream, "file.json.zip"), eventToZip);
 
     ZipInputStream zipInputStream =
         new ZipInputStream(new ByteArrayInputStream(outputStream.toByteArray()));
@@ -113,7 +113,7 @@ class CompressionUtilTest {
 
     List<Event> eventToGZip = getEvents();
 
-    writeGzip(outputStream, eventToGZip, objectMapper.writer());
+    objectMapper.writer().writeValue(gzip(outputStream), eventToGZip);
 
     GZIPInputStream gzipInputStream =
         new GZIPInputStream(new ByteArrayInputStream(outputStream.toByteArray()));
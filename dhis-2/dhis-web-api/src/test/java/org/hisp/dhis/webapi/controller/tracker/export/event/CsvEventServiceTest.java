@@ -47,6 +47,8 @@ import java.util.zip.GZIPInputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import org.hisp.dhis.event.EventStatus;
+import org.hisp.dhis.webapi.controller.tracker.export.CompressionUtil;
+import org.hisp.dhis.webapi.controller.tracker.export.ExportWriter;
 import org.hisp.dhis.webapi.controller.tracker.view.DataValue;
 import org.hisp.dhis.webapi.controller.tracker.view.Event;
 import org.hisp.dhis.webapi.controller.tracker.view.User;
@@ -239,7 +241,12 @@ class CsvEventServiceTest {
 
     List<Event> events = service.read(inputStream, false);
 
-    service.writeZip(outputStream, events, false, "file.json.zip");
+    ExportWriter<Event> writer =
+        service.writer(() -> CompressionUtil.zip(outputStream, "file.json.zip"), false);
+    for (Event e : events) {
+      writer.write(e);
+    }
+    writer.close();
 
     ZipInputStream zipInputStream =
         new ZipInputStream(new ByteArrayInputStream(outputStream.toByteArray()));
@@ -274,7 +281,11 @@ eventId,COMPLETED,programId,programStageId,enrollmentId,orgUnitId,2020-02-26T23:
     InputStream inputStream = Files.asByteSource(event).openStream();
 
     List<Event> events = service.read(inputStream, false);
-    service.writeGzip(outputStream, events, false);
+    ExportWriter<Event> writer = service.writer(() -> CompressionUtil.gzip(outputStream), false);
+    for (Event e : events) {
+      writer.write(e);
+    }
+    writer.close();
 
     GZIPInputStream gzipInputStream =
         new GZIPInputStream(new ByteArrayInputStream(outputStream.toByteArray()));
@@ -293,4 +304,29 @@ eventId,COMPLETED,programId,programStageId,enrollmentId,orgUnitId,2020-02-26T23:
         csvStream.toString(),
         "The event does not match or not exists in the GZip File.");
   }
+
+  @Test
+  void writerWritesHeaderOnceAndRowsOfEveryEvent() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    ExportWriter<Event> writer = service.writer(() -> out, true);
+    writer.write(Event.builder().event("BuA2R2Gr4vt").status(EventStatus.ACTIVE).build());
+    writer.write(Event.builder().event("kWjSezkXHVp").status(EventStatus.COMPLETED).build());
+    writer.close();
+
+    String[] lines = out.toString().split("\n");
+    assertEquals(3, lines.length);
+    assertTrue(lines[0].startsWith("event,status,"), lines[0]);
+    assertTrue(lines[1].startsWith("BuA2R2Gr4vt,ACTIVE,"), lines[1]);
+    assertTrue(lines[2].startsWith("kWjSezkXHVp,COMPLETED,"), lines[2]);
+  }
+
+  @Test
+  void writerDoesNotOpenStreamBeforeFirstEvent() {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    service.writer(() -> CompressionUtil.gzip(out), false);
+
+    assertEquals(0, out.size());
+  }
 }
@@ -43,6 +43,8 @@ import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import org.geotools.geojson.geom.GeometryJSON;
 import org.hisp.dhis.common.ValueType;
+import org.hisp.dhis.webapi.controller.tracker.export.CompressionUtil;
+import org.hisp.dhis.webapi.controller.tracker.export.ExportWriter;
 import org.hisp.dhis.webapi.controller.tracker.view.Attribute;
 import org.hisp.dhis.webapi.controller.tracker.view.TrackedEntity;
 import org.junit.jupiter.api.Test;
@@ -159,7 +161,12 @@ class CsvTrackedEntityServiceTest {
 
     trackedEntities.add(getTrackedEntityToCompress());
 
-    service.writeZip(outputStream, trackedEntities, false, "file.json.zip");
+    ExportWriter<TrackedEntity> writer =
+        service.writer(() -> CompressionUtil.zip(outputStream, "file.json.zip"), false);
+    for (TrackedEntity trackedEntity : trackedEntities) {
+      writer.write(trackedEntity);
+    }
+    writer.close();
 
     ZipInputStream zipInputStream =
         new ZipInputStream(new ByteArrayInputStream(outputStream.toByteArray()));
@@ -193,7 +200,12 @@ class CsvTrackedEntityServiceTest {
 
     trackedEntities.add(getTrackedEntityToCompress());
 
-    service.writeGzip(outputStream, trackedEntities, false);
+    ExportWriter<TrackedEntity> writer =
+        service.writer(() -> CompressionUtil.gzip(outputStream), false);
+    for (TrackedEntity trackedEntity : trackedEntities) {
+      writer.write(trackedEntity);
+    }
+    writer.close();
 
     GZIPInputStream gzipInputStream =
         new GZIPInputStream(new ByteArrayInputStream(outputStream.toByteArray()));
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.webapi.utils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.hisp.dhis.appmanager.AppAsset;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/** Unit tests for {@link AppAssetUtils}. */
+class AppAssetUtilsTest {
+  private static final byte[] CONTENT = "console.log('app');".getBytes(StandardCharsets.UTF_8);
+
+  private static final byte[] GZIP_CONTENT = {1, 2, 3};
+
+  @Test
+  void testWriteAppAssetGzip() throws IOException {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+    request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    AppAssetUtils.writeAppAsset(asset("main.3f2a1b4c.js"), request, response);
+
+    assertEquals(200, response.getStatus());
+    assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+    assertEquals("\"abc-gzip\"", response.getHeader(HttpHeaders.ETAG));
+    assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getHeader(HttpHeaders.VARY));
+    assertEquals(
+        "public, max-age=31536000, immutable", response.getHeader(HttpHeaders.CACHE_CONTROL));
+    assertArrayEquals(GZIP_CONTENT, response.getContentAsByteArray());
+  }
+
+  @Test
+  void testWriteAppAssetUncompressed() throws IOException {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    AppAssetUtils.writeAppAsset(asset("index.html"), request, response);
+
+    assertEquals(200, response.getStatus());
+    assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+    assertNull(response.getHeader(HttpHeaders.CACHE_CONTROL));
+    assertEquals("\"abc\"", response.getHeader(HttpHeaders.ETAG));
+    assertEquals("text/html", response.getContentType());
+    assertArrayEquals(CONTENT, response.getContentAsByteArray());
+  }
+
+  @Test
+  void testWriteAppAssetImmutableOnlyForHashedNames() throws IOException {
+    assertEquals("public, max-age=31536000, immutable", getCacheControl("vendor-8e1f0c2d9a.css"));
+    assertNull(getCacheControl("report-20240101.json"));
+    assertNull(getCacheControl("data.20240101.js"));
+    assertNull(getCacheControl("manifest.webapp"));
+  }
+
+  @Test
+  void testWriteAppAssetNotModified() throws IOException {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+    request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+    request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"abc-gzip\"");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    AppAssetUtils.writeAppAsset(asset("index.html"), request, response);
+
+    assertEquals(304, response.getStatus());
+    assertEquals(0, response.getContentAsByteArray().length);
+  }
+
+  @Test
+  void testAccepts() {
+    assertTrue(AppAssetUtils.accepts("gzip, deflate", "gzip"));
+    assertTrue(AppAssetUtils.accepts("GZIP;q=0.5", "gzip"));
+    assertTrue(AppAssetUtils.accepts("*", "br"));
+    assertFalse(AppAssetUtils.accepts("*, br;q=0", "br"));
+    assertFalse(AppAssetUtils.accepts("gzip;q=0", "gzip"));
+    assertFalse(AppAssetUtils.accepts("deflate", "gzip"));
+    assertFalse(AppAssetUtils.accepts(null, "gzip"));
+  }
+
+  private static String getCacheControl(String filename) throws IOException {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    AppAssetUtils.writeAppAsset(asset(filename), request, response);
+
+    return response.getHeader(HttpHeaders.CACHE_CONTROL);
+  }
+
+  private static AppAsset asset(String filename) {
+    return new AppAsset(filename, CONTENT, GZIP_CONTENT, null, "abc", 0);
+  }
+}
@@ -28,7 +28,13 @@
 package org.hisp.dhis.webapi.utils;
 
 import static org.hisp.dhis.utils.Assertions.assertContains;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.awt.image.BufferedImage;
@@ -36,11 +42,17 @@ import java.io.IOException;
 import java.io.InputStream;
 import javax.imageio.ImageIO;
 import org.hisp.dhis.common.IllegalQueryException;
+import org.hisp.dhis.fileresource.FileResource;
+import org.hisp.dhis.fileresource.FileResourceService;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -49,6 +61,10 @@ class FileResourceUtilsTest {
 
   @Mock private MultipartFile multipartFile;
 
+  @Mock private FileResourceService fileResourceService;
+
+  @InjectMocks private FileResourceUtils fileResourceUtils;
+
   @Test
   void shouldWorkWhenCustomIconIsValid() {
     when(multipartFile.getOriginalFilename()).thenReturn("OU_profile_image.png");
@@ -92,4 +108,72 @@ class FileResourceUtilsTest {
     Assertions.assertEquals(48, bufferedImage.getWidth());
     Assertions.assertEquals(48, bufferedImage.getHeight());
   }
+
+  @Test
+  void shouldWriteFullContentWithoutRange() throws IOException {
+    FileResource fileResource = createFileResource();
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    fileResourceUtils.writeFileResourceContent(
+        new MockHttpServletRequest("GET", "/"), response, fileResource, 10);
+
+    assertEquals(200, response.getStatus());
+    assertEquals("bytes", response.getHeader(HttpHeaders.ACCEPT_RANGES));
+    assertEquals(10, response.getContentLengthLong());
+    verify(fileResourceService).copyFileResourceContent(any(), any());
+  }
+
+  @Test
+  void shouldWritePartialContentForRange() throws IOException {
+    FileResource fileResource = createFileResource();
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+    request.addHeader(HttpHeaders.RANGE, "bytes=2-5");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    fileResourceUtils.writeFileResourceContent(request, response, fileResource, 10);
+
+    assertEquals(206, response.getStatus());
+    assertEquals("bytes 2-5/10", response.getHeader(HttpHeaders.CONTENT_RANGE));
+    assertEquals(4, response.getContentLengthLong());
+    verify(fileResourceService).copyFileResourceContent(any(), any(), eq(2L), eq(4L));
+  }
+
+  @Test
+  void shouldRejectUnsatisfiableRange() throws IOException {
+    FileResource fileResource = createFileResource();
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+    request.addHeader(HttpHeaders.RANGE, "bytes=20-");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    fileResourceUtils.writeFileResourceContent(request, response, fileResource, 10);
+
+    assertEquals(416, response.getStatus());
+    assertEquals("bytes */10", response.getHeader(HttpHeaders.CONTENT_RANGE));
+    verify(fileResourceService, never())
+        .copyFileResourceContent(any(), any(), anyLong(), anyLong());
+  }
+
+  @Test
+  void shouldAnswerNotModifiedForMatchingETag() throws IOException {
+    FileResource fileResource = createFileResource();
+    MockHttpServletResponse first = new MockHttpServletResponse();
+    fileResourceUtils.writeFileResourceContent(
+        new MockHttpServletRequest("GET", "/"), first, fileResource, 10);
+
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+    request.addHeader(HttpHeaders.IF_NONE_MATCH, first.getHeader(HttpHeaders.ETAG));
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    fileResourceUtils.writeFileResourceContent(request, response, fileResource, 10);
+
+    assertEquals(304, response.getStatus());
+    verify(fileResourceService).copyFileResourceContent(any(), any());
+  }
+
+  private static FileResource createFileResource() {
+    FileResource fileResource = new FileResource();
+    fileResource.setStorageKey("document/abc");
+    fileResource.setContentMd5("d41d8cd98f00b204e9800998ecf8427e");
+    return fileResource;
+  }
 }